@@ -11,6 +11,7 @@ java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies
   --proto_path=../wire-runtime/src/test/proto \
   --java_out=../wire-runtime/src/test/proto-java \
   --enum_options=squareup.protos.custom_options.enum_value_option,squareup.protos.custom_options.complex_enum_value_option,squareup.protos.foreign.foreign_enum_value_option \
+  --lazy_fields \
   ${PROTOS}
 
 # NO OPTIONS
@@ -49,6 +50,84 @@ java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies
 cp src/test/proto-java.compact/com/squareup/wire/protos/alltypes/AllTypes.java \
    src/test/proto-java/com/squareup/wire/protos/alltypes/AllTypes.java.compact
 
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java \
+  --compact \
+  --lazy_fields \
+  compact_message.proto
+
+# PRIMITIVE LISTS
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java.primitiveLists \
+  --primitive_lists \
+  repeated_and_packed.proto
+
+cp src/test/proto-java.primitiveLists/com/squareup/wire/protos/RepeatedAndPacked.java \
+   src/test/proto-java/com/squareup/wire/protos/RepeatedAndPacked.java.primitiveLists
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java \
+  --primitive_lists \
+  primitive_lists.proto
+
+# PRIMITIVE FIELDS
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java.primitiveFields \
+  --primitive_fields \
+  all_types.proto
+
+cp src/test/proto-java.primitiveFields/com/squareup/wire/protos/alltypes/AllTypes.java \
+   src/test/proto-java/com/squareup/wire/protos/alltypes/AllTypes.java.primitiveFields
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java \
+  --primitive_fields \
+  primitive_fields.proto
+
+# REVERSE ENCODERS
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java.reverseEncoders \
+  --reverse_encoders \
+  all_types.proto
+
+cp src/test/proto-java.reverseEncoders/com/squareup/wire/protos/alltypes/AllTypes.java \
+   src/test/proto-java/com/squareup/wire/protos/alltypes/AllTypes.java.reverseEncoders
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java \
+  --reverse_encoders \
+  --lazy_fields \
+  reverse_encoders.proto
+
+# BYTE BUFFERS
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java \
+  --byte_buffers \
+  byte_buffers.proto
+
+# ADAPTER REGISTRY
+
+java -jar ../wire-compiler/target/wire-compiler-*-SNAPSHOT-jar-with-dependencies.jar \
+  --proto_path=../wire-runtime/src/test/proto \
+  --java_out=../wire-runtime/src/test/proto-java.adapterRegistry \
+  --adapter_registry=com.squareup.wire.protos.person.PersonAdapters \
+  person.proto
+
+cp src/test/proto-java.adapterRegistry/com/squareup/wire/protos/person/PersonAdapters.java \
+   src/test/proto-java/com/squareup/wire/protos/person/PersonAdapters.java
+
 # GSON (uses COMPACT)
 
 cp src/test/proto-java.compact/com/squareup/wire/protos/alltypes/AllTypes.java \
@@ -57,3 +136,7 @@ cp src/test/proto-java.compact/com/squareup/wire/protos/alltypes/AllTypes.java \
 rm -r src/test/proto-java.noOptions
 rm -r src/test/proto-java.compact
 rm -r src/test/proto-java.android
+rm -r src/test/proto-java.primitiveLists
+rm -r src/test/proto-java.primitiveFields
+rm -r src/test/proto-java.reverseEncoders
+rm -r src/test/proto-java.adapterRegistry
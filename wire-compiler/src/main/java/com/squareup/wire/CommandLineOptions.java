@@ -35,6 +35,12 @@ final class CommandLineOptions {
   public static final String DRY_RUN_FLAG = "--dry_run";
   public static final String ANDROID = "--android";
   public static final String COMPACT = "--compact";
+  public static final String PRIMITIVE_LISTS = "--primitive_lists";
+  public static final String PRIMITIVE_FIELDS = "--primitive_fields";
+  public static final String REVERSE_ENCODERS = "--reverse_encoders";
+  public static final String ADAPTER_REGISTRY = "--adapter_registry=";
+  public static final String LAZY_FIELDS = "--lazy_fields";
+  public static final String BYTE_BUFFERS = "--byte_buffers";
 
   final List<String> protoPaths;
   final String javaOut;
@@ -46,11 +52,27 @@ final class CommandLineOptions {
   final boolean dryRun;
   final boolean emitAndroid;
   final boolean emitCompact;
+  final boolean emitPrimitiveLists;
+  final boolean emitPrimitiveFields;
+  final boolean emitReverseEncoders;
+  final String adapterRegistry;
+  final boolean emitLazyFields;
+  final boolean emitByteBuffers;
 
+  /**
+   * Options that generate code the way earlier releases did. The code generation flags added since,
+   * like {@link #LAZY_FIELDS}, are only set from the command line and are off here.
+   */
   CommandLineOptions(String protoPath, String javaOut, List<String> sourceFileNames,
       List<String> roots, boolean emitOptions, Set<String> enumOptions, boolean quiet,
       boolean dryRun, boolean emitAndroid, boolean emitCompact) {
     this.emitCompact = emitCompact;
+    this.emitPrimitiveLists = false;
+    this.emitPrimitiveFields = false;
+    this.emitReverseEncoders = false;
+    this.adapterRegistry = null;
+    this.emitLazyFields = false;
+    this.emitByteBuffers = false;
     this.protoPaths = Arrays.asList(protoPath);
     this.javaOut = javaOut;
     this.sourceFileNames = sourceFileNames;
@@ -78,6 +100,12 @@ final class CommandLineOptions {
    *     [--dry_run]
    *     [--android]
    *     [--compact]
+   *     [--primitive_lists]
+   *     [--primitive_fields]
+   *     [--reverse_encoders]
+   *     [--adapter_registry=&lt;class_name&gt;]
+   *     [--lazy_fields]
+   *     [--byte_buffers]
    *     [file [file...]]
    * </pre>
    *
@@ -113,6 +141,29 @@ final class CommandLineOptions {
    * <p>
    * The {@code --compact} flag will emit code that uses reflection for reading, writing, and
    * toString methods which are normally implemented with code generation.
+   * <p>
+   * The {@code --primitive_lists} flag will store repeated numeric and boolean fields in lists like
+   * {@code IntList} that don't box their values.
+   * <p>
+   * The {@code --primitive_fields} flag will store optional and required numeric and boolean fields
+   * as primitives, tracking which fields are present in a bitset. It is ignored with
+   * {@code --compact}.
+   * <p>
+   * The {@code --reverse_encoders} flag will also emit adapter methods that encode messages with a
+   * {@code ReverseProtoWriter}, which writes back to front in a single pass. It is ignored with
+   * {@code --compact}.
+   * <p>
+   * If the {@code --adapter_registry} flag is present, its argument must be a Java class name. A
+   * class with that name will be generated whose {@code get()} method returns the adapter for any
+   * message or enum generated during the compile, given its fully-qualified proto name, without
+   * reflection.
+   * <p>
+   * The {@code --lazy_fields} flag will hold message fields declared with {@code [lazy = true]} in
+   * {@code Lazy} wrappers that aren't decoded until they are accessed. Without it that option is
+   * ignored.
+   * <p>
+   * The {@code --byte_buffers} flag will hold {@code bytes} fields in read-only {@code ByteBuffer}
+   * values that share the storage of the input they were decoded from, rather than in copies.
    */
   CommandLineOptions(String... args) throws WireException {
     List<String> sourceFileNames = new ArrayList<>();
@@ -126,6 +177,12 @@ final class CommandLineOptions {
     boolean dryRun = false;
     boolean emitAndroid = false;
     boolean emitCompact = false;
+    boolean emitPrimitiveLists = false;
+    boolean emitPrimitiveFields = false;
+    boolean emitReverseEncoders = false;
+    String adapterRegistry = null;
+    boolean emitLazyFields = false;
+    boolean emitByteBuffers = false;
 
     for (String arg : args) {
       if (arg.startsWith(PROTO_PATH_FLAG)) {
@@ -155,6 +212,18 @@ final class CommandLineOptions {
         emitAndroid = true;
       } else if (arg.equals(COMPACT)) {
         emitCompact = true;
+      } else if (arg.equals(PRIMITIVE_LISTS)) {
+        emitPrimitiveLists = true;
+      } else if (arg.equals(PRIMITIVE_FIELDS)) {
+        emitPrimitiveFields = true;
+      } else if (arg.equals(REVERSE_ENCODERS)) {
+        emitReverseEncoders = true;
+      } else if (arg.startsWith(ADAPTER_REGISTRY)) {
+        adapterRegistry = arg.substring(ADAPTER_REGISTRY.length());
+      } else if (arg.equals(LAZY_FIELDS)) {
+        emitLazyFields = true;
+      } else if (arg.equals(BYTE_BUFFERS)) {
+        emitByteBuffers = true;
       } else if (arg.startsWith("--")) {
         throw new IllegalArgumentException("Unknown argument '" + arg + "'.");
       } else {
@@ -172,6 +241,12 @@ final class CommandLineOptions {
     this.dryRun = dryRun;
     this.emitAndroid = emitAndroid;
     this.emitCompact = emitCompact;
+    this.emitPrimitiveLists = emitPrimitiveLists;
+    this.emitPrimitiveFields = emitPrimitiveFields;
+    this.emitReverseEncoders = emitReverseEncoders;
+    this.adapterRegistry = adapterRegistry;
+    this.emitLazyFields = emitLazyFields;
+    this.emitByteBuffers = emitByteBuffers;
   }
 
   private static List<String> splitArg(String arg, int flagLength) {
@@ -30,6 +30,8 @@ import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /** Compiler for Wire protocol buffers. */
 public final class WireCompiler {
@@ -86,8 +88,14 @@ public final class WireCompiler {
     JavaGenerator javaGenerator = JavaGenerator.get(schema)
         .withOptions(options.emitOptions, options.enumOptions)
         .withAndroid(options.emitAndroid)
-        .withCompact(options.emitCompact);
+        .withCompact(options.emitCompact)
+        .withPrimitiveLists(options.emitPrimitiveLists)
+        .withPrimitiveFields(options.emitPrimitiveFields)
+        .withReverseEncoders(options.emitReverseEncoders)
+        .withLazyFields(options.emitLazyFields)
+        .withByteBuffers(options.emitByteBuffers);
 
+    List<Type> emittedTypes = new ArrayList<>();
     for (ProtoFile protoFile : schema.protoFiles()) {
       if (!options.sourceFileNames.contains(protoFile.location().path())) {
         continue; // Don't emit anything for files not explicitly compiled.
@@ -99,8 +107,15 @@ public final class WireCompiler {
             ? javaGenerator.generateMessage((MessageType) type)
             : javaGenerator.generateEnum((EnumType) type);
         writeJavaFile(javaTypeName, typeSpec, type.location());
+        emittedTypes.add(type);
       }
     }
+
+    if (options.adapterRegistry != null) {
+      ClassName registryName = ClassName.bestGuess(options.adapterRegistry);
+      TypeSpec typeSpec = javaGenerator.generateAdapterRegistry(registryName, emittedTypes);
+      writeJavaFile(registryName, typeSpec, null);
+    }
   }
 
   private void writeJavaFile(ClassName javaTypeName, TypeSpec typeSpec, Location location)
@@ -66,6 +66,7 @@ public class WireCompilerTest {
     args.add("--enum_options=squareup.protos.custom_options.enum_value_option,"
         + "squareup.protos.custom_options.complex_enum_value_option,"
         + "squareup.protos.foreign.foreign_enum_value_option");
+    args.add("--lazy_fields");
     args.addAll(Arrays.asList(sources));
     invokeCompiler(args.toArray(new String[args.size()]));
 
@@ -102,6 +103,7 @@ public class WireCompilerTest {
     args.add("--proto_path=../wire-runtime/src/test/proto");
     args.add("--java_out=" + testDir.getAbsolutePath());
     args.add("--compact");
+    args.add("--lazy_fields");
     args.addAll(Arrays.asList(sources));
     invokeCompiler(args.toArray(new String[args.size()]));
 
@@ -115,6 +117,98 @@ public class WireCompilerTest {
     }
   }
 
+  private void testProtoPrimitiveLists(String[] sources, String[] outputs) throws Exception {
+    List<String> args = new ArrayList<>();
+    args.add("--proto_path=../wire-runtime/src/test/proto");
+    args.add("--java_out=" + testDir.getAbsolutePath());
+    args.add("--primitive_lists");
+    args.addAll(Arrays.asList(sources));
+    invokeCompiler(args.toArray(new String[args.size()]));
+
+    List<String> filesAfter = getAllFiles(testDir);
+    assertThat(filesAfter.size())
+        .overridingErrorMessage(filesAfter.toString())
+        .isEqualTo(outputs.length);
+
+    for (String output : outputs) {
+      assertFilesMatchPrimitiveLists(testDir, output);
+    }
+  }
+
+  private void testProtoPrimitiveFields(String[] sources, String[] outputs) throws Exception {
+    List<String> args = new ArrayList<>();
+    args.add("--proto_path=../wire-runtime/src/test/proto");
+    args.add("--java_out=" + testDir.getAbsolutePath());
+    args.add("--primitive_fields");
+    args.addAll(Arrays.asList(sources));
+    invokeCompiler(args.toArray(new String[args.size()]));
+
+    List<String> filesAfter = getAllFiles(testDir);
+    assertThat(filesAfter.size())
+        .overridingErrorMessage(filesAfter.toString())
+        .isEqualTo(outputs.length);
+
+    for (String output : outputs) {
+      assertFilesMatchPrimitiveFields(testDir, output);
+    }
+  }
+
+  private void testProtoReverseEncoders(String[] sources, String[] outputs) throws Exception {
+    List<String> args = new ArrayList<>();
+    args.add("--proto_path=../wire-runtime/src/test/proto");
+    args.add("--java_out=" + testDir.getAbsolutePath());
+    args.add("--reverse_encoders");
+    args.add("--lazy_fields");
+    args.addAll(Arrays.asList(sources));
+    invokeCompiler(args.toArray(new String[args.size()]));
+
+    List<String> filesAfter = getAllFiles(testDir);
+    assertThat(filesAfter.size())
+        .overridingErrorMessage(filesAfter.toString())
+        .isEqualTo(outputs.length);
+
+    for (String output : outputs) {
+      assertFilesMatchReverseEncoders(testDir, output);
+    }
+  }
+
+  private void testProtoByteBuffers(String[] sources, String[] outputs) throws Exception {
+    List<String> args = new ArrayList<>();
+    args.add("--proto_path=../wire-runtime/src/test/proto");
+    args.add("--java_out=" + testDir.getAbsolutePath());
+    args.add("--byte_buffers");
+    args.addAll(Arrays.asList(sources));
+    invokeCompiler(args.toArray(new String[args.size()]));
+
+    List<String> filesAfter = getAllFiles(testDir);
+    assertThat(filesAfter.size())
+        .overridingErrorMessage(filesAfter.toString())
+        .isEqualTo(outputs.length);
+
+    for (String output : outputs) {
+      assertFilesMatch(testDir, output);
+    }
+  }
+
+  private void testProtoAdapterRegistry(String registryClass, String[] sources, String[] outputs)
+      throws Exception {
+    List<String> args = new ArrayList<>();
+    args.add("--proto_path=../wire-runtime/src/test/proto");
+    args.add("--java_out=" + testDir.getAbsolutePath());
+    args.add("--adapter_registry=" + registryClass);
+    args.addAll(Arrays.asList(sources));
+    invokeCompiler(args.toArray(new String[args.size()]));
+
+    List<String> filesAfter = getAllFiles(testDir);
+    assertThat(filesAfter.size())
+        .overridingErrorMessage(filesAfter.toString())
+        .isEqualTo(outputs.length);
+
+    for (String output : outputs) {
+      assertFilesMatch(testDir, output);
+    }
+  }
+
   private void testProtoNoOptions(String[] sources, String[] outputs) throws Exception {
     int numFlags = 4;
     String[] args = new String[numFlags + sources.length];
@@ -210,6 +304,17 @@ public class WireCompilerTest {
     testProtoAndroid(sources, outputs);
   }
 
+  @Test public void testPersonAdapterRegistry() throws Exception {
+    String[] sources = {
+        "person.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/person/Person.java",
+        "com/squareup/wire/protos/person/PersonAdapters.java"
+    };
+    testProtoAdapterRegistry("com.squareup.wire.protos.person.PersonAdapters", sources, outputs);
+  }
+
   @Test public void testPersonCompact() throws Exception {
     String[] sources = {
         "all_types.proto"
@@ -220,6 +325,86 @@ public class WireCompilerTest {
     testProtoCompact(sources, outputs);
   }
 
+  @Test public void testCompactEncoded() throws Exception {
+    String[] sources = {
+        "compact_message.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/compact/CompactEncoded.java"
+    };
+    testProtoCompact(sources, outputs);
+  }
+
+  @Test public void testRepeatedAndPackedPrimitiveLists() throws Exception {
+    String[] sources = {
+        "repeated_and_packed.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/RepeatedAndPacked.java"
+    };
+    testProtoPrimitiveLists(sources, outputs);
+  }
+
+  @Test public void testPrimitiveLists() throws Exception {
+    String[] sources = {
+        "primitive_lists.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/primitivelists/PrimitiveLists.java"
+    };
+    testProtoPrimitiveLists(sources, outputs);
+  }
+
+  @Test public void testAllTypesPrimitiveFields() throws Exception {
+    String[] sources = {
+        "all_types.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/alltypes/AllTypes.java"
+    };
+    testProtoPrimitiveFields(sources, outputs);
+  }
+
+  @Test public void testByteBuffers() throws Exception {
+    String[] sources = {
+        "byte_buffers.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/bytebuffers/ByteBuffers.java"
+    };
+    testProtoByteBuffers(sources, outputs);
+  }
+
+  @Test public void testPrimitiveFields() throws Exception {
+    String[] sources = {
+        "primitive_fields.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/primitivefields/PrimitiveFields.java"
+    };
+    testProtoPrimitiveFields(sources, outputs);
+  }
+
+  @Test public void testAllTypesReverseEncoders() throws Exception {
+    String[] sources = {
+        "all_types.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/alltypes/AllTypes.java"
+    };
+    testProtoReverseEncoders(sources, outputs);
+  }
+
+  @Test public void testReverseEncoded() throws Exception {
+    String[] sources = {
+        "reverse_encoders.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/reverseencoders/ReverseEncoded.java"
+    };
+    testProtoReverseEncoders(sources, outputs);
+  }
+
   @Test public void testSimple() throws Exception {
     String[] sources = {
         "simple_message.proto",
@@ -245,6 +430,31 @@ public class WireCompilerTest {
     testProto(sources, outputs);
   }
 
+  @Test public void testLazy() throws Exception {
+    String[] sources = {
+        "lazy.proto"
+    };
+    String[] outputs = {
+        "com/squareup/wire/protos/lazy/Envelope.java",
+        "com/squareup/wire/protos/lazy/Payload.java"
+    };
+    testProto(sources, outputs);
+  }
+
+  @Test public void testLazyOptionIgnoredByDefault() throws Exception {
+    invokeCompiler(new String[] {
+        "--proto_path=../wire-runtime/src/test/proto",
+        "--java_out=" + testDir.getAbsolutePath(),
+        "lazy.proto"
+    });
+    String envelope;
+    try (Source source = Okio.source(
+        new File(testDir, "com/squareup/wire/protos/lazy/Envelope.java"))) {
+      envelope = Okio.buffer(source).readUtf8();
+    }
+    assertThat(envelope).doesNotContain("Lazy");
+  }
+
   @Test public void testSingleLevel() throws Exception {
     String[] sources = {
         "single_level.proto"
@@ -560,6 +770,45 @@ public class WireCompilerTest {
     assertFilesMatch(expectedFile, actualFile);
   }
 
+  private void assertFilesMatchPrimitiveLists(File outputDir, String path) throws IOException {
+    // Compare against file with .primitiveLists suffix if present
+    File expectedFile =
+        new File("../wire-runtime/src/test/proto-java/" + path + ".primitiveLists");
+    if (expectedFile.exists()) {
+      System.out.println("Comparing against expected output " + expectedFile.getName());
+    } else {
+      expectedFile = new File("../wire-runtime/src/test/proto-java/" + path);
+    }
+    File actualFile = new File(outputDir, path);
+    assertFilesMatch(expectedFile, actualFile);
+  }
+
+  private void assertFilesMatchPrimitiveFields(File outputDir, String path) throws IOException {
+    // Compare against file with .primitiveFields suffix if present
+    File expectedFile =
+        new File("../wire-runtime/src/test/proto-java/" + path + ".primitiveFields");
+    if (expectedFile.exists()) {
+      System.out.println("Comparing against expected output " + expectedFile.getName());
+    } else {
+      expectedFile = new File("../wire-runtime/src/test/proto-java/" + path);
+    }
+    File actualFile = new File(outputDir, path);
+    assertFilesMatch(expectedFile, actualFile);
+  }
+
+  private void assertFilesMatchReverseEncoders(File outputDir, String path) throws IOException {
+    // Compare against file with .reverseEncoders suffix if present
+    File expectedFile =
+        new File("../wire-runtime/src/test/proto-java/" + path + ".reverseEncoders");
+    if (expectedFile.exists()) {
+      System.out.println("Comparing against expected output " + expectedFile.getName());
+    } else {
+      expectedFile = new File("../wire-runtime/src/test/proto-java/" + path);
+    }
+    File actualFile = new File(outputDir, path);
+    assertFilesMatch(expectedFile, actualFile);
+  }
+
   private void assertFilesMatch(File expectedFile, File actualFile) throws IOException {
     String expected;
     try (Source source = Okio.source(expectedFile)) {
@@ -84,11 +84,14 @@ class MessageTypeAdapter<M extends Message<M, B>, B extends Message.Builder<M, B
     }
 
     out.beginObject();
-    for (FieldBinding<M, B> tagBinding : messageAdapter.fieldBindings().values()) {
+    for (FieldBinding<M, B> tagBinding : messageAdapter.fieldBindingArray()) {
       Object value = tagBinding.get(message);
       if (value == null) {
         continue;
       }
+      if (tagBinding.lazy) {
+        value = lazyToValue(value);
+      }
       out.name(tagBinding.name);
       emitJson(out, value, tagBinding.singleAdapter(), tagBinding.label);
     }
@@ -168,6 +171,9 @@ class MessageTypeAdapter<M extends Message<M, B>, B extends Message.Builder<M, B
       FieldBinding<M, B> fieldBinding = fieldBindings.get(name);
       if (fieldBinding != null) {
         Object value = parseValue(fieldBinding.label, singleType(fieldBinding), parse(in));
+        if (fieldBinding.lazy && value != null) {
+          value = valueToLazy(fieldBinding.elementAdapter(), value);
+        }
         fieldBinding.set(builder, value);
         continue;
       }
@@ -228,6 +234,32 @@ class MessageTypeAdapter<M extends Message<M, B>, B extends Message.Builder<M, B
   }
 
   private Type singleType(FieldBinding<M, B> tagBinding) {
-    return tagBinding.singleAdapter().javaType;
+    return tagBinding.elementAdapter().javaType;
+  }
+
+  /** Returns the decoded value of a lazy field's value or list of values. */
+  private static Object lazyToValue(Object value) {
+    if (value instanceof List) {
+      List<Object> result = new ArrayList<>();
+      for (Object element : (List<?>) value) {
+        result.add(((Lazy<?>) element).get());
+      }
+      return result;
+    }
+    return ((Lazy<?>) value).get();
+  }
+
+  /** Wraps a decoded value or list of values for assignment to a lazy field. */
+  @SuppressWarnings("unchecked")
+  private static Object valueToLazy(ProtoAdapter<?> adapter, Object value) {
+    ProtoAdapter<Object> objectAdapter = (ProtoAdapter<Object>) adapter;
+    if (value instanceof List) {
+      List<Object> result = new ArrayList<>();
+      for (Object element : (List<?>) value) {
+        result.add(Lazy.of(objectAdapter, element));
+      }
+      return result;
+    }
+    return Lazy.of(objectAdapter, value);
   }
 }
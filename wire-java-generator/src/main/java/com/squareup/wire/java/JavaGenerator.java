@@ -31,12 +31,20 @@ import com.squareup.javapoet.NameAllocator;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import com.squareup.wire.BooleanList;
+import com.squareup.wire.DoubleList;
 import com.squareup.wire.FieldEncoding;
+import com.squareup.wire.FloatList;
+import com.squareup.wire.IntList;
+import com.squareup.wire.Lazy;
+import com.squareup.wire.LongList;
 import com.squareup.wire.Message;
 import com.squareup.wire.ProtoAdapter;
 import com.squareup.wire.ProtoAdapter.EnumConstantNotFoundException;
 import com.squareup.wire.ProtoReader;
 import com.squareup.wire.ProtoWriter;
+import com.squareup.wire.ReverseProtoWriter;
 import com.squareup.wire.WireEnum;
 import com.squareup.wire.WireField;
 import com.squareup.wire.schema.EnumConstant;
@@ -52,6 +60,7 @@ import com.squareup.wire.schema.Service;
 import com.squareup.wire.schema.Type;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -78,10 +87,12 @@ import static javax.lang.model.element.Modifier.STATIC;
  */
 public final class JavaGenerator {
   static final ClassName BYTE_STRING = ClassName.get(ByteString.class);
+  static final ClassName BYTE_BUFFER = ClassName.get(ByteBuffer.class);
   static final ClassName STRING = ClassName.get(String.class);
   static final ClassName LIST = ClassName.get(List.class);
   static final ClassName MESSAGE = ClassName.get(Message.class);
   static final ClassName ADAPTER = ClassName.get(ProtoAdapter.class);
+  static final ClassName LAZY = ClassName.get(Lazy.class);
   static final ClassName BUILDER = ClassName.get(Message.Builder.class);
   static final TypeName MESSAGE_OPTIONS = ClassName.get("com.google.protobuf", "MessageOptions");
   static final TypeName FIELD_OPTIONS = ClassName.get("com.google.protobuf", "FieldOptions");
@@ -109,6 +120,40 @@ public final class JavaGenerator {
           .put(ProtoType.UINT64, TypeName.LONG.box())
           .build();
 
+  private static final Map<ProtoType, ClassName> PRIMITIVE_LIST_TYPES_MAP =
+      ImmutableMap.<ProtoType, ClassName>builder()
+          .put(ProtoType.BOOL, ClassName.get(BooleanList.class))
+          .put(ProtoType.DOUBLE, ClassName.get(DoubleList.class))
+          .put(ProtoType.FLOAT, ClassName.get(FloatList.class))
+          .put(ProtoType.FIXED32, ClassName.get(IntList.class))
+          .put(ProtoType.FIXED64, ClassName.get(LongList.class))
+          .put(ProtoType.INT32, ClassName.get(IntList.class))
+          .put(ProtoType.INT64, ClassName.get(LongList.class))
+          .put(ProtoType.SFIXED32, ClassName.get(IntList.class))
+          .put(ProtoType.SFIXED64, ClassName.get(LongList.class))
+          .put(ProtoType.SINT32, ClassName.get(IntList.class))
+          .put(ProtoType.SINT64, ClassName.get(LongList.class))
+          .put(ProtoType.UINT32, ClassName.get(IntList.class))
+          .put(ProtoType.UINT64, ClassName.get(LongList.class))
+          .build();
+
+  private static final Map<ProtoType, TypeName> PRIMITIVE_TYPES_MAP =
+      ImmutableMap.<ProtoType, TypeName>builder()
+          .put(ProtoType.BOOL, TypeName.BOOLEAN)
+          .put(ProtoType.DOUBLE, TypeName.DOUBLE)
+          .put(ProtoType.FLOAT, TypeName.FLOAT)
+          .put(ProtoType.FIXED32, TypeName.INT)
+          .put(ProtoType.FIXED64, TypeName.LONG)
+          .put(ProtoType.INT32, TypeName.INT)
+          .put(ProtoType.INT64, TypeName.LONG)
+          .put(ProtoType.SFIXED32, TypeName.INT)
+          .put(ProtoType.SFIXED64, TypeName.LONG)
+          .put(ProtoType.SINT32, TypeName.INT)
+          .put(ProtoType.SINT64, TypeName.LONG)
+          .put(ProtoType.UINT32, TypeName.INT)
+          .put(ProtoType.UINT64, TypeName.LONG)
+          .build();
+
   private static final String URL_CHARS = "[-!#$%&'()*+,./0-9:;=?@A-Z\\[\\]_a-z~]";
 
   private final Schema schema;
@@ -117,31 +162,105 @@ public final class JavaGenerator {
   private final ImmutableSet<String> enumOptions;
   private final boolean emitAndroid;
   private final boolean emitCompact;
+  private final boolean emitPrimitiveLists;
+  private final boolean emitPrimitiveFields;
+  private final boolean emitReverseEncoders;
+  private final boolean emitLazyFields;
+  private final boolean emitByteBuffers;
 
   private JavaGenerator(Schema schema, ImmutableMap<ProtoType, TypeName> nameToJavaName,
       boolean emitOptions, ImmutableSet<String> enumOptions, boolean emitAndroid,
-      boolean emitCompact) {
+      boolean emitCompact, boolean emitPrimitiveLists, boolean emitPrimitiveFields,
+      boolean emitReverseEncoders, boolean emitLazyFields, boolean emitByteBuffers) {
     this.schema = schema;
     this.nameToJavaName = nameToJavaName;
     this.emitOptions = emitOptions;
     this.enumOptions = enumOptions;
     this.emitAndroid = emitAndroid;
     this.emitCompact = emitCompact;
+    this.emitPrimitiveLists = emitPrimitiveLists;
+    this.emitPrimitiveFields = emitPrimitiveFields;
+    this.emitReverseEncoders = emitReverseEncoders;
+    this.emitLazyFields = emitLazyFields;
+    this.emitByteBuffers = emitByteBuffers;
   }
 
   public JavaGenerator withOptions(boolean emitOptions, Collection<String> enumOptions) {
     return new JavaGenerator(schema, nameToJavaName, emitOptions,
-        ImmutableSet.copyOf(enumOptions), emitAndroid, emitCompact);
+        ImmutableSet.copyOf(enumOptions), emitAndroid, emitCompact, emitPrimitiveLists,
+        emitPrimitiveFields, emitReverseEncoders, emitLazyFields, emitByteBuffers);
   }
 
   public JavaGenerator withAndroid(boolean emitAndroid) {
     return new JavaGenerator(schema, nameToJavaName, emitOptions, enumOptions,
-        emitAndroid, emitCompact);
+        emitAndroid, emitCompact, emitPrimitiveLists, emitPrimitiveFields,
+        emitReverseEncoders, emitLazyFields, emitByteBuffers);
   }
 
   public JavaGenerator withCompact(boolean compactGeneration) {
     return new JavaGenerator(schema, nameToJavaName, emitOptions, enumOptions,
-        emitAndroid, compactGeneration);
+        emitAndroid, compactGeneration, emitPrimitiveLists, emitPrimitiveFields,
+        emitReverseEncoders, emitLazyFields, emitByteBuffers);
+  }
+
+  /**
+   * Store repeated scalar fields in lists like {@link IntList} that don't box their values. This
+   * changes the types of these fields in the generated code.
+   */
+  public JavaGenerator withPrimitiveLists(boolean emitPrimitiveLists) {
+    return new JavaGenerator(schema, nameToJavaName, emitOptions, enumOptions,
+        emitAndroid, emitCompact, emitPrimitiveLists, emitPrimitiveFields,
+        emitReverseEncoders, emitLazyFields, emitByteBuffers);
+  }
+
+  /**
+   * Store optional and required numeric and bool fields as primitives, tracking which are present
+   * in a bitset. This adds {@code hasX()} methods to messages and changes the types of these
+   * fields. It has no effect on compact messages, which are read and written reflectively.
+   */
+  public JavaGenerator withPrimitiveFields(boolean emitPrimitiveFields) {
+    return new JavaGenerator(schema, nameToJavaName, emitOptions, enumOptions,
+        emitAndroid, emitCompact, emitPrimitiveLists, emitPrimitiveFields,
+        emitReverseEncoders, emitLazyFields, emitByteBuffers);
+  }
+
+  /**
+   * Also emit an {@code encode(ReverseProtoWriter, M)} method in each message adapter, so messages
+   * can be encoded back to front in a single pass. It has no effect on compact messages, which are
+   * written reflectively.
+   */
+  public JavaGenerator withReverseEncoders(boolean emitReverseEncoders) {
+    return new JavaGenerator(schema, nameToJavaName, emitOptions, enumOptions,
+        emitAndroid, emitCompact, emitPrimitiveLists, emitPrimitiveFields,
+        emitReverseEncoders, emitLazyFields, emitByteBuffers);
+  }
+
+  /**
+   * Hold message fields declared with {@code [lazy = true]} in {@link Lazy} wrappers that defer
+   * decoding until first access. This changes the types of these fields in the generated code.
+   * Without it the {@code lazy} option is ignored.
+   */
+  public JavaGenerator withLazyFields(boolean emitLazyFields) {
+    return new JavaGenerator(schema, nameToJavaName, emitOptions, enumOptions,
+        emitAndroid, emitCompact, emitPrimitiveLists, emitPrimitiveFields,
+        emitReverseEncoders, emitLazyFields, emitByteBuffers);
+  }
+
+  /**
+   * Hold {@code bytes} fields in read-only {@link ByteBuffer ByteBuffers} decoded with {@link
+   * ProtoAdapter#BYTE_BUFFER}, which shares the storage of the input rather than copying from it
+   * where it can. This changes the types of these fields in the generated code.
+   *
+   * <p>Messages and builders take a read-only duplicate of each buffer they are given and give
+   * builders their own duplicates, so a caller's reads don't move a message's buffers. A buffer
+   * read directly from a message's field is still that message's own; use {@link
+   * ByteBuffer#duplicate} to read from it. Default values are returned by static methods like
+   * {@code defaultOpt_bytes()}, which return a new buffer on each call.
+   */
+  public JavaGenerator withByteBuffers(boolean emitByteBuffers) {
+    return new JavaGenerator(schema, nameToJavaName, emitOptions, enumOptions,
+        emitAndroid, emitCompact, emitPrimitiveLists, emitPrimitiveFields,
+        emitReverseEncoders, emitLazyFields, emitByteBuffers);
   }
 
   public static JavaGenerator get(Schema schema) {
@@ -159,7 +278,7 @@ public final class JavaGenerator {
     }
 
     return new JavaGenerator(schema, nameToJavaName.build(), false,
-        ImmutableSet.<String>of(), false, false);
+        ImmutableSet.<String>of(), false, false, false, false, false, false, false);
   }
 
   private static void putAll(ImmutableMap.Builder<ProtoType, TypeName> wireToJava,
@@ -184,6 +303,7 @@ public final class JavaGenerator {
    *     if that type wasn't in this generator's schema.
    */
   public TypeName typeName(ProtoType protoType) {
+    if (emitByteBuffers && protoType.equals(ProtoType.BYTES)) return BYTE_BUFFER;
     TypeName candidate = nameToJavaName.get(protoType);
     checkArgument(candidate != null, "unexpected type %s", protoType);
     return candidate;
@@ -193,13 +313,22 @@ public final class JavaGenerator {
     ProtoType type = field.type();
     CodeBlock.Builder result = CodeBlock.builder();
     if (type.isScalar()) {
-      result.add("$T.$L", ADAPTER, type.simpleName().toUpperCase(Locale.US));
+      result.add("$T.$L", ADAPTER, scalarAdapterName(type));
     } else {
       result.add("$T.ADAPTER", typeName(type));
     }
+    if (isLazy(field)) {
+      result.add(".asLazy()");
+    }
     return result.build();
   }
 
+  /** Returns the name of the {@link ProtoAdapter} constant for the scalar {@code type}. */
+  private String scalarAdapterName(ProtoType type) {
+    if (emitByteBuffers && type.equals(ProtoType.BYTES)) return "BYTE_BUFFER";
+    return type.simpleName().toUpperCase(Locale.US);
+  }
+
   private CodeBlock adapterFor(Field field) {
     CodeBlock.Builder result = singleAdapterFor(field).toBuilder();
     if (field.isPacked()) {
@@ -230,10 +359,78 @@ public final class JavaGenerator {
     return wireEnum.constants().get(0);
   }
 
+  /** Returns true if {@code field} is held in a {@link Lazy} wrapper. */
+  private boolean isLazy(Field field) {
+    return emitLazyFields
+        && field.isLazy()
+        && schema.getType(field.type()) instanceof MessageType;
+  }
+
+  /** Returns the unboxed list type for {@code field}, or null if it uses a {@link List}. */
+  private ClassName primitiveListType(Field field) {
+    if (!emitPrimitiveLists || !field.isRepeated()) return null;
+    return PRIMITIVE_LIST_TYPES_MAP.get(field.type());
+  }
+
+  /** Returns true if {@code field} holds {@link ByteBuffer} values rather than byte strings. */
+  private boolean isByteBuffer(Field field) {
+    return emitByteBuffers && field.type().equals(ProtoType.BYTES);
+  }
+
+  /** Returns true if {@code field} is stored as a primitive with a presence bit. */
+  private boolean isPrimitive(Field field) {
+    return emitPrimitiveFields
+        && !emitCompact
+        && (field.isOptional() || field.isRequired())
+        && PRIMITIVE_TYPES_MAP.containsKey(field.type());
+  }
+
+  /** Returns the fields of {@code type} that are tracked in its presence bits. */
+  private List<Field> primitiveFields(MessageType type) {
+    List<Field> result = new ArrayList<>();
+    for (Field field : type.fields()) {
+      if (isPrimitive(field)) result.add(field);
+    }
+    return result;
+  }
+
+  /** Returns the number of ints needed to hold the presence bits of {@code type}. */
+  private int presenceBitsCount(MessageType type) {
+    return (primitiveFields(type).size() + 31) / 32;
+  }
+
+  /** Returns the name of the int that holds {@code field}'s presence bit. */
+  private String presenceBitsName(NameAllocator nameAllocator, MessageType type, Field field) {
+    return nameAllocator.get("presenceBits" + primitiveFields(type).indexOf(field) / 32);
+  }
+
+  /** Returns a hex literal for {@code field}'s presence bit, like {@code 0x4}. */
+  private String presenceMask(MessageType type, Field field) {
+    return String.format("0x%x", 1 << (primitiveFields(type).indexOf(field) % 32));
+  }
+
+  /** Returns a suffix like "Int" that names the primitive methods of {@code field}'s adapter. */
+  private static String primitiveKind(Field field) {
+    String name = PRIMITIVE_TYPES_MAP.get(field.type()).toString();
+    return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static String hasMethodName(String fieldName) {
+    return "has" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+  }
+
+  private static String clearMethodName(String fieldName) {
+    return "clear" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+  }
+
   static TypeName listOf(TypeName type) {
     return ParameterizedTypeName.get(LIST, type);
   }
 
+  static TypeName lazyOf(TypeName type) {
+    return ParameterizedTypeName.get(LAZY, type);
+  }
+
   static TypeName messageOf(TypeName type, ClassName builderType) {
     return ParameterizedTypeName.get(MESSAGE, type, builderType);
   }
@@ -405,13 +602,19 @@ public final class JavaGenerator {
       }
     }
 
+    List<MethodSpec> defaultMethods = new ArrayList<>();
     for (Field field : type.fieldsAndOneOfFields()) {
       TypeName fieldJavaType = fieldType(field);
 
       if ((field.type().isScalar() || isEnum(field.type()))
           && !field.isRepeated()
           && !field.isPacked()) {
-        builder.addField(defaultField(nameAllocator, field, fieldJavaType));
+        if (isByteBuffer(field)) {
+          builder.addField(defaultBytesField(nameAllocator, field));
+          defaultMethods.add(defaultByteBufferMethod(nameAllocator, field));
+        } else {
+          builder.addField(defaultField(nameAllocator, field, fieldJavaType));
+        }
       }
 
       String fieldName = nameAllocator.get(field);
@@ -428,8 +631,19 @@ public final class JavaGenerator {
       builder.addField(fieldBuilder.build());
     }
 
+    for (int i = 0, count = presenceBitsCount(type); i < count; i++) {
+      builder.addField(TypeName.INT, nameAllocator.get("presenceBits" + i), PRIVATE, FINAL);
+    }
+
+    builder.addMethods(defaultMethods);
     builder.addMethod(messageFieldsConstructor(nameAllocator, type));
     builder.addMethod(messageFieldsAndUnknownFieldsConstructor(nameAllocator, type));
+    if (presenceBitsCount(type) > 0) {
+      builder.addMethod(messageBuilderConstructor(nameAllocator, type, builderJavaType));
+      for (Field field : primitiveFields(type)) {
+        builder.addMethod(messageHas(nameAllocator, type, field));
+      }
+    }
     builder.addMethod(newBuilder(nameAllocator, type));
     builder.addMethod(messageEquals(nameAllocator, type));
     builder.addMethod(messageHashCode(nameAllocator, type));
@@ -493,6 +707,57 @@ public final class JavaGenerator {
     return builder.build();
   }
 
+  /**
+   * Returns a class that looks up the adapter of each of {@code types} and their nested types by
+   * fully-qualified proto name. Unlike {@link ProtoAdapter#get(Class)} it doesn't need reflection,
+   * and its {@code registerAll()} method seeds that cache with every message adapter up front.
+   */
+  public TypeSpec generateAdapterRegistry(ClassName className, List<Type> types) {
+    CodeBlock.Builder cases = CodeBlock.builder();
+    CodeBlock.Builder registrations = CodeBlock.builder();
+    addAdapterRegistryEntries(cases, registrations, types);
+
+    MethodSpec get = MethodSpec.methodBuilder("get")
+        .addJavadoc("Returns the adapter for the type named {@code typeName}, or null if there is "
+            + "none.\n")
+        .addModifiers(PUBLIC, STATIC)
+        .returns(ParameterizedTypeName.get(ADAPTER, WildcardTypeName.subtypeOf(Object.class)))
+        .addParameter(STRING, "typeName")
+        .beginControlFlow("switch (typeName)")
+        .addCode(cases.build())
+        .addStatement("default: return null")
+        .endControlFlow()
+        .build();
+
+    MethodSpec registerAll = MethodSpec.methodBuilder("registerAll")
+        .addJavadoc("Registers each message adapter with {@link $T#register}.\n", ADAPTER)
+        .addModifiers(PUBLIC, STATIC)
+        .addCode(registrations.build())
+        .build();
+
+    return TypeSpec.classBuilder(className.simpleName())
+        .addModifiers(PUBLIC, FINAL)
+        .addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(PRIVATE)
+            .build())
+        .addMethod(get)
+        .addMethod(registerAll)
+        .build();
+  }
+
+  private void addAdapterRegistryEntries(CodeBlock.Builder cases,
+      CodeBlock.Builder registrations, List<Type> types) {
+    for (Type type : types) {
+      TypeName javaType = typeName(type.name());
+      cases.addStatement("case $S: return $T.ADAPTER", type.name().toString(), javaType);
+      if (type instanceof MessageType) {
+        registrations.addStatement("$T.register($T.class, $T.ADAPTER)", ADAPTER, javaType,
+            javaType);
+      }
+      addAdapterRegistryEntries(cases, registrations, type.nestedTypes());
+    }
+  }
+
   /**
    * Preallocate all of the names we'll need for {@code type}. Names are allocated in precedence
    * order, so names we're stuck with (serialVersionUID etc.) occur before proto field names are
@@ -503,6 +768,7 @@ public final class JavaGenerator {
     nameAllocator.newName("serialVersionUID", "serialVersionUID");
     nameAllocator.newName("ADAPTER", "ADAPTER");
     nameAllocator.newName("MESSAGE_OPTIONS", "MESSAGE_OPTIONS");
+    nameAllocator.newName("cachedSerializedSize", "cachedSerializedSize");
     if (emitAndroid) {
       nameAllocator.newName("CREATOR", "CREATOR");
     }
@@ -513,6 +779,9 @@ public final class JavaGenerator {
           : field.name();
       nameAllocator.newName(suggestion, field);
     }
+    for (int i = 0, count = presenceBitsCount(type); i < count; i++) {
+      nameAllocator.newName("presenceBits" + i, "presenceBits" + i);
+    }
     nameAllocator.newName("unknownFields", "unknownFields");
     nameAllocator.newName("result", "result");
     nameAllocator.newName("message", "message");
@@ -546,7 +815,10 @@ public final class JavaGenerator {
               javaType).superclass(adapterOf(javaType));
 
       adapter.addMethod(messageAdapterEncodedSize(nameAllocator, type, javaType));
-      adapter.addMethod(messageAdapterEncode(nameAllocator, type, javaType));
+      adapter.addMethod(messageAdapterEncode(nameAllocator, type, javaType, false));
+      if (emitReverseEncoders) {
+        adapter.addMethod(messageAdapterEncode(nameAllocator, type, javaType, true));
+      }
       adapter.addMethod(messageAdapterDecode(nameAllocator, type, javaType, builderJavaType));
       adapter.addMethod(messageAdapterRedact(nameAllocator, type, javaType, builderJavaType));
 
@@ -563,13 +835,25 @@ public final class JavaGenerator {
         .returns(int.class)
         .addParameter(javaType, "value");
 
+    List<Field> fields = type.fieldsAndOneOfFields();
+    if (fields.isEmpty()) {
+      result.addStatement("return value.unknownFields().size()");
+      return result.build();
+    }
+
+    // Memoize so that encoding a nested message sizes each of its descendants only once.
+    result.addStatement("int result = value.$N", nameAllocator.get("cachedSerializedSize"));
+    result.addStatement("if (result != 0) return result");
     result.addCode("$[");
-    String leading = "return";
-    for (Field field : type.fieldsAndOneOfFields()) {
+    String leading = "result =";
+    for (Field field : fields) {
       int fieldTag = field.tag();
       String fieldName = nameAllocator.get(field);
       CodeBlock adapter = adapterFor(field);
-      if (field.isRequired() || field.isRepeated()) {
+      if (isPrimitive(field)) {
+        result.addCode("$1L (value.$2L() ? $3L.encodedSize$4LWithTag($5L, value.$6L) : 0)",
+            leading, hasMethodName(fieldName), adapter, primitiveKind(field), fieldTag, fieldName);
+      } else if (field.isRequired() || field.isRepeated()) {
         result.addCode("$L $L.encodedSizeWithTag($L, value.$L)",
             leading, adapter, fieldTag, fieldName);
       } else {
@@ -579,31 +863,45 @@ public final class JavaGenerator {
       leading = "\n+";
     }
     result.addCode("$L value.unknownFields().size();$]\n", leading);
-
+    result.addStatement("value.$N = result", nameAllocator.get("cachedSerializedSize"));
+    result.addStatement("return result");
     return result.build();
   }
 
+  /**
+   * Returns the adapter's encode method. A {@code reverse} encoder targets {@link
+   * ReverseProtoWriter}, so it writes the unknown fields first and the known fields last to first.
+   */
   private MethodSpec messageAdapterEncode(NameAllocator nameAllocator, MessageType type,
-      TypeName javaType) {
+      TypeName javaType, boolean reverse) {
     MethodSpec.Builder result = MethodSpec.methodBuilder("encode")
         .addAnnotation(Override.class)
         .addModifiers(PUBLIC)
-        .addParameter(ProtoWriter.class, "writer")
+        .addParameter(reverse ? ReverseProtoWriter.class : ProtoWriter.class, "writer")
         .addParameter(javaType, "value")
         .addException(IOException.class);
 
-    for (Field field : type.fieldsAndOneOfFields()) {
+    if (reverse) {
+      result.addStatement("writer.writeBytes(value.unknownFields())");
+    }
+    ImmutableList<Field> fields = type.fieldsAndOneOfFields();
+    for (Field field : reverse ? fields.reverse() : fields) {
       int fieldTag = field.tag();
       String fieldName = nameAllocator.get(field);
       CodeBlock adapter = adapterFor(field);
-      if (field.isRequired()) {
+      if (isPrimitive(field)) {
+        result.addStatement("if (value.$L()) $L.encode$LWithTag(writer, $L, value.$L)",
+            hasMethodName(fieldName), adapter, primitiveKind(field), fieldTag, fieldName);
+      } else if (field.isRequired()) {
         result.addStatement("$L.encodeWithTag(writer, $L, value.$L)", adapter, fieldTag, fieldName);
       } else {
         result.addStatement("if (value.$3L != null) $1L.encodeWithTag(writer, $2L, value.$3L)",
             adapter, fieldTag, fieldName);
       }
     }
-    result.addStatement("writer.writeBytes(value.unknownFields())");
+    if (!reverse) {
+      result.addStatement("writer.writeBytes(value.unknownFields())");
+    }
 
     return result.build();
   }
@@ -641,10 +939,18 @@ public final class JavaGenerator {
         result.endControlFlow(); // try/catch
         result.addStatement("break");
         result.endControlFlow(); // case
+      } else if (field.isPacked() || primitiveListType(field) != null) {
+        // Scalar packed adapters decode the entire run of values at once. Primitive lists use them
+        // for unpacked values too; that way no value is boxed.
+        result.addStatement("case $L: builder.$L.addAll($L.asPacked().decode(reader)); break",
+            fieldTag, fieldName, adapter);
       } else {
         if (field.isRepeated()) {
           result.addStatement("case $L: builder.$L.add($L.decode(reader)); break", fieldTag,
               fieldName, adapter);
+        } else if (isPrimitive(field)) {
+          result.addStatement("case $L: builder.$L($L.decode$L(reader)); break", fieldTag,
+              fieldName, adapter, primitiveKind(field));
         } else {
           result.addStatement("case $L: builder.$L($L.decode(reader)); break", fieldTag, fieldName,
               adapter);
@@ -653,9 +959,7 @@ public final class JavaGenerator {
     }
 
     result.beginControlFlow("default:");
-    result.addStatement("$T fieldEncoding = reader.peekFieldEncoding()", FieldEncoding.class);
-    result.addStatement("$T value = fieldEncoding.rawProtoAdapter().decode(reader)", Object.class);
-    result.addStatement("builder.addUnknownField(tag, fieldEncoding, value)");
+    result.addStatement("reader.readUnknownField(builder)");
     result.endControlFlow(); // default
 
     result.endControlFlow(); // switch
@@ -692,7 +996,12 @@ public final class JavaGenerator {
     for (Field field : type.fieldsAndOneOfFields()) {
       String fieldName = nameAllocator.get(field);
       if (isRedacted(field)) {
-        if (field.isRepeated()) {
+        ClassName primitiveListType = primitiveListType(field);
+        if (primitiveListType != null) {
+          result.addStatement("builder.$N = new $T()", fieldName, primitiveListType);
+        } else if (isPrimitive(field)) {
+          result.addStatement("builder.$N()", clearMethodName(fieldName));
+        } else if (field.isRepeated()) {
           result.addStatement("builder.$N = $T.emptyList()", fieldName, Collections.class);
         } else {
           result.addStatement("builder.$N = null", fieldName);
@@ -730,7 +1039,8 @@ public final class JavaGenerator {
       Field extensionRoot = entry.getKey();
       if (extensionRoot.name().equals("default")
           || extensionRoot.name().equals("deprecated")
-          || extensionRoot.name().equals("packed")) {
+          || extensionRoot.name().equals("packed")
+          || extensionRoot.name().equals("lazy")) {
         continue; // TODO(jwilson): also check that the declaring types match.
       }
 
@@ -748,21 +1058,69 @@ public final class JavaGenerator {
   }
 
   private TypeName fieldType(Field field) {
+    if (isPrimitive(field)) return PRIMITIVE_TYPES_MAP.get(field.type());
+    ClassName primitiveListType = primitiveListType(field);
+    if (primitiveListType != null) return primitiveListType;
     TypeName messageType = typeName(field.type());
+    if (isLazy(field)) {
+      messageType = lazyOf(messageType);
+    }
     return field.isRepeated() ? listOf(messageType) : messageType;
   }
 
+  /** Returns the type that the message's constructors accept for {@code field}. */
+  private TypeName parameterType(Field field) {
+    return isPrimitive(field) ? typeName(field.type()) : fieldType(field);
+  }
+
   // Example:
   //
   // public static final Integer DEFAULT_OPT_INT32 = 123;
   //
   private FieldSpec defaultField(NameAllocator nameAllocator, Field field, TypeName fieldType) {
-    String defaultFieldName = "DEFAULT_" + nameAllocator.get(field).toUpperCase(Locale.US);
+    String defaultFieldName = defaultFieldName(nameAllocator, field);
     return FieldSpec.builder(fieldType, defaultFieldName, PUBLIC, STATIC, FINAL)
         .initializer(defaultValue(field))
         .build();
   }
 
+  // Example:
+  //
+  // private static final byte[] DEFAULT_OPT_BYTES = ByteString.decodeBase64("YWJj").toByteArray();
+  //
+  private FieldSpec defaultBytesField(NameAllocator nameAllocator, Field field) {
+    Object value = field.getDefault();
+    CodeBlock initializer = value == null
+        ? codeBlock("new byte[0]")
+        : codeBlock("$T.decodeBase64($S).toByteArray()", ByteString.class,
+            ByteString.of(String.valueOf(value).getBytes(Charsets.ISO_8859_1)).base64());
+    return FieldSpec.builder(byte[].class, defaultFieldName(nameAllocator, field),
+        PRIVATE, STATIC, FINAL)
+        .initializer(initializer)
+        .build();
+  }
+
+  // Example:
+  //
+  // public static ByteBuffer defaultOpt_bytes() {
+  //   return ByteBuffer.wrap(DEFAULT_OPT_BYTES).asReadOnlyBuffer();
+  // }
+  //
+  private MethodSpec defaultByteBufferMethod(NameAllocator nameAllocator, Field field) {
+    String fieldName = nameAllocator.get(field);
+    return MethodSpec.methodBuilder(
+        "default" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1))
+        .addModifiers(PUBLIC, STATIC)
+        .returns(BYTE_BUFFER)
+        .addStatement("return $T.wrap($L).asReadOnlyBuffer()", BYTE_BUFFER,
+            defaultFieldName(nameAllocator, field))
+        .build();
+  }
+
+  private static String defaultFieldName(NameAllocator nameAllocator, Field field) {
+    return "DEFAULT_" + nameAllocator.get(field).toUpperCase(Locale.US);
+  }
+
   // Example:
   //
   // @WireField(
@@ -790,12 +1148,16 @@ public final class JavaGenerator {
       result.addMember("redacted", "true");
     }
 
+    if (isLazy(field)) {
+      result.addMember("lazy", "true");
+    }
+
     return result.build();
   }
 
   private String adapterString(ProtoType type) {
     return type.isScalar()
-          ? ProtoAdapter.class.getName() + '#' + type.toString().toUpperCase(Locale.US)
+          ? ProtoAdapter.class.getName() + '#' + scalarAdapterName(type)
           : reflectionName((ClassName) typeName(type)) + "#ADAPTER";
   }
 
@@ -814,7 +1176,7 @@ public final class JavaGenerator {
     result.addModifiers(PUBLIC);
     result.addCode("this(");
     for (Field field : type.fieldsAndOneOfFields()) {
-      TypeName javaType = fieldType(field);
+      TypeName javaType = parameterType(field);
       String fieldName = nameAllocator.get(field);
       result.addParameter(javaType, fieldName);
       result.addCode("$L, ", fieldName);
@@ -854,21 +1216,87 @@ public final class JavaGenerator {
       result.endControlFlow();
     }
     for (Field field : type.fieldsAndOneOfFields()) {
-      TypeName javaType = fieldType(field);
+      TypeName javaType = parameterType(field);
       String fieldName = nameAllocator.get(field);
       result.addParameter(javaType, fieldName);
-      if (field.isRepeated()) {
+      if (field.isRepeated() && isByteBuffer(field)) {
+        result.addStatement("this.$1L = immutableCopyOf(readOnlyCopyOf($1L))", fieldName);
+      } else if (field.isRepeated()) {
         result.addStatement("this.$L = immutableCopyOf($L)", fieldName, fieldName);
+      } else if (isByteBuffer(field)) {
+        result.addStatement("this.$1L = readOnlyCopyOf($1L)", fieldName);
+      } else if (isPrimitive(field)) {
+        result.addStatement("this.$1L = $1L != null ? $1L : $2L", fieldName,
+            defaultFieldName(nameAllocator, field));
       } else {
         result.addStatement("this.$L = $L", fieldName, fieldName);
       }
     }
+    for (int i = 0, count = presenceBitsCount(type); i < count; i++) {
+      result.addCode("$[this.$N = ", nameAllocator.get("presenceBits" + i));
+      List<Field> primitiveFields = primitiveFields(type);
+      for (int j = i * 32; j < Math.min(primitiveFields.size(), i * 32 + 32); j++) {
+        Field field = primitiveFields.get(j);
+        if (j > i * 32) result.addCode("\n| ");
+        result.addCode("($L != null ? $L : 0)", nameAllocator.get(field),
+            presenceMask(type, field));
+      }
+      result.addCode(";\n$]");
+    }
 
     result.addParameter(BYTE_STRING, unknownFieldsName);
 
     return result.build();
   }
 
+  // Example:
+  //
+  // SimpleMessage(Builder builder, ByteString unknownFields) {
+  //   super(unknownFields);
+  //   this.optional_int32 = builder.optional_int32;
+  //   this.presenceBits0 = builder.presenceBits0;
+  // }
+  //
+  private MethodSpec messageBuilderConstructor(NameAllocator nameAllocator, MessageType type,
+      ClassName builderJavaType) {
+    String builderName = nameAllocator.get("builder");
+    String unknownFieldsName = nameAllocator.get("unknownFields");
+    MethodSpec.Builder result = MethodSpec.constructorBuilder()
+        .addParameter(builderJavaType, builderName)
+        .addParameter(BYTE_STRING, unknownFieldsName)
+        .addStatement("super($N)", unknownFieldsName);
+
+    for (Field field : type.fieldsAndOneOfFields()) {
+      String fieldName = nameAllocator.get(field);
+      if (field.isRepeated()) {
+        result.addStatement("this.$1L = immutableCopyOf($2N.$1L)", fieldName, builderName);
+      } else {
+        result.addStatement("this.$1L = $2N.$1L", fieldName, builderName);
+      }
+    }
+    for (int i = 0, count = presenceBitsCount(type); i < count; i++) {
+      result.addStatement("this.$1N = $2N.$1N", nameAllocator.get("presenceBits" + i),
+          builderName);
+    }
+
+    return result.build();
+  }
+
+  // Example:
+  //
+  // public boolean hasOptional_int32() {
+  //   return (presenceBits0 & 0x1) != 0;
+  // }
+  //
+  private MethodSpec messageHas(NameAllocator nameAllocator, MessageType type, Field field) {
+    return MethodSpec.methodBuilder(hasMethodName(nameAllocator.get(field)))
+        .addModifiers(PUBLIC)
+        .returns(boolean.class)
+        .addStatement("return ($N & $L) != 0", presenceBitsName(nameAllocator, type, field),
+            presenceMask(type, field))
+        .build();
+  }
+
   // Example:
   //
   // @Override
@@ -901,9 +1329,23 @@ public final class JavaGenerator {
 
     result.addStatement("$T $N = ($T) $N", javaType, oName, javaType, otherName);
     result.addCode("$[return equals(unknownFields(), $N.unknownFields())", oName);
+    for (int i = 0, count = presenceBitsCount(type); i < count; i++) {
+      result.addCode("\n&& $1N == $2N.$1N", nameAllocator.get("presenceBits" + i), oName);
+    }
     for (Field field : fields) {
       String fieldName = nameAllocator.get(field);
-      result.addCode("\n&& equals($L, $N.$L)", fieldName, oName, fieldName);
+      TypeName fieldType = fieldType(field);
+      if (isPrimitive(field) && fieldType.equals(TypeName.FLOAT)) {
+        result.addCode("\n&& $T.compare($L, $N.$L) == 0", Float.class, fieldName, oName,
+            fieldName);
+      } else if (isPrimitive(field) && fieldType.equals(TypeName.DOUBLE)) {
+        result.addCode("\n&& $T.compare($L, $N.$L) == 0", Double.class, fieldName, oName,
+            fieldName);
+      } else if (isPrimitive(field)) {
+        result.addCode("\n&& $L == $N.$L", fieldName, oName, fieldName);
+      } else {
+        result.addCode("\n&& equals($L, $N.$L)", fieldName, oName, fieldName);
+      }
     }
     result.addCode(";\n$]");
 
@@ -944,8 +1386,13 @@ public final class JavaGenerator {
     result.addStatement("$N = unknownFields().hashCode()", resultName);
     for (Field field : fields) {
       String fieldName = nameAllocator.get(field);
-      result.addStatement("$N = $N * 37 + ($L != null ? $L.hashCode() : $L)",
-          resultName, resultName, fieldName, fieldName, nullHashValue(field));
+      if (isPrimitive(field)) {
+        result.addStatement("$N = $N * 37 + ($L() ? $L : 0)", resultName, resultName,
+            hasMethodName(fieldName), primitiveHashCode(field, fieldName));
+      } else {
+        result.addStatement("$N = $N * 37 + ($L != null ? $L.hashCode() : $L)",
+            resultName, resultName, fieldName, fieldName, nullHashValue(field));
+      }
     }
     result.addStatement("super.hashCode = $N", resultName);
     result.endControlFlow();
@@ -953,6 +1400,23 @@ public final class JavaGenerator {
     return result.build();
   }
 
+  /** Returns an expression that matches the boxed value's hash code. */
+  private CodeBlock primitiveHashCode(Field field, String fieldName) {
+    TypeName fieldType = fieldType(field);
+    if (fieldType.equals(TypeName.BOOLEAN)) {
+      return codeBlock("($L ? 1231 : 1237)", fieldName);
+    } else if (fieldType.equals(TypeName.LONG)) {
+      return codeBlock("(int) ($1L ^ ($1L >>> 32))", fieldName);
+    } else if (fieldType.equals(TypeName.FLOAT)) {
+      return codeBlock("$T.floatToIntBits($L)", Float.class, fieldName);
+    } else if (fieldType.equals(TypeName.DOUBLE)) {
+      return codeBlock("(int) ($1T.doubleToLongBits($2L) ^ ($1T.doubleToLongBits($2L) >>> 32))",
+          Double.class, fieldName);
+    } else {
+      return codeBlock("$L", fieldName);
+    }
+  }
+
   private MethodSpec messageToString(NameAllocator nameAllocator, MessageType type) {
     String builderName = nameAllocator.get("builder");
     MethodSpec.Builder result = MethodSpec.methodBuilder("toString")
@@ -964,12 +1428,15 @@ public final class JavaGenerator {
 
     for (Field field : type.fieldsAndOneOfFields()) {
       String fieldName = nameAllocator.get(field);
+      CodeBlock present = isPrimitive(field)
+          ? codeBlock("$L()", hasMethodName(fieldName))
+          : codeBlock("$L != null", fieldName);
       if (isRedacted(field)) {
-        result.addStatement("if ($L != null) $N.append(\", $N=██\")", fieldName, builderName,
+        result.addStatement("if ($L) $N.append(\", $N=██\")", present, builderName,
             field.name());
       } else {
-        result.addStatement("if ($1L != null) $2N.append(\", $3N=\").append($1L)", fieldName,
-            builderName, field.name());
+        result.addStatement("if ($1L) $2N.append(\", $3N=\").append($4L)", present,
+            builderName, field.name(), fieldName);
       }
     }
 
@@ -988,13 +1455,26 @@ public final class JavaGenerator {
 
     for (Field field : type.fieldsAndOneOfFields()) {
       String fieldName = nameAllocator.get(field);
-      result.addField(fieldType(field), fieldName, PUBLIC);
+      if (isPrimitive(field)) {
+        // Not public, so that values can't be assigned without their presence bits.
+        result.addField(fieldType(field), fieldName);
+      } else {
+        result.addField(fieldType(field), fieldName, PUBLIC);
+      }
+    }
+    for (int i = 0, count = presenceBitsCount(type); i < count; i++) {
+      result.addField(TypeName.INT, nameAllocator.get("presenceBits" + i));
     }
 
     result.addMethod(builderNoArgsConstructor(nameAllocator, type));
 
     for (Field field : type.fields()) {
-      result.addMethod(setter(nameAllocator, builderType, null, field));
+      if (isPrimitive(field)) {
+        result.addMethod(primitiveSetter(nameAllocator, builderType, type, field));
+        result.addMethod(primitiveClearer(nameAllocator, builderType, type, field));
+      } else {
+        result.addMethod(setter(nameAllocator, builderType, null, field));
+      }
     }
 
     for (OneOf oneOf : type.oneOfs()) {
@@ -1018,7 +1498,15 @@ public final class JavaGenerator {
     for (Field field : type.fieldsAndOneOfFields()) {
       if (field.isPacked() || field.isRepeated()) {
         String fieldName = nameAllocator.get(field);
-        result.addStatement("$L = newMutableList()", fieldName);
+        ClassName primitiveListType = primitiveListType(field);
+        if (primitiveListType != null) {
+          result.addStatement("$L = new $T()", fieldName, primitiveListType);
+        } else {
+          result.addStatement("$L = newMutableList()", fieldName);
+        }
+      } else if (isPrimitive(field) && field.getDefault() != null) {
+        String fieldName = nameAllocator.get(field);
+        result.addStatement("$L = $L", fieldName, defaultFieldName(nameAllocator, field));
       }
     }
     return result.build();
@@ -1048,12 +1536,17 @@ public final class JavaGenerator {
     List<Field> fields = message.fieldsAndOneOfFields();
     for (Field field : fields) {
       String fieldName = nameAllocator.get(field);
-      if (field.isRepeated()) {
+      if (isByteBuffer(field)) {
+        result.addStatement("$1L.$2L = readOnlyCopyOf($2L)", builderName, fieldName);
+      } else if (field.isRepeated()) {
         result.addStatement("$1L.$2L = copyOf($2L)", builderName, fieldName);
       } else {
         result.addStatement("$1L.$2L = $2L", builderName, fieldName);
       }
     }
+    for (int i = 0, count = presenceBitsCount(message); i < count; i++) {
+      result.addStatement("$1L.$2N = $2N", builderName, nameAllocator.get("presenceBits" + i));
+    }
 
     result.addStatement("$L.addUnknownFields(unknownFields())", builderName);
     result.addStatement("return $L", builderName);
@@ -1081,7 +1574,11 @@ public final class JavaGenerator {
     if (field.isRepeated()) {
       result.addStatement("checkElementsNotNull($L)", fieldName);
     }
-    result.addStatement("this.$L = $L", fieldName, fieldName);
+    if (isByteBuffer(field)) {
+      result.addStatement("this.$1L = readOnlyCopyOf($1L)", fieldName);
+    } else {
+      result.addStatement("this.$L = $L", fieldName, fieldName);
+    }
 
     if (oneOf != null) {
       for (Field other : oneOf.fields()) {
@@ -1095,6 +1592,65 @@ public final class JavaGenerator {
     return result.build();
   }
 
+  // Example:
+  //
+  // public Builder optional_int32(int optional_int32) {
+  //   this.optional_int32 = optional_int32;
+  //   presenceBits0 |= 0x1;
+  //   return this;
+  // }
+  //
+  private MethodSpec primitiveSetter(
+      NameAllocator nameAllocator, TypeName builderType, MessageType type, Field field) {
+    String fieldName = nameAllocator.get(field);
+
+    MethodSpec.Builder result = MethodSpec.methodBuilder(fieldName)
+        .addModifiers(PUBLIC)
+        .addParameter(fieldType(field), fieldName)
+        .returns(builderType);
+
+    if (!field.documentation().isEmpty()) {
+      result.addJavadoc("$L\n", sanitizeJavadoc(field.documentation()));
+    }
+
+    if (field.isDeprecated()) {
+      result.addAnnotation(Deprecated.class);
+    }
+
+    result.addStatement("this.$L = $L", fieldName, fieldName);
+    result.addStatement("$N |= $L", presenceBitsName(nameAllocator, type, field),
+        presenceMask(type, field));
+    result.addStatement("return this");
+    return result.build();
+  }
+
+  // Example:
+  //
+  // public Builder clearOptional_int32() {
+  //   this.optional_int32 = DEFAULT_OPTIONAL_INT32;
+  //   presenceBits0 &= ~0x1;
+  //   return this;
+  // }
+  //
+  private MethodSpec primitiveClearer(
+      NameAllocator nameAllocator, TypeName builderType, MessageType type, Field field) {
+    String fieldName = nameAllocator.get(field);
+
+    MethodSpec.Builder result = MethodSpec.methodBuilder(clearMethodName(fieldName))
+        .addModifiers(PUBLIC)
+        .returns(builderType);
+
+    if (field.isDeprecated()) {
+      result.addAnnotation(Deprecated.class);
+    }
+
+    result.addStatement("this.$L = $L", fieldName, defaultFieldName(nameAllocator, field));
+    result.addStatement("$N &= ~$L", presenceBitsName(nameAllocator, type, field),
+        presenceMask(type, field));
+    result.addStatement("return this");
+    return result.build();
+  }
+
   // Example:
   //
   // @Override
@@ -1122,9 +1678,17 @@ public final class JavaGenerator {
       for (int i = 0; i < requiredFields.size(); i++) {
         Field requiredField = requiredFields.get(i);
         if (i > 0) conditionals.add("\n|| ");
-        conditionals.add("$L == null", requiredField.name());
         if (i > 0) missingArgs.add(",\n");
-        missingArgs.add("$1L, $1S", requiredField.name());
+        if (isPrimitive(requiredField)) {
+          String presenceBits = presenceBitsName(nameAllocator, message, requiredField);
+          String mask = presenceMask(message, requiredField);
+          conditionals.add("($N & $L) == 0", presenceBits, mask);
+          missingArgs.add("($1N & $2L) != 0 ? $3L : null, $3S", presenceBits, mask,
+              requiredField.name());
+        } else {
+          conditionals.add("$L == null", requiredField.name());
+          missingArgs.add("$1L, $1S", requiredField.name());
+        }
       }
 
       result.beginControlFlow("if ($L)", conditionals.add("$]").build())
@@ -1132,6 +1696,11 @@ public final class JavaGenerator {
           .endControlFlow();
     }
 
+    if (presenceBitsCount(message) > 0) {
+      result.addStatement("return new $T(this, buildUnknownFields())", javaType);
+      return result.build();
+    }
+
     result.addCode("return new $T(", javaType);
     for (Field field : message.fieldsAndOneOfFields()) {
       result.addCode("$L, ", nameAllocator.get(field));
@@ -1210,6 +1779,15 @@ public final class JavaGenerator {
             ByteString.of(String.valueOf(value).getBytes(Charsets.ISO_8859_1)).base64());
       }
 
+    } else if (javaType.equals(BYTE_BUFFER)) {
+      if (value == null) {
+        return codeBlock("$T.allocate(0).asReadOnlyBuffer()", ByteBuffer.class);
+      } else {
+        return codeBlock("$T.wrap($T.decodeBase64($S).toByteArray()).asReadOnlyBuffer()",
+            ByteBuffer.class, ByteString.class,
+            ByteString.of(String.valueOf(value).getBytes(Charsets.ISO_8859_1)).base64());
+      }
+
     } else if (isEnum(type) && value != null) {
       return codeBlock("$T.$L", javaType, value);
 
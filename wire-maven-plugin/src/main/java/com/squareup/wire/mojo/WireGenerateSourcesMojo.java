@@ -14,6 +14,7 @@ import com.squareup.wire.schema.SchemaLoader;
 import com.squareup.wire.schema.Type;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +44,21 @@ public class WireGenerateSourcesMojo extends AbstractMojo {
   @Parameter(property = "wire.compact")
   private boolean emitCompact;
 
+  @Parameter(property = "wire.primitiveLists")
+  private boolean emitPrimitiveLists;
+
+  @Parameter(property = "wire.primitiveFields")
+  private boolean emitPrimitiveFields;
+
+  @Parameter(property = "wire.reverseEncoders")
+  private boolean emitReverseEncoders;
+
+  @Parameter(property = "wire.lazyFields")
+  private boolean emitLazyFields;
+
+  @Parameter(property = "wire.byteBuffers")
+  private boolean emitByteBuffers;
+
   @Parameter(property = "wire.noOptions")
   private boolean noOptions;
 
@@ -55,6 +71,10 @@ public class WireGenerateSourcesMojo extends AbstractMojo {
   @Parameter(property = "wire.serviceFactory")
   private String serviceFactory;
 
+  /** Fully-qualified name of a class that looks up generated adapters without reflection. */
+  @Parameter(property = "wire.adapterRegistry")
+  private String adapterRegistry;
+
   /** List of proto files to compile relative to ${protoPaths}. */
   @Parameter(property = "wire.protoFiles", required = true)
   private String[] protoFiles;
@@ -91,8 +111,14 @@ public class WireGenerateSourcesMojo extends AbstractMojo {
       JavaGenerator javaGenerator = JavaGenerator.get(schema)
           .withOptions(!noOptions, enumOptionsList)
           .withAndroid(emitAndroid)
-          .withCompact(emitCompact);
-
+          .withCompact(emitCompact)
+          .withPrimitiveLists(emitPrimitiveLists)
+          .withPrimitiveFields(emitPrimitiveFields)
+          .withReverseEncoders(emitReverseEncoders)
+          .withLazyFields(emitLazyFields)
+          .withByteBuffers(emitByteBuffers);
+
+      List<Type> emittedTypes = new ArrayList<>();
       for (ProtoFile protoFile : schema.protoFiles()) {
         if (!protoFilesList.contains(protoFile.location().path())) {
           continue; // Don't emit anything for files not explicitly compiled.
@@ -106,8 +132,16 @@ public class WireGenerateSourcesMojo extends AbstractMojo {
               : javaGenerator.generateEnum((EnumType) type);
           writeJavaFile(javaTypeName, typeSpec, type.location());
           getLog().info(String.format("Generated %s in %s", javaTypeName, stopwatch));
+          emittedTypes.add(type);
         }
       }
+
+      if (adapterRegistry != null) {
+        ClassName registryName = ClassName.bestGuess(adapterRegistry);
+        writeJavaFile(registryName,
+            javaGenerator.generateAdapterRegistry(registryName, emittedTypes), null);
+        getLog().info(String.format("Generated %s", registryName));
+      }
     } catch (Exception e) {
       throw new MojoExecutionException("Wire Plugin: Failure compiling proto sources.", e);
     }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An adapter for {@code boolean} values with methods that read and write them without boxing.
+ * Generated code uses these methods for primitive fields and {@link BooleanList} fields.
+ */
+public abstract class BooleanAdapter extends ProtoAdapter<Boolean> {
+  BooleanAdapter(FieldEncoding fieldEncoding) {
+    super(fieldEncoding, Boolean.class);
+  }
+
+  abstract int encodedSizeBoolean(boolean value);
+
+  abstract void encodeBoolean(ProtoWriter writer, boolean value) throws IOException;
+
+  abstract void encodeBoolean(ReverseProtoWriter writer, boolean value) throws IOException;
+
+  /** Read a non-null {@code boolean} from {@code reader}. */
+  public abstract boolean decodeBoolean(ProtoReader reader) throws IOException;
+
+  /** The size of {@code tag} and {@code value} in the wire format. */
+  public final int encodedSizeBooleanWithTag(int tag, boolean value) {
+    return ProtoWriter.tagSize(tag) + encodedSizeBoolean(value);
+  }
+
+  /** Write {@code tag} and {@code value} to {@code writer}. */
+  public final void encodeBooleanWithTag(ProtoWriter writer, int tag, boolean value)
+      throws IOException {
+    writer.writeTag(tag, fieldEncoding);
+    encodeBoolean(writer, value);
+  }
+
+  /** Write {@code value} and then {@code tag} to {@code writer}, which writes back to front. */
+  public final void encodeBooleanWithTag(ReverseProtoWriter writer, int tag, boolean value)
+      throws IOException {
+    encodeBoolean(writer, value);
+    writer.writeTag(tag, fieldEncoding);
+  }
+
+  @Override public final int encodedSize(Boolean value) {
+    return encodedSizeBoolean(value);
+  }
+
+  @Override public final void encode(ProtoWriter writer, Boolean value) throws IOException {
+    encodeBoolean(writer, value);
+  }
+
+  @Override public final void encode(ReverseProtoWriter writer, Boolean value) throws IOException {
+    encodeBoolean(writer, value);
+  }
+
+  @Override public final Boolean decode(ProtoReader reader) throws IOException {
+    return decodeBoolean(reader);
+  }
+
+  @Override int encodedSizePacked(List<Boolean> values) {
+    if (!(values instanceof BooleanList)) return super.encodedSizePacked(values);
+    BooleanList booleans = (BooleanList) values;
+    int size = 0;
+    for (int i = 0, count = booleans.size(); i < count; i++) {
+      size += encodedSizeBoolean(booleans.getBoolean(i));
+    }
+    return size;
+  }
+
+  @Override void encodePacked(ProtoWriter writer, List<Boolean> values) throws IOException {
+    if (!(values instanceof BooleanList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    BooleanList booleans = (BooleanList) values;
+    for (int i = 0, count = booleans.size(); i < count; i++) {
+      encodeBoolean(writer, booleans.getBoolean(i));
+    }
+  }
+
+  @Override void encodePacked(ReverseProtoWriter writer, List<Boolean> values) throws IOException {
+    if (!(values instanceof BooleanList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    BooleanList booleans = (BooleanList) values;
+    for (int i = booleans.size() - 1; i >= 0; i--) {
+      encodeBoolean(writer, booleans.getBoolean(i));
+    }
+  }
+}
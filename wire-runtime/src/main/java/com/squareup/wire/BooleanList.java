@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+/** A list of {@code boolean} values that doesn't box them. */
+public final class BooleanList extends PrimitiveList<Boolean> {
+  private static final boolean[] EMPTY = new boolean[0];
+
+  /** Creates a new empty mutable list. */
+  public BooleanList() {
+    this(EMPTY, 0, true);
+  }
+
+  BooleanList(boolean[] values, int size, boolean mutable) {
+    super(values, size, mutable);
+  }
+
+  /** Returns an immutable list containing {@code values}. */
+  public static BooleanList of(boolean... values) {
+    return new BooleanList(values.clone(), values.length, false);
+  }
+
+  public boolean getBoolean(int index) {
+    checkIndex(index);
+    return ((boolean[]) values)[index];
+  }
+
+  /** Replaces the value at {@code index}, returning the value it replaced. */
+  public boolean setBoolean(int index, boolean value) {
+    checkMutable();
+    checkIndex(index);
+    boolean[] values = (boolean[]) this.values;
+    boolean result = values[index];
+    values[index] = value;
+    return result;
+  }
+
+  public void addBoolean(boolean value) {
+    int index = append();
+    ((boolean[]) values)[index] = value;
+  }
+
+  /** Returns a new array containing the values of this list. */
+  public boolean[] toBooleanArray() {
+    return (boolean[]) valuesCopy();
+  }
+
+  @Override public Boolean get(int index) {
+    return getBoolean(index);
+  }
+
+  @Override public Boolean set(int index, Boolean value) {
+    return setBoolean(index, value);
+  }
+
+  @Override public void add(int index, Boolean value) {
+    boolean primitive = value; // Throws NullPointerException before this list is changed.
+    insert(index);
+    ((boolean[]) values)[index] = primitive;
+  }
+
+  @Override public Boolean remove(int index) {
+    boolean result = getBoolean(index);
+    delete(index);
+    return result;
+  }
+
+  @Override Object newArray(int length) {
+    return new boolean[length];
+  }
+
+  @Override BooleanList newList(Object values, int size, boolean mutable) {
+    return new BooleanList((boolean[]) values, size, mutable);
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof BooleanList)) return super.equals(other);
+    BooleanList o = (BooleanList) other;
+    if (size != o.size) return false;
+    boolean[] values = (boolean[]) this.values;
+    boolean[] otherValues = (boolean[]) o.values;
+    for (int i = 0; i < size; i++) {
+      boolean a = values[i];
+      boolean b = otherValues[i];
+      if (a != b) return false;
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    // Matches the hash code of a List<Boolean> with the same values.
+    boolean[] values = (boolean[]) this.values;
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      boolean value = values[i];
+      result = 31 * result + (value ? 1231 : 1237);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import okio.BufferedSink;
+import okio.ByteString;
+
+/** Writes to an Okio sink, one buffered byte at a time. */
+final class BufferedSinkOutput extends ProtoOutput {
+  /** The most bytes copied at a time out of buffers whose storage isn't an accessible array. */
+  private static final int BYTE_BUFFER_CHUNK_SIZE = 8192;
+
+  private BufferedSink sink;
+
+  BufferedSinkOutput(BufferedSink sink) {
+    this.sink = sink;
+  }
+
+  void reset(BufferedSink sink) {
+    this.sink = sink;
+  }
+
+  @Override void release() {
+    sink = null;
+  }
+
+  @Override void writeVarint32(int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      sink.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    sink.writeByte(value);
+  }
+
+  @Override void writeVarint64(long value) throws IOException {
+    while ((value & ~0x7fL) != 0) {
+      sink.writeByte(((int) value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    sink.writeByte((int) value);
+  }
+
+  @Override void writeIntLe(int value) throws IOException {
+    sink.writeIntLe(value);
+  }
+
+  @Override void writeLongLe(long value) throws IOException {
+    sink.writeLongLe(value);
+  }
+
+  @Override void write(ByteString value) throws IOException {
+    sink.write(value);
+  }
+
+  @Override void write(ByteBuffer value) throws IOException {
+    if (value.hasArray()) {
+      sink.write(value.array(), value.arrayOffset() + value.position(), value.remaining());
+      return;
+    }
+    ByteBuffer source = value.duplicate();
+    byte[] chunk = new byte[Math.min(source.remaining(), BYTE_BUFFER_CHUNK_SIZE)];
+    while (source.hasRemaining()) {
+      int count = Math.min(source.remaining(), chunk.length);
+      source.get(chunk, 0, count);
+      sink.write(chunk, 0, count);
+    }
+  }
+
+  @Override void writeUtf8(String value) throws IOException {
+    sink.writeUtf8(value);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/** Reads from an Okio source, one buffered byte at a time. */
+final class BufferedSourceInput extends ProtoInput {
+  private BufferedSource source;
+  private long pos;
+  /** Reusable storage for strings short enough to be cached. */
+  private byte[] scratch;
+
+  BufferedSourceInput(BufferedSource source) {
+    this.source = source;
+  }
+
+  /** Reads from {@code source}, starting at position 0. Scratch storage is kept. */
+  void reset(BufferedSource source) {
+    this.source = source;
+    this.pos = 0;
+  }
+
+  @Override void release() {
+    source = null;
+  }
+
+  @Override long position() {
+    return pos;
+  }
+
+  @Override boolean exhausted() throws IOException {
+    return source.exhausted();
+  }
+
+  @Override int readVarint32() throws IOException {
+    pos++;
+    byte tmp = source.readByte();
+    if (tmp >= 0) {
+      return tmp;
+    }
+    int result = tmp & 0x7f;
+    pos++;
+    if ((tmp = source.readByte()) >= 0) {
+      result |= tmp << 7;
+    } else {
+      result |= (tmp & 0x7f) << 7;
+      pos++;
+      if ((tmp = source.readByte()) >= 0) {
+        result |= tmp << 14;
+      } else {
+        result |= (tmp & 0x7f) << 14;
+        pos++;
+        if ((tmp = source.readByte()) >= 0) {
+          result |= tmp << 21;
+        } else {
+          result |= (tmp & 0x7f) << 21;
+          pos++;
+          result |= (tmp = source.readByte()) << 28;
+          if (tmp < 0) {
+            // Discard upper 32 bits.
+            for (int i = 0; i < 5; i++) {
+              pos++;
+              if (source.readByte() >= 0) {
+                return result;
+              }
+            }
+            throw new ProtocolException("Malformed VARINT");
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override long readVarint64() throws IOException {
+    int shift = 0;
+    long result = 0;
+    while (shift < 64) {
+      pos++;
+      byte b = source.readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+      shift += 7;
+    }
+    throw new ProtocolException("WireInput encountered a malformed varint");
+  }
+
+  @Override int readIntLe() throws IOException {
+    source.require(4); // Throws EOFException if insufficient bytes are available.
+    pos += 4;
+    return source.readIntLe();
+  }
+
+  @Override long readLongLe() throws IOException {
+    source.require(8); // Throws EOFException if insufficient bytes are available.
+    pos += 8;
+    return source.readLongLe();
+  }
+
+  @Override void skip(long byteCount) throws IOException {
+    pos += byteCount;
+    source.skip(byteCount);
+  }
+
+  @Override ByteString readByteString(long byteCount) throws IOException {
+    source.require(byteCount); // Throws EOFException if insufficient bytes are available.
+    pos += byteCount;
+    return source.readByteString(byteCount);
+  }
+
+  @Override ByteBuffer readByteBuffer(long byteCount) throws IOException {
+    source.require(byteCount); // Throws EOFException if insufficient bytes are available.
+    pos += byteCount;
+    return ByteBuffer.wrap(source.readByteArray(byteCount)).asReadOnlyBuffer();
+  }
+
+  @Override String readUtf8(long byteCount) throws IOException {
+    source.require(byteCount); // Throws EOFException if insufficient bytes are available.
+    pos += byteCount;
+    return source.readUtf8(byteCount);
+  }
+
+  @Override String readUtf8(long byteCount, StringCache cache) throws IOException {
+    if (byteCount > StringCache.MAX_CACHED_LENGTH) return readUtf8(byteCount);
+    source.require(byteCount); // Throws EOFException if insufficient bytes are available.
+    pos += byteCount;
+    int count = (int) byteCount;
+    byte[] bytes = scratch;
+    if (bytes == null) bytes = scratch = new byte[StringCache.MAX_CACHED_LENGTH];
+    int offset = 0;
+    while (offset < count) {
+      offset += source.read(bytes, offset, count - offset);
+    }
+    return cache.get(bytes, 0, count);
+  }
+}
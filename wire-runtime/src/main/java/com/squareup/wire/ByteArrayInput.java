@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import okio.ByteString;
+
+/**
+ * Reads directly from a byte array. All reads are bounds-checked against the end of the input
+ * region and throw {@link EOFException} if it is exceeded.
+ */
+final class ByteArrayInput extends ProtoInput {
+  private static final byte[] EMPTY = new byte[0];
+
+  private byte[] data;
+  private int start;
+  private int end;
+  private int pos;
+
+  ByteArrayInput(byte[] data, int offset, int byteCount) {
+    reset(data, offset, byteCount);
+  }
+
+  /** Reads {@code byteCount} bytes of {@code data} from {@code offset}, starting at position 0. */
+  void reset(byte[] data, int offset, int byteCount) {
+    if ((offset | byteCount) < 0 || offset > data.length - byteCount) {
+      throw new ArrayIndexOutOfBoundsException(
+          "size=" + data.length + " offset=" + offset + " byteCount=" + byteCount);
+    }
+    this.data = data;
+    this.start = offset;
+    this.end = offset + byteCount;
+    this.pos = offset;
+  }
+
+  @Override void release() {
+    reset(EMPTY, 0, 0);
+  }
+
+  @Override long position() {
+    return pos - start;
+  }
+
+  @Override boolean exhausted() {
+    return pos == end;
+  }
+
+  @Override int readVarint32() throws IOException {
+    byte[] data = this.data;
+    int end = this.end;
+    int pos = this.pos;
+    int result = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (pos == end) throw new EOFException();
+      byte b = data[pos++];
+      result |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        this.pos = pos;
+        return result;
+      }
+    }
+    // Discard upper 32 bits.
+    for (int i = 0; i < 5; i++) {
+      if (pos == end) throw new EOFException();
+      if (data[pos++] >= 0) {
+        this.pos = pos;
+        return result;
+      }
+    }
+    throw new ProtocolException("Malformed VARINT");
+  }
+
+  @Override long readVarint64() throws IOException {
+    byte[] data = this.data;
+    int end = this.end;
+    int pos = this.pos;
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (pos == end) throw new EOFException();
+      byte b = data[pos++];
+      result |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        this.pos = pos;
+        return result;
+      }
+    }
+    throw new ProtocolException("WireInput encountered a malformed varint");
+  }
+
+  @Override int readIntLe() throws IOException {
+    int pos = this.pos;
+    if (end - pos < 4) throw new EOFException();
+    byte[] data = this.data;
+    this.pos = pos + 4;
+    return (data[pos] & 0xff)
+        | (data[pos + 1] & 0xff) << 8
+        | (data[pos + 2] & 0xff) << 16
+        | (data[pos + 3] & 0xff) << 24;
+  }
+
+  @Override long readLongLe() throws IOException {
+    int pos = this.pos;
+    if (end - pos < 8) throw new EOFException();
+    byte[] data = this.data;
+    this.pos = pos + 8;
+    return (data[pos] & 0xffL)
+        | (data[pos + 1] & 0xffL) << 8
+        | (data[pos + 2] & 0xffL) << 16
+        | (data[pos + 3] & 0xffL) << 24
+        | (data[pos + 4] & 0xffL) << 32
+        | (data[pos + 5] & 0xffL) << 40
+        | (data[pos + 6] & 0xffL) << 48
+        | (data[pos + 7] & 0xffL) << 56;
+  }
+
+  @Override void skip(long byteCount) throws IOException {
+    pos += require(byteCount);
+  }
+
+  @Override ByteString readByteString(long byteCount) throws IOException {
+    int count = require(byteCount);
+    ByteString result = ByteString.of(data, pos, count);
+    pos += count;
+    return result;
+  }
+
+  @Override boolean retainsBytes() {
+    return true;
+  }
+
+  @Override ByteString byteStringAt(long position, long byteCount) throws IOException {
+    int pos = this.pos;
+    this.pos = start + (int) position;
+    try {
+      return readByteString(byteCount);
+    } finally {
+      this.pos = pos;
+    }
+  }
+
+  @Override ByteBuffer readByteBuffer(long byteCount) throws IOException {
+    int count = require(byteCount);
+    ByteBuffer result = ByteBuffer.wrap(data, pos, count).slice().asReadOnlyBuffer();
+    pos += count;
+    return result;
+  }
+
+  @Override String readUtf8(long byteCount) throws IOException {
+    int count = require(byteCount);
+    String result = StringCache.decode(data, pos, count);
+    pos += count;
+    return result;
+  }
+
+  @Override String readUtf8(long byteCount, StringCache cache) throws IOException {
+    int count = require(byteCount);
+    String result = cache.get(data, pos, count);
+    pos += count;
+    return result;
+  }
+
+  /** Returns {@code byteCount} as an int, throwing if there are fewer bytes remaining. */
+  private int require(long byteCount) throws EOFException {
+    if (byteCount > end - pos) throw new EOFException();
+    return (int) byteCount;
+  }
+}
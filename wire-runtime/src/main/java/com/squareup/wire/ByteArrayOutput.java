@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import okio.ByteString;
+
+import static com.squareup.wire.ProtoWriter.utf8Length;
+
+/**
+ * Writes directly into a byte array. All writes are bounds-checked against the end of the output
+ * region and throw {@link BufferOverflowException} if it is exceeded.
+ */
+final class ByteArrayOutput extends ProtoOutput {
+  private static final byte[] EMPTY = new byte[0];
+
+  private byte[] data;
+  private int start;
+  private int end;
+  private int pos;
+
+  ByteArrayOutput(byte[] data, int offset, int byteCount) {
+    reset(data, offset, byteCount);
+  }
+
+  /** Writes up to {@code byteCount} bytes into {@code data} from {@code offset}. */
+  void reset(byte[] data, int offset, int byteCount) {
+    if ((offset | byteCount) < 0 || offset > data.length - byteCount) {
+      throw new ArrayIndexOutOfBoundsException(
+          "size=" + data.length + " offset=" + offset + " byteCount=" + byteCount);
+    }
+    this.data = data;
+    this.start = offset;
+    this.end = offset + byteCount;
+    this.pos = offset;
+  }
+
+  @Override void release() {
+    reset(EMPTY, 0, 0);
+  }
+
+  /** Returns the number of bytes written to this output. */
+  int byteCount() {
+    return pos - start;
+  }
+
+  @Override void writeVarint32(int value) {
+    byte[] data = this.data;
+    int pos = this.pos;
+    if (end - pos < ProtoInput.MAX_VARINT_SIZE) {
+      require(ProtoWriter.varint32Size(value));
+    }
+    while ((value & ~0x7f) != 0) {
+      data[pos++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    data[pos++] = (byte) value;
+    this.pos = pos;
+  }
+
+  @Override void writeVarint64(long value) {
+    byte[] data = this.data;
+    int pos = this.pos;
+    if (end - pos < ProtoInput.MAX_VARINT_SIZE) {
+      require(ProtoWriter.varint64Size(value));
+    }
+    while ((value & ~0x7fL) != 0) {
+      data[pos++] = (byte) (((int) value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    data[pos++] = (byte) value;
+    this.pos = pos;
+  }
+
+  @Override void writeIntLe(int value) {
+    require(4);
+    byte[] data = this.data;
+    int pos = this.pos;
+    data[pos] = (byte) value;
+    data[pos + 1] = (byte) (value >>> 8);
+    data[pos + 2] = (byte) (value >>> 16);
+    data[pos + 3] = (byte) (value >>> 24);
+    this.pos = pos + 4;
+  }
+
+  @Override void writeLongLe(long value) {
+    require(8);
+    byte[] data = this.data;
+    int pos = this.pos;
+    for (int i = 0; i < 8; i++) {
+      data[pos + i] = (byte) (value >>> (8 * i));
+    }
+    this.pos = pos + 8;
+  }
+
+  @Override void write(ByteString value) {
+    int count = value.size();
+    require(count);
+    copy(value, data, pos);
+    pos += count;
+  }
+
+  @Override void write(ByteBuffer value) {
+    int count = value.remaining();
+    require(count);
+    value.duplicate().get(data, pos, count);
+    pos += count;
+  }
+
+  @Override void writeUtf8(String value) {
+    require(utf8Length(value));
+    pos = encodeUtf8(value, data, pos);
+  }
+
+  private void require(int byteCount) {
+    if (byteCount > end - pos) throw new BufferOverflowException();
+  }
+
+  /** Copies the bytes of {@code value} into {@code data} at {@code offset}. */
+  static void copy(ByteString value, final byte[] data, final int offset) {
+    try {
+      // ByteString writes its bytes to a stream in one call, sparing us a copy of its array.
+      value.write(new OutputStream() {
+        int pos = offset;
+
+        @Override public void write(int b) {
+          data[pos++] = (byte) b;
+        }
+
+        @Override public void write(byte[] bytes, int offset, int byteCount) {
+          System.arraycopy(bytes, offset, data, pos, byteCount);
+          pos += byteCount;
+        }
+      });
+    } catch (IOException e) {
+      throw new AssertionError(e); // No I/O writing to an array.
+    }
+  }
+
+  /**
+   * Encodes {@code value} as UTF-8 into {@code data} at {@code pos}, which must have room for
+   * {@link ProtoWriter#utf8Length} bytes, and returns the position following the last byte.
+   */
+  static int encodeUtf8(String value, byte[] data, int pos) {
+    for (int i = 0, length = value.length(); i < length; i++) {
+      int c = value.charAt(i);
+      if (c < 0x80) {
+        data[pos++] = (byte) c;
+      } else if (c < 0x800) {
+        data[pos++] = (byte) (0xc0 | c >> 6);
+        data[pos++] = (byte) (0x80 | c & 0x3f);
+      } else if (c < 0xd800 || c > 0xdfff) {
+        data[pos++] = (byte) (0xe0 | c >> 12);
+        data[pos++] = (byte) (0x80 | c >> 6 & 0x3f);
+        data[pos++] = (byte) (0x80 | c & 0x3f);
+      } else {
+        int low = i + 1 < length ? value.charAt(i + 1) : 0;
+        if (c > 0xdbff || low < 0xdc00 || low > 0xdfff) {
+          // An unexpected surrogate yields a '?' character.
+          data[pos++] = '?';
+          continue;
+        }
+        int codePoint = 0x010000 + ((c & ~0xd800) << 10 | low & ~0xdc00);
+        data[pos++] = (byte) (0xf0 | codePoint >> 18);
+        data[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+        data[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+        data[pos++] = (byte) (0x80 | codePoint & 0x3f);
+        i++;
+      }
+    }
+    return pos;
+  }
+}
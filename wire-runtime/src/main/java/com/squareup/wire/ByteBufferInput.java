@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import okio.ByteString;
+
+/**
+ * Reads the remaining bytes of a {@link ByteBuffer} that isn't backed by an accessible array, such
+ * as a direct buffer. This uses absolute gets so the buffer's own position is never touched.
+ */
+final class ByteBufferInput extends ProtoInput {
+  private static final int SCRATCH_SIZE = 8192;
+
+  private final ByteBuffer buffer;
+  private final int start;
+  private final int end;
+  private int pos;
+  private byte[] scratch;
+
+  ByteBufferInput(ByteBuffer buffer) {
+    this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    this.start = buffer.position();
+    this.end = buffer.limit();
+    this.pos = start;
+  }
+
+  @Override long position() {
+    return pos - start;
+  }
+
+  @Override boolean exhausted() {
+    return pos == end;
+  }
+
+  @Override int readVarint32() throws IOException {
+    ByteBuffer buffer = this.buffer;
+    int end = this.end;
+    int pos = this.pos;
+    int result = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (pos == end) throw new EOFException();
+      byte b = buffer.get(pos++);
+      result |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        this.pos = pos;
+        return result;
+      }
+    }
+    // Discard upper 32 bits.
+    for (int i = 0; i < 5; i++) {
+      if (pos == end) throw new EOFException();
+      if (buffer.get(pos++) >= 0) {
+        this.pos = pos;
+        return result;
+      }
+    }
+    throw new ProtocolException("Malformed VARINT");
+  }
+
+  @Override long readVarint64() throws IOException {
+    ByteBuffer buffer = this.buffer;
+    int end = this.end;
+    int pos = this.pos;
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (pos == end) throw new EOFException();
+      byte b = buffer.get(pos++);
+      result |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        this.pos = pos;
+        return result;
+      }
+    }
+    throw new ProtocolException("WireInput encountered a malformed varint");
+  }
+
+  @Override int readIntLe() throws IOException {
+    int pos = this.pos;
+    if (end - pos < 4) throw new EOFException();
+    this.pos = pos + 4;
+    return buffer.getInt(pos);
+  }
+
+  @Override long readLongLe() throws IOException {
+    int pos = this.pos;
+    if (end - pos < 8) throw new EOFException();
+    this.pos = pos + 8;
+    return buffer.getLong(pos);
+  }
+
+  @Override void skip(long byteCount) throws IOException {
+    pos += require(byteCount);
+  }
+
+  @Override ByteString readByteString(long byteCount) throws IOException {
+    int count = require(byteCount);
+    buffer.position(pos);
+    pos += count;
+    // Unlike ByteString.of(), read() takes ownership of the array it fills, saving a copy.
+    return ByteString.read(new InputStream() {
+      @Override public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+      }
+
+      @Override public int read(byte[] sink, int offset, int byteCount) {
+        int toRead = Math.min(byteCount, buffer.remaining());
+        buffer.get(sink, offset, toRead);
+        return toRead;
+      }
+    }, count);
+  }
+
+  @Override boolean retainsBytes() {
+    return true;
+  }
+
+  @Override ByteString byteStringAt(long position, long byteCount) throws IOException {
+    int pos = this.pos;
+    this.pos = start + (int) position;
+    try {
+      return readByteString(byteCount);
+    } finally {
+      this.pos = pos;
+    }
+  }
+
+  @Override ByteBuffer readByteBuffer(long byteCount) throws IOException {
+    int count = require(byteCount);
+    ByteBuffer slice = buffer.duplicate();
+    slice.limit(pos + count);
+    slice.position(pos);
+    pos += count;
+    return slice.slice().asReadOnlyBuffer();
+  }
+
+  @Override String readUtf8(long byteCount) throws IOException {
+    int count = require(byteCount);
+    byte[] bytes = count <= SCRATCH_SIZE ? scratch() : new byte[count];
+    buffer.position(pos);
+    buffer.get(bytes, 0, count);
+    pos += count;
+    return StringCache.decode(bytes, 0, count);
+  }
+
+  @Override String readUtf8(long byteCount, StringCache cache) throws IOException {
+    if (byteCount > StringCache.MAX_CACHED_LENGTH) return readUtf8(byteCount);
+    int count = require(byteCount);
+    byte[] bytes = scratch();
+    buffer.position(pos);
+    buffer.get(bytes, 0, count);
+    pos += count;
+    return cache.get(bytes, 0, count);
+  }
+
+  /** Returns a reusable array to decode short strings from, so they don't each allocate one. */
+  private byte[] scratch() {
+    byte[] result = scratch;
+    return result != null ? result : (scratch = new byte[SCRATCH_SIZE]);
+  }
+
+  /** Returns {@code byteCount} as an int, throwing if there are fewer bytes remaining. */
+  private int require(long byteCount) throws EOFException {
+    if (byteCount > end - pos) throw new EOFException();
+    return (int) byteCount;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import okio.ByteString;
+
+import static com.squareup.wire.ProtoWriter.utf8Length;
+
+/**
+ * Writes directly into a {@link ByteBuffer}, which may be direct. Writes advance the buffer's
+ * position and throw {@link java.nio.BufferOverflowException} if it has too few bytes remaining.
+ */
+final class ByteBufferOutput extends ProtoOutput {
+  private final ByteBuffer buffer;
+
+  ByteBufferOutput(ByteBuffer buffer) {
+    this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /** Returns the position following the last byte written. */
+  int position() {
+    return buffer.position();
+  }
+
+  @Override void writeVarint32(int value) {
+    ByteBuffer buffer = this.buffer;
+    while ((value & ~0x7f) != 0) {
+      buffer.put((byte) ((value & 0x7f) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  @Override void writeVarint64(long value) {
+    ByteBuffer buffer = this.buffer;
+    while ((value & ~0x7fL) != 0) {
+      buffer.put((byte) (((int) value & 0x7f) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  @Override void writeIntLe(int value) {
+    buffer.putInt(value);
+  }
+
+  @Override void writeLongLe(long value) {
+    buffer.putLong(value);
+  }
+
+  @Override void write(ByteString value) {
+    try {
+      // ByteString writes its bytes to a stream in one call, sparing us a copy of its array.
+      value.write(new OutputStream() {
+        @Override public void write(int b) {
+          buffer.put((byte) b);
+        }
+
+        @Override public void write(byte[] bytes, int offset, int byteCount) {
+          buffer.put(bytes, offset, byteCount);
+        }
+      });
+    } catch (IOException e) {
+      throw new AssertionError(e); // No I/O writing to a buffer.
+    }
+  }
+
+  @Override void write(ByteBuffer value) {
+    buffer.put(value.duplicate());
+  }
+
+  @Override void writeUtf8(String value) {
+    ByteBuffer buffer = this.buffer;
+    int length = value.length();
+    int i = 0;
+    while (i < length) {
+      char c = value.charAt(i);
+      if (c >= 0x80) break;
+      buffer.put((byte) c);
+      i++;
+    }
+    if (i == length) return;
+
+    // Encode the non-ASCII remainder in one bulk put.
+    String rest = value.substring(i);
+    byte[] data = new byte[utf8Length(rest)];
+    ByteArrayOutput.encodeUtf8(rest, data, 0);
+    buffer.put(data);
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.squareup.wire.Preconditions.checkNotNull;
+
+/**
+ * Decodes a stream of messages, each preceded by its varint length, from chunks of bytes as they
+ * arrive. Unlike {@link DelimitedMessageReader} this never blocks waiting for more input: a
+ * message or length prefix split across chunks is held until the rest of it is pushed, so a
+ * single thread can decode many non-blocking channels.
+ *
+ * <pre>   {@code
+ *
+ *   // Called when the selector reports that the channel is readable.
+ *   buffer.clear();
+ *   channel.read(buffer);
+ *   buffer.flip();
+ *   List<LogEntry> entries = new ArrayList<>();
+ *   decoder.decode(buffer, entries);
+ * }</pre>
+ *
+ * <p>Messages contained entirely within a chunk are decoded from it directly. Values that share
+ * their storage with the input, like those of {@link ProtoAdapter#BYTE_BUFFER}, are then backed
+ * by the chunk and are invalidated when the caller clears and refills it. Copy them before reusing
+ * the chunk. Only messages that span chunks are copied, into storage that grows with the bytes
+ * received and is handed off to the decoded message rather than reused. Instances are not thread
+ * safe.
+ */
+public final class DelimitedMessageDecoder<E> {
+  private static final byte[] EMPTY = new byte[0];
+
+  private final ProtoAdapter<E> adapter;
+  private final int maxMessageSize;
+  /** The bits of a length prefix that has been partially received. */
+  private int prefix;
+  /** The number of bits in {@link #prefix}. */
+  private int prefixShift;
+  /** The length of the current message, or -1 if its length prefix hasn't been received. */
+  private int messageLength = -1;
+  /**
+   * The bytes received of a message that spans chunks. Decoded values may share this storage, so it
+   * is replaced rather than reused once its message is complete.
+   */
+  private byte[] message = EMPTY;
+  /** The number of bytes in {@link #message}. */
+  private int messageCount;
+
+  public DelimitedMessageDecoder(ProtoAdapter<E> adapter) {
+    this(adapter, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a decoder that fails with a {@link ProtocolException} if a message's length exceeds
+   * {@code maxMessageSize}.
+   */
+  public DelimitedMessageDecoder(ProtoAdapter<E> adapter, int maxMessageSize) {
+    checkNotNull(adapter, "adapter == null");
+    if (maxMessageSize < 0) throw new IllegalArgumentException("maxMessageSize < 0");
+    this.adapter = adapter;
+    this.maxMessageSize = maxMessageSize;
+  }
+
+  /**
+   * Consumes the remaining bytes of {@code chunk}, adding each message that they complete to
+   * {@code out}, and returns the number of messages added. Bytes of an incomplete trailing message
+   * are retained until the next call. If a message can't be decoded this throws once its bytes
+   * have been consumed, and decoding may resume with the next message. A malformed length prefix
+   * can't be recovered from.
+   */
+  public int decode(ByteBuffer chunk, List<? super E> out) throws IOException {
+    checkNotNull(chunk, "chunk == null");
+    checkNotNull(out, "out == null");
+    int count = 0;
+    while (true) {
+      if (messageLength == -1 && !readLengthPrefix(chunk)) return count;
+
+      int length = messageLength;
+      if (messageCount == 0 && chunk.remaining() >= length) {
+        // The whole message is in this chunk. Decode it in place.
+        int position = chunk.position();
+        messageLength = -1;
+        chunk.position(position + length);
+        out.add(decode(chunk, position, length));
+      } else {
+        int byteCount = Math.min(length - messageCount, chunk.remaining());
+        if (message.length < messageCount + byteCount) {
+          message = Arrays.copyOf(message,
+              (int) Math.min(length, Math.max(messageCount + byteCount, 2L * message.length)));
+        }
+        chunk.get(message, messageCount, byteCount);
+        messageCount += byteCount;
+        if (messageCount < length) return count;
+
+        byte[] bytes = message;
+        message = EMPTY;
+        messageLength = -1;
+        messageCount = 0;
+        out.add(decode(bytes, 0, length));
+      }
+      count++;
+    }
+  }
+
+  /**
+   * Returns true if the bytes pushed so far end partway through a message or its length prefix.
+   * Use this at the end of the stream to detect a truncated message.
+   */
+  public boolean hasPartialMessage() {
+    return messageLength != -1 || prefixShift != 0;
+  }
+
+  /**
+   * Consumes the bytes of a length prefix from {@code chunk}. Returns false if {@code chunk} is
+   * exhausted before the prefix is complete.
+   */
+  private boolean readLengthPrefix(ByteBuffer chunk) throws ProtocolException {
+    while (chunk.hasRemaining()) {
+      byte b = chunk.get();
+      prefix |= (b & 0x7f) << prefixShift;
+      if (b >= 0) {
+        int length = prefix;
+        prefix = 0;
+        prefixShift = 0;
+        if (length < 0 || length > maxMessageSize) {
+          throw new ProtocolException("Message too large: " + (length & 0xffffffffL));
+        }
+        messageLength = length;
+        return true;
+      }
+      prefixShift += 7;
+      if (prefixShift == 35) throw new ProtocolException("Malformed length prefix");
+    }
+    return false;
+  }
+
+  private E decode(ByteBuffer chunk, int position, int length) throws IOException {
+    if (chunk.hasArray()) return decode(chunk.array(), chunk.arrayOffset() + position, length);
+    ByteBuffer slice = chunk.duplicate();
+    slice.limit(position + length).position(position);
+    return adapter.decode(slice);
+  }
+
+  private E decode(byte[] bytes, int offset, int length) throws IOException {
+    ProtoReader reader = ProtoReader.acquire();
+    try {
+      reader.reset(bytes, offset, length);
+      return adapter.decode(reader);
+    } finally {
+      reader.release();
+    }
+  }
+}
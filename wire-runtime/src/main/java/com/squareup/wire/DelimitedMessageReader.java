@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import okio.BufferedSource;
+
+import static com.squareup.wire.Preconditions.checkNotNull;
+
+/**
+ * Reads a stream of messages, each preceded by its varint length, like those written by {@link
+ * ProtoAdapter#encodeDelimited}. A single {@link ProtoReader} is used for every message, so the
+ * stream's buffered bytes are shared by all messages rather than read ahead and lost. Reads block
+ * until each message has arrived; use {@link DelimitedMessageDecoder} for non-blocking input.
+ *
+ * <pre>   {@code
+ *
+ *   DelimitedMessageReader<LogEntry> entries
+ *       = new DelimitedMessageReader<>(LogEntry.ADAPTER, Okio.buffer(Okio.source(file)));
+ *   for (LogEntry entry; (entry = entries.read()) != null;) {
+ *     ...
+ *   }
+ * }</pre>
+ */
+public final class DelimitedMessageReader<E> {
+  private final ProtoAdapter<E> adapter;
+  private final ProtoReader reader;
+
+  public DelimitedMessageReader(ProtoAdapter<E> adapter, BufferedSource source) {
+    checkNotNull(adapter, "adapter == null");
+    checkNotNull(source, "source == null");
+    this.adapter = adapter;
+    this.reader = new ProtoReader(source);
+  }
+
+  /**
+   * Reads messages from {@code reader}, which must not have been used to read anything else. Use
+   * this to read messages from a {@linkplain ProtoReader#mapped mapped file}, or to read only the
+   * fields selected by a {@link FieldMask}.
+   */
+  public DelimitedMessageReader(ProtoAdapter<E> adapter, ProtoReader reader) {
+    checkNotNull(adapter, "adapter == null");
+    checkNotNull(reader, "reader == null");
+    this.adapter = adapter;
+    this.reader = reader;
+  }
+
+  /** Returns the next message in the stream, or null if the stream is exhausted. */
+  public E read() throws IOException {
+    return reader.nextDelimitedMessage() ? adapter.decode(reader) : null;
+  }
+}
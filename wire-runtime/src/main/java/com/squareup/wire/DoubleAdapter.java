@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An adapter for {@code double} values with methods that read and write them without boxing.
+ * Generated code uses these methods for primitive fields and {@link DoubleList} fields.
+ */
+public abstract class DoubleAdapter extends ProtoAdapter<Double> {
+  DoubleAdapter(FieldEncoding fieldEncoding) {
+    super(fieldEncoding, Double.class);
+  }
+
+  abstract int encodedSizeDouble(double value);
+
+  abstract void encodeDouble(ProtoWriter writer, double value) throws IOException;
+
+  abstract void encodeDouble(ReverseProtoWriter writer, double value) throws IOException;
+
+  /** Read a non-null {@code double} from {@code reader}. */
+  public abstract double decodeDouble(ProtoReader reader) throws IOException;
+
+  /** The size of {@code tag} and {@code value} in the wire format. */
+  public final int encodedSizeDoubleWithTag(int tag, double value) {
+    return ProtoWriter.tagSize(tag) + encodedSizeDouble(value);
+  }
+
+  /** Write {@code tag} and {@code value} to {@code writer}. */
+  public final void encodeDoubleWithTag(ProtoWriter writer, int tag, double value)
+      throws IOException {
+    writer.writeTag(tag, fieldEncoding);
+    encodeDouble(writer, value);
+  }
+
+  /** Write {@code value} and then {@code tag} to {@code writer}, which writes back to front. */
+  public final void encodeDoubleWithTag(ReverseProtoWriter writer, int tag, double value)
+      throws IOException {
+    encodeDouble(writer, value);
+    writer.writeTag(tag, fieldEncoding);
+  }
+
+  @Override public final int encodedSize(Double value) {
+    return encodedSizeDouble(value);
+  }
+
+  @Override public final void encode(ProtoWriter writer, Double value) throws IOException {
+    encodeDouble(writer, value);
+  }
+
+  @Override public final void encode(ReverseProtoWriter writer, Double value) throws IOException {
+    encodeDouble(writer, value);
+  }
+
+  @Override public final Double decode(ProtoReader reader) throws IOException {
+    return decodeDouble(reader);
+  }
+
+  @Override int encodedSizePacked(List<Double> values) {
+    if (!(values instanceof DoubleList)) return super.encodedSizePacked(values);
+    DoubleList doubles = (DoubleList) values;
+    int size = 0;
+    for (int i = 0, count = doubles.size(); i < count; i++) {
+      size += encodedSizeDouble(doubles.getDouble(i));
+    }
+    return size;
+  }
+
+  @Override void encodePacked(ProtoWriter writer, List<Double> values) throws IOException {
+    if (!(values instanceof DoubleList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    DoubleList doubles = (DoubleList) values;
+    for (int i = 0, count = doubles.size(); i < count; i++) {
+      encodeDouble(writer, doubles.getDouble(i));
+    }
+  }
+
+  @Override void encodePacked(ReverseProtoWriter writer, List<Double> values) throws IOException {
+    if (!(values instanceof DoubleList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    DoubleList doubles = (DoubleList) values;
+    for (int i = doubles.size() - 1; i >= 0; i--) {
+      encodeDouble(writer, doubles.getDouble(i));
+    }
+  }
+}
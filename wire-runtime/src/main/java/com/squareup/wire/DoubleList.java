@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+/** A list of {@code double} values that doesn't box them. */
+public final class DoubleList extends PrimitiveList<Double> {
+  private static final double[] EMPTY = new double[0];
+
+  /** Creates a new empty mutable list. */
+  public DoubleList() {
+    this(EMPTY, 0, true);
+  }
+
+  DoubleList(double[] values, int size, boolean mutable) {
+    super(values, size, mutable);
+  }
+
+  /** Returns an immutable list containing {@code values}. */
+  public static DoubleList of(double... values) {
+    return new DoubleList(values.clone(), values.length, false);
+  }
+
+  public double getDouble(int index) {
+    checkIndex(index);
+    return ((double[]) values)[index];
+  }
+
+  /** Replaces the value at {@code index}, returning the value it replaced. */
+  public double setDouble(int index, double value) {
+    checkMutable();
+    checkIndex(index);
+    double[] values = (double[]) this.values;
+    double result = values[index];
+    values[index] = value;
+    return result;
+  }
+
+  public void addDouble(double value) {
+    int index = append();
+    ((double[]) values)[index] = value;
+  }
+
+  /** Returns a new array containing the values of this list. */
+  public double[] toDoubleArray() {
+    return (double[]) valuesCopy();
+  }
+
+  @Override public Double get(int index) {
+    return getDouble(index);
+  }
+
+  @Override public Double set(int index, Double value) {
+    return setDouble(index, value);
+  }
+
+  @Override public void add(int index, Double value) {
+    double primitive = value; // Throws NullPointerException before this list is changed.
+    insert(index);
+    ((double[]) values)[index] = primitive;
+  }
+
+  @Override public Double remove(int index) {
+    double result = getDouble(index);
+    delete(index);
+    return result;
+  }
+
+  @Override Object newArray(int length) {
+    return new double[length];
+  }
+
+  @Override DoubleList newList(Object values, int size, boolean mutable) {
+    return new DoubleList((double[]) values, size, mutable);
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof DoubleList)) return super.equals(other);
+    DoubleList o = (DoubleList) other;
+    if (size != o.size) return false;
+    double[] values = (double[]) this.values;
+    double[] otherValues = (double[]) o.values;
+    for (int i = 0; i < size; i++) {
+      double a = values[i];
+      double b = otherValues[i];
+      if (Double.doubleToLongBits(a) != Double.doubleToLongBits(b)) return false;
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    // Matches the hash code of a List<Double> with the same values.
+    double[] values = (double[]) this.values;
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      long bits = Double.doubleToLongBits(values[i]);
+      result = 31 * result + (int) (bits ^ (bits >>> 32));
+    }
+    return result;
+  }
+}
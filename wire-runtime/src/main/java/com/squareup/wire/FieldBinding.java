@@ -15,6 +15,7 @@
  */
 package com.squareup.wire;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -27,7 +28,9 @@ import java.util.List;
 final class FieldBinding<M extends Message<M, B>, B extends Message.Builder<M, B>> {
   private static Field getBuilderField(Class<?> builderType, String name) {
     try {
-      return builderType.getField(name);
+      Field result = builderType.getField(name);
+      result.setAccessible(true);
+      return result;
     } catch (NoSuchFieldException e) {
       throw new AssertionError("No builder field " + builderType.getName() + "." + name);
     }
@@ -35,7 +38,9 @@ final class FieldBinding<M extends Message<M, B>, B extends Message.Builder<M, B
 
   private static Method getBuilderMethod(Class<?> builderType, String name, Class<?> type) {
     try {
-      return builderType.getMethod(name, type);
+      Method result = builderType.getMethod(name, type);
+      result.setAccessible(true);
+      return result;
     } catch (NoSuchMethodException e) {
       throw new AssertionError("No builder method " + builderType.getName() + "." + name
           + "(" + type.getName() + ")");
@@ -47,11 +52,19 @@ final class FieldBinding<M extends Message<M, B>, B extends Message.Builder<M, B
   public final int tag;
   public final String adapterString;
   public final boolean redacted;
+  public final boolean lazy;
+  // Reflective accessors are made accessible up front, so that each call skips access checks.
   private final Field messageField;
   private final Field builderField;
   private final Method builderMethod;
+  private final boolean repeated;
+  private final boolean packed;
+  private final boolean oneOf;
+  /** The builder field's type if it is a primitive list, which values may need converting to. */
+  private final Class<?> primitiveListType;
 
   // Delegate adapters are created lazily; otherwise we could stack overflow!
+  private ProtoAdapter<?> elementAdapter;
   private ProtoAdapter<?> singleAdapter;
   private ProtoAdapter<Object> adapter;
 
@@ -61,14 +74,31 @@ final class FieldBinding<M extends Message<M, B>, B extends Message.Builder<M, B
     this.tag = wireField.tag();
     this.adapterString = wireField.adapter();
     this.redacted = wireField.redacted();
+    this.lazy = wireField.lazy();
     this.messageField = messageField;
+    this.messageField.setAccessible(true);
     this.builderField = getBuilderField(builderType, name);
     this.builderMethod = getBuilderMethod(builderType, name, messageField.getType());
+    this.repeated = label.isRepeated();
+    this.packed = label.isPacked();
+    this.oneOf = label.isOneOf();
+    Class<?> builderFieldType = builderField.getType();
+    this.primitiveListType = PrimitiveList.class.isAssignableFrom(builderFieldType)
+        ? builderFieldType
+        : null;
+  }
+
+  /** Returns the adapter named by {@link #adapterString}, ignoring whether this field is lazy. */
+  ProtoAdapter<?> elementAdapter() {
+    ProtoAdapter<?> result = elementAdapter;
+    return result != null ? result : (elementAdapter = ProtoAdapter.get(adapterString));
   }
 
   ProtoAdapter<?> singleAdapter() {
     ProtoAdapter<?> result = singleAdapter;
-    return result != null ? result : (singleAdapter = ProtoAdapter.get(adapterString));
+    if (result != null) return result;
+    result = lazy ? elementAdapter().asLazy() : elementAdapter();
+    return singleAdapter = result;
   }
 
   ProtoAdapter<Object> adapter() {
@@ -78,9 +108,18 @@ final class FieldBinding<M extends Message<M, B>, B extends Message.Builder<M, B
         : (adapter = (ProtoAdapter<Object>) singleAdapter().withLabel(label));
   }
 
+  /** Read this field's value from {@code reader} and accept it into {@code builder}. */
+  void decode(ProtoReader reader, B builder) throws IOException {
+    if (packed) {
+      values(builder, (List<?>) adapter().decode(reader));
+    } else {
+      value(builder, singleAdapter().decode(reader));
+    }
+  }
+
   /** Accept a single value, independent of whether this value is single or repeated. */
   void value(B builder, Object value) {
-    if (label.isRepeated()) {
+    if (repeated) {
       try {
         List<Object> list = (List<Object>) builderField.get(builder);
         list.add(value);
@@ -92,10 +131,24 @@ final class FieldBinding<M extends Message<M, B>, B extends Message.Builder<M, B
     }
   }
 
+  /** Accept a run of values for a repeated field. */
+  void values(B builder, List<?> values) {
+    try {
+      List<Object> list = (List<Object>) builderField.get(builder);
+      list.addAll(values);
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+  }
+
   /** Assign a single value for required/optional fields, or a list for repeated/packed fields. */
   void set(B builder, Object value) {
+    Class<?> type = primitiveListType;
+    if (type != null && value != null && !type.isInstance(value)) {
+      value = PrimitiveList.mutableCopyOf(type, (List<?>) value);
+    }
     try {
-      if (label.isOneOf()) {
+      if (oneOf) {
         // In order to maintain the 'oneof' invariant, call the builder setter method rather
         // than setting the builder field directly.
         builderMethod.invoke(builder, value);
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A set of fields to decode. Readers configured with a field mask skip the values of unselected
+ * tags rather than decoding them or retaining them as unknown fields. Selecting a message field
+ * selects all of its nested fields, unless nested fields are also selected by a longer path.
+ *
+ * <p>Fields that aren't selected are absent from decoded messages. Because messages can't be built
+ * without their required fields, masks must select every required field of each message decoded.
+ */
+public final class FieldMask {
+  /** Selected tags in increasing order. */
+  private final int[] tags;
+  /** Masks for the nested fields of each selected tag, or null to select all nested fields. */
+  private final FieldMask[] children;
+
+  private FieldMask(int[] tags, FieldMask[] children) {
+    this.tags = tags;
+    this.children = children;
+  }
+
+  /**
+   * Returns a mask that selects the fields named by each of {@code paths} on the message class
+   * {@code type}. Paths are field names separated by dots, like {@code customer.id}. Names are
+   * resolved using the {@link WireField} annotations emitted by compact code generation; use tag
+   * paths with other message classes.
+   */
+  public static <M extends Message<M, B>, B extends Message.Builder<M, B>> FieldMask forPaths(
+      Class<M> type, String... paths) {
+    Builder builder = new Builder();
+    for (String path : paths) {
+      String[] names = path.split("\\.", -1);
+      int[] tagPath = new int[names.length];
+      Class<?> messageType = type;
+      for (int i = 0; i < names.length; i++) {
+        if (messageType == null) {
+          throw new IllegalArgumentException("Not a message field: " + path);
+        }
+        FieldBinding<?, ?> binding = fieldBinding(messageType, names[i]);
+        if (binding == null) {
+          throw new IllegalArgumentException(
+              "No field named " + names[i] + " in " + messageType.getName());
+        }
+        tagPath[i] = binding.tag;
+        Class<?> fieldType = binding.elementAdapter().javaType;
+        messageType = Message.class.isAssignableFrom(fieldType) ? fieldType : null;
+      }
+      builder.add(tagPath);
+    }
+    return builder.build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static FieldBinding<?, ?> fieldBinding(Class<?> type, String name) {
+    RuntimeMessageAdapter<?, ?> adapter = RuntimeMessageAdapter.create((Class) type);
+    for (FieldBinding<?, ?> binding : adapter.fieldBindings().values()) {
+      if (binding.name.equals(name)) return binding;
+    }
+    return null;
+  }
+
+  /** Returns true if the field {@code tag} is selected. */
+  public boolean contains(int tag) {
+    return Arrays.binarySearch(tags, tag) >= 0;
+  }
+
+  /**
+   * Returns the mask for the nested fields of {@code tag}, or null if all of its nested fields
+   * are selected.
+   */
+  FieldMask child(int tag) {
+    int index = Arrays.binarySearch(tags, tag);
+    return index >= 0 ? children[index] : null;
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof FieldMask)) return false;
+    FieldMask o = (FieldMask) other;
+    return Arrays.equals(tags, o.tags) && Arrays.equals(children, o.children);
+  }
+
+  @Override public int hashCode() {
+    return Arrays.hashCode(tags) * 37 + Arrays.hashCode(children);
+  }
+
+  @Override public String toString() {
+    StringBuilder result = new StringBuilder().append('{');
+    for (int i = 0; i < tags.length; i++) {
+      if (i > 0) result.append(", ");
+      result.append(tags[i]);
+      if (children[i] != null) result.append('=').append(children[i]);
+    }
+    return result.append('}').toString();
+  }
+
+  public static final class Builder {
+    /** Nested builders by tag. A null value selects all of the tag's nested fields. */
+    private final Map<Integer, Builder> children = new TreeMap<>();
+
+    /**
+     * Selects the field at {@code tagPath}, a sequence of tags starting with a tag of the root
+     * message and descending into nested messages.
+     */
+    public Builder add(int... tagPath) {
+      if (tagPath.length == 0) throw new IllegalArgumentException("tagPath is empty");
+      Builder builder = this;
+      for (int i = 0; i < tagPath.length; i++) {
+        Integer tag = tagPath[i];
+        boolean last = i == tagPath.length - 1;
+        if (builder.children.containsKey(tag) && builder.children.get(tag) == null) {
+          return this; // This path's prefix is already selected entirely.
+        }
+        if (last) {
+          builder.children.put(tag, null);
+        } else {
+          Builder child = builder.children.get(tag);
+          if (child == null) {
+            child = new Builder();
+            builder.children.put(tag, child);
+          }
+          builder = child;
+        }
+      }
+      return this;
+    }
+
+    public FieldMask build() {
+      int[] tags = new int[children.size()];
+      FieldMask[] masks = new FieldMask[children.size()];
+      int i = 0;
+      for (Map.Entry<Integer, Builder> entry : children.entrySet()) {
+        tags[i] = entry.getKey();
+        masks[i] = entry.getValue() != null ? entry.getValue().build() : null;
+        i++;
+      }
+      return new FieldMask(tags, masks);
+    }
+  }
+}
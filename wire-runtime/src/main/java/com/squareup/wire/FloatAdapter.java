@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An adapter for {@code float} values with methods that read and write them without boxing.
+ * Generated code uses these methods for primitive fields and {@link FloatList} fields.
+ */
+public abstract class FloatAdapter extends ProtoAdapter<Float> {
+  FloatAdapter(FieldEncoding fieldEncoding) {
+    super(fieldEncoding, Float.class);
+  }
+
+  abstract int encodedSizeFloat(float value);
+
+  abstract void encodeFloat(ProtoWriter writer, float value) throws IOException;
+
+  abstract void encodeFloat(ReverseProtoWriter writer, float value) throws IOException;
+
+  /** Read a non-null {@code float} from {@code reader}. */
+  public abstract float decodeFloat(ProtoReader reader) throws IOException;
+
+  /** The size of {@code tag} and {@code value} in the wire format. */
+  public final int encodedSizeFloatWithTag(int tag, float value) {
+    return ProtoWriter.tagSize(tag) + encodedSizeFloat(value);
+  }
+
+  /** Write {@code tag} and {@code value} to {@code writer}. */
+  public final void encodeFloatWithTag(ProtoWriter writer, int tag, float value)
+      throws IOException {
+    writer.writeTag(tag, fieldEncoding);
+    encodeFloat(writer, value);
+  }
+
+  /** Write {@code value} and then {@code tag} to {@code writer}, which writes back to front. */
+  public final void encodeFloatWithTag(ReverseProtoWriter writer, int tag, float value)
+      throws IOException {
+    encodeFloat(writer, value);
+    writer.writeTag(tag, fieldEncoding);
+  }
+
+  @Override public final int encodedSize(Float value) {
+    return encodedSizeFloat(value);
+  }
+
+  @Override public final void encode(ProtoWriter writer, Float value) throws IOException {
+    encodeFloat(writer, value);
+  }
+
+  @Override public final void encode(ReverseProtoWriter writer, Float value) throws IOException {
+    encodeFloat(writer, value);
+  }
+
+  @Override public final Float decode(ProtoReader reader) throws IOException {
+    return decodeFloat(reader);
+  }
+
+  @Override int encodedSizePacked(List<Float> values) {
+    if (!(values instanceof FloatList)) return super.encodedSizePacked(values);
+    FloatList floats = (FloatList) values;
+    int size = 0;
+    for (int i = 0, count = floats.size(); i < count; i++) {
+      size += encodedSizeFloat(floats.getFloat(i));
+    }
+    return size;
+  }
+
+  @Override void encodePacked(ProtoWriter writer, List<Float> values) throws IOException {
+    if (!(values instanceof FloatList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    FloatList floats = (FloatList) values;
+    for (int i = 0, count = floats.size(); i < count; i++) {
+      encodeFloat(writer, floats.getFloat(i));
+    }
+  }
+
+  @Override void encodePacked(ReverseProtoWriter writer, List<Float> values) throws IOException {
+    if (!(values instanceof FloatList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    FloatList floats = (FloatList) values;
+    for (int i = floats.size() - 1; i >= 0; i--) {
+      encodeFloat(writer, floats.getFloat(i));
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+/** A list of {@code float} values that doesn't box them. */
+public final class FloatList extends PrimitiveList<Float> {
+  private static final float[] EMPTY = new float[0];
+
+  /** Creates a new empty mutable list. */
+  public FloatList() {
+    this(EMPTY, 0, true);
+  }
+
+  FloatList(float[] values, int size, boolean mutable) {
+    super(values, size, mutable);
+  }
+
+  /** Returns an immutable list containing {@code values}. */
+  public static FloatList of(float... values) {
+    return new FloatList(values.clone(), values.length, false);
+  }
+
+  public float getFloat(int index) {
+    checkIndex(index);
+    return ((float[]) values)[index];
+  }
+
+  /** Replaces the value at {@code index}, returning the value it replaced. */
+  public float setFloat(int index, float value) {
+    checkMutable();
+    checkIndex(index);
+    float[] values = (float[]) this.values;
+    float result = values[index];
+    values[index] = value;
+    return result;
+  }
+
+  public void addFloat(float value) {
+    int index = append();
+    ((float[]) values)[index] = value;
+  }
+
+  /** Returns a new array containing the values of this list. */
+  public float[] toFloatArray() {
+    return (float[]) valuesCopy();
+  }
+
+  @Override public Float get(int index) {
+    return getFloat(index);
+  }
+
+  @Override public Float set(int index, Float value) {
+    return setFloat(index, value);
+  }
+
+  @Override public void add(int index, Float value) {
+    float primitive = value; // Throws NullPointerException before this list is changed.
+    insert(index);
+    ((float[]) values)[index] = primitive;
+  }
+
+  @Override public Float remove(int index) {
+    float result = getFloat(index);
+    delete(index);
+    return result;
+  }
+
+  @Override Object newArray(int length) {
+    return new float[length];
+  }
+
+  @Override FloatList newList(Object values, int size, boolean mutable) {
+    return new FloatList((float[]) values, size, mutable);
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof FloatList)) return super.equals(other);
+    FloatList o = (FloatList) other;
+    if (size != o.size) return false;
+    float[] values = (float[]) this.values;
+    float[] otherValues = (float[]) o.values;
+    for (int i = 0; i < size; i++) {
+      float a = values[i];
+      float b = otherValues[i];
+      if (Float.floatToIntBits(a) != Float.floatToIntBits(b)) return false;
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    // Matches the hash code of a List<Float> with the same values.
+    float[] values = (float[]) this.values;
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      float value = values[i];
+      result = 31 * result + Float.floatToIntBits(value);
+    }
+    return result;
+  }
+}
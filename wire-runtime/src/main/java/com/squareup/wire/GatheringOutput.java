@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import okio.ByteString;
+
+import static com.squareup.wire.ProtoWriter.utf8Length;
+
+/**
+ * Records encoded bytes as a list of segments for a single gathering write. Tags, lengths and
+ * small values are packed into shared chunks; large {@code bytes} payloads are referenced in place
+ * rather than copied. Referenced payloads must not change until {@link #writeTo} returns.
+ */
+final class GatheringOutput extends ProtoOutput {
+  static final int CHUNK_SIZE = 2048;
+
+  /** Payloads at least this large are referenced rather than copied. */
+  static final int SHARE_THRESHOLD = 512;
+
+  private final List<ByteBuffer> segments = new ArrayList<>();
+  private byte[] chunk = new byte[CHUNK_SIZE];
+  private int start;
+  private int pos;
+
+  @Override void writeVarint32(int value) {
+    require(ProtoInput.MAX_VARINT_SIZE);
+    byte[] chunk = this.chunk;
+    int pos = this.pos;
+    while ((value & ~0x7f) != 0) {
+      chunk[pos++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    chunk[pos++] = (byte) value;
+    this.pos = pos;
+  }
+
+  @Override void writeVarint64(long value) {
+    require(ProtoInput.MAX_VARINT_SIZE);
+    byte[] chunk = this.chunk;
+    int pos = this.pos;
+    while ((value & ~0x7fL) != 0) {
+      chunk[pos++] = (byte) (((int) value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    chunk[pos++] = (byte) value;
+    this.pos = pos;
+  }
+
+  @Override void writeIntLe(int value) {
+    require(4);
+    byte[] chunk = this.chunk;
+    int pos = this.pos;
+    chunk[pos] = (byte) value;
+    chunk[pos + 1] = (byte) (value >>> 8);
+    chunk[pos + 2] = (byte) (value >>> 16);
+    chunk[pos + 3] = (byte) (value >>> 24);
+    this.pos = pos + 4;
+  }
+
+  @Override void writeLongLe(long value) {
+    require(8);
+    byte[] chunk = this.chunk;
+    int pos = this.pos;
+    for (int i = 0; i < 8; i++) {
+      chunk[pos + i] = (byte) (value >>> (8 * i));
+    }
+    this.pos = pos + 8;
+  }
+
+  @Override void write(ByteString value) {
+    int count = value.size();
+    if (count < SHARE_THRESHOLD) {
+      require(count);
+      ByteArrayOutput.copy(value, chunk, pos);
+      pos += count;
+      return;
+    }
+    endSegment();
+    try {
+      // ByteString writes its own arrays to the stream, which we reference without copying.
+      value.write(new OutputStream() {
+        @Override public void write(int b) {
+          throw new AssertionError();
+        }
+
+        @Override public void write(byte[] bytes, int offset, int byteCount) {
+          segments.add(ByteBuffer.wrap(bytes, offset, byteCount).asReadOnlyBuffer());
+        }
+      });
+    } catch (IOException e) {
+      throw new AssertionError(e); // No I/O recording segments.
+    }
+  }
+
+  @Override void write(ByteBuffer value) {
+    int count = value.remaining();
+    if (count < SHARE_THRESHOLD) {
+      require(count);
+      value.duplicate().get(chunk, pos, count);
+      pos += count;
+      return;
+    }
+    endSegment();
+    segments.add(value.asReadOnlyBuffer());
+  }
+
+  @Override void writeUtf8(String value) {
+    require(utf8Length(value));
+    pos = ByteArrayOutput.encodeUtf8(value, chunk, pos);
+  }
+
+  /**
+   * Writes all recorded segments to {@code channel}, which must be in blocking mode, and returns
+   * the number of bytes written.
+   */
+  long writeTo(GatheringByteChannel channel) throws IOException {
+    endSegment();
+    ByteBuffer[] buffers = segments.toArray(new ByteBuffer[segments.size()]);
+    long byteCount = 0L;
+    int offset = 0;
+    while (offset < buffers.length) {
+      byteCount += channel.write(buffers, offset, buffers.length - offset);
+      while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+        offset++;
+      }
+    }
+    return byteCount;
+  }
+
+  /** Ensures the current chunk has room for {@code byteCount} more bytes. */
+  private void require(int byteCount) {
+    if (chunk.length - pos >= byteCount) return;
+    endSegment();
+    chunk = new byte[Math.max(CHUNK_SIZE, byteCount)];
+    start = 0;
+    pos = 0;
+  }
+
+  /** Records the bytes written to the current chunk since the last segment ended. */
+  private void endSegment() {
+    if (pos == start) return;
+    segments.add(ByteBuffer.wrap(chunk, start, pos - start));
+    start = pos;
+  }
+}
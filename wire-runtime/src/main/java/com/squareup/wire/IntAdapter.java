@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An adapter for {@code int} values with methods that read and write them without boxing.
+ * Generated code uses these methods for primitive fields and {@link IntList} fields.
+ */
+public abstract class IntAdapter extends ProtoAdapter<Integer> {
+  IntAdapter(FieldEncoding fieldEncoding) {
+    super(fieldEncoding, Integer.class);
+  }
+
+  abstract int encodedSizeInt(int value);
+
+  abstract void encodeInt(ProtoWriter writer, int value) throws IOException;
+
+  abstract void encodeInt(ReverseProtoWriter writer, int value) throws IOException;
+
+  /** Read a non-null {@code int} from {@code reader}. */
+  public abstract int decodeInt(ProtoReader reader) throws IOException;
+
+  /** The size of {@code tag} and {@code value} in the wire format. */
+  public final int encodedSizeIntWithTag(int tag, int value) {
+    return ProtoWriter.tagSize(tag) + encodedSizeInt(value);
+  }
+
+  /** Write {@code tag} and {@code value} to {@code writer}. */
+  public final void encodeIntWithTag(ProtoWriter writer, int tag, int value)
+      throws IOException {
+    writer.writeTag(tag, fieldEncoding);
+    encodeInt(writer, value);
+  }
+
+  /** Write {@code value} and then {@code tag} to {@code writer}, which writes back to front. */
+  public final void encodeIntWithTag(ReverseProtoWriter writer, int tag, int value)
+      throws IOException {
+    encodeInt(writer, value);
+    writer.writeTag(tag, fieldEncoding);
+  }
+
+  @Override public final int encodedSize(Integer value) {
+    return encodedSizeInt(value);
+  }
+
+  @Override public final void encode(ProtoWriter writer, Integer value) throws IOException {
+    encodeInt(writer, value);
+  }
+
+  @Override public final void encode(ReverseProtoWriter writer, Integer value) throws IOException {
+    encodeInt(writer, value);
+  }
+
+  @Override public final Integer decode(ProtoReader reader) throws IOException {
+    return decodeInt(reader);
+  }
+
+  @Override int encodedSizePacked(List<Integer> values) {
+    if (!(values instanceof IntList)) return super.encodedSizePacked(values);
+    IntList ints = (IntList) values;
+    int size = 0;
+    for (int i = 0, count = ints.size(); i < count; i++) {
+      size += encodedSizeInt(ints.getInt(i));
+    }
+    return size;
+  }
+
+  @Override void encodePacked(ProtoWriter writer, List<Integer> values) throws IOException {
+    if (!(values instanceof IntList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    IntList ints = (IntList) values;
+    for (int i = 0, count = ints.size(); i < count; i++) {
+      encodeInt(writer, ints.getInt(i));
+    }
+  }
+
+  @Override void encodePacked(ReverseProtoWriter writer, List<Integer> values) throws IOException {
+    if (!(values instanceof IntList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    IntList ints = (IntList) values;
+    for (int i = ints.size() - 1; i >= 0; i--) {
+      encodeInt(writer, ints.getInt(i));
+    }
+  }
+}
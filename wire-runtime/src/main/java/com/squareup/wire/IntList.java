@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+/** A list of {@code int} values that doesn't box them. */
+public final class IntList extends PrimitiveList<Integer> {
+  private static final int[] EMPTY = new int[0];
+
+  /** Creates a new empty mutable list. */
+  public IntList() {
+    this(EMPTY, 0, true);
+  }
+
+  IntList(int[] values, int size, boolean mutable) {
+    super(values, size, mutable);
+  }
+
+  /** Returns an immutable list containing {@code values}. */
+  public static IntList of(int... values) {
+    return new IntList(values.clone(), values.length, false);
+  }
+
+  public int getInt(int index) {
+    checkIndex(index);
+    return ((int[]) values)[index];
+  }
+
+  /** Replaces the value at {@code index}, returning the value it replaced. */
+  public int setInt(int index, int value) {
+    checkMutable();
+    checkIndex(index);
+    int[] values = (int[]) this.values;
+    int result = values[index];
+    values[index] = value;
+    return result;
+  }
+
+  public void addInt(int value) {
+    int index = append();
+    ((int[]) values)[index] = value;
+  }
+
+  /** Returns a new array containing the values of this list. */
+  public int[] toIntArray() {
+    return (int[]) valuesCopy();
+  }
+
+  @Override public Integer get(int index) {
+    return getInt(index);
+  }
+
+  @Override public Integer set(int index, Integer value) {
+    return setInt(index, value);
+  }
+
+  @Override public void add(int index, Integer value) {
+    int primitive = value; // Throws NullPointerException before this list is changed.
+    insert(index);
+    ((int[]) values)[index] = primitive;
+  }
+
+  @Override public Integer remove(int index) {
+    int result = getInt(index);
+    delete(index);
+    return result;
+  }
+
+  @Override Object newArray(int length) {
+    return new int[length];
+  }
+
+  @Override IntList newList(Object values, int size, boolean mutable) {
+    return new IntList((int[]) values, size, mutable);
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof IntList)) return super.equals(other);
+    IntList o = (IntList) other;
+    if (size != o.size) return false;
+    int[] values = (int[]) this.values;
+    int[] otherValues = (int[]) o.values;
+    for (int i = 0; i < size; i++) {
+      int a = values[i];
+      int b = otherValues[i];
+      if (a != b) return false;
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    // Matches the hash code of a List<Integer> with the same values.
+    int[] values = (int[]) this.values;
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      int value = values[i];
+      result = 31 * result + value;
+    }
+    return result;
+  }
+}
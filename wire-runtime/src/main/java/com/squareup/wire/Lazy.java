@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import okio.ByteString;
+
+import static com.squareup.wire.Preconditions.checkNotNull;
+
+/**
+ * A value of a field declared with {@code [lazy = true]}. Decoded lazy values hold on to their
+ * encoded bytes and aren't decoded until {@link #get} is first called. Encoding a lazy value that
+ * was decoded writes its original bytes verbatim, whether or not it has since been accessed.
+ *
+ * <p>Decoding is deferred, so a malformed nested value is only reported when it is accessed. Two
+ * lazy values are equal if they have the same encoding, so comparing or hashing a decoded lazy
+ * value doesn't decode it.
+ */
+public final class Lazy<E> {
+  private final ProtoAdapter<E> adapter;
+  /** The encoded value, or null if this was created from a decoded value. */
+  private final ByteString encoded;
+  /** The decoded value, or null if it hasn't been decoded yet. */
+  private volatile E value;
+
+  private Lazy(ProtoAdapter<E> adapter, ByteString encoded, E value) {
+    this.adapter = adapter;
+    this.encoded = encoded;
+    this.value = value;
+  }
+
+  /** Returns a lazy value that holds the already-decoded {@code value}. */
+  public static <E> Lazy<E> of(ProtoAdapter<E> adapter, E value) {
+    checkNotNull(adapter, "adapter == null");
+    checkNotNull(value, "value == null");
+    return new Lazy<>(adapter, null, value);
+  }
+
+  /** Returns a lazy value that decodes {@code encoded} when it is first accessed. */
+  static <E> Lazy<E> encoded(ProtoAdapter<E> adapter, ByteString encoded) {
+    return new Lazy<>(adapter, encoded, null);
+  }
+
+  /**
+   * Returns the decoded value, decoding it if necessary.
+   *
+   * @throws IllegalStateException if the encoded value is malformed.
+   */
+  public E get() {
+    E result = value;
+    if (result == null) {
+      try {
+        result = adapter.decode(encoded.toByteArray());
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to decode lazy value", e);
+      }
+      // Values are immutable, so racing threads may decode twice but will agree on the result.
+      value = result;
+    }
+    return result;
+  }
+
+  /** Returns true if this value has been decoded, or if it was created from a decoded value. */
+  public boolean isDecoded() {
+    return value != null;
+  }
+
+  int encodedSize() {
+    return encoded != null ? encoded.size() : adapter.encodedSize(value);
+  }
+
+  void encode(ProtoWriter writer) throws IOException {
+    if (encoded != null) {
+      writer.writeBytes(encoded);
+    } else {
+      adapter.encode(writer, value);
+    }
+  }
+
+  void encode(ReverseProtoWriter writer) throws IOException {
+    if (encoded != null) {
+      writer.writeBytes(encoded);
+    } else {
+      adapter.encode(writer, value);
+    }
+  }
+
+  Lazy<E> redact() {
+    E redacted = adapter.redact(get());
+    return redacted != null ? of(adapter, redacted) : null;
+  }
+
+  /** Returns the encoded value, encoding it if this was created from a decoded value. */
+  private ByteString encoded() {
+    return encoded != null ? encoded : ByteString.of(adapter.encode(value));
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Lazy)) return false;
+    return encoded().equals(((Lazy<?>) other).encoded());
+  }
+
+  @Override public int hashCode() {
+    return encoded().hashCode();
+  }
+
+  @Override public String toString() {
+    return adapter.toString(get());
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An adapter for {@code long} values with methods that read and write them without boxing.
+ * Generated code uses these methods for primitive fields and {@link LongList} fields.
+ */
+public abstract class LongAdapter extends ProtoAdapter<Long> {
+  LongAdapter(FieldEncoding fieldEncoding) {
+    super(fieldEncoding, Long.class);
+  }
+
+  abstract int encodedSizeLong(long value);
+
+  abstract void encodeLong(ProtoWriter writer, long value) throws IOException;
+
+  abstract void encodeLong(ReverseProtoWriter writer, long value) throws IOException;
+
+  /** Read a non-null {@code long} from {@code reader}. */
+  public abstract long decodeLong(ProtoReader reader) throws IOException;
+
+  /** The size of {@code tag} and {@code value} in the wire format. */
+  public final int encodedSizeLongWithTag(int tag, long value) {
+    return ProtoWriter.tagSize(tag) + encodedSizeLong(value);
+  }
+
+  /** Write {@code tag} and {@code value} to {@code writer}. */
+  public final void encodeLongWithTag(ProtoWriter writer, int tag, long value)
+      throws IOException {
+    writer.writeTag(tag, fieldEncoding);
+    encodeLong(writer, value);
+  }
+
+  /** Write {@code value} and then {@code tag} to {@code writer}, which writes back to front. */
+  public final void encodeLongWithTag(ReverseProtoWriter writer, int tag, long value)
+      throws IOException {
+    encodeLong(writer, value);
+    writer.writeTag(tag, fieldEncoding);
+  }
+
+  @Override public final int encodedSize(Long value) {
+    return encodedSizeLong(value);
+  }
+
+  @Override public final void encode(ProtoWriter writer, Long value) throws IOException {
+    encodeLong(writer, value);
+  }
+
+  @Override public final void encode(ReverseProtoWriter writer, Long value) throws IOException {
+    encodeLong(writer, value);
+  }
+
+  @Override public final Long decode(ProtoReader reader) throws IOException {
+    return decodeLong(reader);
+  }
+
+  @Override int encodedSizePacked(List<Long> values) {
+    if (!(values instanceof LongList)) return super.encodedSizePacked(values);
+    LongList longs = (LongList) values;
+    int size = 0;
+    for (int i = 0, count = longs.size(); i < count; i++) {
+      size += encodedSizeLong(longs.getLong(i));
+    }
+    return size;
+  }
+
+  @Override void encodePacked(ProtoWriter writer, List<Long> values) throws IOException {
+    if (!(values instanceof LongList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    LongList longs = (LongList) values;
+    for (int i = 0, count = longs.size(); i < count; i++) {
+      encodeLong(writer, longs.getLong(i));
+    }
+  }
+
+  @Override void encodePacked(ReverseProtoWriter writer, List<Long> values) throws IOException {
+    if (!(values instanceof LongList)) {
+      super.encodePacked(writer, values);
+      return;
+    }
+    LongList longs = (LongList) values;
+    for (int i = longs.size() - 1; i >= 0; i--) {
+      encodeLong(writer, longs.getLong(i));
+    }
+  }
+}
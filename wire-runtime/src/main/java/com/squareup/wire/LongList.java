@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+/** A list of {@code long} values that doesn't box them. */
+public final class LongList extends PrimitiveList<Long> {
+  private static final long[] EMPTY = new long[0];
+
+  /** Creates a new empty mutable list. */
+  public LongList() {
+    this(EMPTY, 0, true);
+  }
+
+  LongList(long[] values, int size, boolean mutable) {
+    super(values, size, mutable);
+  }
+
+  /** Returns an immutable list containing {@code values}. */
+  public static LongList of(long... values) {
+    return new LongList(values.clone(), values.length, false);
+  }
+
+  public long getLong(int index) {
+    checkIndex(index);
+    return ((long[]) values)[index];
+  }
+
+  /** Replaces the value at {@code index}, returning the value it replaced. */
+  public long setLong(int index, long value) {
+    checkMutable();
+    checkIndex(index);
+    long[] values = (long[]) this.values;
+    long result = values[index];
+    values[index] = value;
+    return result;
+  }
+
+  public void addLong(long value) {
+    int index = append();
+    ((long[]) values)[index] = value;
+  }
+
+  /** Returns a new array containing the values of this list. */
+  public long[] toLongArray() {
+    return (long[]) valuesCopy();
+  }
+
+  @Override public Long get(int index) {
+    return getLong(index);
+  }
+
+  @Override public Long set(int index, Long value) {
+    return setLong(index, value);
+  }
+
+  @Override public void add(int index, Long value) {
+    long primitive = value; // Throws NullPointerException before this list is changed.
+    insert(index);
+    ((long[]) values)[index] = primitive;
+  }
+
+  @Override public Long remove(int index) {
+    long result = getLong(index);
+    delete(index);
+    return result;
+  }
+
+  @Override Object newArray(int length) {
+    return new long[length];
+  }
+
+  @Override LongList newList(Object values, int size, boolean mutable) {
+    return new LongList((long[]) values, size, mutable);
+  }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof LongList)) return super.equals(other);
+    LongList o = (LongList) other;
+    if (size != o.size) return false;
+    long[] values = (long[]) this.values;
+    long[] otherValues = (long[]) o.values;
+    for (int i = 0; i < size; i++) {
+      long a = values[i];
+      long b = otherValues[i];
+      if (a != b) return false;
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    // Matches the hash code of a List<Long> with the same values.
+    long[] values = (long[]) this.values;
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      long value = values[i];
+      result = 31 * result + (int) (value ^ (value >>> 32));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import okio.ByteString;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Reads a file by mapping it into memory one window at a time. Because no single mapping spans
+ * the whole file, this can read files larger than the 2 GiB limit of a {@code MappedByteBuffer}.
+ * A value that straddles two windows causes a new window to be mapped starting at that value.
+ */
+final class MappedFileInput extends ProtoInput {
+  static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+  private final FileChannel file;
+  /** The file offset of the first byte of this input. */
+  private final long start;
+  /** The file offset just past the last byte of this input. */
+  private final long end;
+  private final int windowSize;
+
+  /** The currently-mapped region of the file, or null if no region is mapped. */
+  private ByteBufferInput window;
+  /** The file offset of the window's first byte. If there's no window, the current position. */
+  private long windowStart;
+  /** The file offset just past the window's last byte. */
+  private long windowEnd;
+
+  MappedFileInput(FileChannel file, long start, long end, int windowSize) {
+    this.file = file;
+    this.start = start;
+    this.end = end;
+    this.windowSize = windowSize;
+    this.windowStart = start;
+  }
+
+  private long filePosition() {
+    return window != null ? windowStart + window.position() : windowStart;
+  }
+
+  @Override long position() {
+    return filePosition() - start;
+  }
+
+  @Override boolean exhausted() {
+    return filePosition() == end;
+  }
+
+  /** Returns a window with at least {@code byteCount} bytes, mapping a new one if necessary. */
+  private ByteBufferInput require(long byteCount) throws IOException {
+    long pos = filePosition();
+    if (byteCount > end - pos) throw new EOFException();
+    if (window == null || pos + byteCount > windowEnd) {
+      long size = Math.min(Math.max(windowSize, byteCount), end - pos);
+      window = new ByteBufferInput(file.map(READ_ONLY, pos, size));
+      windowStart = pos;
+      windowEnd = pos + size;
+    }
+    return window;
+  }
+
+  /** Returns a window with the bytes of the next varint, which may be shorter than the maximum. */
+  private ByteBufferInput requireVarint() throws IOException {
+    long remaining = end - filePosition();
+    if (remaining == 0) throw new EOFException();
+    return require(Math.min(MAX_VARINT_SIZE, remaining));
+  }
+
+  @Override int readVarint32() throws IOException {
+    return requireVarint().readVarint32();
+  }
+
+  @Override long readVarint64() throws IOException {
+    return requireVarint().readVarint64();
+  }
+
+  @Override int readIntLe() throws IOException {
+    return require(4).readIntLe();
+  }
+
+  @Override long readLongLe() throws IOException {
+    return require(8).readLongLe();
+  }
+
+  @Override void skip(long byteCount) throws IOException {
+    long pos = filePosition();
+    if (byteCount > end - pos) throw new EOFException();
+    if (window != null && pos + byteCount <= windowEnd) {
+      window.skip(byteCount);
+    } else {
+      // Don't map the skipped bytes; the next read maps a window where it lands.
+      window = null;
+      windowStart = pos + byteCount;
+    }
+  }
+
+  @Override ByteString readByteString(long byteCount) throws IOException {
+    return require(byteCount).readByteString(byteCount);
+  }
+
+  @Override ByteBuffer readByteBuffer(long byteCount) throws IOException {
+    return require(byteCount).readByteBuffer(byteCount);
+  }
+
+  @Override String readUtf8(long byteCount) throws IOException {
+    return require(byteCount).readUtf8(byteCount);
+  }
+
+  @Override String readUtf8(long byteCount, StringCache cache) throws IOException {
+    return require(byteCount).readUtf8(byteCount, cache);
+  }
+}
@@ -18,6 +18,7 @@ package com.squareup.wire;
 import java.io.IOException;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -32,12 +33,15 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
   /** Unknown fields, proto-encoded. We permit null to support magic deserialization. */
   private final transient ByteString unknownFields;
 
-  /** If not {@code 0} then the serialized size of this message. */
-  transient int cachedSerializedSize = 0;
+  /** If not {@code 0} then the serialized size of this message. Accessed by generated code. */
+  protected transient int cachedSerializedSize = 0;
 
   /** If non-zero, the hash code of this message. Accessed by generated code. */
   protected transient int hashCode = 0;
 
+  /** If non-null, the proto encoding of this message. Reused by {@link ProtoAdapter}. */
+  transient ByteString encodedBytes;
+
   protected Message(ByteString unknownFields) {
     if (unknownFields == null) {
       throw new NullPointerException("unknownFields == null");
@@ -54,6 +58,23 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
     return result != null ? result : ByteString.EMPTY;
   }
 
+  /**
+   * Returns the proto encoding of this message, computing it on the first call. Once computed,
+   * every encode of this message, including as a field of another message, copies these bytes
+   * rather than encoding its fields again. Call this on messages that are encoded many times.
+   */
+  @SuppressWarnings("unchecked")
+  public final ByteString encodedBytes() {
+    ByteString result = encodedBytes;
+    if (result == null) {
+      ProtoAdapter<M> adapter = ProtoAdapter.get((Class<M>) getClass());
+      result = ByteString.of(adapter.encode((M) this));
+      cachedSerializedSize = result.size();
+      encodedBytes = result;
+    }
+    return result;
+  }
+
   /**
    * Returns a new builder initialized with the data in this message.
    */
@@ -77,9 +98,16 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
    * Superclass for protocol buffer message builders.
    */
   public abstract static class Builder<T extends Message<T, B>, B extends Builder<T, B>> {
-    // Lazily-instantiated buffer and writer of this message's unknown fields.
+    // This message's unknown fields. A single run of fields is held as bytes; more are written to
+    // the lazily-instantiated buffer.
+    ByteString unknownFieldsBytes;
     Buffer unknownFieldsBuffer;
     ProtoWriter unknownFieldsWriter;
+    // A run of unknown fields not yet copied from the input of unknownFieldsReader. The reader
+    // flushes it when the message ends, so it's never held past that.
+    ProtoReader unknownFieldsReader;
+    long unknownFieldsStart;
+    long unknownFieldsEnd;
 
     /**
      * Constructs a Builder with no unknown field data.
@@ -89,12 +117,13 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
 
     public Builder<T, B> addUnknownFields(ByteString unknownFields) {
       if (unknownFields.size() > 0) {
-        if (unknownFieldsWriter == null) {
-          unknownFieldsBuffer = new Buffer();
-          unknownFieldsWriter = new ProtoWriter(unknownFieldsBuffer);
+        flushUnknownFieldRange();
+        if (unknownFieldsBytes == null && unknownFieldsWriter == null) {
+          unknownFieldsBytes = unknownFields;
+          return this;
         }
         try {
-          unknownFieldsWriter.writeBytes(unknownFields);
+          unknownFieldsWriter().writeBytes(unknownFields);
         } catch (IOException e) {
           throw new AssertionError();
         }
@@ -103,22 +132,62 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
     }
 
     public Builder<T, B> addUnknownField(int tag, FieldEncoding fieldEncoding, Object value) {
-      if (unknownFieldsWriter == null) {
-        unknownFieldsBuffer = new Buffer();
-        unknownFieldsWriter = new ProtoWriter(unknownFieldsBuffer);
-      }
+      flushUnknownFieldRange();
       try {
         ProtoAdapter<Object> protoAdapter = (ProtoAdapter<Object>) fieldEncoding.rawProtoAdapter();
-        protoAdapter.encodeWithTag(unknownFieldsWriter, tag, value);
+        protoAdapter.encodeWithTag(unknownFieldsWriter(), tag, value);
       } catch (IOException e) {
         throw new AssertionError();
       }
       return this;
     }
 
+    /**
+     * Adds the unknown fields between {@code start} and {@code end} of {@code reader}'s input. A
+     * range that continues the previous one is merged with it.
+     */
+    void addUnknownFieldRange(ProtoReader reader, long start, long end) {
+      if (unknownFieldsReader == reader && unknownFieldsEnd == start) {
+        unknownFieldsEnd = end;
+        return;
+      }
+      flushUnknownFieldRange();
+      unknownFieldsReader = reader;
+      unknownFieldsStart = start;
+      unknownFieldsEnd = end;
+    }
+
+    /** Copies the pending run of unknown fields from its input. */
+    void flushUnknownFieldRange() {
+      ProtoReader reader = unknownFieldsReader;
+      if (reader == null) return;
+      unknownFieldsReader = null;
+      try {
+        addUnknownFields(
+            reader.byteStringAt(unknownFieldsStart, unknownFieldsEnd - unknownFieldsStart));
+      } catch (IOException e) {
+        throw new AssertionError(e); // Only in-memory inputs retain their bytes.
+      }
+    }
+
+    /** Returns the writer of unknown fields, moving any bytes held so far into its buffer. */
+    private ProtoWriter unknownFieldsWriter() throws IOException {
+      if (unknownFieldsWriter == null) {
+        unknownFieldsBuffer = new Buffer();
+        unknownFieldsWriter = new ProtoWriter(unknownFieldsBuffer);
+        if (unknownFieldsBytes != null) {
+          unknownFieldsWriter.writeBytes(unknownFieldsBytes);
+          unknownFieldsBytes = null;
+        }
+      }
+      return unknownFieldsWriter;
+    }
+
     public Builder<T, B> clearUnknownFields() {
+      unknownFieldsBytes = null;
       unknownFieldsWriter = null;
       unknownFieldsBuffer = null;
+      unknownFieldsReader = null;
       return this;
     }
 
@@ -127,9 +196,14 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
      * this message has no unknown fields.
      */
     public ByteString buildUnknownFields() {
-      return unknownFieldsBuffer != null
-          ? unknownFieldsBuffer.clone().readByteString()
-          : ByteString.EMPTY;
+      flushUnknownFieldRange();
+      if (unknownFieldsBuffer != null) {
+        // Hold the result as bytes so that building again doesn't copy.
+        unknownFieldsBytes = unknownFieldsBuffer.readByteString();
+        unknownFieldsBuffer = null;
+        unknownFieldsWriter = null;
+      }
+      return unknownFieldsBytes != null ? unknownFieldsBytes : ByteString.EMPTY;
     }
 
     /** Returns an immutable {@link Message} based on the fields that set in this builder. */
@@ -162,6 +236,87 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
     return new ImmutableList<>(list);
   }
 
+  /** <b>For generated code only.</b> Utility method to return a mutable copy of {@code list}. */
+  protected static IntList copyOf(IntList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (IntList) list.mutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return a mutable copy of {@code list}. */
+  protected static LongList copyOf(LongList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (LongList) list.mutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return a mutable copy of {@code list}. */
+  protected static FloatList copyOf(FloatList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (FloatList) list.mutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return a mutable copy of {@code list}. */
+  protected static DoubleList copyOf(DoubleList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (DoubleList) list.mutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return a mutable copy of {@code list}. */
+  protected static BooleanList copyOf(BooleanList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (BooleanList) list.mutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return an immutable copy of {@code list}. */
+  protected static IntList immutableCopyOf(IntList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (IntList) list.immutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return an immutable copy of {@code list}. */
+  protected static LongList immutableCopyOf(LongList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (LongList) list.immutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return an immutable copy of {@code list}. */
+  protected static FloatList immutableCopyOf(FloatList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (FloatList) list.immutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return an immutable copy of {@code list}. */
+  protected static DoubleList immutableCopyOf(DoubleList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (DoubleList) list.immutableCopy();
+  }
+
+  /** <b>For generated code only.</b> Utility method to return an immutable copy of {@code list}. */
+  protected static BooleanList immutableCopyOf(BooleanList list) {
+    if (list == null) throw new NullPointerException("list == null");
+    return (BooleanList) list.immutableCopy();
+  }
+
+  /**
+   * <b>For generated code only.</b> Returns a read-only buffer that shares the content of {@code
+   * value} but has its own position and limit, so reading from either doesn't affect the other.
+   */
+  protected static ByteBuffer readOnlyCopyOf(ByteBuffer value) {
+    return value != null ? value.asReadOnlyBuffer() : null;
+  }
+
+  /**
+   * <b>For generated code only.</b> Returns a mutable list of {@linkplain
+   * #readOnlyCopyOf(ByteBuffer) read-only copies} of the buffers in {@code list}.
+   */
+  protected static List<ByteBuffer> readOnlyCopyOf(List<ByteBuffer> list) {
+    if (list == null) throw new NullPointerException("list == null");
+    List<ByteBuffer> result = new ArrayList<>(list.size());
+    for (int i = 0, size = list.size(); i < size; i++) {
+      result.add(readOnlyCopyOf(list.get(i)));
+    }
+    return result;
+  }
+
   /** <b>For generated code only.</b> */
   protected static <T> void redactElements(List<T> list, ProtoAdapter<T> adapter) {
     for (int i = 0, count = list.size(); i < count; i++) {
@@ -208,6 +363,14 @@ public abstract class Message<M extends Message<M, B>, B extends Message.Builder
     }
   }
 
+  /**
+   * <b>For generated code only.</b> Throw {@link NullPointerException} if {@code list} is null.
+   * Primitive lists can't contain nulls.
+   */
+  protected static void checkElementsNotNull(PrimitiveList<?> list) {
+    if (list == null) throw new NullPointerException("list == null");
+  }
+
   /** Returns the number of non-null values in {@code a, b}. */
   protected static int countNonNull(Object a, Object b) {
     return (a != null ? 1 : 0)
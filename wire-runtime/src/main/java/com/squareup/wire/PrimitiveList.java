@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list of primitive values that stores them without boxing. Lists are mutable when they're
+ * created, as in message builders. Messages hold immutable copies.
+ *
+ * <p>Use the type-specific accessors like {@link IntList#getInt} to read and write values without
+ * boxing them.
+ */
+public abstract class PrimitiveList<E> extends AbstractList<E> implements RandomAccess {
+  /** Initial capacity of lists that have grown from empty. */
+  static final int MIN_CAPACITY = 10;
+
+  /**
+   * The values of this list, in an array like {@code int[]} whose component type is this list's
+   * primitive type. Only the first {@link #size} elements are used.
+   */
+  Object values;
+  int size;
+  final boolean mutable;
+
+  PrimitiveList(Object values, int size, boolean mutable) {
+    this.values = values;
+    this.size = size;
+    this.mutable = mutable;
+  }
+
+  @Override public final int size() {
+    return size;
+  }
+
+  /** Returns a new array of this list's primitive type. */
+  abstract Object newArray(int length);
+
+  /** Returns a new list of this type that uses {@code values}. */
+  abstract PrimitiveList<E> newList(Object values, int size, boolean mutable);
+
+  /** Grows this list by one element and returns the index at which to store the new value. */
+  final int append() {
+    checkMutable();
+    ensureCapacity(size + 1);
+    modCount++;
+    return size++;
+  }
+
+  /** Shifts the values at and after {@code index} to make room for a new value there. */
+  final void insert(int index) {
+    checkMutable();
+    checkPositionIndex(index);
+    ensureCapacity(size + 1);
+    System.arraycopy(values, index, values, index + 1, size - index);
+    size++;
+    modCount++;
+  }
+
+  /** Shifts the values after {@code index} to close the gap left by removing it. */
+  final void delete(int index) {
+    checkMutable();
+    checkIndex(index);
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    size--;
+    modCount++;
+  }
+
+  /** Returns a new array containing the values of this list. */
+  final Object valuesCopy() {
+    Object result = newArray(size);
+    System.arraycopy(values, 0, result, 0, size);
+    return result;
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    int capacity = Array.getLength(values);
+    if (minCapacity <= capacity) return;
+    Object grown = newArray(grow(capacity, minCapacity));
+    System.arraycopy(values, 0, grown, 0, size);
+    values = grown;
+  }
+
+  @Override public final boolean addAll(Collection<? extends E> collection) {
+    if (collection.getClass() != getClass()) return super.addAll(collection);
+    checkMutable();
+    PrimitiveList<?> other = (PrimitiveList<?>) collection;
+    if (other.size == 0) return false;
+    ensureCapacity(size + other.size);
+    System.arraycopy(other.values, 0, values, size, other.size);
+    size += other.size;
+    modCount++;
+    return true;
+  }
+
+  @Override public final void clear() {
+    checkMutable();
+    size = 0;
+    modCount++;
+  }
+
+  /** Returns a copy of this list with the given mutability. */
+  final PrimitiveList<E> copy(boolean mutable) {
+    return newList(valuesCopy(), size, mutable);
+  }
+
+  /** Returns an immutable list with the same values as this, which may be this list. */
+  final PrimitiveList<E> immutableCopy() {
+    return mutable ? copy(false) : this;
+  }
+
+  /** Returns a new mutable list with the same values as this. */
+  final PrimitiveList<E> mutableCopy() {
+    return copy(true);
+  }
+
+  final void checkMutable() {
+    if (!mutable) throw new UnsupportedOperationException("immutable list");
+  }
+
+  final void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  final void checkPositionIndex(int index) {
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  /** Returns a new mutable list of {@code type} containing {@code values}. */
+  static PrimitiveList<?> mutableCopyOf(Class<?> type, List<?> values) {
+    PrimitiveList<Object> result;
+    if (type == IntList.class) {
+      result = (PrimitiveList) new IntList();
+    } else if (type == LongList.class) {
+      result = (PrimitiveList) new LongList();
+    } else if (type == FloatList.class) {
+      result = (PrimitiveList) new FloatList();
+    } else if (type == DoubleList.class) {
+      result = (PrimitiveList) new DoubleList();
+    } else if (type == BooleanList.class) {
+      result = (PrimitiveList) new BooleanList();
+    } else {
+      throw new IllegalArgumentException("Unexpected primitive list type: " + type);
+    }
+    result.addAll(values);
+    return result;
+  }
+
+  /** Returns a capacity of at least {@code minCapacity} for a list of {@code capacity}. */
+  static int grow(int capacity, int minCapacity) {
+    int result = Math.max(capacity + (capacity >> 1), MIN_CAPACITY);
+    return Math.max(result, minCapacity);
+  }
+}
@@ -19,8 +19,17 @@ import com.squareup.wire.Message.Builder;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.GatheringByteChannel;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import okio.Buffer;
 import okio.BufferedSink;
 import okio.BufferedSource;
@@ -44,11 +53,25 @@ public abstract class ProtoAdapter<E> {
   private static final int FIXED_32_SIZE = 4;
   private static final int FIXED_64_SIZE = 8;
 
-  private final FieldEncoding fieldEncoding;
+  /**
+   * Adapters found by {@link #get(Class)} or registered, keyed by the name of their message type.
+   * Entries refer to their adapter and type weakly so that they don't keep a message's class loader
+   * from being unloaded. Lookups read without locking; writes synchronize on this map.
+   */
+  private static final ConcurrentMap<String, AdapterReference> ADAPTERS_BY_TYPE =
+      new ConcurrentHashMap<>();
+  /** Adapters found by {@link #get(String)} or registered, keyed by adapter string. */
+  private static final ConcurrentMap<String, AdapterReference> ADAPTERS_BY_NAME =
+      new ConcurrentHashMap<>();
+  /** References to collected adapters, whose entries are removed on the next write. */
+  private static final ReferenceQueue<ProtoAdapter<?>> COLLECTED_ADAPTERS = new ReferenceQueue<>();
+
+  final FieldEncoding fieldEncoding;
   final Class<?> javaType;
 
   ProtoAdapter<List<E>> packedAdapter;
   ProtoAdapter<List<E>> repeatedAdapter;
+  ProtoAdapter<Lazy<E>> lazyAdapter;
 
   public ProtoAdapter(FieldEncoding fieldEncoding, Class<?> javaType) {
     this.fieldEncoding = fieldEncoding;
@@ -66,25 +89,125 @@ public abstract class ProtoAdapter<E> {
     return new RuntimeEnumAdapter<>(type);
   }
 
-  /** Returns the default adapter for {@code type}. */
+  /**
+   * Returns an adapter for {@code string} values that shares the instances held by {@code cache}.
+   * Use this for fields that repeat a small vocabulary of values.
+   */
+  public static ProtoAdapter<String> newStringAdapter(final StringCache cache) {
+    if (cache == null) throw new NullPointerException("cache == null");
+    return new ProtoAdapter<String>(FieldEncoding.LENGTH_DELIMITED, String.class) {
+      @Override public int encodedSize(String value) {
+        return STRING.encodedSize(value);
+      }
+
+      @Override public void encode(ProtoWriter writer, String value) throws IOException {
+        writer.writeString(value);
+      }
+
+      @Override public String decode(ProtoReader reader) throws IOException {
+        return reader.readString(cache);
+      }
+    };
+  }
+
+  /**
+   * Returns the default adapter for {@code type}. This is the adapter {@linkplain #register
+   * registered} for the type, or else its {@code ADAPTER} field, which is found reflectively on
+   * first use and then cached.
+   */
   public static <M extends Message<M, B>, B extends Builder<M, B>> ProtoAdapter<M> get(
       Class<M> type) {
-    try {
-      return (ProtoAdapter<M>) type.getField("ADAPTER").get(null);
-    } catch (IllegalAccessException | NoSuchFieldException e) {
-      throw new IllegalArgumentException("failed to access " + type.getName() + "#ADAPTER", e);
+    ProtoAdapter<?> result = cached(ADAPTERS_BY_TYPE, type.getName(), type);
+    if (result == null) {
+      try {
+        result = (ProtoAdapter<M>) type.getField("ADAPTER").get(null);
+      } catch (IllegalAccessException | NoSuchFieldException e) {
+        throw new IllegalArgumentException("failed to access " + type.getName() + "#ADAPTER", e);
+      }
+      // The field is null while its class is being initialized. Don't cache that.
+      if (result != null) result = cache(ADAPTERS_BY_TYPE, type.getName(), type, result);
+    }
+    return (ProtoAdapter<M>) result;
+  }
+
+  /**
+   * Registers {@code adapter} as the default adapter for {@code type}, so that {@link #get(Class)}
+   * and reflective adapters of messages with fields of {@code type} use it without reflection.
+   * Servers can call this at startup for the types they handle.
+   *
+   * <p>The registry refers to {@code adapter} weakly, so it must be kept reachable for as long as
+   * the registration is needed, typically in a static field like a generated {@code ADAPTER}.
+   *
+   * @throws IllegalStateException if a different adapter for {@code type} has already been
+   *     registered or returned by {@link #get(Class)}. Reflective adapters may already hold that
+   *     adapter, so replacing it would not take effect everywhere.
+   */
+  public static <M extends Message<M, B>, B extends Builder<M, B>> void register(
+      Class<M> type, ProtoAdapter<M> adapter) {
+    checkNotNull(type, "type == null");
+    checkNotNull(adapter, "adapter == null");
+    String adapterString = type.getName() + "#ADAPTER";
+    synchronized (ADAPTERS_BY_TYPE) {
+      ProtoAdapter<?> byType = cached(ADAPTERS_BY_TYPE, type.getName(), type);
+      ProtoAdapter<?> byName = cached(ADAPTERS_BY_NAME, adapterString, null);
+      if ((byType != null && byType != adapter) || (byName != null && byName != adapter)) {
+        throw new IllegalStateException("a different adapter for " + type.getName()
+            + " is already in use");
+      }
+      removeCollectedAdapters();
+      ADAPTERS_BY_TYPE.put(type.getName(),
+          new AdapterReference(ADAPTERS_BY_TYPE, type.getName(), type, adapter));
+      ADAPTERS_BY_NAME.put(adapterString,
+          new AdapterReference(ADAPTERS_BY_NAME, adapterString, null, adapter));
     }
   }
 
   @SuppressWarnings("unchecked")
   static ProtoAdapter<?> get(String adapterString) {
-    try {
-      int hash = adapterString.indexOf('#');
-      String className = adapterString.substring(0, hash);
-      String fieldName = adapterString.substring(hash + 1);
-      return (ProtoAdapter<Object>) Class.forName(className).getField(fieldName).get(null);
-    } catch (IllegalAccessException | NoSuchFieldException | ClassNotFoundException e) {
-      throw new IllegalArgumentException("failed to access " + adapterString, e);
+    ProtoAdapter<?> result = cached(ADAPTERS_BY_NAME, adapterString, null);
+    if (result == null) {
+      try {
+        int hash = adapterString.indexOf('#');
+        String className = adapterString.substring(0, hash);
+        String fieldName = adapterString.substring(hash + 1);
+        result = (ProtoAdapter<Object>) Class.forName(className).getField(fieldName).get(null);
+      } catch (IllegalAccessException | NoSuchFieldException | ClassNotFoundException e) {
+        throw new IllegalArgumentException("failed to access " + adapterString, e);
+      }
+      if (result != null) result = cache(ADAPTERS_BY_NAME, adapterString, null, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the adapter cached for {@code key}, or null if there is none. If {@code type} is
+   * non-null the adapter is only returned if it was cached for that type.
+   */
+  private static ProtoAdapter<?> cached(
+      ConcurrentMap<String, AdapterReference> adapters, String key, Class<?> type) {
+    AdapterReference reference = adapters.get(key);
+    return reference != null ? reference.adapter(type) : null;
+  }
+
+  /** Caches {@code adapter} for {@code key} unless another is already cached, and returns it. */
+  private static ProtoAdapter<?> cache(ConcurrentMap<String, AdapterReference> adapters,
+      String key, Class<?> type, ProtoAdapter<?> adapter) {
+    synchronized (ADAPTERS_BY_TYPE) {
+      ProtoAdapter<?> existing = cached(adapters, key, type);
+      if (existing != null) return existing;
+      removeCollectedAdapters();
+      // This replaces any entry for a same-named type of another class loader.
+      adapters.put(key, new AdapterReference(adapters, key, type, adapter));
+      return adapter;
+    }
+  }
+
+  /** Removes the entries of adapters that have been garbage collected. */
+  private static void removeCollectedAdapters() {
+    Reference<?> collected;
+    while ((collected = COLLECTED_ADAPTERS.poll()) != null) {
+      AdapterReference reference = (AdapterReference) collected;
+      reference.adapters.remove(reference.key, reference);
     }
   }
 
@@ -117,31 +240,199 @@ public abstract class ProtoAdapter<E> {
   /** Write {@code tag} and non-null {@code value} to {@code writer}. */
   public void encodeWithTag(ProtoWriter writer, int tag, E value) throws IOException {
     writer.writeTag(tag, fieldEncoding);
+    ByteString encodedBytes = encodedBytes(value);
+    if (encodedBytes != null) {
+      writer.writeVarint32(encodedBytes.size());
+      writer.writeBytes(encodedBytes);
+      return;
+    }
     if (fieldEncoding == FieldEncoding.LENGTH_DELIMITED) {
       writer.writeVarint32(encodedSize(value));
     }
     encode(writer, value);
   }
 
+  /**
+   * Write non-null {@code value} to {@code writer}, which writes back to front. Adapters that don't
+   * override this encode {@code value} forwards into a temporary buffer and then copy it.
+   */
+  public void encode(ReverseProtoWriter writer, E value) throws IOException {
+    Buffer buffer = new Buffer();
+    encode(new ProtoWriter(buffer), value);
+    writer.writeBytes(buffer.readByteString());
+  }
+
+  /**
+   * Write non-null {@code value} and then {@code tag} to {@code writer}. Because the writer works
+   * back to front, a length-delimited value's length is known once it has been written.
+   */
+  public void encodeWithTag(ReverseProtoWriter writer, int tag, E value) throws IOException {
+    ByteString encodedBytes = encodedBytes(value);
+    if (encodedBytes != null) {
+      writer.writeBytes(encodedBytes);
+      writer.writeVarint32(encodedBytes.size());
+    } else if (fieldEncoding == FieldEncoding.LENGTH_DELIMITED) {
+      int byteCount = writer.byteCount();
+      encode(writer, value);
+      writer.writeVarint32(writer.byteCount() - byteCount);
+    } else {
+      encode(writer, value);
+    }
+    writer.writeTag(tag, fieldEncoding);
+  }
+
+  /**
+   * Returns the memoized encoding of {@code value}, or null if it isn't a message or its encoding
+   * hasn't been computed.
+   */
+  private static ByteString encodedBytes(Object value) {
+    return value instanceof Message ? ((Message<?, ?>) value).encodedBytes : null;
+  }
+
+  /** Write {@code value} to {@code writer}, reusing its memoized encoding if it has one. */
+  private void encodeTopLevel(ProtoWriter writer, E value) throws IOException {
+    ByteString encodedBytes = encodedBytes(value);
+    if (encodedBytes != null) {
+      writer.writeBytes(encodedBytes);
+    } else {
+      encode(writer, value);
+    }
+  }
+
   /** Encode {@code value} and write it to {@code stream}. */
   public final void encode(BufferedSink sink, E value) throws IOException {
     checkNotNull(value, "value == null");
     checkNotNull(sink, "sink == null");
-    encode(new ProtoWriter(sink), value);
+    ProtoWriter writer = ProtoWriter.acquire();
+    try {
+      writer.reset(sink);
+      encodeTopLevel(writer, value);
+    } finally {
+      writer.release();
+    }
   }
 
-  /** Encode {@code value} as a {@code byte[]}. */
+  /**
+   * Encode {@code value} as a {@code byte[]}. The array is allocated at its exact {@linkplain
+   * #encodedSize encoded size} and written directly, without an intermediate buffer. If the bytes
+   * written don't match {@link #encodedSize}, as may happen with an adapter whose size is only an
+   * estimate, {@code value} is encoded again through a buffer instead.
+   */
   public final byte[] encode(E value) {
     checkNotNull(value, "value == null");
+    ByteString encodedBytes = encodedBytes(value);
+    if (encodedBytes != null) return encodedBytes.toByteArray();
+    int byteCount = encodedSize(value);
+    byte[] result = new byte[byteCount];
+    try {
+      if (encode(value, result, 0, byteCount) == byteCount) return result;
+    } catch (BufferOverflowException e) {
+      // encodedSize() underestimated. Fall through to the buffered encoding.
+    }
     Buffer buffer = new Buffer();
     try {
       encode(buffer, value);
     } catch (IOException e) {
-      throw new AssertionError(e); // No I/O writing to Buffer.
+      throw new AssertionError(e); // No I/O writing to a Buffer.
     }
     return buffer.readByteArray();
   }
 
+  /**
+   * Encode {@code value} into {@code dst} starting at {@code offset}, and return the number of
+   * bytes written. That is {@link #encodedSize encodedSize(value)}, and {@code dst} must have at
+   * least that many bytes following {@code offset}.
+   *
+   * @throws IllegalStateException if this adapter's {@link #encodedSize} doesn't match the bytes
+   *     that {@link #encode(ProtoWriter, Object)} writes.
+   */
+  public final int encode(E value, byte[] dst, int offset) {
+    checkNotNull(value, "value == null");
+    checkNotNull(dst, "dst == null");
+    int byteCount = encodedSize(value);
+    encodeExactly(value, dst, offset, byteCount);
+    return byteCount;
+  }
+
+  /** Encode {@code value} into exactly {@code byteCount} bytes of {@code dst}. */
+  private void encodeExactly(E value, byte[] dst, int offset, int byteCount) {
+    int written;
+    try {
+      written = encode(value, dst, offset, byteCount);
+    } catch (BufferOverflowException e) {
+      throw new IllegalStateException("encodedSize() returned " + byteCount
+          + " but encode() wrote more bytes");
+    }
+    if (written != byteCount) {
+      throw new IllegalStateException("encodedSize() returned " + byteCount
+          + " but encode() wrote " + written + " bytes");
+    }
+  }
+
+  /**
+   * Encode {@code value} into the {@code byteCount} bytes of {@code dst} following {@code offset}
+   * and return the number of bytes written.
+   *
+   * @throws BufferOverflowException if encoding needs more than {@code byteCount} bytes.
+   */
+  private int encode(E value, byte[] dst, int offset, int byteCount) {
+    ProtoWriter writer = ProtoWriter.acquire();
+    try {
+      ByteArrayOutput output = writer.reset(dst, offset, byteCount);
+      encodeTopLevel(writer, value);
+      return output.byteCount();
+    } catch (IOException e) {
+      throw new AssertionError(e); // No I/O writing to an array.
+    } finally {
+      writer.release();
+    }
+  }
+
+  /**
+   * Encode {@code value} into {@code dst} at its position, and advance the position past the
+   * encoded bytes. Direct buffers are written in place without an intermediate array.
+   *
+   * @throws BufferOverflowException if {@code dst} has fewer than {@link #encodedSize
+   *     encodedSize(value)} bytes remaining. Nothing is written in that case.
+   */
+  public final void encode(E value, ByteBuffer dst) {
+    checkNotNull(value, "value == null");
+    checkNotNull(dst, "dst == null");
+    int byteCount = encodedSize(value);
+    if (dst.isReadOnly()) throw new ReadOnlyBufferException();
+    if (byteCount > dst.remaining()) throw new BufferOverflowException();
+    int position = dst.position();
+    if (dst.hasArray()) {
+      encodeExactly(value, dst.array(), dst.arrayOffset() + position, byteCount);
+      dst.position(position + byteCount);
+      return;
+    }
+    ByteBufferOutput output = (ByteBufferOutput) ProtoOutput.of(dst);
+    try {
+      encodeTopLevel(new ProtoWriter(output), value);
+    } catch (IOException e) {
+      throw new AssertionError(e); // No I/O writing to a buffer.
+    }
+    if (output.position() - position != byteCount) {
+      throw new IllegalStateException("encodedSize() returned " + byteCount
+          + " but encode() wrote " + (output.position() - position) + " bytes");
+    }
+    dst.position(output.position());
+  }
+
+  /**
+   * Encode {@code value} and write it to {@code channel} in a single gathering write. Large
+   * {@code bytes} fields and unknown fields are written from their own storage rather than copied.
+   * {@code channel} must be in blocking mode.
+   */
+  public final void encode(GatheringByteChannel channel, E value) throws IOException {
+    checkNotNull(value, "value == null");
+    checkNotNull(channel, "channel == null");
+    GatheringOutput output = (GatheringOutput) ProtoOutput.gathering();
+    encodeTopLevel(new ProtoWriter(output), value);
+    output.writeTo(channel);
+  }
+
   /** Encode {@code value} and write it to {@code stream}. */
   public final void encode(OutputStream stream, E value) throws IOException {
     checkNotNull(value, "value == null");
@@ -151,13 +442,108 @@ public abstract class ProtoAdapter<E> {
     buffer.emit();
   }
 
+  /**
+   * Encode {@code value} preceded by its varint length, and write it to {@code sink}. A sequence of
+   * values written this way can be read with {@link #decodeDelimited} or {@link
+   * DelimitedMessageReader}.
+   */
+  public final void encodeDelimited(BufferedSink sink, E value) throws IOException {
+    checkNotNull(value, "value == null");
+    checkNotNull(sink, "sink == null");
+    ProtoWriter writer = new ProtoWriter(sink);
+    writer.writeVarint32(encodedSize(value));
+    encodeTopLevel(writer, value);
+  }
+
+  /** Encode {@code value} preceded by its varint length, and write it to {@code stream}. */
+  public final void encodeDelimited(OutputStream stream, E value) throws IOException {
+    checkNotNull(value, "value == null");
+    checkNotNull(stream, "stream == null");
+    BufferedSink buffer = Okio.buffer(Okio.sink(stream));
+    encodeDelimited(buffer, value);
+    buffer.emit();
+  }
+
   /** Read a non-null value from {@code reader}. */
   public abstract E decode(ProtoReader reader) throws IOException;
 
+  /**
+   * Read all of the values of a packed field from {@code reader}. Scalar adapters read the whole
+   * run at once; other adapters read one value at a time.
+   */
+  List<E> decodePacked(ProtoReader reader) throws IOException {
+    return Collections.singletonList(decode(reader));
+  }
+
+  /** The size of the packed, non-empty {@code values}. */
+  int encodedSizePacked(List<E> values) {
+    int size = 0;
+    for (int i = 0, count = values.size(); i < count; i++) {
+      size += encodedSize(values.get(i));
+    }
+    return size;
+  }
+
+  /** Write the packed, non-empty {@code values} to {@code writer}. */
+  void encodePacked(ProtoWriter writer, List<E> values) throws IOException {
+    for (int i = 0, count = values.size(); i < count; i++) {
+      encode(writer, values.get(i));
+    }
+  }
+
+  /** Write the packed, non-empty {@code values} to {@code writer}, last value first. */
+  void encodePacked(ReverseProtoWriter writer, List<E> values) throws IOException {
+    for (int i = values.size() - 1; i >= 0; i--) {
+      encode(writer, values.get(i));
+    }
+  }
+
   /** Read an encoded message from {@code bytes}. */
   public final E decode(byte[] bytes) throws IOException {
     checkNotNull(bytes, "bytes == null");
-    return decode(new Buffer().write(bytes));
+    ProtoReader reader = ProtoReader.acquire();
+    try {
+      reader.reset(bytes, 0, bytes.length);
+      return decode(reader);
+    } finally {
+      reader.release();
+    }
+  }
+
+  /**
+   * Read an encoded message from {@code bytes}, decoding only the fields selected by {@code mask}.
+   */
+  public final E decode(byte[] bytes, FieldMask mask) throws IOException {
+    checkNotNull(bytes, "bytes == null");
+    checkNotNull(mask, "mask == null");
+    return decode(new ProtoReader(ProtoInput.of(bytes, 0, bytes.length), mask));
+  }
+
+  /**
+   * Read an encoded message from the remaining bytes of {@code buffer}. The buffer's position is
+   * advanced to its limit once the message has been decoded.
+   */
+  public final E decode(ByteBuffer buffer) throws IOException {
+    checkNotNull(buffer, "buffer == null");
+    E result = decode(new ProtoReader(ProtoInput.of(buffer)));
+    buffer.position(buffer.limit());
+    return result;
+  }
+
+  /**
+   * Read an encoded message from {@code bytes}. If it is a {@link Message}, {@code bytes} are
+   * retained as its {@linkplain Message#encodedBytes() encoding}, so that encoding it again copies
+   * them rather than re-encoding its fields.
+   */
+  public final E decodeRetained(ByteString bytes) throws IOException {
+    checkNotNull(bytes, "bytes == null");
+    E result = decode(bytes.toByteArray());
+    if (result instanceof Message) {
+      Message<?, ?> message = (Message<?, ?>) result;
+      message.cachedSerializedSize = bytes.size();
+      message.encodedBytes = bytes;
+    }
+    return result;
   }
 
   /** Read an encoded message from {@code stream}. */
@@ -169,7 +555,34 @@ public abstract class ProtoAdapter<E> {
   /** Read an encoded message from {@code source}. */
   public final E decode(BufferedSource source) throws IOException {
     checkNotNull(source, "source == null");
-    return decode(new ProtoReader(source));
+    ProtoReader reader = ProtoReader.acquire();
+    try {
+      reader.reset(source);
+      return decode(reader);
+    } finally {
+      reader.release();
+    }
+  }
+
+  /**
+   * Read an encoded message from {@code source}, decoding only the fields selected by {@code
+   * mask}.
+   */
+  public final E decode(BufferedSource source, FieldMask mask) throws IOException {
+    checkNotNull(source, "source == null");
+    checkNotNull(mask, "mask == null");
+    return decode(new ProtoReader(source, mask));
+  }
+
+  /**
+   * Read a length-delimited message from {@code source}, or return null if {@code source} is
+   * exhausted. This consumes exactly the message's bytes from {@code source}, leaving any that
+   * follow for subsequent calls. Use {@link DelimitedMessageReader} to read many messages.
+   */
+  public final E decodeDelimited(BufferedSource source) throws IOException {
+    checkNotNull(source, "source == null");
+    ProtoReader reader = new ProtoReader(source);
+    return reader.nextDelimitedMessage() ? decode(reader) : null;
   }
 
   /** Returns a human-readable version of the given {@code value}. */
@@ -177,168 +590,294 @@ public abstract class ProtoAdapter<E> {
     return value.toString();
   }
 
-  public static final ProtoAdapter<Boolean> BOOL = new ProtoAdapter<Boolean>(
-      FieldEncoding.VARINT, Boolean.class) {
-    @Override public int encodedSize(Boolean value) {
+  public static final BooleanAdapter BOOL = new BooleanAdapter(FieldEncoding.VARINT) {
+    @Override int encodedSizeBoolean(boolean value) {
       return FIXED_BOOL_SIZE;
     }
 
-    @Override public void encode(ProtoWriter writer, Boolean value) throws IOException {
+    @Override void encodeBoolean(ProtoWriter writer, boolean value) throws IOException {
       writer.writeVarint32(value ? 1 : 0);
     }
 
-    @Override public Boolean decode(ProtoReader reader) throws IOException {
+    @Override void encodeBoolean(ReverseProtoWriter writer, boolean value) throws IOException {
+      writer.writeVarint32(value ? 1 : 0);
+    }
+
+    @Override public boolean decodeBoolean(ProtoReader reader) throws IOException {
       int value = reader.readVarint32();
-      if (value == 0) return Boolean.FALSE;
-      if (value == 1) return Boolean.TRUE;
+      if (value == 0) return false;
+      if (value == 1) return true;
       throw new IOException(String.format("Invalid boolean value 0x%02x", value));
     }
+
+    @Override List<Boolean> decodePacked(ProtoReader reader) throws IOException {
+      int[] values = reader.readPackedVarint32();
+      boolean[] result = new boolean[values.length];
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] == 1) {
+          result[i] = true;
+        } else if (values[i] != 0) {
+          throw new IOException(String.format("Invalid boolean value 0x%02x", values[i]));
+        }
+      }
+      return new BooleanList(result, result.length, false);
+    }
+
+    @Override int encodedSizePacked(List<Boolean> values) {
+      return values.size() * FIXED_BOOL_SIZE;
+    }
   };
-  public static final ProtoAdapter<Integer> INT32 = new ProtoAdapter<Integer>(
-      FieldEncoding.VARINT, Integer.class) {
-    @Override public int encodedSize(Integer value) {
+  public static final IntAdapter INT32 = new IntAdapter(FieldEncoding.VARINT) {
+    @Override int encodedSizeInt(int value) {
       return int32Size(value);
     }
 
-    @Override public void encode(ProtoWriter writer, Integer value) throws IOException {
+    @Override void encodeInt(ProtoWriter writer, int value) throws IOException {
       writer.writeSignedVarint32(value);
     }
 
-    @Override public Integer decode(ProtoReader reader) throws IOException {
+    @Override void encodeInt(ReverseProtoWriter writer, int value) throws IOException {
+      writer.writeSignedVarint32(value);
+    }
+
+    @Override public int decodeInt(ProtoReader reader) throws IOException {
       return reader.readVarint32();
     }
+
+    @Override List<Integer> decodePacked(ProtoReader reader) throws IOException {
+      int[] values = reader.readPackedVarint32();
+      return new IntList(values, values.length, false);
+    }
   };
-  public static final ProtoAdapter<Integer> UINT32 = new ProtoAdapter<Integer>(
-      FieldEncoding.VARINT, Integer.class) {
-    @Override public int encodedSize(Integer value) {
+  public static final IntAdapter UINT32 = new IntAdapter(FieldEncoding.VARINT) {
+    @Override int encodedSizeInt(int value) {
       return varint32Size(value);
     }
 
-    @Override public void encode(ProtoWriter writer, Integer value) throws IOException {
+    @Override void encodeInt(ProtoWriter writer, int value) throws IOException {
+      writer.writeVarint32(value);
+    }
+
+    @Override void encodeInt(ReverseProtoWriter writer, int value) throws IOException {
       writer.writeVarint32(value);
     }
 
-    @Override public Integer decode(ProtoReader reader) throws IOException {
+    @Override public int decodeInt(ProtoReader reader) throws IOException {
       return reader.readVarint32();
     }
+
+    @Override List<Integer> decodePacked(ProtoReader reader) throws IOException {
+      int[] values = reader.readPackedVarint32();
+      return new IntList(values, values.length, false);
+    }
   };
-  public static final ProtoAdapter<Integer> SINT32 = new ProtoAdapter<Integer>(
-      FieldEncoding.VARINT, Integer.class) {
-    @Override public int encodedSize(Integer value) {
+  public static final IntAdapter SINT32 = new IntAdapter(FieldEncoding.VARINT) {
+    @Override int encodedSizeInt(int value) {
       return varint32Size(encodeZigZag32(value));
     }
 
-    @Override public void encode(ProtoWriter writer, Integer value) throws IOException {
+    @Override void encodeInt(ProtoWriter writer, int value) throws IOException {
+      writer.writeVarint32(encodeZigZag32(value));
+    }
+
+    @Override void encodeInt(ReverseProtoWriter writer, int value) throws IOException {
       writer.writeVarint32(encodeZigZag32(value));
     }
 
-    @Override public Integer decode(ProtoReader reader) throws IOException {
+    @Override public int decodeInt(ProtoReader reader) throws IOException {
       return decodeZigZag32(reader.readVarint32());
     }
+
+    @Override List<Integer> decodePacked(ProtoReader reader) throws IOException {
+      int[] values = reader.readPackedVarint32();
+      for (int i = 0; i < values.length; i++) {
+        values[i] = decodeZigZag32(values[i]);
+      }
+      return new IntList(values, values.length, false);
+    }
   };
-  public static final ProtoAdapter<Integer> FIXED32 = new ProtoAdapter<Integer>(
-      FieldEncoding.FIXED32, Integer.class) {
-    @Override public int encodedSize(Integer value) {
+  public static final IntAdapter FIXED32 = new IntAdapter(FieldEncoding.FIXED32) {
+    @Override int encodedSizeInt(int value) {
       return FIXED_32_SIZE;
     }
 
-    @Override public void encode(ProtoWriter writer, Integer value) throws IOException {
+    @Override void encodeInt(ProtoWriter writer, int value) throws IOException {
+      writer.writeFixed32(value);
+    }
+
+    @Override void encodeInt(ReverseProtoWriter writer, int value) throws IOException {
       writer.writeFixed32(value);
     }
 
-    @Override public Integer decode(ProtoReader reader) throws IOException {
+    @Override public int decodeInt(ProtoReader reader) throws IOException {
       return reader.readFixed32();
     }
+
+    @Override List<Integer> decodePacked(ProtoReader reader) throws IOException {
+      int[] values = reader.readPackedFixed32();
+      return new IntList(values, values.length, false);
+    }
+
+    @Override int encodedSizePacked(List<Integer> values) {
+      return values.size() * FIXED_32_SIZE;
+    }
   };
-  public static final ProtoAdapter<Integer> SFIXED32 = FIXED32;
-  public static final ProtoAdapter<Long> INT64 = new ProtoAdapter<Long>(
-      FieldEncoding.VARINT, Long.class) {
-    @Override public int encodedSize(Long value) {
+  public static final IntAdapter SFIXED32 = FIXED32;
+  public static final LongAdapter INT64 = new LongAdapter(FieldEncoding.VARINT) {
+    @Override int encodedSizeLong(long value) {
       return varint64Size(value);
     }
 
-    @Override public void encode(ProtoWriter writer, Long value) throws IOException {
+    @Override void encodeLong(ProtoWriter writer, long value) throws IOException {
+      writer.writeVarint64(value);
+    }
+
+    @Override void encodeLong(ReverseProtoWriter writer, long value) throws IOException {
       writer.writeVarint64(value);
     }
 
-    @Override public Long decode(ProtoReader reader) throws IOException {
+    @Override public long decodeLong(ProtoReader reader) throws IOException {
       return reader.readVarint64();
     }
+
+    @Override List<Long> decodePacked(ProtoReader reader) throws IOException {
+      long[] values = reader.readPackedVarint64();
+      return new LongList(values, values.length, false);
+    }
   };
-  /**
-   * Like INT64, but negative longs are interpreted as large positive values, and encoded that way
-   * in JSON.
-   */
-  public static final ProtoAdapter<Long> UINT64 = new ProtoAdapter<Long>(
-      FieldEncoding.VARINT, Long.class) {
-    @Override public int encodedSize(Long value) {
+  public static final LongAdapter UINT64 = new LongAdapter(FieldEncoding.VARINT) {
+    @Override int encodedSizeLong(long value) {
       return varint64Size(value);
     }
 
-    @Override public void encode(ProtoWriter writer, Long value) throws IOException {
+    @Override void encodeLong(ProtoWriter writer, long value) throws IOException {
       writer.writeVarint64(value);
     }
 
-    @Override public Long decode(ProtoReader reader) throws IOException {
+    @Override void encodeLong(ReverseProtoWriter writer, long value) throws IOException {
+      writer.writeVarint64(value);
+    }
+
+    @Override public long decodeLong(ProtoReader reader) throws IOException {
       return reader.readVarint64();
     }
+
+    @Override List<Long> decodePacked(ProtoReader reader) throws IOException {
+      long[] values = reader.readPackedVarint64();
+      return new LongList(values, values.length, false);
+    }
   };
-  public static final ProtoAdapter<Long> SINT64 = new ProtoAdapter<Long>(
-      FieldEncoding.VARINT, Long.class) {
-    @Override public int encodedSize(Long value) {
+  public static final LongAdapter SINT64 = new LongAdapter(FieldEncoding.VARINT) {
+    @Override int encodedSizeLong(long value) {
       return varint64Size(encodeZigZag64(value));
     }
 
-    @Override public void encode(ProtoWriter writer, Long value) throws IOException {
+    @Override void encodeLong(ProtoWriter writer, long value) throws IOException {
       writer.writeVarint64(encodeZigZag64(value));
     }
 
-    @Override public Long decode(ProtoReader reader) throws IOException {
+    @Override void encodeLong(ReverseProtoWriter writer, long value) throws IOException {
+      writer.writeVarint64(encodeZigZag64(value));
+    }
+
+    @Override public long decodeLong(ProtoReader reader) throws IOException {
       return decodeZigZag64(reader.readVarint64());
     }
+
+    @Override List<Long> decodePacked(ProtoReader reader) throws IOException {
+      long[] values = reader.readPackedVarint64();
+      for (int i = 0; i < values.length; i++) {
+        values[i] = decodeZigZag64(values[i]);
+      }
+      return new LongList(values, values.length, false);
+    }
   };
-  public static final ProtoAdapter<Long> FIXED64 = new ProtoAdapter<Long>(
-      FieldEncoding.FIXED64, Long.class) {
-    @Override public int encodedSize(Long value) {
+  public static final LongAdapter FIXED64 = new LongAdapter(FieldEncoding.FIXED64) {
+    @Override int encodedSizeLong(long value) {
       return FIXED_64_SIZE;
     }
 
-    @Override public void encode(ProtoWriter writer, Long value) throws IOException {
+    @Override void encodeLong(ProtoWriter writer, long value) throws IOException {
+      writer.writeFixed64(value);
+    }
+
+    @Override void encodeLong(ReverseProtoWriter writer, long value) throws IOException {
       writer.writeFixed64(value);
     }
 
-    @Override public Long decode(ProtoReader reader) throws IOException {
+    @Override public long decodeLong(ProtoReader reader) throws IOException {
       return reader.readFixed64();
     }
+
+    @Override List<Long> decodePacked(ProtoReader reader) throws IOException {
+      long[] values = reader.readPackedFixed64();
+      return new LongList(values, values.length, false);
+    }
+
+    @Override int encodedSizePacked(List<Long> values) {
+      return values.size() * FIXED_64_SIZE;
+    }
   };
-  public static final ProtoAdapter<Long> SFIXED64 = FIXED64;
-  public static final ProtoAdapter<Float> FLOAT = new ProtoAdapter<Float>(
-      FieldEncoding.FIXED32, Float.class) {
-    @Override public int encodedSize(Float value) {
+  public static final LongAdapter SFIXED64 = FIXED64;
+  public static final FloatAdapter FLOAT = new FloatAdapter(FieldEncoding.FIXED32) {
+    @Override int encodedSizeFloat(float value) {
       return FIXED_32_SIZE;
     }
 
-    @Override public void encode(ProtoWriter writer, Float value) throws IOException {
+    @Override void encodeFloat(ProtoWriter writer, float value) throws IOException {
       writer.writeFixed32(floatToIntBits(value));
     }
 
-    @Override public Float decode(ProtoReader reader) throws IOException {
+    @Override void encodeFloat(ReverseProtoWriter writer, float value) throws IOException {
+      writer.writeFixed32(floatToIntBits(value));
+    }
+
+    @Override public float decodeFloat(ProtoReader reader) throws IOException {
       return Float.intBitsToFloat(reader.readFixed32());
     }
+
+    @Override List<Float> decodePacked(ProtoReader reader) throws IOException {
+      int[] values = reader.readPackedFixed32();
+      float[] result = new float[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = Float.intBitsToFloat(values[i]);
+      }
+      return new FloatList(result, result.length, false);
+    }
+
+    @Override int encodedSizePacked(List<Float> values) {
+      return values.size() * FIXED_32_SIZE;
+    }
   };
-  public static final ProtoAdapter<Double> DOUBLE = new ProtoAdapter<Double>(
-      FieldEncoding.FIXED64, Double.class) {
-    @Override public int encodedSize(Double value) {
+  public static final DoubleAdapter DOUBLE = new DoubleAdapter(FieldEncoding.FIXED64) {
+    @Override int encodedSizeDouble(double value) {
       return FIXED_64_SIZE;
     }
 
-    @Override public void encode(ProtoWriter writer, Double value) throws IOException {
+    @Override void encodeDouble(ProtoWriter writer, double value) throws IOException {
       writer.writeFixed64(doubleToLongBits(value));
     }
 
-    @Override public Double decode(ProtoReader reader) throws IOException {
+    @Override void encodeDouble(ReverseProtoWriter writer, double value) throws IOException {
+      writer.writeFixed64(doubleToLongBits(value));
+    }
+
+    @Override public double decodeDouble(ProtoReader reader) throws IOException {
       return Double.longBitsToDouble(reader.readFixed64());
     }
+
+    @Override List<Double> decodePacked(ProtoReader reader) throws IOException {
+      long[] values = reader.readPackedFixed64();
+      double[] result = new double[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = Double.longBitsToDouble(values[i]);
+      }
+      return new DoubleList(result, result.length, false);
+    }
+
+    @Override int encodedSizePacked(List<Double> values) {
+      return values.size() * FIXED_64_SIZE;
+    }
   };
   public static final ProtoAdapter<String> STRING = new ProtoAdapter<String>(
       FieldEncoding.LENGTH_DELIMITED, String.class) {
@@ -350,10 +889,38 @@ public abstract class ProtoAdapter<E> {
       writer.writeString(value);
     }
 
+    @Override public void encode(ReverseProtoWriter writer, String value) throws IOException {
+      writer.writeString(value);
+    }
+
     @Override public String decode(ProtoReader reader) throws IOException {
       return reader.readString();
     }
   };
+  /**
+   * An adapter for {@code bytes} values that avoids copying them where it can. Decoded values are
+   * read-only, and those decoded from a byte array, a byte buffer, or a mapped file share that
+   * storage; see {@link ProtoReader#readByteBuffer()} for the contract that implies. Encoding
+   * writes a value's remaining bytes without changing its position.
+   */
+  public static final ProtoAdapter<ByteBuffer> BYTE_BUFFER = new ProtoAdapter<ByteBuffer>(
+      FieldEncoding.LENGTH_DELIMITED, ByteBuffer.class) {
+    @Override public int encodedSize(ByteBuffer value) {
+      return value.remaining();
+    }
+
+    @Override public void encode(ProtoWriter writer, ByteBuffer value) throws IOException {
+      writer.writeBytes(value);
+    }
+
+    @Override public void encode(ReverseProtoWriter writer, ByteBuffer value) throws IOException {
+      writer.writeBytes(value);
+    }
+
+    @Override public ByteBuffer decode(ProtoReader reader) throws IOException {
+      return reader.readByteBuffer();
+    }
+  };
   public static final ProtoAdapter<ByteString> BYTES = new ProtoAdapter<ByteString>(
       FieldEncoding.LENGTH_DELIMITED, ByteString.class) {
     @Override public int encodedSize(ByteString value) {
@@ -364,6 +931,10 @@ public abstract class ProtoAdapter<E> {
       writer.writeBytes(value);
     }
 
+    @Override public void encode(ReverseProtoWriter writer, ByteString value) throws IOException {
+      writer.writeBytes(value);
+    }
+
     @Override public ByteString decode(ProtoReader reader) throws IOException {
       return reader.readBytes();
     }
@@ -390,11 +961,24 @@ public abstract class ProtoAdapter<E> {
     return adapter != null ? adapter : (repeatedAdapter = createRepeated());
   }
 
+  /**
+   * Returns an adapter for {@link E} that defers decoding each value until it is first accessed.
+   * Only length-delimited types like messages may be decoded lazily.
+   */
+  public final ProtoAdapter<Lazy<E>> asLazy() {
+    ProtoAdapter<Lazy<E>> adapter = lazyAdapter;
+    return adapter != null ? adapter : (lazyAdapter = createLazy());
+  }
+
   private ProtoAdapter<List<E>> createPacked() {
     if (fieldEncoding == FieldEncoding.LENGTH_DELIMITED) {
       throw new IllegalArgumentException("Unable to pack a length-delimited type.");
     }
     return new ProtoAdapter<List<E>>(FieldEncoding.LENGTH_DELIMITED, List.class) {
+      @Override public int encodedSizeWithTag(int tag, List<E> value) {
+        return value.isEmpty() ? 0 : super.encodedSizeWithTag(tag, value);
+      }
+
       @Override public void encodeWithTag(ProtoWriter writer, int tag, List<E> value)
           throws IOException {
         if (!value.isEmpty()) {
@@ -402,23 +986,27 @@ public abstract class ProtoAdapter<E> {
         }
       }
 
-      @Override public int encodedSize(List<E> value) {
-        int size = 0;
-        for (int i = 0, count = value.size(); i < count; i++) {
-          size += ProtoAdapter.this.encodedSize(value.get(i));
+      @Override public void encodeWithTag(ReverseProtoWriter writer, int tag, List<E> value)
+          throws IOException {
+        if (!value.isEmpty()) {
+          super.encodeWithTag(writer, tag, value);
         }
-        return size;
+      }
+
+      @Override public int encodedSize(List<E> value) {
+        return ProtoAdapter.this.encodedSizePacked(value);
       }
 
       @Override public void encode(ProtoWriter writer, List<E> value) throws IOException {
-        for (int i = 0, count = value.size(); i < count; i++) {
-          ProtoAdapter.this.encode(writer, value.get(i));
-        }
+        ProtoAdapter.this.encodePacked(writer, value);
+      }
+
+      @Override public void encode(ReverseProtoWriter writer, List<E> value) throws IOException {
+        ProtoAdapter.this.encodePacked(writer, value);
       }
 
       @Override public List<E> decode(ProtoReader reader) throws IOException {
-        E value = ProtoAdapter.this.decode(reader);
-        return Collections.singletonList(value);
+        return ProtoAdapter.this.decodePacked(reader);
       }
 
       @Override public List<E> redact(List<E> value) {
@@ -452,6 +1040,13 @@ public abstract class ProtoAdapter<E> {
         }
       }
 
+      @Override public void encodeWithTag(ReverseProtoWriter writer, int tag, List<E> value)
+          throws IOException {
+        for (int i = value.size() - 1; i >= 0; i--) {
+          ProtoAdapter.this.encodeWithTag(writer, tag, value.get(i));
+        }
+      }
+
       @Override public List<E> decode(ProtoReader reader) throws IOException {
         E value = ProtoAdapter.this.decode(reader);
         return Collections.singletonList(value);
@@ -463,12 +1058,74 @@ public abstract class ProtoAdapter<E> {
     };
   }
 
+  private ProtoAdapter<Lazy<E>> createLazy() {
+    if (fieldEncoding != FieldEncoding.LENGTH_DELIMITED) {
+      throw new IllegalArgumentException("Unable to lazily decode a non-length-delimited type.");
+    }
+    return new ProtoAdapter<Lazy<E>>(FieldEncoding.LENGTH_DELIMITED, Lazy.class) {
+      @Override public int encodedSize(Lazy<E> value) {
+        return value.encodedSize();
+      }
+
+      @Override public void encode(ProtoWriter writer, Lazy<E> value) throws IOException {
+        value.encode(writer);
+      }
+
+      @Override public void encode(ReverseProtoWriter writer, Lazy<E> value) throws IOException {
+        value.encode(writer);
+      }
+
+      @Override public Lazy<E> decode(ProtoReader reader) throws IOException {
+        return Lazy.encoded(ProtoAdapter.this, reader.readBytes());
+      }
+
+      @Override public Lazy<E> redact(Lazy<E> value) {
+        return value.redact();
+      }
+    };
+  }
+
+  /**
+   * Thrown when decoding an enum value that has no constant. Decoders of messages catch this to
+   * retain the value as an unknown field, so it doesn't fill in a stack trace.
+   */
   public static final class EnumConstantNotFoundException extends IllegalArgumentException {
     public final int value;
+    private final Class<?> type;
 
     EnumConstantNotFoundException(int value, Class<?> type) {
-      super("Unknown enum tag " + value + " for " + type.getCanonicalName());
       this.value = value;
+      this.type = type;
+    }
+
+    @Override public String getMessage() {
+      return "Unknown enum tag " + value + " for " + type.getCanonicalName();
+    }
+
+    @Override public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+  /** A cached adapter, held weakly so that its message's class loader may be unloaded. */
+  private static final class AdapterReference extends WeakReference<ProtoAdapter<?>> {
+    final ConcurrentMap<String, AdapterReference> adapters;
+    final String key;
+    /** The type the adapter was cached for, or null if it was cached by adapter string. */
+    final WeakReference<Class<?>> type;
+
+    AdapterReference(ConcurrentMap<String, AdapterReference> adapters, String key,
+        Class<?> type, ProtoAdapter<?> adapter) {
+      super(adapter, COLLECTED_ADAPTERS);
+      this.adapters = adapters;
+      this.key = key;
+      this.type = type != null ? new WeakReference<Class<?>>(type) : null;
+    }
+
+    /** Returns the adapter, or null if it was collected or cached for a type other than this. */
+    ProtoAdapter<?> adapter(Class<?> type) {
+      if (type != null && this.type.get() != type) return null;
+      return get();
     }
   }
 }
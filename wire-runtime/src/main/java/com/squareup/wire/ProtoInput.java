@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * The bytes consumed by a {@link ProtoReader}. Implementations track their own position so that
+ * array-backed inputs can decode varints and fixed-width values with local index arithmetic
+ * rather than a call per byte.
+ */
+abstract class ProtoInput {
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /** The maximum number of bytes in an encoded varint. */
+  static final int MAX_VARINT_SIZE = 10;
+
+  static ProtoInput of(BufferedSource source) {
+    return new BufferedSourceInput(source);
+  }
+
+  static ProtoInput of(byte[] bytes, int offset, int byteCount) {
+    return new ByteArrayInput(bytes, offset, byteCount);
+  }
+
+  /** Returns an input for the remaining bytes of {@code buffer}. */
+  static ProtoInput of(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return new ByteArrayInput(
+          buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    return new ByteBufferInput(buffer);
+  }
+
+  /** Drops this input's reference to its bytes, so that a pooled reader doesn't retain them. */
+  void release() {
+  }
+
+  /** Returns the number of bytes consumed from this input. */
+  abstract long position();
+
+  /** Returns true if there are no more bytes to consume. */
+  abstract boolean exhausted() throws IOException;
+
+  /** Reads a varint of up to 64 bits, discarding all but the lowest 32 bits. */
+  abstract int readVarint32() throws IOException;
+
+  /** Reads a varint of up to 64 bits. */
+  abstract long readVarint64() throws IOException;
+
+  /** Reads a 32-bit little-endian integer. */
+  abstract int readIntLe() throws IOException;
+
+  /** Reads a 64-bit little-endian integer. */
+  abstract long readLongLe() throws IOException;
+
+  /** Discards {@code byteCount} bytes. */
+  abstract void skip(long byteCount) throws IOException;
+
+  abstract ByteString readByteString(long byteCount) throws IOException;
+
+  /**
+   * Returns true if bytes remain readable after they've been consumed. Only inputs that return
+   * true support {@link #byteStringAt}.
+   */
+  boolean retainsBytes() {
+    return false;
+  }
+
+  /**
+   * Returns {@code byteCount} bytes starting at {@code position}, which may precede the current
+   * position. This doesn't change the current position.
+   */
+  ByteString byteStringAt(long position, long byteCount) throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Reads {@code byteCount} bytes as a buffer. Array- and buffer-backed inputs return a slice that
+   * shares their storage; other inputs copy.
+   */
+  abstract ByteBuffer readByteBuffer(long byteCount) throws IOException;
+
+  abstract String readUtf8(long byteCount) throws IOException;
+
+  /** Reads a string of {@code byteCount} UTF-8 bytes, sharing instances held by {@code cache}. */
+  abstract String readUtf8(long byteCount, StringCache cache) throws IOException;
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import okio.BufferedSink;
+import okio.ByteString;
+
+/**
+ * The bytes produced by a {@link ProtoWriter}. Array-backed outputs write varints and fixed-width
+ * values with local index arithmetic rather than a call per byte.
+ */
+abstract class ProtoOutput {
+  static ProtoOutput of(BufferedSink sink) {
+    return new BufferedSinkOutput(sink);
+  }
+
+  static ProtoOutput of(byte[] bytes, int offset, int byteCount) {
+    return new ByteArrayOutput(bytes, offset, byteCount);
+  }
+
+  static ProtoOutput gathering() {
+    return new GatheringOutput();
+  }
+
+  static ProtoOutput of(ByteBuffer buffer) {
+    return new ByteBufferOutput(buffer);
+  }
+
+  /** Drops this output's reference to its target, so that a pooled writer doesn't retain it. */
+  void release() {
+  }
+
+  /** Writes a varint. {@code value} is treated as unsigned. */
+  abstract void writeVarint32(int value) throws IOException;
+
+  abstract void writeVarint64(long value) throws IOException;
+
+  /** Writes a 32-bit little-endian integer. */
+  abstract void writeIntLe(int value) throws IOException;
+
+  /** Writes a 64-bit little-endian integer. */
+  abstract void writeLongLe(long value) throws IOException;
+
+  abstract void write(ByteString value) throws IOException;
+
+  /** Writes the remaining bytes of {@code value} without changing its position. */
+  abstract void write(ByteBuffer value) throws IOException;
+
+  abstract void writeUtf8(String value) throws IOException;
+}
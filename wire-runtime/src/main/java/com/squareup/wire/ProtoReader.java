@@ -36,6 +36,9 @@ package com.squareup.wire;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import okio.BufferedSource;
 import okio.ByteString;
 
@@ -45,6 +48,8 @@ import okio.ByteString;
 public final class ProtoReader {
   /** The standard number of levels of message nesting to allow. */
   private static final int RECURSION_LIMIT = 65;
+  /** The largest scratch array a released reader keeps, so that idle readers stay small. */
+  static final int MAX_RETAINED_SCRATCH = 1024;
 
   private static final int FIELD_ENCODING_MASK = 0x7;
   static final int TAG_FIELD_ENCODING_BITS = 3;
@@ -59,10 +64,11 @@ public final class ProtoReader {
   private static final int STATE_TAG = 6; // Note: not a field encoding.
   private static final int STATE_PACKED_TAG = 7; // Note: not a field encoding.
 
-  private final BufferedSource source;
+  /** An idle reader for each thread's top-level decodes, or null while that reader is in use. */
+  private static final ThreadLocal<ProtoReader> POOL = new ThreadLocal<>();
 
-  /** The current position in the input source, starting at 0 and increasing monotonically. */
-  private long pos = 0;
+  /** The input source. Its position starts at 0 and increases monotonically. */
+  private ProtoInput input;
   /** The absolute position of the end of the current message. */
   private long limit = Long.MAX_VALUE;
   /** The current number of levels of message nesting. */
@@ -71,13 +77,124 @@ public final class ProtoReader {
   private int state = STATE_LENGTH_DELIMITED;
   /** The most recently read tag. Used to make packed values look like regular values. */
   private int tag = -1;
+  /** The position of the current field's tag. */
+  private long tagPosition;
   /** Limit once we complete the current length-delimited value. */
   private long pushedLimit = -1;
   /** The encoding of the next value to be read. */
   private FieldEncoding nextFieldEncoding;
+  /** Reusable storage for packed varints, whose count isn't known until they've been read. */
+  int[] intScratch;
+  long[] longScratch;
+  /** The fields to decode from top-level messages, or null to decode all fields. */
+  private final FieldMask rootMask;
+  /** The fields to decode from the current message, or null to decode all fields. */
+  private FieldMask mask;
+  /** Masks of enclosing messages, indexed by recursion depth. Null unless reading is masked. */
+  private final FieldMask[] maskStack;
+  /** Shares decoded strings across fields, or null to allocate a new string for each. */
+  private StringCache stringCache;
+  /**
+   * Builders holding unknown fields not yet copied from the input, indexed by the recursion depth
+   * of their message. Each is flushed when its message ends, so no builder outlives the input.
+   */
+  private Message.Builder<?, ?>[] unknownFieldsBuilders;
 
   public ProtoReader(BufferedSource source) {
-    this.source = source;
+    this(ProtoInput.of(source), null);
+  }
+
+  /**
+   * Returns a reader of {@code source} that decodes only the fields selected by {@code mask}. The
+   * values of other fields are skipped.
+   */
+  public ProtoReader(BufferedSource source, FieldMask mask) {
+    this(ProtoInput.of(source), mask);
+  }
+
+  ProtoReader(ProtoInput input) {
+    this(input, null);
+  }
+
+  ProtoReader(ProtoInput input, FieldMask mask) {
+    this.input = input;
+    this.rootMask = mask;
+    this.maskStack = mask != null ? new FieldMask[RECURSION_LIMIT + 1] : null;
+  }
+
+  /**
+   * Returns this thread's idle reader, or a new reader if it has none. The reader must be {@link
+   * #reset} before use, and should be {@linkplain #release released} once decoding completes.
+   */
+  static ProtoReader acquire() {
+    ProtoReader reader = POOL.get();
+    if (reader == null) return new ProtoReader((ProtoInput) null);
+    POOL.set(null);
+    return reader;
+  }
+
+  /**
+   * Returns this reader to its thread's pool, dropping references to its input and any scratch
+   * storage grown for an unusually long run of packed values.
+   */
+  void release() {
+    flushUnknownFields(0, RECURSION_LIMIT + 1);
+    if (input != null) input.release();
+    stringCache = null;
+    if (intScratch != null && intScratch.length > MAX_RETAINED_SCRATCH) intScratch = null;
+    if (longScratch != null && longScratch.length > MAX_RETAINED_SCRATCH) longScratch = null;
+    POOL.set(this);
+  }
+
+  /**
+   * Prepare to read a new message from {@code source}, discarding all state left by this reader's
+   * previous input, including any partially-read message. The field mask, string cache and scratch
+   * storage are kept, so one reader may decode many inputs without allocating.
+   */
+  public void reset(BufferedSource source) {
+    if (source == null) throw new NullPointerException("source == null");
+    flushUnknownFields(0, RECURSION_LIMIT + 1);
+    if (input instanceof BufferedSourceInput) {
+      ((BufferedSourceInput) input).reset(source);
+    } else {
+      input = ProtoInput.of(source);
+    }
+    resetState();
+  }
+
+  /** Like {@link #reset(BufferedSource)}, but reads {@code byteCount} bytes of {@code bytes}. */
+  void reset(byte[] bytes, int offset, int byteCount) {
+    flushUnknownFields(0, RECURSION_LIMIT + 1);
+    if (input instanceof ByteArrayInput) {
+      ((ByteArrayInput) input).reset(bytes, offset, byteCount);
+    } else {
+      input = ProtoInput.of(bytes, offset, byteCount);
+    }
+    resetState();
+  }
+
+  private void resetState() {
+    limit = Long.MAX_VALUE;
+    recursionDepth = 0;
+    state = STATE_LENGTH_DELIMITED;
+    tag = -1;
+    tagPosition = 0;
+    pushedLimit = -1;
+    nextFieldEncoding = null;
+    mask = null;
+    if (maskStack != null) Arrays.fill(maskStack, null);
+  }
+
+  /**
+   * Returns a reader of {@code file} from its current position to its current size. Rather than
+   * copying the file into buffers, the reader maps it into memory a window at a time, so files
+   * larger than 2 GiB may be read. This doesn't change the channel's position, and the caller
+   * remains responsible for closing it.
+   */
+  public static ProtoReader mapped(FileChannel file) throws IOException {
+    if (file == null) throw new NullPointerException("file == null");
+    return new ProtoReader(new MappedFileInput(
+        file, file.position(), file.size(), MappedFileInput.DEFAULT_WINDOW_SIZE));
   }
 
   /**
@@ -97,6 +214,10 @@ public final class ProtoReader {
     long token = pushedLimit;
     pushedLimit = -1L;
     state = STATE_TAG;
+    if (maskStack != null) {
+      maskStack[recursionDepth] = mask;
+      mask = recursionDepth == 1 ? rootMask : mask != null ? mask.child(tag) : null;
+    }
     return token;
   }
 
@@ -113,10 +234,36 @@ public final class ProtoReader {
     if (--recursionDepth < 0 || pushedLimit != -1L) {
       throw new IllegalStateException("No corresponding call to beginMessage()");
     }
-    if (pos != limit && recursionDepth != 0) {
-      throw new IOException("Expected to end at " + limit + " but was " + pos);
+    // Top-level messages that aren't length-delimited end when the input is exhausted.
+    if (input.position() != limit && (recursionDepth != 0 || limit != Long.MAX_VALUE)) {
+      throw new IOException("Expected to end at " + limit + " but was " + input.position());
     }
     limit = token;
+    if (maskStack != null) {
+      mask = maskStack[recursionDepth + 1];
+    }
+    flushUnknownFields(recursionDepth + 1, recursionDepth + 2);
+  }
+
+  /**
+   * Reads the length prefix of the next message in a stream of length-delimited messages. Returns
+   * false if the stream is exhausted. Otherwise the message must be read with a call to {@link
+   * #beginMessage()}, typically by passing this reader to {@link ProtoAdapter#decode(ProtoReader)},
+   * before this method is called again.
+   */
+  public boolean nextDelimitedMessage() throws IOException {
+    if (recursionDepth != 0 || pushedLimit != -1L) {
+      throw new IllegalStateException("Unexpected call to nextDelimitedMessage()");
+    }
+    if (input.exhausted()) return false;
+
+    int length = input.readVarint32();
+    if (length < 0) throw new ProtocolException("Negative length: " + length);
+    // Push the stream's limit, and set a new limit to the length of this message.
+    pushedLimit = Long.MAX_VALUE;
+    limit = input.position() + length;
+    state = STATE_LENGTH_DELIMITED;
+    return true;
   }
 
   /**
@@ -132,8 +279,9 @@ public final class ProtoReader {
       throw new IllegalStateException("Unexpected call to nextTag()");
     }
 
-    while (pos < limit && !source.exhausted()) {
-      int tagAndFieldEncoding = internalReadVarint32();
+    while (input.position() < limit && !input.exhausted()) {
+      tagPosition = input.position();
+      int tagAndFieldEncoding = input.readVarint32();
       if (tagAndFieldEncoding == 0) throw new ProtocolException("Unexpected tag 0");
 
       tag = tagAndFieldEncoding >> TAG_FIELD_ENCODING_BITS;
@@ -149,33 +297,39 @@ public final class ProtoReader {
         case STATE_LENGTH_DELIMITED:
           nextFieldEncoding = FieldEncoding.LENGTH_DELIMITED;
           state = STATE_LENGTH_DELIMITED;
-          int length = internalReadVarint32();
+          int length = input.readVarint32();
           if (length < 0) throw new ProtocolException("Negative length: " + length);
           if (pushedLimit != -1) throw new IllegalStateException();
           // Push the current limit, and set a new limit to the length of this value.
           pushedLimit = limit;
-          limit = pos + length;
+          limit = input.position() + length;
           if (limit > pushedLimit) throw new EOFException();
-          return tag;
+          break;
 
         case STATE_VARINT:
           nextFieldEncoding = FieldEncoding.VARINT;
           state = STATE_VARINT;
-          return tag;
+          break;
 
         case STATE_FIXED64:
           nextFieldEncoding = FieldEncoding.FIXED64;
           state = STATE_FIXED64;
-          return tag;
+          break;
 
         case STATE_FIXED32:
           nextFieldEncoding = FieldEncoding.FIXED32;
           state = STATE_FIXED32;
-          return tag;
+          break;
 
         default:
           throw new ProtocolException("Unexpected field encoding: " + groupOrFieldEncoding);
       }
+
+      if (mask != null && !mask.contains(tag)) {
+        skip(); // This field isn't selected.
+        continue;
+      }
+      return tag;
     }
     return -1;
   }
@@ -196,7 +350,7 @@ public final class ProtoReader {
     switch (state) {
       case STATE_LENGTH_DELIMITED:
         long byteCount = beforeLengthDelimitedScalar();
-        source.skip(byteCount);
+        input.skip(byteCount);
         break;
       case STATE_VARINT:
         readVarint64();
@@ -212,10 +366,58 @@ public final class ProtoReader {
     }
   }
 
+  /**
+   * Reads the current field, which {@code builder} has no binding for, and adds it to the builder's
+   * unknown fields. This is only safe to call immediately following a call to {@link #nextTag()}.
+   *
+   * <p>When reading from an array or a buffer the field isn't decoded. Its bytes are copied from
+   * the input together with any unknown fields adjacent to it, when the message is built or at the
+   * latest when {@link #endMessage} closes it.
+   */
+  public void readUnknownField(Message.Builder<?, ?> builder) throws IOException {
+    if (!input.retainsBytes()) {
+      FieldEncoding fieldEncoding = nextFieldEncoding;
+      Object value = fieldEncoding.rawProtoAdapter().decode(this);
+      builder.addUnknownField(tag, fieldEncoding, value);
+      return;
+    }
+    long start = tagPosition;
+    skip();
+    builder.addUnknownFieldRange(this, start, input.position());
+    if (unknownFieldsBuilders == null) {
+      unknownFieldsBuilders = new Message.Builder<?, ?>[RECURSION_LIMIT + 1];
+    }
+    Message.Builder<?, ?> pending = unknownFieldsBuilders[recursionDepth];
+    if (pending != builder) {
+      if (pending != null) pending.flushUnknownFieldRange();
+      unknownFieldsBuilders[recursionDepth] = builder;
+    }
+  }
+
+  /**
+   * Copies the pending unknown fields of builders at depths in {@code [from..to)} from the input,
+   * so that they no longer refer to this reader.
+   */
+  private void flushUnknownFields(int from, int to) {
+    if (unknownFieldsBuilders == null) return;
+    for (int i = from; i < to; i++) {
+      Message.Builder<?, ?> builder = unknownFieldsBuilders[i];
+      if (builder != null) {
+        unknownFieldsBuilders[i] = null;
+        builder.flushUnknownFieldRange();
+      }
+    }
+  }
+
+  /** Returns {@code byteCount} bytes of the input starting at {@code position}. */
+  ByteString byteStringAt(long position, long byteCount) throws IOException {
+    return input.byteStringAt(position, byteCount);
+  }
+
   /** Skips a section of the input delimited by START_GROUP/END_GROUP type markers. */
   private void skipGroup(int expectedEndTag) throws IOException {
-    while (pos < limit && !source.exhausted()) {
-      int tagAndFieldEncoding = internalReadVarint32();
+    while (input.position() < limit && !input.exhausted()) {
+      int tagAndFieldEncoding = input.readVarint32();
       if (tagAndFieldEncoding == 0) throw new ProtocolException("Unexpected tag 0");
       int tag = tagAndFieldEncoding >> TAG_FIELD_ENCODING_BITS;
       int groupOrFieldEncoding = tagAndFieldEncoding & FIELD_ENCODING_MASK;
@@ -227,9 +429,8 @@ public final class ProtoReader {
           if (tag == expectedEndTag) return; // Success!
           throw new ProtocolException("Unexpected end group");
         case STATE_LENGTH_DELIMITED:
-          int length = internalReadVarint32();
-          pos += length;
-          source.skip(length);
+          int length = input.readVarint32();
+          input.skip(length);
           break;
         case STATE_VARINT:
           state = STATE_VARINT;
@@ -256,13 +457,40 @@ public final class ProtoReader {
    */
   public ByteString readBytes() throws IOException {
     long byteCount = beforeLengthDelimitedScalar();
-    return source.readByteString(byteCount);
+    return input.readByteString(byteCount);
+  }
+
+  /**
+   * Use {@code stringCache} to share instances of the strings decoded by this reader. Pass null to
+   * allocate a new string for each {@code string} field.
+   */
+  public void setStringCache(StringCache stringCache) {
+    this.stringCache = stringCache;
+  }
+
+  /**
+   * Reads a {@code bytes} field value from the stream without copying it. The returned buffer is
+   * read-only. If this reader is backed by a byte array, a byte buffer, or a mapped file, it is a
+   * slice that shares that storage and is only valid for as long as the storage is left
+   * unmodified. Readers of other sources return a buffer over a private copy of the bytes.
+   */
+  public ByteBuffer readByteBuffer() throws IOException {
+    long byteCount = beforeLengthDelimitedScalar();
+    return input.readByteBuffer(byteCount);
   }
 
   /** Reads a {@code string} field value from the stream. */
   public String readString() throws IOException {
+    return readString(stringCache);
+  }
+
+  /**
+   * Reads a {@code string} field value from the stream, sharing instances held by {@code cache}.
+   * If {@code cache} is null a new string is allocated.
+   */
+  public String readString(StringCache cache) throws IOException {
     long byteCount = beforeLengthDelimitedScalar();
-    return source.readUtf8(byteCount);
+    return cache != null ? input.readUtf8(byteCount, cache) : input.readUtf8(byteCount);
   }
 
   /**
@@ -273,69 +501,19 @@ public final class ProtoReader {
     if (state != STATE_VARINT && state != STATE_LENGTH_DELIMITED) {
       throw new ProtocolException("Expected VARINT or LENGTH_DELIMITED but was " + state);
     }
-    int result = internalReadVarint32();
+    int result = input.readVarint32();
     afterPackableScalar(STATE_VARINT);
     return result;
   }
 
-  private int internalReadVarint32() throws IOException {
-    pos++;
-    byte tmp = source.readByte();
-    if (tmp >= 0) {
-      return tmp;
-    }
-    int result = tmp & 0x7f;
-    pos++;
-    if ((tmp = source.readByte()) >= 0) {
-      result |= tmp << 7;
-    } else {
-      result |= (tmp & 0x7f) << 7;
-      pos++;
-      if ((tmp = source.readByte()) >= 0) {
-        result |= tmp << 14;
-      } else {
-        result |= (tmp & 0x7f) << 14;
-        pos++;
-        if ((tmp = source.readByte()) >= 0) {
-          result |= tmp << 21;
-        } else {
-          result |= (tmp & 0x7f) << 21;
-          pos++;
-          result |= (tmp = source.readByte()) << 28;
-          if (tmp < 0) {
-            // Discard upper 32 bits.
-            for (int i = 0; i < 5; i++) {
-              pos++;
-              if (source.readByte() >= 0) {
-                return result;
-              }
-            }
-            throw new ProtocolException("Malformed VARINT");
-          }
-        }
-      }
-    }
-    return result;
-  }
-
   /** Reads a raw varint up to 64 bits in length from the stream. */
   public long readVarint64() throws IOException {
     if (state != STATE_VARINT && state != STATE_LENGTH_DELIMITED) {
       throw new ProtocolException("Expected VARINT or LENGTH_DELIMITED but was " + state);
     }
-    int shift = 0;
-    long result = 0;
-    while (shift < 64) {
-      pos++;
-      byte b = source.readByte();
-      result |= (long) (b & 0x7F) << shift;
-      if ((b & 0x80) == 0) {
-        afterPackableScalar(STATE_VARINT);
-        return result;
-      }
-      shift += 7;
-    }
-    throw new ProtocolException("WireInput encountered a malformed varint");
+    long result = input.readVarint64();
+    afterPackableScalar(STATE_VARINT);
+    return result;
   }
 
   /** Reads a 32-bit little-endian integer from the stream. */
@@ -343,9 +521,7 @@ public final class ProtoReader {
     if (state != STATE_FIXED32 && state != STATE_LENGTH_DELIMITED) {
       throw new ProtocolException("Expected FIXED32 or LENGTH_DELIMITED but was " + state);
     }
-    source.require(4); // Throws EOFException if insufficient bytes are available.
-    pos += 4;
-    int result = source.readIntLe();
+    int result = input.readIntLe();
     afterPackableScalar(STATE_FIXED32);
     return result;
   }
@@ -355,17 +531,113 @@ public final class ProtoReader {
     if (state != STATE_FIXED64 && state != STATE_LENGTH_DELIMITED) {
       throw new ProtocolException("Expected FIXED64 or LENGTH_DELIMITED but was " + state);
     }
-    source.require(8); // Throws EOFException if insufficient bytes are available.
-    pos += 8;
-    long result = source.readLongLe();
+    long result = input.readLongLe();
     afterPackableScalar(STATE_FIXED64);
     return result;
   }
 
+  /**
+   * Reads all of the current field's packed varints in a single pass. If the field's value isn't
+   * packed this returns its only varint. Values larger than 32 bits have their upper bits
+   * discarded. This must be called immediately following a call to {@link #nextTag()}.
+   */
+  public int[] readPackedVarint32() throws IOException {
+    if (state == STATE_VARINT) return new int[] {readVarint32()};
+    long end = beforePackedScalars();
+    int[] values = intScratch != null ? intScratch : new int[16];
+    int count = 0;
+    while (input.position() < end) {
+      if (count == values.length) values = Arrays.copyOf(values, count * 2);
+      values[count++] = input.readVarint32();
+    }
+    intScratch = values;
+    afterPackedScalars();
+    return Arrays.copyOf(values, count);
+  }
+
+  /**
+   * Reads all of the current field's packed varints in a single pass. If the field's value isn't
+   * packed this returns its only varint. This must be called immediately following a call to
+   * {@link #nextTag()}.
+   */
+  public long[] readPackedVarint64() throws IOException {
+    if (state == STATE_VARINT) return new long[] {readVarint64()};
+    long end = beforePackedScalars();
+    long[] values = longScratch != null ? longScratch : new long[16];
+    int count = 0;
+    while (input.position() < end) {
+      if (count == values.length) values = Arrays.copyOf(values, count * 2);
+      values[count++] = input.readVarint64();
+    }
+    longScratch = values;
+    afterPackedScalars();
+    return Arrays.copyOf(values, count);
+  }
+
+  /**
+   * Reads all of the current field's packed 32-bit little-endian integers in a single pass. If the
+   * field's value isn't packed this returns its only integer. This must be called immediately
+   * following a call to {@link #nextTag()}.
+   */
+  public int[] readPackedFixed32() throws IOException {
+    if (state == STATE_FIXED32) return new int[] {readFixed32()};
+    long end = beforePackedScalars();
+    long byteCount = end - input.position();
+    if (byteCount % 4 != 0) {
+      throw new ProtocolException("Packed FIXED32 length not a multiple of 4");
+    }
+    int[] values = new int[(int) (byteCount / 4)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = input.readIntLe();
+    }
+    afterPackedScalars();
+    return values;
+  }
+
+  /**
+   * Reads all of the current field's packed 64-bit little-endian integers in a single pass. If the
+   * field's value isn't packed this returns its only integer. This must be called immediately
+   * following a call to {@link #nextTag()}.
+   */
+  public long[] readPackedFixed64() throws IOException {
+    if (state == STATE_FIXED64) return new long[] {readFixed64()};
+    long end = beforePackedScalars();
+    long byteCount = end - input.position();
+    if (byteCount % 8 != 0) {
+      throw new ProtocolException("Packed FIXED64 length not a multiple of 8");
+    }
+    long[] values = new long[(int) (byteCount / 8)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = input.readLongLe();
+    }
+    afterPackedScalars();
+    return values;
+  }
+
+  /** Returns the end of the current run of packed values. */
+  private long beforePackedScalars() throws IOException {
+    if (state != STATE_LENGTH_DELIMITED) {
+      throw new ProtocolException("Expected LENGTH_DELIMITED but was " + state);
+    }
+    return limit;
+  }
+
+  private void afterPackedScalars() throws IOException {
+    long pos = input.position();
+    if (pos != limit) {
+      throw new IOException("Expected to end at " + limit + " but was " + pos);
+    }
+    // We've completed a sequence of packed values. Pop the limit.
+    limit = pushedLimit;
+    pushedLimit = -1;
+    state = STATE_TAG;
+  }
+
   private void afterPackableScalar(int fieldEncoding) throws IOException {
     if (state == fieldEncoding) {
       state = STATE_TAG;
     } else {
+      long pos = input.position();
       if (pos > limit) {
         throw new IOException("Expected to end at " + limit + " but was " + pos);
       } else if (pos == limit) {
@@ -383,11 +655,9 @@ public final class ProtoReader {
     if (state != STATE_LENGTH_DELIMITED) {
       throw new ProtocolException("Expected LENGTH_DELIMITED but was " + state);
     }
-    long byteCount = limit - pos;
-    source.require(byteCount); // Throws EOFException if insufficient bytes are available.
+    long byteCount = limit - input.position();
     state = STATE_TAG;
     // We've completed a length-delimited scalar. Pop the limit.
-    pos = limit;
     limit = pushedLimit;
     pushedLimit = -1;
     return byteCount;
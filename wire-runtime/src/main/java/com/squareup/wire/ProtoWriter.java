@@ -50,6 +50,7 @@ package com.squareup.wire;
 // OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import okio.BufferedSink;
 import okio.ByteString;
 
@@ -59,7 +60,7 @@ import okio.ByteString;
 public final class ProtoWriter {
 
   /** Makes a tag value given a field number and wire type. */
-  private static int makeTag(int fieldNumber, FieldEncoding fieldEncoding) {
+  static int makeTag(int fieldNumber, FieldEncoding fieldEncoding) {
     return (fieldNumber << ProtoReader.TAG_FIELD_ENCODING_BITS) | fieldEncoding.value;
   }
 
@@ -184,18 +185,73 @@ public final class ProtoWriter {
     return (n >>> 1) ^ -(n & 1);
   }
 
-  private final BufferedSink sink;
+  /** An idle writer for each thread's top-level encodes, or null while that writer is in use. */
+  private static final ThreadLocal<ProtoWriter> POOL = new ThreadLocal<>();
+
+  private ProtoOutput output;
 
   public ProtoWriter(BufferedSink sink) {
-    this.sink = sink;
+    this(ProtoOutput.of(sink));
+  }
+
+  ProtoWriter(ProtoOutput output) {
+    this.output = output;
+  }
+
+  /**
+   * Returns this thread's idle writer, or a new writer if it has none. The writer must be {@link
+   * #reset} before use, and should be {@linkplain #release released} once encoding completes.
+   */
+  static ProtoWriter acquire() {
+    ProtoWriter writer = POOL.get();
+    if (writer == null) return new ProtoWriter((ProtoOutput) null);
+    POOL.set(null);
+    return writer;
+  }
+
+  /** Returns this writer to its thread's pool, dropping references to its output. */
+  void release() {
+    if (output != null) output.release();
+    POOL.set(this);
+  }
+
+  /** Write subsequent values to {@code sink}, so one writer may encode to many sinks. */
+  public void reset(BufferedSink sink) {
+    if (sink == null) throw new NullPointerException("sink == null");
+    if (output instanceof BufferedSinkOutput) {
+      ((BufferedSinkOutput) output).reset(sink);
+    } else {
+      output = ProtoOutput.of(sink);
+    }
+  }
+
+  /**
+   * Write subsequent values into {@code bytes}, and return the output that tracks how many bytes
+   * have been written.
+   */
+  ByteArrayOutput reset(byte[] bytes, int offset, int byteCount) {
+    if (output instanceof ByteArrayOutput) {
+      ((ByteArrayOutput) output).reset(bytes, offset, byteCount);
+    } else {
+      output = ProtoOutput.of(bytes, offset, byteCount);
+    }
+    return (ByteArrayOutput) output;
   }
 
   public void writeBytes(ByteString value) throws IOException {
-    sink.write(value);
+    output.write(value);
+  }
+
+  /**
+   * Writes the remaining bytes of {@code value} without changing its position. Array-backed
+   * buffers are written straight from their array.
+   */
+  public void writeBytes(ByteBuffer value) throws IOException {
+    output.write(value);
   }
 
   public void writeString(String value) throws IOException {
-    sink.writeUtf8(value);
+    output.writeUtf8(value);
   }
 
   /** Encode and write a tag. */
@@ -218,29 +274,21 @@ public final class ProtoWriter {
    * if negative.
    */
   public void writeVarint32(int value) throws IOException {
-    while ((value & ~0x7f) != 0) {
-      sink.writeByte((value & 0x7f) | 0x80);
-      value >>>= 7;
-    }
-    sink.writeByte(value);
+    output.writeVarint32(value);
   }
 
   /** Encode and write a varint. */
   public void writeVarint64(long value) throws IOException {
-    while ((value & ~0x7fL) != 0) {
-      sink.writeByte(((int) value & 0x7f) | 0x80);
-      value >>>= 7;
-    }
-    sink.writeByte((int) value);
+    output.writeVarint64(value);
   }
 
   /** Write a little-endian 32-bit integer. */
   public void writeFixed32(int value) throws IOException {
-    sink.writeIntLe(value);
+    output.writeIntLe(value);
   }
 
   /** Write a little-endian 64-bit integer. */
   public void writeFixed64(long value) throws IOException {
-    sink.writeLongLe(value);
+    output.writeLongLe(value);
   }
 }
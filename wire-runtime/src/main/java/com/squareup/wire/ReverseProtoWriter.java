@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import okio.BufferedSink;
+import okio.ByteString;
+
+import static com.squareup.wire.ProtoWriter.makeTag;
+import static com.squareup.wire.ProtoWriter.utf8Length;
+import static com.squareup.wire.ProtoWriter.varint32Size;
+import static com.squareup.wire.ProtoWriter.varint64Size;
+
+/**
+ * Encodes a message from its last byte to its first. Each field is written after the fields that
+ * follow it, and a nested message's length prefix is written after its body, once that length is
+ * known. This makes encoding a single pass that never needs to compute {@link
+ * ProtoAdapter#encodedSize sizes} up front.
+ *
+ * <p>Because values are written in reverse, adapters must write a field's tag after its value,
+ * the fields of a message in reverse order, and the elements of a repeated field from last to
+ * first. {@link ProtoAdapter#encodeWithTag(ReverseProtoWriter, int, Object)} does this for a
+ * single value.
+ *
+ * <pre>   {@code
+ *
+ *   ReverseProtoWriter writer = new ReverseProtoWriter();
+ *   Person.ADAPTER.encode(writer, person);
+ *   writer.writeTo(sink);
+ * }</pre>
+ */
+public final class ReverseProtoWriter {
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  /** Encoded bytes occupy {@code data[pos..data.length)}. */
+  private byte[] data;
+  private int pos;
+
+  public ReverseProtoWriter() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** Creates a writer whose buffer initially holds {@code capacity} bytes. */
+  public ReverseProtoWriter(int capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("capacity < 0: " + capacity);
+    this.data = new byte[capacity];
+    this.pos = capacity;
+  }
+
+  /**
+   * Returns the number of bytes written so far. Adapters subtract successive byte counts to learn
+   * the length of the value they just wrote.
+   */
+  public int byteCount() {
+    return data.length - pos;
+  }
+
+  /** Returns the encoded bytes, in order. */
+  public byte[] toByteArray() {
+    byte[] result = new byte[data.length - pos];
+    System.arraycopy(data, pos, result, 0, result.length);
+    return result;
+  }
+
+  /** Writes the encoded bytes to {@code sink}, in order. */
+  public void writeTo(BufferedSink sink) throws IOException {
+    sink.write(data, pos, data.length - pos);
+  }
+
+  public void writeBytes(ByteString value) {
+    int count = value.size();
+    require(count);
+    pos -= count;
+    ByteArrayOutput.copy(value, data, pos);
+  }
+
+  /** Writes the remaining bytes of {@code value} without changing its position. */
+  public void writeBytes(ByteBuffer value) {
+    int count = value.remaining();
+    require(count);
+    pos -= count;
+    value.duplicate().get(data, pos, count);
+  }
+
+  public void writeString(String value) {
+    int byteCount = utf8Length(value);
+    require(byteCount);
+    pos -= byteCount;
+    ByteArrayOutput.encodeUtf8(value, data, pos);
+  }
+
+  /** Encode and write a tag. */
+  public void writeTag(int fieldNumber, FieldEncoding fieldEncoding) {
+    writeVarint32(makeTag(fieldNumber, fieldEncoding));
+  }
+
+  /** Write an {@code int32} field to the stream. */
+  void writeSignedVarint32(int value) {
+    if (value >= 0) {
+      writeVarint32(value);
+    } else {
+      // Must sign-extend.
+      writeVarint64(value);
+    }
+  }
+
+  /**
+   * Encode and write a varint. {@code value} is treated as unsigned, so it won't be sign-extended
+   * if negative.
+   */
+  public void writeVarint32(int value) {
+    int size = varint32Size(value);
+    require(size);
+    pos -= size;
+    byte[] data = this.data;
+    int p = pos;
+    while ((value & ~0x7f) != 0) {
+      data[p++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    data[p] = (byte) value;
+  }
+
+  /** Encode and write a varint. */
+  public void writeVarint64(long value) {
+    int size = varint64Size(value);
+    require(size);
+    pos -= size;
+    byte[] data = this.data;
+    int p = pos;
+    while ((value & ~0x7fL) != 0) {
+      data[p++] = (byte) (((int) value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    data[p] = (byte) value;
+  }
+
+  /** Write a little-endian 32-bit integer. */
+  public void writeFixed32(int value) {
+    require(4);
+    int p = pos -= 4;
+    byte[] data = this.data;
+    data[p] = (byte) value;
+    data[p + 1] = (byte) (value >>> 8);
+    data[p + 2] = (byte) (value >>> 16);
+    data[p + 3] = (byte) (value >>> 24);
+  }
+
+  /** Write a little-endian 64-bit integer. */
+  public void writeFixed64(long value) {
+    require(8);
+    int p = pos -= 8;
+    byte[] data = this.data;
+    for (int i = 0; i < 8; i++) {
+      data[p + i] = (byte) (value >>> (8 * i));
+    }
+  }
+
+  /** Grows the buffer if necessary so that {@code byteCount} more bytes fit before its start. */
+  private void require(int byteCount) {
+    if (pos >= byteCount) return;
+    int size = data.length - pos;
+    int newLength = Math.max(data.length * 2, size + byteCount);
+    if (newLength < 0) throw new OutOfMemoryError("message too large");
+    byte[] newData = new byte[newLength];
+    System.arraycopy(data, pos, newData, newLength - size, size);
+    data = newData;
+    pos = newLength - size;
+  }
+}
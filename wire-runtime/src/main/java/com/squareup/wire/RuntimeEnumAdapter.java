@@ -16,27 +16,80 @@
 package com.squareup.wire;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
 
 /**
- * Converts values of an enum to and from integers.
+ * Converts values of an enum to and from integers. Values are decoded with a table built once from
+ * the enum's constants: a dense array indexed by value, or a sorted array searched by value if the
+ * values are negative or sparse.
  */
 final class RuntimeEnumAdapter<E extends WireEnum> extends ProtoAdapter<E> {
+  /** Enums whose values are all in {@code [0..MAX_DENSE_VALUE]} are decoded by indexing. */
+  private static final int MAX_DENSE_VALUE = 1024;
+
   private final Class<E> type;
-  private final Method fromValueMethod;
+  /** Constants indexed by value, or null if the values are too sparse for a dense array. */
+  private final E[] constantsByValue;
+  /** Sorted values and their constants, searched if the values are sparse. */
+  private final int[] sparseValues;
+  private final E[] sparseConstants;
 
   RuntimeEnumAdapter(Class<E> type) {
     super(FieldEncoding.VARINT, type);
     this.type = type;
 
-    try {
-      fromValueMethod = type.getDeclaredMethod("fromValue", int.class);
-    } catch (NoSuchMethodException e) {
-      throw new AssertionError(e);
+    E[] constants = type.getEnumConstants();
+    if (constants == null) throw new IllegalArgumentException(type + " is not an enum");
+    // Sort by value, keeping declaration order among aliases so the first declared one wins.
+    constants = constants.clone();
+    Arrays.sort(constants, new Comparator<E>() {
+      @Override public int compare(E a, E b) {
+        return a.getValue() < b.getValue() ? -1 : a.getValue() == b.getValue() ? 0 : 1;
+      }
+    });
+
+    int minValue = constants.length > 0 ? constants[0].getValue() : 0;
+    int maxValue = constants.length > 0 ? constants[constants.length - 1].getValue() : -1;
+    if (minValue >= 0 && (maxValue <= MAX_DENSE_VALUE || maxValue <= constants.length * 4)) {
+      constantsByValue = newArray(maxValue + 1);
+      for (int i = constants.length - 1; i >= 0; i--) {
+        constantsByValue[constants[i].getValue()] = constants[i];
+      }
+      sparseValues = null;
+      sparseConstants = null;
+    } else {
+      int count = 0;
+      int[] values = new int[constants.length];
+      E[] distinct = newArray(constants.length);
+      for (E constant : constants) {
+        if (count > 0 && values[count - 1] == constant.getValue()) continue; // An alias.
+        values[count] = constant.getValue();
+        distinct[count] = constant;
+        count++;
+      }
+      constantsByValue = null;
+      sparseValues = Arrays.copyOf(values, count);
+      sparseConstants = Arrays.copyOf(distinct, count);
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private E[] newArray(int size) {
+    return (E[]) Array.newInstance(type, size);
+  }
+
+  /** Returns the constant for {@code value}, or null if this enum has no such constant. */
+  E fromValue(int value) {
+    E[] constantsByValue = this.constantsByValue;
+    if (constantsByValue != null) {
+      return value >= 0 && value < constantsByValue.length ? constantsByValue[value] : null;
+    }
+    int index = Arrays.binarySearch(sparseValues, value);
+    return index >= 0 ? sparseConstants[index] : null;
+  }
+
   @Override public int encodedSize(E value) {
     return ProtoWriter.varint32Size(value.getValue());
   }
@@ -45,15 +98,13 @@ final class RuntimeEnumAdapter<E extends WireEnum> extends ProtoAdapter<E> {
     writer.writeVarint32(value.getValue());
   }
 
+  @Override public void encode(ReverseProtoWriter writer, E value) throws IOException {
+    writer.writeVarint32(value.getValue());
+  }
+
   @Override public E decode(ProtoReader reader) throws IOException {
     int value = reader.readVarint32();
-    E constant;
-    try {
-      //noinspection unchecked
-      constant = (E) fromValueMethod.invoke(null, value);
-    } catch (IllegalAccessException | InvocationTargetException e) {
-      throw new AssertionError(e);
-    }
+    E constant = fromValue(value);
     if (constant == null) {
       throw new EnumConstantNotFoundException(value, type);
     }
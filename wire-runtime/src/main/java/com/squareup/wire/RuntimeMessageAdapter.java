@@ -16,17 +16,23 @@
 package com.squareup.wire;
 
 import java.io.IOException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static com.squareup.wire.Message.Builder;
 
 final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M, B>>
     extends ProtoAdapter<M> {
   private static final String REDACTED = "\u2588\u2588";
+  /** Messages whose tags are all at most this are dispatched through a dense array. */
+  private static final int MAX_DENSE_TAG = 256;
 
   static <M extends Message<M, B>, B extends Builder<M, B>> RuntimeMessageAdapter<M, B> create(
       Class<M> messageType) {
@@ -49,6 +55,17 @@ final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M,
   private final Class<M> messageType;
   private final Class<B> builderType;
   private final Map<Integer, FieldBinding<M, B>> fieldBindings;
+  /**
+   * The values of {@link #fieldBindings}, indexed so they can be iterated without allocating and in
+   * reverse.
+   */
+  private final FieldBinding<M, B>[] fieldBindingArray;
+  /** Bindings indexed by tag, or null if the tags are too sparse for a dense array. */
+  private final FieldBinding<M, B>[] bindingsByTag;
+  /** Sorted tags and their bindings, searched if the tags are sparse. */
+  private final int[] sparseTags;
+  private final FieldBinding<M, B>[] sparseBindings;
+  private final Constructor<B> builderConstructor;
 
   RuntimeMessageAdapter(Class<M> messageType, Class<B> builderType,
       Map<Integer, FieldBinding<M, B>> fieldBindings) {
@@ -56,17 +73,71 @@ final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M,
     this.messageType = messageType;
     this.builderType = builderType;
     this.fieldBindings = fieldBindings;
+    this.fieldBindingArray = fieldBindings.values().toArray(newArray(fieldBindings.size()));
+
+    int maxTag = 0;
+    for (FieldBinding<M, B> fieldBinding : fieldBindingArray) {
+      maxTag = Math.max(maxTag, fieldBinding.tag);
+    }
+    if (maxTag <= MAX_DENSE_TAG || maxTag <= fieldBindingArray.length * 4) {
+      this.bindingsByTag = newArray(maxTag + 1);
+      for (FieldBinding<M, B> fieldBinding : fieldBindingArray) {
+        bindingsByTag[fieldBinding.tag] = fieldBinding;
+      }
+      this.sparseTags = null;
+      this.sparseBindings = null;
+    } else {
+      this.bindingsByTag = null;
+      this.sparseTags = new int[fieldBindingArray.length];
+      this.sparseBindings = newArray(fieldBindingArray.length);
+      int i = 0;
+      for (Map.Entry<Integer, FieldBinding<M, B>> entry
+          : new TreeMap<>(fieldBindings).entrySet()) {
+        sparseTags[i] = entry.getKey();
+        sparseBindings[i] = entry.getValue();
+        i++;
+      }
+    }
+    try {
+      this.builderConstructor = builderType.getConstructor();
+      this.builderConstructor.setAccessible(true);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException("No public constructor for builder type "
+          + builderType.getName());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private FieldBinding<M, B>[] newArray(int size) {
+    return (FieldBinding<M, B>[]) new FieldBinding[size];
   }
 
   Map<Integer, FieldBinding<M, B>> fieldBindings() {
     return fieldBindings;
   }
 
+  /** Returns the field bindings in declaration order. Callers must not modify the array. */
+  FieldBinding<M, B>[] fieldBindingArray() {
+    return fieldBindingArray;
+  }
+
+  /** Returns the binding for {@code tag}, or null if this message has no such field. */
+  private FieldBinding<M, B> fieldBinding(int tag) {
+    FieldBinding<M, B>[] bindingsByTag = this.bindingsByTag;
+    if (bindingsByTag != null) {
+      return tag < bindingsByTag.length ? bindingsByTag[tag] : null;
+    }
+    int index = Arrays.binarySearch(sparseTags, tag);
+    return index >= 0 ? sparseBindings[index] : null;
+  }
+
   B newBuilder() {
     try {
-      return builderType.newInstance();
+      return builderConstructor.newInstance();
     } catch (IllegalAccessException | InstantiationException e) {
       throw new AssertionError(e);
+    } catch (InvocationTargetException e) {
+      throw new AssertionError(e.getCause());
     }
   }
 
@@ -86,7 +157,7 @@ final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M,
     if (cachedSerializedSize != 0) return cachedSerializedSize;
 
     int size = 0;
-    for (FieldBinding<M, B> fieldBinding : fieldBindings.values()) {
+    for (FieldBinding<M, B> fieldBinding : fieldBindingArray) {
       Object value = fieldBinding.get(message);
       if (value == null) continue;
       size += fieldBinding.adapter().encodedSizeWithTag(fieldBinding.tag, value);
@@ -98,7 +169,7 @@ final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M,
   }
 
   @Override public void encode(ProtoWriter writer, M message) throws IOException {
-    for (FieldBinding<M, B> fieldBinding : fieldBindings.values()) {
+    for (FieldBinding<M, B> fieldBinding : fieldBindingArray) {
       Object value = fieldBinding.get(message);
       if (value == null) continue;
       fieldBinding.adapter().encodeWithTag(writer, fieldBinding.tag, value);
@@ -106,15 +177,26 @@ final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M,
     writer.writeBytes(message.unknownFields());
   }
 
+  @Override public void encode(ReverseProtoWriter writer, M message) throws IOException {
+    writer.writeBytes(message.unknownFields());
+    for (int i = fieldBindingArray.length - 1; i >= 0; i--) {
+      FieldBinding<M, B> fieldBinding = fieldBindingArray[i];
+      Object value = fieldBinding.get(message);
+      if (value == null) continue;
+      fieldBinding.adapter().encodeWithTag(writer, fieldBinding.tag, value);
+    }
+  }
+
   @Override public M redact(M message) {
     B builder = (B) message.newBuilder();
-    for (FieldBinding<M, B> fieldBinding : fieldBindings.values()) {
+    for (FieldBinding<M, B> fieldBinding : fieldBindingArray) {
       if (fieldBinding.redacted && fieldBinding.label == WireField.Label.REQUIRED) {
         throw new UnsupportedOperationException(String.format(
             "Field '%s' in %s is required and cannot be redacted.",
             fieldBinding.name, javaType.getName()));
       }
-      boolean isMessage = Message.class.isAssignableFrom(fieldBinding.singleAdapter().javaType);
+      boolean isMessage = fieldBinding.lazy
+          || Message.class.isAssignableFrom(fieldBinding.singleAdapter().javaType);
       if (fieldBinding.redacted || (isMessage && !fieldBinding.label.isRepeated())) {
         Object builderValue = fieldBinding.getFromBuilder(builder);
         if (builderValue != null) {
@@ -144,7 +226,7 @@ final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M,
 
   @Override public String toString(M message) {
     StringBuilder sb = new StringBuilder();
-    for (FieldBinding<M, B> fieldBinding : fieldBindings.values()) {
+    for (FieldBinding<M, B> fieldBinding : fieldBindingArray) {
       Object value = fieldBinding.get(message);
       if (value != null) {
         sb.append(", ")
@@ -163,15 +245,12 @@ final class RuntimeMessageAdapter<M extends Message<M, B>, B extends Builder<M,
     B builder = newBuilder();
     long token = reader.beginMessage();
     for (int tag; (tag = reader.nextTag()) != -1;) {
-      FieldBinding<M, B> fieldBinding = fieldBindings.get(tag);
+      FieldBinding<M, B> fieldBinding = fieldBinding(tag);
       try {
         if (fieldBinding != null) {
-          Object value = fieldBinding.singleAdapter().decode(reader);
-          fieldBinding.value(builder, value);
+          fieldBinding.decode(reader, builder);
         } else {
-          FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-          Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-          builder.addUnknownField(tag, fieldEncoding, value);
+          reader.readUnknownField(builder);
         }
       } catch (ProtoAdapter.EnumConstantNotFoundException e) {
         // An unknown Enum value was encountered, store it as an unknown field.
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+/**
+ * A bounded cache of decoded strings keyed by their UTF-8 bytes. Payloads that repeat a small
+ * vocabulary of values, like country codes or hostnames, can share one {@code String} instance per
+ * distinct value rather than allocating a new one for each field decoded.
+ *
+ * <p>The cache is set-associative: each value hashes to a set of {@link #WAYS} entries and may be
+ * stored in any of them, so a few hot values that share a set don't evict one another. Each set
+ * evicts with the clock algorithm. A hit sets the entry's reference bit, and a miss advances the
+ * set's clock hand, clearing reference bits, until it finds an entry that hasn't been referenced
+ * since the hand last passed it. New entries start unreferenced, so a burst of values that are
+ * each seen once displaces only other values that haven't been seen again. Lookups compare bytes
+ * in place, so a hit allocates nothing. Values longer than {@link #MAX_CACHED_LENGTH} bytes are
+ * decoded without being cached.
+ *
+ * <p>Configure a cache for every string decoded by a reader with {@link
+ * ProtoReader#setStringCache}, or for the values of a particular adapter with {@link
+ * ProtoAdapter#newStringAdapter}.
+ *
+ * <p>Instances are safe for use by multiple threads. Entries are immutable, and reference bits and
+ * clock hands are updated without locking, so a race between threads costs at most a cache miss
+ * or a less precise eviction.
+ */
+public final class StringCache {
+  /** Values with more than this many UTF-8 bytes are not cached. */
+  public static final int MAX_CACHED_LENGTH = 64;
+  /** The number of entries in each set. */
+  static final int WAYS = 4;
+
+  private final Entry[] entries;
+  /** The reference bit of each entry, set when it is hit and cleared by the clock hand. */
+  private final boolean[] referenced;
+  /** The index within each set of the next entry to consider for eviction. */
+  private final byte[] hands;
+  private final int ways;
+  private final int setMask;
+
+  /**
+   * Creates a cache of at most {@code maxSize} strings. The size is rounded up to a power of two.
+   */
+  public StringCache(int maxSize) {
+    if (maxSize <= 0 || maxSize > (1 << 30)) {
+      throw new IllegalArgumentException("maxSize out of range: " + maxSize);
+    }
+    int size = Integer.highestOneBit(maxSize);
+    if (size < maxSize) size <<= 1;
+    this.ways = Math.min(WAYS, size);
+    this.entries = new Entry[size];
+    this.referenced = new boolean[size];
+    this.hands = new byte[size / ways];
+    this.setMask = size / ways - 1;
+  }
+
+  /** Returns the number of strings this cache can hold. */
+  public int maxSize() {
+    return entries.length;
+  }
+
+  /** Returns the string encoded by {@code count} UTF-8 bytes of {@code data} at {@code offset}. */
+  String get(byte[] data, int offset, int count) {
+    if (count > MAX_CACHED_LENGTH) return decode(data, offset, count);
+
+    int hash = 0;
+    for (int i = offset, limit = offset + count; i < limit; i++) {
+      hash = 31 * hash + data[i];
+    }
+    int set = (hash ^ (hash >>> 16)) & setMask;
+    int first = set * ways;
+
+    for (int i = first, limit = first + ways; i < limit; i++) {
+      Entry entry = entries[i];
+      if (entry != null && entry.hash == hash && entry.matches(data, offset, count)) {
+        if (!referenced[i]) referenced[i] = true;
+        return entry.value;
+      }
+    }
+
+    byte[] bytes = new byte[count];
+    System.arraycopy(data, offset, bytes, 0, count);
+    String value = decode(bytes, 0, count);
+
+    // Advance the clock hand to the first empty or unreferenced entry, clearing the reference bits
+    // it passes. One pass over the set clears every bit, so only concurrent hits can extend the
+    // search beyond a second pass; stop there regardless.
+    int hand = hands[set];
+    int victim = first + hand;
+    for (int step = 1; entries[victim] != null && referenced[victim] && step <= 2 * ways; step++) {
+      referenced[victim] = false;
+      hand = hand + 1 == ways ? 0 : hand + 1;
+      victim = first + hand;
+    }
+    hand = hand + 1 == ways ? 0 : hand + 1;
+    entries[victim] = new Entry(hash, bytes, value);
+    referenced[victim] = false;
+    hands[set] = (byte) hand;
+    return value;
+  }
+
+  /**
+   * Decodes {@code count} UTF-8 bytes of {@code data} at {@code offset}. ASCII strings, which are
+   * the common case, skip the charset decoder.
+   */
+  @SuppressWarnings("deprecation") // The hibyte constructor is exactly right for ASCII.
+  static String decode(byte[] data, int offset, int count) {
+    for (int i = offset, limit = offset + count; i < limit; i++) {
+      if (data[i] < 0) return new String(data, offset, count, ProtoInput.UTF_8);
+    }
+    return new String(data, 0, offset, count);
+  }
+
+  private static final class Entry {
+    final int hash;
+    final byte[] bytes;
+    final String value;
+
+    Entry(int hash, byte[] bytes, String value) {
+      this.hash = hash;
+      this.bytes = bytes;
+      this.value = value;
+    }
+
+    boolean matches(byte[] data, int offset, int count) {
+      if (bytes.length != count) return false;
+      for (int i = 0; i < count; i++) {
+        if (bytes[i] != data[offset + i]) return false;
+      }
+      return true;
+    }
+  }
+}
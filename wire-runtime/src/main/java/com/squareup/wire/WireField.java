@@ -49,6 +49,12 @@ public @interface WireField {
    */
   boolean redacted() default false;
 
+  /**
+   * Lazy fields hold {@link Lazy} values that are decoded when they're first accessed. Defaults to
+   * false.
+   */
+  boolean lazy() default false;
+
   /** A protocol buffer label. */
   enum Label {
     REQUIRED, OPTIONAL, REPEATED, ONE_OF,
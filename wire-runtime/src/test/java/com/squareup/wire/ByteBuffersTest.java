@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.bytebuffers.ByteBuffers;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class ByteBuffersTest {
+  private final ByteBuffers message = new ByteBuffers.Builder()
+      .opt_bytes(ByteBuffer.wrap(new byte[] {1, 2, 3}))
+      .rep_bytes(Arrays.asList(ByteBuffer.wrap(new byte[] {4}), ByteBuffer.wrap(new byte[0])))
+      .name("n")
+      .build();
+
+  @Test public void decodedFieldsShareInputStorage() throws Exception {
+    byte[] bytes = ByteBuffers.ADAPTER.encode(message);
+    ByteBuffers decoded = ByteBuffers.ADAPTER.decode(bytes);
+    assertThat(decoded).isEqualTo(message);
+    assertThat(decoded.opt_bytes.isReadOnly()).isTrue();
+    assertThat(decoded.rep_bytes.get(0).isReadOnly()).isTrue();
+
+    // Field 1, length 3, then the value.
+    bytes[2] = 9;
+    assertThat(decoded.opt_bytes.get(0)).isEqualTo((byte) 9);
+  }
+
+  @Test public void decodedFieldsAreReadOnly() throws Exception {
+    ByteBuffers decoded = ByteBuffers.ADAPTER.decode(ByteBuffers.ADAPTER.encode(message));
+    try {
+      decoded.opt_bytes.put(0, (byte) 0);
+      fail();
+    } catch (ReadOnlyBufferException expected) {
+    }
+  }
+
+  @Test public void matchesByteStringEncoding() throws Exception {
+    Buffer expected = new Buffer();
+    ProtoWriter writer = new ProtoWriter(expected);
+    ProtoAdapter.BYTES.encodeWithTag(writer, 1, ByteString.of((byte) 1, (byte) 2, (byte) 3));
+    ProtoAdapter.BYTES.asRepeated().encodeWithTag(writer, 3,
+        Arrays.asList(ByteString.of((byte) 4), ByteString.EMPTY));
+    ProtoAdapter.STRING.encodeWithTag(writer, 4, "n");
+    ByteString bytes = expected.readByteString();
+
+    assertThat(ByteString.of(ByteBuffers.ADAPTER.encode(message))).isEqualTo(bytes);
+    assertThat(ByteBuffers.ADAPTER.decode(new Buffer().write(bytes))).isEqualTo(message);
+    assertThat(message.opt_bytes.position()).isEqualTo(0);
+  }
+
+  @Test public void defaultValues() {
+    assertThat(ByteBuffers.defaultOpt_bytes().remaining()).isEqualTo(0);
+    ByteBuffer defaultBytes = ByteBuffers.defaultDefault_bytes();
+    assertThat(defaultBytes).isEqualTo(ByteBuffer.wrap(new byte[] {'a', 'b', 'c'}));
+    assertThat(defaultBytes.isReadOnly()).isTrue();
+
+    defaultBytes.get();
+    assertThat(ByteBuffers.defaultDefault_bytes().remaining()).isEqualTo(3);
+  }
+
+  @Test public void readingCallerBuffersDoesNotChangeMessage() throws Exception {
+    ByteBuffer optBytes = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    ByteBuffer repBytes = ByteBuffer.wrap(new byte[] {4});
+    ByteBuffers.Builder builder = new ByteBuffers.Builder()
+        .opt_bytes(optBytes)
+        .rep_bytes(Arrays.asList(repBytes));
+    optBytes.get();
+    repBytes.get();
+    ByteBuffers built = builder.build();
+    int hashCode = built.hashCode();
+    byte[] encoded = ByteBuffers.ADAPTER.encode(built);
+
+    // Neither the caller's buffers nor those of a new builder are the message's own.
+    optBytes.position(3);
+    ByteBuffers.Builder newBuilder = built.newBuilder();
+    newBuilder.opt_bytes.get();
+    newBuilder.rep_bytes.get(0).get();
+    built.opt_bytes.duplicate().get();
+
+    assertThat(built.opt_bytes.remaining()).isEqualTo(3);
+    assertThat(built.rep_bytes.get(0).remaining()).isEqualTo(1);
+    assertThat(built.hashCode()).isEqualTo(hashCode);
+    assertThat(ByteBuffers.ADAPTER.encode(built)).isEqualTo(encoded);
+    assertThat(built).isEqualTo(message.newBuilder()
+        .rep_bytes(Arrays.asList(ByteBuffer.wrap(new byte[] {4})))
+        .name(null)
+        .build());
+  }
+}
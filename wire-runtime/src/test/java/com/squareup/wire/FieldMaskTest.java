@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.person.Person;
+import com.squareup.wire.protos.person.Person.PhoneNumber;
+import com.squareup.wire.protos.person.Person.PhoneType;
+import java.util.Arrays;
+import okio.Buffer;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class FieldMaskTest {
+  private final Person person = new Person.Builder()
+      .name("Alice")
+      .id(1)
+      .email("alice@example.com")
+      .phone(Arrays.asList(
+          new PhoneNumber.Builder().number("555-1212").type(PhoneType.WORK).build(),
+          new PhoneNumber.Builder().number("555-3434").type(PhoneType.MOBILE).build()))
+      .build();
+
+  @Test public void unselectedFieldsAreSkipped() throws Exception {
+    FieldMask mask = new FieldMask.Builder()
+        .add(1)
+        .add(2)
+        .build();
+    Person decoded = Person.ADAPTER.decode(Person.ADAPTER.encode(person), mask);
+    assertThat(decoded).isEqualTo(new Person.Builder().name("Alice").id(1).build());
+    assertThat(decoded.unknownFields().size()).isEqualTo(0);
+  }
+
+  @Test public void nestedPathsSkipAtEachLevel() throws Exception {
+    FieldMask mask = new FieldMask.Builder()
+        .add(1)
+        .add(2)
+        .add(4, 1)
+        .build();
+    Buffer buffer = new Buffer().write(Person.ADAPTER.encode(person));
+    Person decoded = Person.ADAPTER.decode(buffer, mask);
+    assertThat(decoded).isEqualTo(new Person.Builder()
+        .name("Alice")
+        .id(1)
+        .phone(Arrays.asList(
+            new PhoneNumber.Builder().number("555-1212").build(),
+            new PhoneNumber.Builder().number("555-3434").build()))
+        .build());
+  }
+
+  @Test public void wholeFieldWinsOverNestedPath() throws Exception {
+    FieldMask expected = new FieldMask.Builder().add(4).build();
+    assertThat(new FieldMask.Builder().add(4, 1).add(4).build()).isEqualTo(expected);
+    assertThat(new FieldMask.Builder().add(4).add(4, 1).build()).isEqualTo(expected);
+    assertThat(new FieldMask.Builder().add(4, 1).add(2).build().toString())
+        .isEqualTo("{2, 4={1}}");
+  }
+
+  @Test public void pathsRequireCompactGeneration() throws Exception {
+    try {
+      FieldMask.forPaths(Person.class, "name");
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected).hasMessage(
+          "No field named name in com.squareup.wire.protos.person.Person");
+    }
+  }
+}
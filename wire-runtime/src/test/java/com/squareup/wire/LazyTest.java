@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.lazy.Envelope;
+import com.squareup.wire.protos.lazy.Payload;
+import java.util.Arrays;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class LazyTest {
+  private final Payload payload = new Payload.Builder()
+      .body("hello")
+      .priority(5)
+      .next(new Payload.Builder().body("world").build())
+      .build();
+
+  @Test public void decodeDefersNestedMessages() throws Exception {
+    Envelope envelope = new Envelope.Builder()
+        .route("a")
+        .payload(Lazy.of(Payload.ADAPTER, payload))
+        .history(Arrays.asList(Lazy.of(Payload.ADAPTER, payload)))
+        .build();
+    byte[] encoded = Envelope.ADAPTER.encode(envelope);
+
+    Envelope decoded = Envelope.ADAPTER.decode(encoded);
+    assertThat(decoded.route).isEqualTo("a");
+    assertThat(decoded.payload.isDecoded()).isFalse();
+    assertThat(decoded.history.get(0).isDecoded()).isFalse();
+
+    assertThat(decoded.payload.get()).isEqualTo(payload);
+    assertThat(decoded.payload.isDecoded()).isTrue();
+    assertThat(decoded).isEqualTo(envelope);
+    assertThat(decoded.hashCode()).isEqualTo(envelope.hashCode());
+    assertThat(decoded.toString()).isEqualTo(envelope.toString());
+  }
+
+  @Test public void reencodeWritesOriginalBytes() throws Exception {
+    // tag 1: "a"
+    // tag 2: nested message, tag 2: 5, tag 1: "hello" (not in canonical order)
+    ByteString data = ByteString.decodeHex("0a0161120910050a0568656c6c6f");
+    Envelope envelope = Envelope.ADAPTER.decode(data.toByteArray());
+    assertThat(ByteString.of(Envelope.ADAPTER.encode(envelope))).isEqualTo(data);
+
+    // Accessing the value doesn't change its encoding.
+    assertThat(envelope.payload.get())
+        .isEqualTo(new Payload.Builder().body("hello").priority(5).build());
+    assertThat(ByteString.of(Envelope.ADAPTER.encode(envelope))).isEqualTo(data);
+  }
+
+  @Test public void equalsAndHashCodeDontDecode() throws Exception {
+    Envelope envelope = new Envelope.Builder()
+        .payload(Lazy.of(Payload.ADAPTER, payload))
+        .build();
+    byte[] encoded = Envelope.ADAPTER.encode(envelope);
+    Envelope a = Envelope.ADAPTER.decode(encoded);
+    Envelope b = Envelope.ADAPTER.decode(encoded);
+    assertThat(a).isEqualTo(b);
+    assertThat(a.hashCode()).isEqualTo(b.hashCode());
+    assertThat(a.payload.isDecoded()).isFalse();
+    assertThat(b.payload.isDecoded()).isFalse();
+
+    // Values are compared by encoding, so a non-canonical encoding isn't equal.
+    ByteString reordered = ByteString.decodeHex("120910050a0568656c6c6f");
+    ByteString canonical = ByteString.decodeHex("12090a0568656c6c6f1005");
+    assertThat(Envelope.ADAPTER.decode(reordered.toByteArray()))
+        .isNotEqualTo(Envelope.ADAPTER.decode(canonical.toByteArray()));
+  }
+
+  @Test public void malformedValueFailsOnAccess() throws Exception {
+    // tag 1: "a"
+    // tag 2: nested message with a truncated varint
+    ByteString data = ByteString.decodeHex("0a0161120108");
+    Envelope envelope = Envelope.ADAPTER.decode(data.toByteArray());
+    assertThat(envelope.route).isEqualTo("a");
+    assertThat(ByteString.of(Envelope.ADAPTER.encode(envelope))).isEqualTo(data);
+    try {
+      envelope.payload.get();
+      fail();
+    } catch (IllegalStateException expected) {
+      assertThat(expected).hasMessage("Failed to decode lazy value");
+    }
+  }
+
+  @Test public void redactDecodesNestedMessages() throws Exception {
+    Envelope envelope = new Envelope.Builder()
+        .payload(Lazy.of(Payload.ADAPTER, payload))
+        .build();
+    Envelope decoded = Envelope.ADAPTER.decode(Envelope.ADAPTER.encode(envelope));
+    assertThat(Envelope.ADAPTER.redact(decoded)).isEqualTo(envelope);
+  }
+
+  @Test public void onlyLengthDelimitedTypesAreLazy() throws Exception {
+    try {
+      ProtoAdapter.INT32.asLazy();
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected).hasMessage("Unable to lazily decode a non-length-delimited type.");
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.primitivefields.PrimitiveFields;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class PrimitiveFieldsTest {
+  @Test public void presenceSurvivesDecode() throws Exception {
+    PrimitiveFields message = new PrimitiveFields.Builder()
+        .opt_int32(0)
+        .opt_sint64(-5L)
+        .opt_bool(false)
+        .req_int64(1L)
+        .build();
+
+    byte[] encoded = PrimitiveFields.ADAPTER.encode(message);
+    PrimitiveFields decoded = PrimitiveFields.ADAPTER.decode(encoded);
+    assertThat(decoded.hasOpt_int32()).isTrue();
+    assertThat(decoded.opt_int32).isEqualTo(0);
+    assertThat(decoded.hasOpt_sint64()).isTrue();
+    assertThat(decoded.opt_sint64).isEqualTo(-5L);
+    assertThat(decoded.hasOpt_bool()).isTrue();
+    assertThat(decoded.hasOpt_fixed32()).isFalse();
+    assertThat(decoded.hasDefault_int32()).isFalse();
+    assertThat(decoded.default_int32).isEqualTo(PrimitiveFields.DEFAULT_DEFAULT_INT32);
+    assertThat(decoded.hasReq_int64()).isTrue();
+    assertThat(decoded).isEqualTo(message);
+    assertThat(decoded.hashCode()).isEqualTo(message.hashCode());
+  }
+
+  @Test public void explicitDefaultIsNotAbsent() throws Exception {
+    PrimitiveFields absent = new PrimitiveFields.Builder()
+        .req_int64(1L)
+        .build();
+    PrimitiveFields explicit = new PrimitiveFields.Builder()
+        .default_int32(PrimitiveFields.DEFAULT_DEFAULT_INT32)
+        .req_int64(1L)
+        .build();
+
+    assertThat(explicit.default_int32).isEqualTo(absent.default_int32);
+    assertThat(explicit).isNotEqualTo(absent);
+    assertThat(explicit.hashCode()).isNotEqualTo(absent.hashCode());
+    assertThat(PrimitiveFields.ADAPTER.encodedSize(explicit))
+        .isGreaterThan(PrimitiveFields.ADAPTER.encodedSize(absent));
+
+    PrimitiveFields cleared = explicit.newBuilder().clearDefault_int32().build();
+    assertThat(cleared).isEqualTo(absent);
+    assertThat(cleared.hashCode()).isEqualTo(absent.hashCode());
+  }
+
+  @Test public void matchesBoxedEncoding() throws Exception {
+    PrimitiveFields message = new PrimitiveFields.Builder()
+        .opt_int32(-1)
+        .opt_sint32(Integer.MIN_VALUE)
+        .opt_fixed32(0xcafebabe)
+        .opt_int64(Long.MAX_VALUE)
+        .opt_sint64(-2L)
+        .opt_fixed64(Long.MIN_VALUE)
+        .opt_bool(true)
+        .opt_float(Float.NaN)
+        .opt_double(-0.0d)
+        .opt_string("\u00e9")
+        .default_double(PrimitiveFields.DEFAULT_DEFAULT_DOUBLE)
+        .req_int64(3L)
+        .build();
+
+    Buffer boxed = new Buffer();
+    ProtoWriter writer = new ProtoWriter(boxed);
+    ProtoAdapter.INT32.encodeWithTag(writer, 1, -1);
+    ProtoAdapter.SINT32.encodeWithTag(writer, 2, Integer.MIN_VALUE);
+    ProtoAdapter.FIXED32.encodeWithTag(writer, 3, 0xcafebabe);
+    ProtoAdapter.INT64.encodeWithTag(writer, 4, Long.MAX_VALUE);
+    ProtoAdapter.SINT64.encodeWithTag(writer, 5, -2L);
+    ProtoAdapter.FIXED64.encodeWithTag(writer, 6, Long.MIN_VALUE);
+    ProtoAdapter.BOOL.encodeWithTag(writer, 7, true);
+    ProtoAdapter.FLOAT.encodeWithTag(writer, 8, Float.NaN);
+    ProtoAdapter.DOUBLE.encodeWithTag(writer, 9, -0.0d);
+    ProtoAdapter.STRING.encodeWithTag(writer, 10, "\u00e9");
+    ProtoAdapter.DOUBLE.encodeWithTag(writer, 12, PrimitiveFields.DEFAULT_DEFAULT_DOUBLE);
+    ProtoAdapter.INT64.encodeWithTag(writer, 13, 3L);
+    ByteString bytes = boxed.readByteString();
+
+    assertThat(ByteString.of(PrimitiveFields.ADAPTER.encode(message))).isEqualTo(bytes);
+    assertThat(PrimitiveFields.ADAPTER.encodedSize(message)).isEqualTo(bytes.size());
+
+    PrimitiveFields decoded = PrimitiveFields.ADAPTER.decode(bytes.toByteArray());
+    assertThat(decoded).isEqualTo(message);
+    assertThat(Float.isNaN(decoded.opt_float)).isTrue();
+    assertThat(Double.doubleToLongBits(decoded.opt_double))
+        .isEqualTo(Double.doubleToLongBits(-0.0d));
+    assertThat(decoded.hasDefault_double()).isTrue();
+  }
+}
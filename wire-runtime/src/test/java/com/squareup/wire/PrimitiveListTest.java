@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.primitivelists.PrimitiveLists;
+import java.util.Arrays;
+import java.util.List;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class PrimitiveListTest {
+  @Test public void addAndGet() {
+    IntList list = new IntList();
+    for (int i = 0; i < 100; i++) {
+      list.addInt(i * 3);
+    }
+    list.add(0, -1);
+    assertThat(list).hasSize(101);
+    assertThat(list.getInt(0)).isEqualTo(-1);
+    assertThat(list.getInt(100)).isEqualTo(297);
+    assertThat(list.remove(0)).isEqualTo(-1);
+    assertThat(list.setInt(1, 7)).isEqualTo(3);
+    assertThat(list.get(1)).isEqualTo(7);
+  }
+
+  @Test public void addAllInsertAndRemoveShiftValues() {
+    DoubleList list = new DoubleList();
+    list.addAll(DoubleList.of(1d, 2d, 3d));
+    list.addAll(Arrays.asList(4d, 5d));
+    list.add(1, 1.5d);
+    assertThat(list.remove(3)).isEqualTo(3d);
+    assertThat(list.toDoubleArray()).containsExactly(1d, 1.5d, 2d, 4d, 5d);
+    assertThat(list.addAll(new DoubleList())).isFalse();
+    list.clear();
+    assertThat(list).isEmpty();
+    list.addDouble(6d);
+    assertThat(list).containsExactly(6d);
+  }
+
+  @Test public void equalsAndHashCodeMatchOtherLists() {
+    List<Long> expected = Arrays.asList(1L, -2L, Long.MAX_VALUE);
+    LongList list = LongList.of(1L, -2L, Long.MAX_VALUE);
+    assertThat(list).isEqualTo(expected);
+    assertThat(expected).isEqualTo(list);
+    assertThat(list.hashCode()).isEqualTo(expected.hashCode());
+    assertThat(list).isEqualTo(LongList.of(1L, -2L, Long.MAX_VALUE));
+
+    List<Double> doubles = Arrays.asList(0.5d, Double.NaN);
+    assertThat(DoubleList.of(0.5d, Double.NaN)).isEqualTo(doubles);
+    assertThat(DoubleList.of(0.5d, Double.NaN).hashCode()).isEqualTo(doubles.hashCode());
+    assertThat(BooleanList.of(true, false).hashCode())
+        .isEqualTo(Arrays.asList(true, false).hashCode());
+  }
+
+  @Test public void immutableListsRejectChanges() {
+    FloatList list = FloatList.of(1f, 2f);
+    try {
+      list.addFloat(3f);
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+    try {
+      list.clear();
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+    assertThat(list.mutableCopy().add(3f)).isTrue();
+    assertThat(list.immutableCopy()).isSameAs(list);
+  }
+
+  @Test public void nullElementsRejected() {
+    IntList list = new IntList();
+    try {
+      list.add(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    assertThat(list).isEmpty();
+  }
+
+  @Test public void packedRoundTripWithoutBoxing() throws Exception {
+    ProtoAdapter<List<Integer>> adapter = ProtoAdapter.SINT32.asPacked();
+    IntList values = IntList.of(-1, 0, 300);
+    assertThat(ByteString.of(adapter.encode(values))).isEqualTo(ByteString.decodeHex("0100d804"));
+
+    ProtoReader reader = new ProtoReader(new Buffer().write(ByteString.decodeHex("0a040100d804")));
+    reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    List<Integer> decoded = adapter.decode(reader);
+    assertThat(decoded).isInstanceOf(IntList.class).isEqualTo(values);
+  }
+
+  @Test public void plainListsConvertedWhenSetReflectively() {
+    List<Integer> values = Arrays.asList(1, 2);
+    PrimitiveList<?> list = PrimitiveList.mutableCopyOf(IntList.class, values);
+    assertThat(list).isInstanceOf(IntList.class).isEqualTo(values);
+  }
+
+  @Test public void generatedMessageMatchesBoxedEncoding() throws Exception {
+    PrimitiveLists.Builder builder = new PrimitiveLists.Builder();
+    builder.rep_int32.addInt(-1);
+    builder.rep_int32.addInt(150);
+    builder.rep_sint64.addLong(Long.MIN_VALUE);
+    builder.rep_float.addFloat(0.5f);
+    builder.rep_double.addDouble(-2.25d);
+    builder.rep_bool.addBoolean(true);
+    builder.rep_string.add("s");
+    builder.pack_int32.addInt(300);
+    builder.pack_int32.addInt(Integer.MIN_VALUE);
+    builder.pack_sint64.addLong(-3L);
+    builder.pack_float.addFloat(Float.NaN);
+    builder.pack_double.addDouble(1e100d);
+    builder.pack_bool.addBoolean(false);
+    builder.pack_bool.addBoolean(true);
+    builder.pack_fixed32.addInt(0xcafebabe);
+    PrimitiveLists message = builder.build();
+
+    Buffer expected = new Buffer();
+    ProtoWriter writer = new ProtoWriter(expected);
+    ProtoAdapter.INT32.asRepeated().encodeWithTag(writer, 1, Arrays.asList(-1, 150));
+    ProtoAdapter.SINT64.asRepeated().encodeWithTag(writer, 2, Arrays.asList(Long.MIN_VALUE));
+    ProtoAdapter.FLOAT.asRepeated().encodeWithTag(writer, 3, Arrays.asList(0.5f));
+    ProtoAdapter.DOUBLE.asRepeated().encodeWithTag(writer, 4, Arrays.asList(-2.25d));
+    ProtoAdapter.BOOL.asRepeated().encodeWithTag(writer, 5, Arrays.asList(true));
+    ProtoAdapter.STRING.asRepeated().encodeWithTag(writer, 6, Arrays.asList("s"));
+    ProtoAdapter.INT32.asPacked().encodeWithTag(writer, 11, Arrays.asList(300, Integer.MIN_VALUE));
+    ProtoAdapter.SINT64.asPacked().encodeWithTag(writer, 12, Arrays.asList(-3L));
+    ProtoAdapter.FLOAT.asPacked().encodeWithTag(writer, 13, Arrays.asList(Float.NaN));
+    ProtoAdapter.DOUBLE.asPacked().encodeWithTag(writer, 14, Arrays.asList(1e100d));
+    ProtoAdapter.BOOL.asPacked().encodeWithTag(writer, 15, Arrays.asList(false, true));
+    ProtoAdapter.FIXED32.asPacked().encodeWithTag(writer, 16, Arrays.asList(0xcafebabe));
+    ByteString bytes = expected.readByteString();
+
+    assertThat(ByteString.of(PrimitiveLists.ADAPTER.encode(message))).isEqualTo(bytes);
+    assertThat(PrimitiveLists.ADAPTER.encodedSize(message)).isEqualTo(bytes.size());
+
+    PrimitiveLists decoded = PrimitiveLists.ADAPTER.decode(bytes.toByteArray());
+    assertThat(decoded).isEqualTo(message);
+    assertThat(decoded.hashCode()).isEqualTo(message.hashCode());
+    assertThat(decoded.pack_int32.toIntArray()).containsExactly(300, Integer.MIN_VALUE);
+    assertThat(decoded.rep_sint64.getLong(0)).isEqualTo(Long.MIN_VALUE);
+    assertThat(decoded.pack_fixed32.getInt(0)).isEqualTo(0xcafebabe);
+  }
+
+  @Test public void generatedMessageListsAreImmutable() {
+    PrimitiveLists.Builder builder = new PrimitiveLists.Builder();
+    builder.rep_int32.addInt(1);
+    PrimitiveLists message = builder.build();
+    builder.rep_int32.addInt(2);
+    assertThat(message.rep_int32).containsExactly(1);
+    try {
+      message.rep_int32.addInt(3);
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+  }
+}
@@ -15,8 +15,26 @@
  */
 package com.squareup.wire;
 
+import com.squareup.wire.protos.bytebuffers.ByteBuffers;
+import com.squareup.wire.protos.edgecases.OneBytesField;
 import com.squareup.wire.protos.person.Person;
+import com.squareup.wire.protos.person.PersonAdapters;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProtocolException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import okio.Buffer;
 import okio.ByteString;
+import okio.Okio;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +53,59 @@ public final class ProtoAdapterTest {
     assertThat(personAdapter.decode(encoded.toByteArray())).isEqualTo(person);
   }
 
+  @Test public void pooledReaderDoesNotLeakStateBetweenDecodes() throws Exception {
+    Person person = new Person.Builder()
+        .id(99)
+        .name("Omar Little")
+        .build();
+    byte[] encoded = Person.ADAPTER.encode(person);
+    try {
+      Person.ADAPTER.decode(Arrays.copyOf(encoded, 5));
+      fail();
+    } catch (EOFException expected) {
+    }
+    assertThat(Person.ADAPTER.decode(encoded)).isEqualTo(person);
+    assertThat(Person.ADAPTER.decode(new Buffer().write(encoded))).isEqualTo(person);
+    assertThat(Person.ADAPTER.decode(encoded)).isEqualTo(person);
+  }
+
+  @Test public void pooledReaderSafeForNestedDecodes() throws Exception {
+    final Person inner = new Person.Builder()
+        .id(1)
+        .name("Inner")
+        .build();
+    // Decodes a Person from the bytes of field 1 using a top-level decode, then reads field 2.
+    ProtoAdapter<String> outer = new ProtoAdapter<String>(FieldEncoding.LENGTH_DELIMITED,
+        String.class) {
+      @Override public int encodedSize(String value) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override public void encode(ProtoWriter writer, String value) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override public String decode(ProtoReader reader) throws IOException {
+        long token = reader.beginMessage();
+        assertThat(reader.nextTag()).isEqualTo(1);
+        Person person = Person.ADAPTER.decode(reader.readBytes().toByteArray());
+        assertThat(reader.nextTag()).isEqualTo(2);
+        String suffix = reader.readString();
+        assertThat(reader.nextTag()).isEqualTo(-1);
+        reader.endMessage(token);
+        return person.name + suffix;
+      }
+    };
+    Buffer buffer = new Buffer();
+    ProtoWriter writer = new ProtoWriter(buffer);
+    ProtoAdapter.BYTES.encodeWithTag(writer, 1, ByteString.of(Person.ADAPTER.encode(inner)));
+    ProtoAdapter.STRING.encodeWithTag(writer, 2, "!");
+    byte[] encoded = buffer.readByteArray();
+
+    assertThat(outer.decode(encoded)).isEqualTo("Inner!");
+    assertThat(outer.decode(encoded)).isEqualTo("Inner!");
+  }
+
   @Test public void getFromClassWrongType() throws Exception {
     Message nonGeneratedMessage = new Message(ByteString.EMPTY) {
       @Override public Builder newBuilder() {
@@ -49,9 +120,490 @@ public final class ProtoAdapterTest {
     }
   }
 
+  @Test public void getFromClassCachesLookups() throws Exception {
+    assertThat(ProtoAdapter.get(Person.class)).isSameAs(Person.ADAPTER);
+    assertThat(ProtoAdapter.get(Person.class)).isSameAs(Person.ADAPTER);
+    assertThat(ProtoAdapter.get(Person.class.getName() + "#ADAPTER")).isSameAs(Person.ADAPTER);
+  }
+
+  @Test public void generatedAdapterRegistry() {
+    assertThat(PersonAdapters.get("squareup.protos.person.Person")).isSameAs(Person.ADAPTER);
+    assertThat(PersonAdapters.get("squareup.protos.person.Person.PhoneType"))
+        .isSameAs(Person.PhoneType.ADAPTER);
+    assertThat(PersonAdapters.get("squareup.protos.person.Unknown")).isNull();
+
+    PersonAdapters.registerAll();
+    assertThat(ProtoAdapter.get(Person.PhoneNumber.class)).isSameAs(Person.PhoneNumber.ADAPTER);
+  }
+
+  @Test public void registeredAdapterReturnedFromGet() throws Exception {
+    Message nonGeneratedMessage = new Message(ByteString.EMPTY) {
+      @Override public Builder newBuilder() {
+        throw new AssertionError();
+      }
+    };
+    Class<Message> type = (Class<Message>) nonGeneratedMessage.getClass();
+    ProtoAdapter<Message> adapter = new ProtoAdapter<Message>(
+        FieldEncoding.LENGTH_DELIMITED, type) {
+      @Override public int encodedSize(Message value) {
+        return 0;
+      }
+
+      @Override public void encode(ProtoWriter writer, Message value) {
+      }
+
+      @Override public Message decode(ProtoReader reader) {
+        throw new AssertionError();
+      }
+    };
+    ProtoAdapter.register(type, adapter);
+    assertThat(ProtoAdapter.get(type)).isSameAs(adapter);
+    assertThat(ProtoAdapter.get(type.getName() + "#ADAPTER")).isSameAs(adapter);
+    ProtoAdapter.register(type, adapter);
+  }
+
+  @Test public void registerRejectsReplacingAnAdapterInUse() throws Exception {
+    assertThat(ProtoAdapter.get(Person.class)).isSameAs(Person.ADAPTER);
+    try {
+      ProtoAdapter.register(Person.class, ProtoAdapter.newMessageAdapter(Person.class));
+      fail();
+    } catch (IllegalStateException expected) {
+      assertThat(expected).hasMessage(
+          "a different adapter for " + Person.class.getName() + " is already in use");
+    }
+    assertThat(ProtoAdapter.get(Person.class)).isSameAs(Person.ADAPTER);
+  }
+
   @Test public void repeatedHelpersCacheInstances() {
     ProtoAdapter<?> adapter = ProtoAdapter.UINT64;
     assertThat(adapter.asRepeated()).isSameAs(adapter.asRepeated());
     assertThat(adapter.asPacked()).isSameAs(adapter.asPacked());
   }
+
+  @Test public void decodeByteBuffer() throws Exception {
+    Person person = new Person.Builder()
+        .id(99)
+        .name("Omar Little")
+        .build();
+    ByteString encoded = ByteString.decodeHex("0a0b4f6d6172204c6974746c651063");
+
+    ByteBuffer heap = ByteBuffer.allocate(encoded.size() + 2);
+    heap.put((byte) 0xff).put(encoded.toByteArray()).put((byte) 0xff);
+    heap.position(1);
+    heap.limit(1 + encoded.size());
+    assertThat(Person.ADAPTER.decode(heap)).isEqualTo(person);
+    assertThat(heap.remaining()).isEqualTo(0);
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(encoded.size());
+    direct.put(encoded.toByteArray());
+    direct.flip();
+    assertThat(Person.ADAPTER.decode(direct)).isEqualTo(person);
+    assertThat(direct.remaining()).isEqualTo(0);
+  }
+
+  @Test public void encodeAndDecodeDelimited() throws Exception {
+    Person omar = new Person.Builder().id(99).name("Omar Little").build();
+    Person stringer = new Person.Builder().id(3).name("Stringer Bell").build();
+    Buffer buffer = new Buffer();
+    Person.ADAPTER.encodeDelimited(buffer, omar);
+    Person.ADAPTER.encodeDelimited(buffer, stringer);
+    assertThat(buffer.clone().readByteString(16)).isEqualTo(
+        ByteString.decodeHex("0f0a0b4f6d6172204c6974746c651063"));
+
+    buffer.writeByte(0xff);
+    assertThat(Person.ADAPTER.decodeDelimited(buffer)).isEqualTo(omar);
+    assertThat(Person.ADAPTER.decodeDelimited(buffer)).isEqualTo(stringer);
+    assertThat(buffer.readByteString()).isEqualTo(ByteString.decodeHex("ff"));
+    assertThat(Person.ADAPTER.decodeDelimited(buffer)).isNull();
+  }
+
+  @Test public void delimitedMessageReader() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < 1000; i++) {
+      Person.ADAPTER.encodeDelimited(out, new Person.Builder().id(i).name("#" + i).build());
+    }
+    InputStream in = new ByteArrayInputStream(out.toByteArray());
+
+    DelimitedMessageReader<Person> reader =
+        new DelimitedMessageReader<>(Person.ADAPTER, Okio.buffer(Okio.source(in)));
+    for (int i = 0; i < 1000; i++) {
+      assertThat(reader.read()).isEqualTo(new Person.Builder().id(i).name("#" + i).build());
+    }
+    assertThat(reader.read()).isNull();
+  }
+
+  @Test public void delimitedMessageReaderWithFieldMask() throws Exception {
+    Buffer buffer = new Buffer();
+    Person.ADAPTER.encodeDelimited(buffer,
+        new Person.Builder().id(1).name("a").email("a@example.com").build());
+    Person.ADAPTER.encodeDelimited(buffer,
+        new Person.Builder().id(2).name("b").email("b@example.com").build());
+
+    FieldMask mask = new FieldMask.Builder().add(1).add(2).build();
+    DelimitedMessageReader<Person> reader =
+        new DelimitedMessageReader<>(Person.ADAPTER, new ProtoReader(buffer, mask));
+    assertThat(reader.read()).isEqualTo(new Person.Builder().id(1).name("a").build());
+    assertThat(reader.read()).isEqualTo(new Person.Builder().id(2).name("b").build());
+    assertThat(reader.read()).isNull();
+  }
+
+  @Test public void delimitedMessageDecoderAcrossChunks() throws Exception {
+    List<Person> people = new ArrayList<>();
+    Buffer buffer = new Buffer();
+    for (int i = 0; i < 100; i++) {
+      Person person = new Person.Builder().id(i).name("#" + i).build();
+      people.add(person);
+      Person.ADAPTER.encodeDelimited(buffer, person);
+    }
+    Person.ADAPTER.encodeDelimited(buffer, new Person.Builder().id(100).name("").build());
+    people.add(new Person.Builder().id(100).name("").build());
+    byte[] bytes = buffer.readByteArray();
+
+    for (int chunkSize = 1; chunkSize <= 20; chunkSize++) {
+      for (boolean direct : new boolean[] {false, true}) {
+        DelimitedMessageDecoder<Person> decoder = new DelimitedMessageDecoder<>(Person.ADAPTER);
+        List<Person> decoded = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+          int byteCount = Math.min(chunkSize, bytes.length - i);
+          ByteBuffer chunk = direct
+              ? ByteBuffer.allocateDirect(byteCount)
+              : ByteBuffer.allocate(byteCount + 2);
+          if (!direct) chunk.position(1);
+          chunk.put(bytes, i, byteCount).flip();
+          if (!direct) chunk.position(1);
+          decoder.decode(chunk, decoded);
+          assertThat(chunk.hasRemaining()).isFalse();
+        }
+        assertThat(decoded).isEqualTo(people);
+        assertThat(decoder.hasPartialMessage()).isFalse();
+      }
+    }
+  }
+
+  @Test public void delimitedMessageDecoderHoldsPartialMessage() throws Exception {
+    DelimitedMessageDecoder<Person> decoder = new DelimitedMessageDecoder<>(Person.ADAPTER);
+    List<Person> decoded = new ArrayList<>();
+    assertThat(decoder.decode(ByteBuffer.wrap(ByteString.decodeHex("0f0a0b4f6d").toByteArray()),
+        decoded)).isEqualTo(0);
+    assertThat(decoder.hasPartialMessage()).isTrue();
+    assertThat(decoder.decode(ByteBuffer.wrap(ByteString.decodeHex("6172204c6974746c651063")
+        .toByteArray()), decoded)).isEqualTo(1);
+    assertThat(decoded).containsExactly(new Person.Builder().id(99).name("Omar Little").build());
+    assertThat(decoder.hasPartialMessage()).isFalse();
+  }
+
+  @Test public void delimitedMessageDecoderDoesNotReuseSpanningMessageStorage()
+      throws Exception {
+    DelimitedMessageDecoder<ByteBuffers> decoder =
+        new DelimitedMessageDecoder<>(ByteBuffers.ADAPTER);
+    List<ByteBuffers> decoded = new ArrayList<>();
+    // Two messages of the same length, each split across chunks.
+    decoder.decode(ByteBuffer.wrap(ByteString.decodeHex("050a03").toByteArray()), decoded);
+    decoder.decode(ByteBuffer.wrap(ByteString.decodeHex("010203050a").toByteArray()), decoded);
+    decoder.decode(ByteBuffer.wrap(ByteString.decodeHex("03040506").toByteArray()), decoded);
+    assertThat(decoded).containsExactly(
+        new ByteBuffers.Builder().opt_bytes(ByteBuffer.wrap(new byte[] {1, 2, 3})).build(),
+        new ByteBuffers.Builder().opt_bytes(ByteBuffer.wrap(new byte[] {4, 5, 6})).build());
+  }
+
+  @Test public void delimitedMessageDecoderResumesAfterMalformedMessage() throws Exception {
+    DelimitedMessageDecoder<Person> decoder = new DelimitedMessageDecoder<>(Person.ADAPTER);
+    List<Person> decoded = new ArrayList<>();
+    // A message whose name claims 5 bytes but has none, followed by a valid message.
+    ByteBuffer chunk = ByteBuffer.wrap(ByteString.decodeHex("020a05").toByteArray());
+    try {
+      decoder.decode(chunk, decoded);
+      fail();
+    } catch (IOException expected) {
+    }
+    assertThat(chunk.hasRemaining()).isFalse();
+    decoder.decode(ByteBuffer.wrap(ByteString.decodeHex("0f0a0b4f6d6172204c6974746c651063")
+        .toByteArray()), decoded);
+    assertThat(decoded).containsExactly(new Person.Builder().id(99).name("Omar Little").build());
+  }
+
+  @Test public void delimitedMessageDecoderRejectsLargeMessages() throws Exception {
+    DelimitedMessageDecoder<Person> decoder = new DelimitedMessageDecoder<>(Person.ADAPTER, 100);
+    List<Person> decoded = new ArrayList<>();
+    decoder.decode(ByteBuffer.wrap(new byte[] {(byte) 0x80}), decoded);
+    assertThat(decoder.hasPartialMessage()).isTrue();
+    try {
+      decoder.decode(ByteBuffer.wrap(new byte[] {0x01}), decoded);
+      fail();
+    } catch (ProtocolException expected) {
+      assertThat(expected).hasMessage("Message too large: 128");
+    }
+  }
+
+  @Test public void truncatedDelimitedMessage() throws Exception {
+    Buffer buffer = new Buffer().write(ByteString.decodeHex("0f0a0b4f6d6172"));
+    try {
+      Person.ADAPTER.decodeDelimited(buffer);
+      fail();
+    } catch (IOException expected) {
+    }
+  }
+
+  @Test public void stringAdapterSharesCachedInstances() throws Exception {
+    ProtoAdapter<String> adapter = ProtoAdapter.newStringAdapter(new StringCache(64));
+    assertThat(adapter.encodedSizeWithTag(1, "CA")).isEqualTo(4);
+    ProtoReader reader = new ProtoReader(new Buffer().write(ByteString.decodeHex("0a0243410a024341")));
+    long token = reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    String first = adapter.decode(reader);
+    assertThat(reader.nextTag()).isEqualTo(1);
+    assertThat(adapter.decode(reader)).isEqualTo("CA").isSameAs(first);
+    assertThat(reader.nextTag()).isEqualTo(-1);
+    reader.endMessage(token);
+  }
+
+  @Test public void byteBufferAdapterWritesRemainingBytes() throws Exception {
+    ByteBuffer direct = ByteBuffer.allocateDirect(4);
+    direct.put(new byte[] {0, 1, 2, 3}).flip();
+    direct.position(1);
+    Buffer buffer = new Buffer();
+    ProtoAdapter.BYTE_BUFFER.encodeWithTag(new ProtoWriter(buffer), 1, direct);
+    assertThat(buffer.readByteString()).isEqualTo(ByteString.decodeHex("0a03010203"));
+    assertThat(direct.position()).isEqualTo(1);
+    assertThat(ProtoAdapter.BYTE_BUFFER.encodedSizeWithTag(1, direct)).isEqualTo(5);
+
+    byte[] array = {0, 1, 2, 3};
+    ByteBuffer heap = ByteBuffer.wrap(array, 1, 3).slice();
+    ProtoAdapter.BYTE_BUFFER.encodeWithTag(new ProtoWriter(buffer), 1, heap);
+    assertThat(buffer.readByteString()).isEqualTo(ByteString.decodeHex("0a03010203"));
+  }
+
+  @Test public void encodeIntoArrayAtOffset() throws Exception {
+    Person person = new Person.Builder()
+        .id(99)
+        .name("Omar Little")
+        .build();
+    ProtoAdapter<Person> personAdapter = ProtoAdapter.get(Person.class);
+    byte[] dst = new byte[20];
+    assertThat(personAdapter.encode(person, dst, 3)).isEqualTo(15);
+    assertThat(ByteString.of(dst, 3, 15))
+        .isEqualTo(ByteString.decodeHex("0a0b4f6d6172204c6974746c651063"));
+    assertThat(dst[2]).isEqualTo((byte) 0);
+    assertThat(dst[18]).isEqualTo((byte) 0);
+
+    try {
+      personAdapter.encode(person, new byte[20], 6);
+      fail();
+    } catch (ArrayIndexOutOfBoundsException expected) {
+    }
+  }
+
+  @Test public void encodeIntoByteBuffer() throws Exception {
+    Person person = new Person.Builder()
+        .id(99)
+        .name("Omar Little")
+        .email("omar\u00e9@example.com")
+        .build();
+    ProtoAdapter<Person> personAdapter = ProtoAdapter.get(Person.class);
+    ByteString expected = ByteString.of(personAdapter.encode(person));
+
+    for (ByteBuffer buffer : new ByteBuffer[] {
+        ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+      buffer.position(2);
+      personAdapter.encode(person, buffer);
+      assertThat(buffer.position()).isEqualTo(2 + expected.size());
+      buffer.flip();
+      buffer.position(2);
+      byte[] written = new byte[buffer.remaining()];
+      buffer.get(written);
+      assertThat(ByteString.of(written)).isEqualTo(expected);
+    }
+  }
+
+  @Test public void encodeIntoByteBufferWithoutRoom() throws Exception {
+    Person person = new Person.Builder()
+        .id(99)
+        .name("Omar Little")
+        .build();
+    ProtoAdapter<Person> personAdapter = ProtoAdapter.get(Person.class);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(14);
+    try {
+      personAdapter.encode(person, buffer);
+      fail();
+    } catch (BufferOverflowException expected) {
+    }
+    assertThat(buffer.position()).isEqualTo(0);
+  }
+
+  @Test public void encodeWithInexactEncodedSize() throws Exception {
+    for (int error : new int[] {-2, 3}) {
+      ProtoAdapter<String> adapter = inexactStringAdapter(error);
+      assertThat(adapter.encode("hello")).isEqualTo("hello".getBytes("UTF-8"));
+      try {
+        adapter.encode("hello", new byte[16], 0);
+        fail();
+      } catch (IllegalStateException expected) {
+        assertThat(expected).hasMessageStartingWith("encodedSize() returned " + (5 + error));
+      }
+    }
+  }
+
+  @Test public void encodeToGatheringChannel() throws Exception {
+    ByteString payload = ByteString.of(new byte[4000]);
+    ByteString unknownFields = new Buffer()
+        .write(ByteString.decodeHex("a206d404"))
+        .write(new byte[596])
+        .readByteString();
+    OneBytesField value = new OneBytesField(payload, unknownFields);
+    ByteString expected = ByteString.of(OneBytesField.ADAPTER.encode(value));
+
+    final Buffer sink = new Buffer();
+    final List<Integer> segmentCounts = new ArrayList<>();
+    GatheringByteChannel channel = new GatheringByteChannel() {
+      @Override public long write(ByteBuffer[] srcs, int offset, int length) {
+        segmentCounts.add(length);
+        // Accept at most 1000 bytes per call to exercise partial writes.
+        long byteCount = 0;
+        for (int i = offset; i < offset + length && byteCount < 1000; i++) {
+          while (srcs[i].hasRemaining() && byteCount < 1000) {
+            sink.writeByte(srcs[i].get());
+            byteCount++;
+          }
+        }
+        return byteCount;
+      }
+
+      @Override public long write(ByteBuffer[] srcs) {
+        return write(srcs, 0, srcs.length);
+      }
+
+      @Override public int write(ByteBuffer src) {
+        return (int) write(new ByteBuffer[] {src});
+      }
+
+      @Override public boolean isOpen() {
+        return true;
+      }
+
+      @Override public void close() {
+      }
+    };
+    OneBytesField.ADAPTER.encode(channel, value);
+    assertThat(sink.readByteString()).isEqualTo(expected);
+    // The tag and length, then the payload and unknown fields referenced in place.
+    assertThat(segmentCounts.get(0)).isEqualTo(3);
+  }
+
+  @Test public void enumAdapterDecodesDenseValues() throws Exception {
+    ProtoAdapter<Dense> adapter = ProtoAdapter.newEnumAdapter(Dense.class);
+    assertThat(adapter.decode(ByteString.decodeHex("00").toByteArray())).isEqualTo(Dense.ZERO);
+    assertThat(adapter.decode(ByteString.decodeHex("02").toByteArray())).isEqualTo(Dense.TWO);
+    try {
+      adapter.decode(ByteString.decodeHex("01").toByteArray());
+      fail();
+    } catch (ProtoAdapter.EnumConstantNotFoundException expected) {
+      assertThat(expected.value).isEqualTo(1);
+      assertThat(expected).hasMessage("Unknown enum tag 1 for "
+          + "com.squareup.wire.ProtoAdapterTest.Dense");
+      assertThat(expected.getStackTrace()).isEmpty();
+    }
+  }
+
+  @Test public void enumAdapterDecodesSparseValues() throws Exception {
+    ProtoAdapter<Sparse> adapter = ProtoAdapter.newEnumAdapter(Sparse.class);
+    for (Sparse constant : Sparse.values()) {
+      Sparse decoded = adapter.decode(adapter.encode(constant));
+      assertThat(decoded).isEqualTo(constant == Sparse.ALIAS ? Sparse.BIG : constant);
+    }
+    try {
+      adapter.decode(ProtoAdapter.INT32.encode(7));
+      fail();
+    } catch (ProtoAdapter.EnumConstantNotFoundException expected) {
+      assertThat(expected.value).isEqualTo(7);
+    }
+  }
+
+  @Test public void emptyPackedListHasNoSize() throws Exception {
+    ProtoAdapter<List<Integer>> packed = ProtoAdapter.INT32.asPacked();
+    List<Integer> empty = Collections.emptyList();
+    assertThat(packed.encodedSizeWithTag(1, empty)).isEqualTo(0);
+
+    Buffer buffer = new Buffer();
+    packed.encodeWithTag(new ProtoWriter(buffer), 1, empty);
+    assertThat(buffer.size()).isEqualTo(0);
+  }
+
+  @Test public void primitiveMethodsMatchBoxedMethods() throws Exception {
+    Buffer boxed = new Buffer();
+    ProtoWriter boxedWriter = new ProtoWriter(boxed);
+    ProtoAdapter.SINT32.encodeWithTag(boxedWriter, 1, -300);
+    ProtoAdapter.FIXED64.encodeWithTag(boxedWriter, 2, Long.MIN_VALUE);
+    ProtoAdapter.FLOAT.encodeWithTag(boxedWriter, 3, 1.5f);
+    ProtoAdapter.DOUBLE.encodeWithTag(boxedWriter, 4, -0.25d);
+    ProtoAdapter.BOOL.encodeWithTag(boxedWriter, 5, true);
+
+    Buffer primitive = new Buffer();
+    ProtoWriter primitiveWriter = new ProtoWriter(primitive);
+    ProtoAdapter.SINT32.encodeIntWithTag(primitiveWriter, 1, -300);
+    ProtoAdapter.FIXED64.encodeLongWithTag(primitiveWriter, 2, Long.MIN_VALUE);
+    ProtoAdapter.FLOAT.encodeFloatWithTag(primitiveWriter, 3, 1.5f);
+    ProtoAdapter.DOUBLE.encodeDoubleWithTag(primitiveWriter, 4, -0.25d);
+    ProtoAdapter.BOOL.encodeBooleanWithTag(primitiveWriter, 5, true);
+    assertThat(primitive.snapshot()).isEqualTo(boxed.snapshot());
+    assertThat(ProtoAdapter.SINT32.encodedSizeIntWithTag(1, -300))
+        .isEqualTo(ProtoAdapter.SINT32.encodedSizeWithTag(1, -300));
+
+    ProtoReader reader = new ProtoReader(primitive);
+    reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    assertThat(ProtoAdapter.SINT32.decodeInt(reader)).isEqualTo(-300);
+    assertThat(reader.nextTag()).isEqualTo(2);
+    assertThat(ProtoAdapter.FIXED64.decodeLong(reader)).isEqualTo(Long.MIN_VALUE);
+    assertThat(reader.nextTag()).isEqualTo(3);
+    assertThat(ProtoAdapter.FLOAT.decodeFloat(reader)).isEqualTo(1.5f);
+    assertThat(reader.nextTag()).isEqualTo(4);
+    assertThat(ProtoAdapter.DOUBLE.decodeDouble(reader)).isEqualTo(-0.25d);
+    assertThat(reader.nextTag()).isEqualTo(5);
+    assertThat(ProtoAdapter.BOOL.decodeBoolean(reader)).isTrue();
+  }
+
+  /** Returns an adapter for strings whose encoded size is off by {@code error} bytes. */
+  private static ProtoAdapter<String> inexactStringAdapter(final int error) {
+    return new ProtoAdapter<String>(FieldEncoding.LENGTH_DELIMITED, String.class) {
+      @Override public int encodedSize(String value) {
+        return ProtoAdapter.STRING.encodedSize(value) + error;
+      }
+
+      @Override public void encode(ProtoWriter writer, String value) throws IOException {
+        writer.writeString(value);
+      }
+
+      @Override public String decode(ProtoReader reader) throws IOException {
+        return reader.readString();
+      }
+    };
+  }
+
+  enum Dense implements WireEnum {
+    ZERO(0), TWO(2);
+
+    private final int value;
+
+    Dense(int value) {
+      this.value = value;
+    }
+
+    @Override public int getValue() {
+      return value;
+    }
+  }
+
+  enum Sparse implements WireEnum {
+    BIG(100000), NEGATIVE(-1), ZERO(0), ALIAS(100000);
+
+    private final int value;
+
+    Sparse(int value) {
+      this.value = value;
+    }
+
+    @Override public int getValue() {
+      return value;
+    }
+  }
 }
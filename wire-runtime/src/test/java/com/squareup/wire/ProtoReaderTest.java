@@ -15,12 +15,21 @@
  */
 package com.squareup.wire;
 
+import com.squareup.wire.protos.person.Person;
+import java.io.EOFException;
 import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
 import okio.Buffer;
 import okio.ByteString;
+import okio.Okio;
+import okio.Source;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 public final class ProtoReaderTest {
   @Test public void packedExposedAsRepeated() throws IOException {
@@ -34,4 +43,271 @@ public final class ProtoReaderTest {
     assertThat(reader.nextTag()).isEqualTo(-1);
     reader.endMessage(token);
   }
+
+  @Test public void packedRunsReadInBulk() throws IOException {
+    // tag 90: packed varints 601, 701
+    // tag 91: packed fixed32s 1, 2
+    // tag 92: unpacked varint 3
+    // tag 93: packed fixed64 -1
+    ByteString encoded = ByteString.decodeHex("d20504d904bd05da05080100000002000000e00503"
+        + "ea0508ffffffffffffffff");
+    for (ProtoReader reader : readers(encoded)) {
+      long token = reader.beginMessage();
+      assertThat(reader.nextTag()).isEqualTo(90);
+      assertThat(reader.readPackedVarint32()).containsExactly(601, 701);
+      assertThat(reader.nextTag()).isEqualTo(91);
+      assertThat(reader.readPackedFixed32()).containsExactly(1, 2);
+      assertThat(reader.nextTag()).isEqualTo(92);
+      assertThat(reader.readPackedVarint64()).containsExactly(3L);
+      assertThat(reader.nextTag()).isEqualTo(93);
+      assertThat(reader.readPackedFixed64()).containsExactly(-1L);
+      assertThat(reader.nextTag()).isEqualTo(-1);
+      reader.endMessage(token);
+    }
+  }
+
+  @Test public void packedFixed32WithPartialValue() throws IOException {
+    // tag 91: packed fixed32s with 3 bytes
+    ByteString encoded = ByteString.decodeHex("da0503010000");
+    ProtoReader reader = new ProtoReader(new Buffer().write(encoded));
+    reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(91);
+    try {
+      reader.readPackedFixed32();
+      fail();
+    } catch (ProtocolException expected) {
+      assertThat(expected).hasMessage("Packed FIXED32 length not a multiple of 4");
+    }
+  }
+
+  @Test public void arrayAndBufferInputsMatchSourceInput() throws IOException {
+    // tag 1: varint 300, tag 2: fixed32 -2, tag 3: fixed64 1, tag 4: "abc", tag 5: varint -1.
+    ByteString encoded = ByteString.decodeHex(
+        "08ac02157effffff1901000000000000002203616263"
+            + "28ffffffffffffffffff01");
+    for (ProtoReader reader : readers(encoded)) {
+      long token = reader.beginMessage();
+      assertThat(reader.nextTag()).isEqualTo(1);
+      assertThat(reader.readVarint32()).isEqualTo(300);
+      assertThat(reader.nextTag()).isEqualTo(2);
+      assertThat(reader.readFixed32()).isEqualTo(0xffffff7e);
+      assertThat(reader.nextTag()).isEqualTo(3);
+      assertThat(reader.readFixed64()).isEqualTo(1L);
+      assertThat(reader.nextTag()).isEqualTo(4);
+      assertThat(reader.readString()).isEqualTo("abc");
+      assertThat(reader.nextTag()).isEqualTo(5);
+      assertThat(reader.readVarint32()).isEqualTo(-1);
+      assertThat(reader.nextTag()).isEqualTo(-1);
+      reader.endMessage(token);
+    }
+  }
+
+  @Test public void arrayInputHonorsOffsetAndLength() throws IOException {
+    byte[] bytes = ByteString.decodeHex("ff0801ff").toByteArray();
+    ProtoReader reader = new ProtoReader(ProtoInput.of(bytes, 1, 2));
+    long token = reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    assertThat(reader.readVarint64()).isEqualTo(1L);
+    assertThat(reader.nextTag()).isEqualTo(-1);
+    reader.endMessage(token);
+  }
+
+  @Test public void truncatedVarintThrowsEofException() throws IOException {
+    for (ProtoReader reader : readers(ByteString.decodeHex("08ac"))) {
+      long token = reader.beginMessage();
+      assertThat(reader.nextTag()).isEqualTo(1);
+      try {
+        reader.readVarint64();
+        fail();
+      } catch (EOFException expected) {
+      }
+    }
+  }
+
+  @Test public void truncatedBytesThrowsEofException() throws IOException {
+    for (ProtoReader reader : readers(ByteString.decodeHex("0a04000000"))) {
+      long token = reader.beginMessage();
+      assertThat(reader.nextTag()).isEqualTo(1);
+      try {
+        reader.readBytes();
+        fail();
+      } catch (EOFException expected) {
+      }
+    }
+  }
+
+  @Test public void cachedStringsAreShared() throws IOException {
+    ByteString encoded = ByteString.decodeHex("0a035553440a035553440a0668c3a96c6c6f");
+    for (ProtoReader reader : readers(encoded)) {
+      reader.setStringCache(new StringCache(16));
+      long token = reader.beginMessage();
+      assertThat(reader.nextTag()).isEqualTo(1);
+      String first = reader.readString();
+      assertThat(reader.nextTag()).isEqualTo(1);
+      String second = reader.readString();
+      assertThat(reader.nextTag()).isEqualTo(1);
+      assertThat(reader.readString()).isEqualTo("h\u00e9llo");
+      assertThat(reader.nextTag()).isEqualTo(-1);
+      reader.endMessage(token);
+      assertThat(first).isEqualTo("USD").isSameAs(second);
+    }
+  }
+
+  @Test public void stringCacheKeepsCollidingValues() throws IOException {
+    // Every value maps to the same set in a cache of one set.
+    StringCache cache = new StringCache(StringCache.WAYS);
+    String usd = cachedString(cache, "USD");
+    String eur = cachedString(cache, "EUR");
+    String gbp = cachedString(cache, "GBP");
+    assertThat(cachedString(cache, "USD")).isSameAs(usd);
+    assertThat(cachedString(cache, "EUR")).isSameAs(eur);
+    assertThat(cachedString(cache, "GBP")).isSameAs(gbp);
+    assertThat(new StringCache(100).maxSize()).isEqualTo(128);
+  }
+
+  @Test public void stringCacheEvictsUnreferencedValues() throws IOException {
+    StringCache cache = new StringCache(StringCache.WAYS);
+    String usd = cachedString(cache, "USD");
+    String eur = cachedString(cache, "EUR");
+    String gbp = cachedString(cache, "GBP");
+    String jpy = cachedString(cache, "JPY");
+    cachedString(cache, "USD");
+    cachedString(cache, "GBP");
+    cachedString(cache, "JPY");
+
+    // The clock hand clears USD's reference bit and then evicts EUR, which wasn't hit.
+    cachedString(cache, "CAD");
+    assertThat(cachedString(cache, "USD")).isSameAs(usd);
+    assertThat(cachedString(cache, "GBP")).isSameAs(gbp);
+    assertThat(cachedString(cache, "JPY")).isSameAs(jpy);
+    assertThat(cachedString(cache, "EUR")).isEqualTo("EUR").isNotSameAs(eur);
+  }
+
+  @Test public void byteBufferReadFromEachInput() throws IOException {
+    for (ProtoReader reader : readers(ByteString.decodeHex("0a03010203"))) {
+      long token = reader.beginMessage();
+      assertThat(reader.nextTag()).isEqualTo(1);
+      ByteBuffer value = reader.readByteBuffer();
+      assertThat(value).isEqualTo(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+      assertThat(value.isReadOnly()).isTrue();
+      assertThat(reader.nextTag()).isEqualTo(-1);
+      reader.endMessage(token);
+    }
+  }
+
+  @Test public void byteBufferSharesArrayStorage() throws IOException {
+    byte[] bytes = ByteString.decodeHex("0a03010203").toByteArray();
+    ProtoReader reader = new ProtoReader(ProtoInput.of(bytes, 0, bytes.length));
+    long token = reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    ByteBuffer value = reader.readByteBuffer();
+    reader.endMessage(token);
+    bytes[3] = 9;
+    assertThat(value.get(1)).isEqualTo((byte) 9);
+  }
+
+  @Test public void resetDiscardsPartiallyReadMessage() throws IOException {
+    // tag 1: length-delimited message containing tag 2: varint 150. Abandoned before its value.
+    ProtoReader reader = new ProtoReader(new Buffer().write(ByteString.decodeHex("0a03109601")));
+    reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(2);
+
+    // tag 3: varint 1.
+    reader.reset(new Buffer().write(ByteString.decodeHex("1801")));
+    long token = reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(3);
+    assertThat(reader.readVarint32()).isEqualTo(1);
+    assertThat(reader.nextTag()).isEqualTo(-1);
+    reader.endMessage(token);
+  }
+
+  @Test public void resetSwitchesBetweenInputs() throws IOException {
+    byte[] bytes = ByteString.decodeHex("0a03010203").toByteArray();
+    ProtoReader reader = new ProtoReader(ProtoInput.of(bytes, 0, bytes.length));
+    reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+
+    reader.reset(new Buffer().write(ByteString.decodeHex("0a0104")));
+    reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    assertThat(reader.readBytes()).isEqualTo(ByteString.decodeHex("04"));
+
+    reader.reset(bytes, 0, bytes.length);
+    long token = reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    assertThat(reader.readBytes()).isEqualTo(ByteString.decodeHex("010203"));
+    assertThat(reader.nextTag()).isEqualTo(-1);
+    reader.endMessage(token);
+  }
+
+  @Test public void unknownFieldsCopiedBeforePooledReaderIsReused() throws IOException {
+    byte[] bytes = ByteString.decodeHex("0a0b4f6d6172204c6974746c651063").toByteArray();
+    Person.Builder builder = new Person.Builder();
+    ProtoReader reader = ProtoReader.acquire();
+    reader.reset(bytes, 0, bytes.length);
+    long token = reader.beginMessage();
+    while (reader.nextTag() != -1) {
+      reader.readUnknownField(builder);
+    }
+    reader.endMessage(token);
+    reader.release();
+
+    // Decode something else with the same pooled reader before building.
+    byte[] other = ByteString.decodeHex("0a0162").toByteArray();
+    ProtoReader reused = ProtoReader.acquire();
+    assertThat(reused).isSameAs(reader);
+    reused.reset(other, 0, other.length);
+    token = reused.beginMessage();
+    assertThat(reused.nextTag()).isEqualTo(1);
+    reused.readUnknownField(new Person.Builder());
+    reused.endMessage(token);
+    Arrays.fill(bytes, (byte) 0);
+    reused.release();
+
+    assertThat(builder.buildUnknownFields())
+        .isEqualTo(ByteString.decodeHex("0a0b4f6d6172204c6974746c651063"));
+  }
+
+  @Test public void releasedReaderDropsOversizedScratch() throws IOException {
+    assertThat(readPackedVarintsAndRelease(ProtoReader.MAX_RETAINED_SCRATCH + 1).intScratch)
+        .isNull();
+    ProtoReader reader = readPackedVarintsAndRelease(16);
+    assertThat(reader.intScratch).isNotNull();
+    assertThat(reader.intScratch.length).isLessThanOrEqualTo(ProtoReader.MAX_RETAINED_SCRATCH);
+  }
+
+  /** Returns readers of {@code bytes} backed by each kind of input. */
+  private static List<ProtoReader> readers(ByteString bytes) {
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.size());
+    direct.put(bytes.toByteArray());
+    direct.flip();
+    return Arrays.asList(
+        new ProtoReader(Okio.buffer((Source) new Buffer().write(bytes))),
+        new ProtoReader(ProtoInput.of(bytes.toByteArray(), 0, bytes.size())),
+        new ProtoReader(ProtoInput.of(ByteBuffer.wrap(bytes.toByteArray()))),
+        new ProtoReader(ProtoInput.of(direct)));
+  }
+
+  private static String cachedString(StringCache cache, String value) throws IOException {
+    byte[] bytes = value.getBytes("UTF-8");
+    return cache.get(bytes, 0, bytes.length);
+  }
+
+  /** Reads a packed field of {@code count} varints with a pooled reader, then releases it. */
+  private static ProtoReader readPackedVarintsAndRelease(int count) throws IOException {
+    Buffer buffer = new Buffer();
+    ProtoAdapter.INT32.asPacked().encodeWithTag(
+        new ProtoWriter(buffer), 1, IntList.of(new int[count]));
+    byte[] bytes = buffer.readByteArray();
+    ProtoReader reader = ProtoReader.acquire();
+    reader.reset(bytes, 0, bytes.length);
+    long token = reader.beginMessage();
+    assertThat(reader.nextTag()).isEqualTo(1);
+    assertThat(reader.readPackedVarint32()).hasSize(count);
+    reader.endMessage(token);
+    reader.release();
+    return reader;
+  }
 }
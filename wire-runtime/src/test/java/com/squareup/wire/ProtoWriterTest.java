@@ -17,6 +17,7 @@ package com.squareup.wire;
 
 import java.io.IOException;
 import okio.Buffer;
+import okio.ByteString;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,6 +53,24 @@ public final class ProtoWriterTest {
     assertUtf8("\udc00", "3f"); // Unexpected, dangling low surrogate.
   }
 
+  @Test public void resetWritesToNewSink() throws IOException {
+    Buffer first = new Buffer();
+    ProtoWriter writer = new ProtoWriter(first);
+    writer.writeVarint32(150);
+
+    Buffer second = new Buffer();
+    writer.reset(second);
+    writer.writeVarint32(1);
+    assertThat(first.readByteString()).isEqualTo(ByteString.decodeHex("9601"));
+    assertThat(second.readByteString()).isEqualTo(ByteString.decodeHex("01"));
+
+    byte[] bytes = new byte[4];
+    ByteArrayOutput output = writer.reset(bytes, 1, 2);
+    writer.writeVarint32(150);
+    assertThat(output.byteCount()).isEqualTo(2);
+    assertThat(ByteString.of(bytes)).isEqualTo(ByteString.decodeHex("00960100"));
+  }
+
   private void assertUtf8(String string, String expectedHex) throws IOException {
     Buffer buffer = new Buffer();
     ProtoWriter writer = new ProtoWriter(buffer);
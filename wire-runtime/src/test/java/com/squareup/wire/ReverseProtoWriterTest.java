@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015 Square Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.squareup.wire;
+
+import com.squareup.wire.protos.alltypes.AllTypes;
+import com.squareup.wire.protos.compact.CompactEncoded;
+import com.squareup.wire.protos.edgecases.Recursive;
+import com.squareup.wire.protos.reverseencoders.ReverseEncoded;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import okio.Buffer;
+import okio.ByteString;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ReverseProtoWriterTest {
+  @Test public void valuesAppearInReverseOrderOfWriting() throws IOException {
+    ReverseProtoWriter writer = new ReverseProtoWriter(0);
+    writer.writeFixed64(0x0102030405060708L);
+    writer.writeFixed32(0x01020304);
+    writer.writeVarint64(-1L);
+    writer.writeVarint32(300);
+    writer.writeBytes(ByteString.decodeHex("abcd"));
+    writer.writeBytes(ByteBuffer.wrap(new byte[] {0x12, 0x34}));
+    writer.writeTag(1, FieldEncoding.LENGTH_DELIMITED);
+    assertThat(writer.byteCount()).isEqualTo(29);
+    assertThat(ByteString.of(writer.toByteArray())).isEqualTo(ByteString.decodeHex("0a1234abcd"
+        + "ac02ffffffffffffffffff01" + "04030201" + "0807060504030201"));
+
+    Buffer buffer = new Buffer();
+    writer.writeTo(buffer);
+    assertThat(buffer.size()).isEqualTo(29);
+  }
+
+  @Test public void utf8() throws IOException {
+    assertUtf8("", "");
+    assertUtf8("A", "41");
+    assertUtf8("\u07ff", "dfbf");
+    assertUtf8("\uffff", "efbfbf");
+    assertUtf8("\ud800\udc00", "f0908080");
+    assertUtf8("\ud800", "3f"); // Dangling high surrogate.
+    assertUtf8("\ud800\ue000", "3fee8080"); // High surrogate followed by a 3 byte code point.
+    assertUtf8("\ud800\ud800\udc00", "3ff0908080"); // High surrogate followed by surrogate pair.
+    assertUtf8("\udc00A", "3f41"); // Unexpected low surrogate.
+  }
+
+  @Test public void generatedAdapterMatchesForwardEncoding() throws IOException {
+    AllTypes allTypes = AllTypes.ADAPTER.decode(TestAllTypesData.expectedOutput.toByteArray());
+    ReverseProtoWriter writer = new ReverseProtoWriter();
+    AllTypes.ADAPTER.encode(writer, allTypes);
+    assertThat(ByteString.of(writer.toByteArray())).isEqualTo(TestAllTypesData.expectedOutput);
+  }
+
+  @Test public void repeatedValuesKeepTheirOrder() throws IOException {
+    IntList values = IntList.of(1, -2, 300);
+    assertReverseMatchesForward(ProtoAdapter.SINT32.asPacked(), values);
+    assertReverseMatchesForward(ProtoAdapter.SINT32.asPacked(), Arrays.asList(1, -2, 300));
+    assertReverseMatchesForward(ProtoAdapter.INT32.asRepeated(), values);
+    assertReverseMatchesForward(ProtoAdapter.STRING.asRepeated(), Arrays.asList("a", "bc"));
+  }
+
+  @Test public void deeplyNestedMessage() throws IOException {
+    Recursive node = null;
+    for (int i = 0; i < 20; i++) {
+      node = new Recursive.Builder().value(i).recursive(node).build();
+    }
+    ReverseProtoWriter writer = new ReverseProtoWriter(0);
+    Recursive.ADAPTER.encode(writer, node);
+    assertThat(writer.toByteArray()).isEqualTo(Recursive.ADAPTER.encode(node));
+  }
+
+  @Test public void generatedReverseEncoderMatchesForwardEncoding() throws IOException {
+    ReverseEncoded leaf = new ReverseEncoded.Builder()
+        .opt_string("leaf")
+        .pack_float(Arrays.asList(1.5f, -2f))
+        .build();
+    ReverseEncoded message = new ReverseEncoded.Builder()
+        .opt_int32(-1)
+        .opt_sint64(-300L)
+        .opt_fixed32(0x01020304)
+        .opt_double(2.5d)
+        .opt_bool(true)
+        .opt_string("\u00e9t\u00e9")
+        .opt_bytes(ByteString.decodeHex("cafe"))
+        .opt_color(ReverseEncoded.Color.GREEN)
+        .child(leaf)
+        .rep_string(Arrays.asList("a", "", "bc"))
+        .pack_int32(Arrays.asList(1, -2, 300))
+        .pack_float(Arrays.asList(0f, 3.25f))
+        .children(Arrays.asList(leaf, new ReverseEncoded.Builder().child(leaf).build()))
+        .lazy_child(Lazy.of(ReverseEncoded.ADAPTER, leaf))
+        .lazy_children(Arrays.asList(Lazy.of(ReverseEncoded.ADAPTER, leaf), encodedLazy(leaf)))
+        .build();
+
+    ReverseProtoWriter writer = new ReverseProtoWriter(0);
+    ReverseEncoded.ADAPTER.encode(writer, message);
+    byte[] reversed = writer.toByteArray();
+    assertThat(reversed).isEqualTo(ReverseEncoded.ADAPTER.encode(message));
+    assertThat(ReverseEncoded.ADAPTER.decode(reversed)).isEqualTo(message);
+  }
+
+  @Test public void reflectiveAdapterMatchesForwardEncoding() throws IOException {
+    CompactEncoded leaf = new CompactEncoded.Builder()
+        .opt_string("leaf")
+        .pack_int32(Arrays.asList(7, -8))
+        .build();
+    CompactEncoded message = new CompactEncoded.Builder()
+        .opt_int32(300)
+        .opt_sint64(-1L)
+        .opt_double(-0.5d)
+        .opt_string("\ud800\udc00")
+        .opt_bytes(ByteString.decodeHex("00ff"))
+        .opt_color(CompactEncoded.Color.GREEN)
+        .child(leaf)
+        .rep_string(Arrays.asList("x", "yz"))
+        .pack_int32(Arrays.asList(0, Integer.MIN_VALUE))
+        .children(Arrays.asList(leaf, leaf))
+        .lazy_child(Lazy.of(CompactEncoded.ADAPTER, leaf))
+        .build();
+    assertThat(CompactEncoded.ADAPTER).isInstanceOf(RuntimeMessageAdapter.class);
+
+    ReverseProtoWriter writer = new ReverseProtoWriter(0);
+    CompactEncoded.ADAPTER.encode(writer, message);
+    byte[] reversed = writer.toByteArray();
+    assertThat(reversed).isEqualTo(CompactEncoded.ADAPTER.encode(message));
+    assertThat(CompactEncoded.ADAPTER.decode(reversed)).isEqualTo(message);
+  }
+
+  @Test public void packedAndLazyAdaptersWriteInReverse() throws IOException {
+    assertReverseMatchesForward(ProtoAdapter.INT32.asPacked(), Arrays.asList(1, -2, 300));
+    assertReverseMatchesForward(ProtoAdapter.DOUBLE.asPacked(), Arrays.asList(1.5d, -0d));
+    ReverseEncoded leaf = new ReverseEncoded.Builder().opt_int32(1).rep_string(Arrays.asList("a"))
+        .build();
+    assertReverseMatchesForward(ReverseEncoded.ADAPTER.asLazy(),
+        Lazy.of(ReverseEncoded.ADAPTER, leaf));
+    assertReverseMatchesForward(ReverseEncoded.ADAPTER.asLazy(), encodedLazy(leaf));
+  }
+
+  /** Returns a lazy value holding the encoded bytes of {@code value}, as decoding produces. */
+  private Lazy<ReverseEncoded> encodedLazy(ReverseEncoded value) throws IOException {
+    ReverseEncoded holder = new ReverseEncoded.Builder()
+        .lazy_child(Lazy.of(ReverseEncoded.ADAPTER, value))
+        .build();
+    Lazy<ReverseEncoded> result =
+        ReverseEncoded.ADAPTER.decode(ReverseEncoded.ADAPTER.encode(holder)).lazy_child;
+    assertThat(result.isDecoded()).isFalse();
+    return result;
+  }
+
+  private <E> void assertReverseMatchesForward(ProtoAdapter<E> adapter, E value)
+      throws IOException {
+    ReverseProtoWriter writer = new ReverseProtoWriter();
+    adapter.encodeWithTag(writer, 1, value);
+    Buffer buffer = new Buffer();
+    adapter.encodeWithTag(new ProtoWriter(buffer), 1, value);
+    assertThat(ByteString.of(writer.toByteArray())).isEqualTo(buffer.readByteString());
+  }
+
+  private void assertUtf8(String string, String expectedHex) {
+    ReverseProtoWriter writer = new ReverseProtoWriter(0);
+    writer.writeString(string);
+    assertThat(ByteString.of(writer.toByteArray()).hex()).isEqualTo(expectedHex);
+  }
+}
@@ -18,8 +18,12 @@ package com.squareup.wire;
 import com.squareup.wire.protos.alltypes.AllTypes;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -29,7 +33,9 @@ import okio.ForwardingSource;
 import okio.Okio;
 import okio.Source;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static com.squareup.wire.protos.alltypes.AllTypes.NestedEnum.A;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -128,6 +134,8 @@ public class TestAllTypes {
         .ext_pack_bool(list(true, numRepeated));
   }
 
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   private final AllTypes allTypes = createAllTypes();
   private final ProtoAdapter<AllTypes> adapter = AllTypes.ADAPTER;
 
@@ -385,6 +393,33 @@ public class TestAllTypes {
     assertThat(allTypes.ext_pack_bool).isEqualTo(list(true, 50));
   }
 
+  @Test
+  public void testReadMappedFile() throws IOException {
+    AllTypes allTypes = createAllTypes(50);
+    byte[] data = adapter.encode(allTypes);
+    File file = temporaryFolder.newFile();
+    FileOutputStream out = new FileOutputStream(file);
+    out.write(new byte[] { 1, 2, 3 }); // Skipped by positioning the channel.
+    out.write(data);
+    out.close();
+
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      channel.position(3);
+      assertThat(adapter.decode(ProtoReader.mapped(channel))).isEqualTo(allTypes);
+
+      // Tiny windows force values to straddle window boundaries.
+      for (int windowSize : new int[] { 1, 7, 64 }) {
+        ProtoInput input = new MappedFileInput(channel, 3, channel.size(), windowSize);
+        assertThat(adapter.decode(new ProtoReader(input))).isEqualTo(allTypes);
+        assertThat(input.exhausted()).isTrue();
+      }
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
   /** A source that returns 1, 2, 3, or 4 bytes at a time. */
   private static class SlowSource extends ForwardingSource {
     private long pos;
@@ -18,7 +18,10 @@ package com.squareup.wire;
 import com.squareup.wire.protos.unknownfields.VersionOne;
 import com.squareup.wire.protos.unknownfields.VersionTwo;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import okio.Buffer;
+import okio.ByteString;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -89,4 +92,37 @@ public class UnknownFieldsTest {
     assertThat(v2C.v2_f64).isEqualTo(new Long(98765L));
     assertThat(v2C.v2_rs).containsExactly("1", "2");
   }
+
+  @Test
+  public void unknownFieldsCopiedFromInput() throws IOException {
+    VersionTwo v2 = new VersionTwo.Builder()
+        .i(111)
+        .v2_i(12345)
+        .v2_s("222")
+        .v2_rs(Arrays.asList("1", "2"))
+        .build();
+    byte[] v2Bytes = v2Adapter.encode(v2);
+
+    // The run of unknown fields following i is kept exactly as it was encoded.
+    VersionOne v1 = v1Adapter.decode(v2Bytes);
+    assertThat(v1.unknownFields()).isEqualTo(ByteString.of(v2Bytes, 2, v2Bytes.length - 2));
+    assertThat(ByteString.of(v1Adapter.encode(v1))).isEqualTo(ByteString.of(v2Bytes));
+  }
+
+  @Test
+  public void unknownFieldsAroundKnownField() throws IOException {
+    ByteString encoded = ByteString.decodeHex("100208011a0161");
+    ByteString expected = ByteString.decodeHex("10021a0161");
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(encoded.size());
+    direct.put(encoded.toByteArray());
+    direct.flip();
+    VersionOne fromArray = v1Adapter.decode(encoded.toByteArray());
+    VersionOne fromBuffer = v1Adapter.decode(direct);
+    VersionOne fromSource = v1Adapter.decode(new Buffer().write(encoded));
+    for (VersionOne v1 : Arrays.asList(fromArray, fromBuffer, fromSource)) {
+      assertThat(v1.i).isEqualTo(1);
+      assertThat(v1.unknownFields()).isEqualTo(expected);
+    }
+  }
 }
@@ -17,6 +17,7 @@ package com.squareup.wire;
 
 import com.squareup.wire.protos.RepeatedAndPacked;
 import com.squareup.wire.protos.edgecases.NoFields;
+import com.squareup.wire.protos.edgecases.Recursive;
 import com.squareup.wire.protos.person.Person;
 import com.squareup.wire.protos.person.Person.PhoneNumber;
 import com.squareup.wire.protos.person.Person.PhoneType;
@@ -376,6 +377,60 @@ public class WireTest {
     assertThat(empty.toString()).isEqualTo("NoFields{}");
   }
 
+  @Test public void nestedSizesComputedOnce() throws IOException {
+    List<Recursive> nodes = new ArrayList<>();
+    Recursive node = null;
+    for (int i = 0; i < 20; i++) {
+      node = new Recursive.Builder().value(i).recursive(node).build();
+      nodes.add(node);
+    }
+
+    Buffer buffer = new Buffer();
+    Recursive.ADAPTER.encode(buffer, node);
+
+    // Each nested node's size is memoized on first use, so encoding visits each node a constant
+    // number of times rather than once per ancestor. The root is written without being sized.
+    assertThat(node.cachedSerializedSize).isEqualTo(0);
+    for (Recursive nested : nodes.subList(0, nodes.size() - 1)) {
+      assertThat(nested.cachedSerializedSize).isEqualTo(Recursive.ADAPTER.encode(nested).length);
+    }
+    assertThat(buffer.size()).isEqualTo(Recursive.ADAPTER.encodedSize(node));
+    assertThat(Recursive.ADAPTER.decode(buffer)).isEqualTo(node);
+  }
+
+  @Test public void encodedBytesMemoized() throws IOException {
+    Recursive child = new Recursive.Builder().value(2).build();
+    Recursive parent = new Recursive.Builder().value(3).recursive(child).build();
+    ByteString encoded = child.encodedBytes();
+    assertThat(encoded).isEqualTo(ByteString.decodeHex("0802"));
+    assertThat(child.encodedBytes()).isSameAs(encoded);
+    assertThat(child.cachedSerializedSize).isEqualTo(2);
+    assertThat(ByteString.of(Recursive.ADAPTER.encode(parent)))
+        .isEqualTo(ByteString.decodeHex("080312020802"));
+  }
+
+  @Test public void decodedBytesRetained() throws IOException {
+    // A repeated scalar field isn't canonical: the last value wins when decoding.
+    ByteString source = ByteString.decodeHex("08010802");
+    Recursive child = Recursive.ADAPTER.decodeRetained(source);
+    assertThat(child.value).isEqualTo(2);
+    assertThat(child.encodedBytes()).isSameAs(source);
+
+    // Re-encoding copies the source bytes rather than encoding the decoded fields.
+    assertThat(ByteString.of(Recursive.ADAPTER.encode(child))).isEqualTo(source);
+    Recursive parent = new Recursive.Builder().value(3).recursive(child).build();
+    ByteString expected = ByteString.decodeHex("0803120408010802");
+    assertThat(ByteString.of(Recursive.ADAPTER.encode(parent))).isEqualTo(expected);
+    Buffer buffer = new Buffer();
+    Recursive.ADAPTER.encode(buffer, parent);
+    assertThat(buffer.readByteString()).isEqualTo(expected);
+    ReverseProtoWriter reverseWriter = new ReverseProtoWriter();
+    Recursive.ADAPTER.encodeWithTag(reverseWriter, 2, child);
+    assertThat(ByteString.of(reverseWriter.toByteArray()))
+        .isEqualTo(ByteString.decodeHex("120408010802"));
+    assertThat(Recursive.ADAPTER.decode(expected.toByteArray())).isEqualTo(parent);
+  }
+
   @Test
   public void extensionNameCollisions() throws Exception {
     CollisionSubject collisionSubject = new CollisionSubject.Builder()
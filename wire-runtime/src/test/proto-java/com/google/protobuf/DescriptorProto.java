@@ -23,7 +23,9 @@ public final class DescriptorProto extends Message<DescriptorProto, DescriptorPr
   public static final ProtoAdapter<DescriptorProto> ADAPTER = new ProtoAdapter<DescriptorProto>(FieldEncoding.LENGTH_DELIMITED, DescriptorProto.class) {
     @Override
     public int encodedSize(DescriptorProto value) {
-      return (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
           + (value.doc != null ? ProtoAdapter.STRING.encodedSizeWithTag(8, value.doc) : 0)
           + FieldDescriptorProto.ADAPTER.asRepeated().encodedSizeWithTag(2, value.field)
           + FieldDescriptorProto.ADAPTER.asRepeated().encodedSizeWithTag(6, value.extension)
@@ -32,6 +34,8 @@ public final class DescriptorProto extends Message<DescriptorProto, DescriptorPr
           + ExtensionRange.ADAPTER.asRepeated().encodedSizeWithTag(5, value.extension_range)
           + (value.options != null ? MessageOptions.ADAPTER.encodedSizeWithTag(7, value.options) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -62,9 +66,7 @@ public final class DescriptorProto extends Message<DescriptorProto, DescriptorPr
           case 5: builder.extension_range.add(ExtensionRange.ADAPTER.decode(reader)); break;
           case 7: builder.options(MessageOptions.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -273,9 +275,13 @@ public final class DescriptorProto extends Message<DescriptorProto, DescriptorPr
     public static final ProtoAdapter<ExtensionRange> ADAPTER = new ProtoAdapter<ExtensionRange>(FieldEncoding.LENGTH_DELIMITED, ExtensionRange.class) {
       @Override
       public int encodedSize(ExtensionRange value) {
-        return (value.start != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.start) : 0)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = (value.start != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.start) : 0)
             + (value.end != null ? ProtoAdapter.INT32.encodedSizeWithTag(2, value.end) : 0)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -294,9 +300,7 @@ public final class DescriptorProto extends Message<DescriptorProto, DescriptorPr
             case 1: builder.start(ProtoAdapter.INT32.decode(reader)); break;
             case 2: builder.end(ProtoAdapter.INT32.decode(reader)); break;
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
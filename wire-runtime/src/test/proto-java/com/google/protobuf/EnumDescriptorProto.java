@@ -22,11 +22,15 @@ public final class EnumDescriptorProto extends Message<EnumDescriptorProto, Enum
   public static final ProtoAdapter<EnumDescriptorProto> ADAPTER = new ProtoAdapter<EnumDescriptorProto>(FieldEncoding.LENGTH_DELIMITED, EnumDescriptorProto.class) {
     @Override
     public int encodedSize(EnumDescriptorProto value) {
-      return (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
           + (value.doc != null ? ProtoAdapter.STRING.encodedSizeWithTag(4, value.doc) : 0)
           + EnumValueDescriptorProto.ADAPTER.asRepeated().encodedSizeWithTag(2, value.value)
           + (value.options != null ? EnumOptions.ADAPTER.encodedSizeWithTag(3, value.options) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -49,9 +53,7 @@ public final class EnumDescriptorProto extends Message<EnumDescriptorProto, Enum
           case 2: builder.value.add(EnumValueDescriptorProto.ADAPTER.decode(reader)); break;
           case 3: builder.options(EnumOptions.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -20,9 +20,13 @@ public final class EnumOptions extends Message<EnumOptions, EnumOptions.Builder>
   public static final ProtoAdapter<EnumOptions> ADAPTER = new ProtoAdapter<EnumOptions>(FieldEncoding.LENGTH_DELIMITED, EnumOptions.class) {
     @Override
     public int encodedSize(EnumOptions value) {
-      return UninterpretedOption.ADAPTER.asRepeated().encodedSizeWithTag(999, value.uninterpreted_option)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = UninterpretedOption.ADAPTER.asRepeated().encodedSizeWithTag(999, value.uninterpreted_option)
           + (value.enum_option != null ? ProtoAdapter.BOOL.encodedSizeWithTag(71000, value.enum_option) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -41,9 +45,7 @@ public final class EnumOptions extends Message<EnumOptions, EnumOptions.Builder>
           case 999: builder.uninterpreted_option.add(UninterpretedOption.ADAPTER.decode(reader)); break;
           case 71000: builder.enum_option(ProtoAdapter.BOOL.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -22,11 +22,15 @@ public final class EnumValueDescriptorProto extends Message<EnumValueDescriptorP
   public static final ProtoAdapter<EnumValueDescriptorProto> ADAPTER = new ProtoAdapter<EnumValueDescriptorProto>(FieldEncoding.LENGTH_DELIMITED, EnumValueDescriptorProto.class) {
     @Override
     public int encodedSize(EnumValueDescriptorProto value) {
-      return (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
           + (value.doc != null ? ProtoAdapter.STRING.encodedSizeWithTag(4, value.doc) : 0)
           + (value.number != null ? ProtoAdapter.INT32.encodedSizeWithTag(2, value.number) : 0)
           + (value.options != null ? EnumValueOptions.ADAPTER.encodedSizeWithTag(3, value.options) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -49,9 +53,7 @@ public final class EnumValueDescriptorProto extends Message<EnumValueDescriptorP
           case 2: builder.number(ProtoAdapter.INT32.decode(reader)); break;
           case 3: builder.options(EnumValueOptions.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
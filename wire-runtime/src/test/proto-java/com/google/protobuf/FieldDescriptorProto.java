@@ -23,7 +23,9 @@ public final class FieldDescriptorProto extends Message<FieldDescriptorProto, Fi
   public static final ProtoAdapter<FieldDescriptorProto> ADAPTER = new ProtoAdapter<FieldDescriptorProto>(FieldEncoding.LENGTH_DELIMITED, FieldDescriptorProto.class) {
     @Override
     public int encodedSize(FieldDescriptorProto value) {
-      return (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
           + (value.doc != null ? ProtoAdapter.STRING.encodedSizeWithTag(9, value.doc) : 0)
           + (value.number != null ? ProtoAdapter.INT32.encodedSizeWithTag(3, value.number) : 0)
           + (value.label != null ? Label.ADAPTER.encodedSizeWithTag(4, value.label) : 0)
@@ -33,6 +35,8 @@ public final class FieldDescriptorProto extends Message<FieldDescriptorProto, Fi
           + (value.default_value != null ? ProtoAdapter.STRING.encodedSizeWithTag(7, value.default_value) : 0)
           + (value.options != null ? FieldOptions.ADAPTER.encodedSizeWithTag(8, value.options) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -79,9 +83,7 @@ public final class FieldDescriptorProto extends Message<FieldDescriptorProto, Fi
           case 7: builder.default_value(ProtoAdapter.STRING.decode(reader)); break;
           case 8: builder.options(FieldOptions.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -24,7 +24,9 @@ public final class FieldOptions extends Message<FieldOptions, FieldOptions.Build
   public static final ProtoAdapter<FieldOptions> ADAPTER = new ProtoAdapter<FieldOptions>(FieldEncoding.LENGTH_DELIMITED, FieldOptions.class) {
     @Override
     public int encodedSize(FieldOptions value) {
-      return (value.ctype != null ? CType.ADAPTER.encodedSizeWithTag(1, value.ctype) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.ctype != null ? CType.ADAPTER.encodedSizeWithTag(1, value.ctype) : 0)
           + (value.packed != null ? ProtoAdapter.BOOL.encodedSizeWithTag(2, value.packed) : 0)
           + (value.deprecated != null ? ProtoAdapter.BOOL.encodedSizeWithTag(3, value.deprecated) : 0)
           + (value.experimental_map_key != null ? ProtoAdapter.STRING.encodedSizeWithTag(9, value.experimental_map_key) : 0)
@@ -35,6 +37,8 @@ public final class FieldOptions extends Message<FieldOptions, FieldOptions.Build
           + (value.my_field_option_four != null ? FooBar.ADAPTER.encodedSizeWithTag(60004, value.my_field_option_four) : 0)
           + (value.redacted != null ? ProtoAdapter.BOOL.encodedSizeWithTag(22200, value.redacted) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -83,9 +87,7 @@ public final class FieldOptions extends Message<FieldOptions, FieldOptions.Build
           case 60004: builder.my_field_option_four(FooBar.ADAPTER.decode(reader)); break;
           case 22200: builder.redacted(ProtoAdapter.BOOL.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -22,7 +22,9 @@ public final class FileDescriptorProto extends Message<FileDescriptorProto, File
   public static final ProtoAdapter<FileDescriptorProto> ADAPTER = new ProtoAdapter<FileDescriptorProto>(FieldEncoding.LENGTH_DELIMITED, FileDescriptorProto.class) {
     @Override
     public int encodedSize(FileDescriptorProto value) {
-      return (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.name) : 0)
           + (value.package_ != null ? ProtoAdapter.STRING.encodedSizeWithTag(2, value.package_) : 0)
           + ProtoAdapter.STRING.asRepeated().encodedSizeWithTag(3, value.dependency)
           + DescriptorProto.ADAPTER.asRepeated().encodedSizeWithTag(4, value.message_type)
@@ -32,6 +34,8 @@ public final class FileDescriptorProto extends Message<FileDescriptorProto, File
           + (value.options != null ? FileOptions.ADAPTER.encodedSizeWithTag(8, value.options) : 0)
           + (value.source_code_info != null ? SourceCodeInfo.ADAPTER.encodedSizeWithTag(9, value.source_code_info) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -64,9 +68,7 @@ public final class FileDescriptorProto extends Message<FileDescriptorProto, File
           case 8: builder.options(FileOptions.ADAPTER.decode(reader)); break;
           case 9: builder.source_code_info(SourceCodeInfo.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
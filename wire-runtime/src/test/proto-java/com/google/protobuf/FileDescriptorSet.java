@@ -23,8 +23,12 @@ public final class FileDescriptorSet extends Message<FileDescriptorSet, FileDesc
   public static final ProtoAdapter<FileDescriptorSet> ADAPTER = new ProtoAdapter<FileDescriptorSet>(FieldEncoding.LENGTH_DELIMITED, FileDescriptorSet.class) {
     @Override
     public int encodedSize(FileDescriptorSet value) {
-      return FileDescriptorProto.ADAPTER.asRepeated().encodedSizeWithTag(1, value.file)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = FileDescriptorProto.ADAPTER.asRepeated().encodedSizeWithTag(1, value.file)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -41,9 +45,7 @@ public final class FileDescriptorSet extends Message<FileDescriptorSet, FileDesc
         switch (tag) {
           case 1: builder.file.add(FileDescriptorProto.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -48,7 +48,9 @@ public final class FileOptions extends Message<FileOptions, FileOptions.Builder>
   public static final ProtoAdapter<FileOptions> ADAPTER = new ProtoAdapter<FileOptions>(FieldEncoding.LENGTH_DELIMITED, FileOptions.class) {
     @Override
     public int encodedSize(FileOptions value) {
-      return (value.java_package != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.java_package) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.java_package != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.java_package) : 0)
           + (value.java_outer_classname != null ? ProtoAdapter.STRING.encodedSizeWithTag(8, value.java_outer_classname) : 0)
           + (value.java_multiple_files != null ? ProtoAdapter.BOOL.encodedSizeWithTag(10, value.java_multiple_files) : 0)
           + (value.java_generate_equals_and_hash != null ? ProtoAdapter.BOOL.encodedSizeWithTag(20, value.java_generate_equals_and_hash) : 0)
@@ -58,6 +60,8 @@ public final class FileOptions extends Message<FileOptions, FileOptions.Builder>
           + (value.py_generic_services != null ? ProtoAdapter.BOOL.encodedSizeWithTag(18, value.py_generic_services) : 0)
           + UninterpretedOption.ADAPTER.asRepeated().encodedSizeWithTag(999, value.uninterpreted_option)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -97,9 +101,7 @@ public final class FileOptions extends Message<FileOptions, FileOptions.Builder>
           case 18: builder.py_generic_services(ProtoAdapter.BOOL.decode(reader)); break;
           case 999: builder.uninterpreted_option.add(UninterpretedOption.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -75,9 +75,7 @@ public final class MessageOptions extends Message<MessageOptions, MessageOptions
           case 50006: builder.my_message_option_six(FooBar.ADAPTER.decode(reader)); break;
           case 50007: builder.foreign_message_option(ForeignMessage.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -26,8 +26,12 @@ public final class SourceCodeInfo extends Message<SourceCodeInfo, SourceCodeInfo
   public static final ProtoAdapter<SourceCodeInfo> ADAPTER = new ProtoAdapter<SourceCodeInfo>(FieldEncoding.LENGTH_DELIMITED, SourceCodeInfo.class) {
     @Override
     public int encodedSize(SourceCodeInfo value) {
-      return Location.ADAPTER.asRepeated().encodedSizeWithTag(1, value.location)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = Location.ADAPTER.asRepeated().encodedSizeWithTag(1, value.location)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -44,9 +48,7 @@ public final class SourceCodeInfo extends Message<SourceCodeInfo, SourceCodeInfo
         switch (tag) {
           case 1: builder.location.add(Location.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -224,9 +226,13 @@ public final class SourceCodeInfo extends Message<SourceCodeInfo, SourceCodeInfo
     public static final ProtoAdapter<Location> ADAPTER = new ProtoAdapter<Location>(FieldEncoding.LENGTH_DELIMITED, Location.class) {
       @Override
       public int encodedSize(Location value) {
-        return ProtoAdapter.INT32.asPacked().encodedSizeWithTag(1, value.path)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = ProtoAdapter.INT32.asPacked().encodedSizeWithTag(1, value.path)
             + ProtoAdapter.INT32.asPacked().encodedSizeWithTag(2, value.span)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -242,12 +248,10 @@ public final class SourceCodeInfo extends Message<SourceCodeInfo, SourceCodeInfo
         long token = reader.beginMessage();
         for (int tag; (tag = reader.nextTag()) != -1;) {
           switch (tag) {
-            case 1: builder.path.add(ProtoAdapter.INT32.decode(reader)); break;
-            case 2: builder.span.add(ProtoAdapter.INT32.decode(reader)); break;
+            case 1: builder.path.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
+            case 2: builder.span.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -30,7 +30,9 @@ public final class UninterpretedOption extends Message<UninterpretedOption, Unin
   public static final ProtoAdapter<UninterpretedOption> ADAPTER = new ProtoAdapter<UninterpretedOption>(FieldEncoding.LENGTH_DELIMITED, UninterpretedOption.class) {
     @Override
     public int encodedSize(UninterpretedOption value) {
-      return NamePart.ADAPTER.asRepeated().encodedSizeWithTag(2, value.name)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = NamePart.ADAPTER.asRepeated().encodedSizeWithTag(2, value.name)
           + (value.identifier_value != null ? ProtoAdapter.STRING.encodedSizeWithTag(3, value.identifier_value) : 0)
           + (value.positive_int_value != null ? ProtoAdapter.UINT64.encodedSizeWithTag(4, value.positive_int_value) : 0)
           + (value.negative_int_value != null ? ProtoAdapter.INT64.encodedSizeWithTag(5, value.negative_int_value) : 0)
@@ -38,6 +40,8 @@ public final class UninterpretedOption extends Message<UninterpretedOption, Unin
           + (value.string_value != null ? ProtoAdapter.BYTES.encodedSizeWithTag(7, value.string_value) : 0)
           + (value.aggregate_value != null ? ProtoAdapter.STRING.encodedSizeWithTag(8, value.aggregate_value) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -66,9 +70,7 @@ public final class UninterpretedOption extends Message<UninterpretedOption, Unin
           case 7: builder.string_value(ProtoAdapter.BYTES.decode(reader)); break;
           case 8: builder.aggregate_value(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -267,9 +269,13 @@ public final class UninterpretedOption extends Message<UninterpretedOption, Unin
     public static final ProtoAdapter<NamePart> ADAPTER = new ProtoAdapter<NamePart>(FieldEncoding.LENGTH_DELIMITED, NamePart.class) {
       @Override
       public int encodedSize(NamePart value) {
-        return ProtoAdapter.STRING.encodedSizeWithTag(1, value.name_part)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = ProtoAdapter.STRING.encodedSizeWithTag(1, value.name_part)
             + ProtoAdapter.BOOL.encodedSizeWithTag(2, value.is_extension)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -288,9 +294,7 @@ public final class UninterpretedOption extends Message<UninterpretedOption, Unin
             case 1: builder.name_part(ProtoAdapter.STRING.decode(reader)); break;
             case 2: builder.is_extension(ProtoAdapter.BOOL.decode(reader)); break;
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -33,9 +33,7 @@ public final class Bar extends Message<Bar, Bar.Builder> {
       for (int tag; (tag = reader.nextTag()) != -1;) {
         switch (tag) {
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -113,9 +111,7 @@ public final class Bar extends Message<Bar, Bar.Builder> {
         for (int tag; (tag = reader.nextTag()) != -1;) {
           switch (tag) {
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -178,8 +174,12 @@ public final class Bar extends Message<Bar, Bar.Builder> {
       public static final ProtoAdapter<Moo> ADAPTER = new ProtoAdapter<Moo>(FieldEncoding.LENGTH_DELIMITED, Moo.class) {
         @Override
         public int encodedSize(Moo value) {
-          return (value.boo != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.boo) : 0)
+          int result = value.cachedSerializedSize;
+          if (result != 0) return result;
+          result = (value.boo != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.boo) : 0)
               + value.unknownFields().size();
+          value.cachedSerializedSize = result;
+          return result;
         }
 
         @Override
@@ -196,9 +196,7 @@ public final class Bar extends Message<Bar, Bar.Builder> {
             switch (tag) {
               case 1: builder.boo(ProtoAdapter.STRING.decode(reader)); break;
               default: {
-                FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-                Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-                builder.addUnknownField(tag, fieldEncoding, value);
+                reader.readUnknownField(builder);
               }
             }
           }
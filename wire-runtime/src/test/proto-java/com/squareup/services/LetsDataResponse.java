@@ -18,8 +18,12 @@ public final class LetsDataResponse extends Message<LetsDataResponse, LetsDataRe
   public static final ProtoAdapter<LetsDataResponse> ADAPTER = new ProtoAdapter<LetsDataResponse>(FieldEncoding.LENGTH_DELIMITED, LetsDataResponse.class) {
     @Override
     public int encodedSize(LetsDataResponse value) {
-      return (value.data != null ? ProtoAdapter.BYTES.encodedSizeWithTag(1, value.data) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.data != null ? ProtoAdapter.BYTES.encodedSizeWithTag(1, value.data) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -36,9 +40,7 @@ public final class LetsDataResponse extends Message<LetsDataResponse, LetsDataRe
         switch (tag) {
           case 1: builder.data(ProtoAdapter.BYTES.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -19,8 +19,12 @@ public final class ChildPackage extends Message<ChildPackage, ChildPackage.Build
   public static final ProtoAdapter<ChildPackage> ADAPTER = new ProtoAdapter<ChildPackage>(FieldEncoding.LENGTH_DELIMITED, ChildPackage.class) {
     @Override
     public int encodedSize(ChildPackage value) {
-      return (value.inner_foreign_enum != null ? ForeignEnum.ADAPTER.encodedSizeWithTag(1, value.inner_foreign_enum) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.inner_foreign_enum != null ? ForeignEnum.ADAPTER.encodedSizeWithTag(1, value.inner_foreign_enum) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -44,9 +48,7 @@ public final class ChildPackage extends Message<ChildPackage, ChildPackage.Build
             break;
           }
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -20,9 +20,13 @@ public final class RepeatedAndPacked extends Message<RepeatedAndPacked, Repeated
   public static final ProtoAdapter<RepeatedAndPacked> ADAPTER = new ProtoAdapter<RepeatedAndPacked>(FieldEncoding.LENGTH_DELIMITED, RepeatedAndPacked.class) {
     @Override
     public int encodedSize(RepeatedAndPacked value) {
-      return ProtoAdapter.INT32.asRepeated().encodedSizeWithTag(201, value.rep_int32)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = ProtoAdapter.INT32.asRepeated().encodedSizeWithTag(201, value.rep_int32)
           + ProtoAdapter.INT32.asPacked().encodedSizeWithTag(301, value.pack_int32)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -39,11 +43,9 @@ public final class RepeatedAndPacked extends Message<RepeatedAndPacked, Repeated
       for (int tag; (tag = reader.nextTag()) != -1;) {
         switch (tag) {
           case 201: builder.rep_int32.add(ProtoAdapter.INT32.decode(reader)); break;
-          case 301: builder.pack_int32.add(ProtoAdapter.INT32.decode(reader)); break;
+          case 301: builder.pack_int32.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
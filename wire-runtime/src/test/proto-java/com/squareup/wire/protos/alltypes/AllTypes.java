@@ -25,7 +25,9 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
   public static final ProtoAdapter<AllTypes> ADAPTER = new ProtoAdapter<AllTypes>(FieldEncoding.LENGTH_DELIMITED, AllTypes.class) {
     @Override
     public int encodedSize(AllTypes value) {
-      return (value.opt_int32 != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.opt_int32) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.opt_int32 != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.opt_int32) : 0)
           + (value.opt_uint32 != null ? ProtoAdapter.UINT32.encodedSizeWithTag(2, value.opt_uint32) : 0)
           + (value.opt_sint32 != null ? ProtoAdapter.SINT32.encodedSizeWithTag(3, value.opt_sint32) : 0)
           + (value.opt_fixed32 != null ? ProtoAdapter.FIXED32.encodedSizeWithTag(4, value.opt_fixed32) : 0)
@@ -155,6 +157,8 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
           + ProtoAdapter.DOUBLE.asPacked().encodedSizeWithTag(1213, value.ext_pack_double)
           + NestedEnum.ADAPTER.asPacked().encodedSizeWithTag(1216, value.ext_pack_nested_enum)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -369,19 +373,19 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
             break;
           }
           case 217: builder.rep_nested_message.add(NestedMessage.ADAPTER.decode(reader)); break;
-          case 301: builder.pack_int32.add(ProtoAdapter.INT32.decode(reader)); break;
-          case 302: builder.pack_uint32.add(ProtoAdapter.UINT32.decode(reader)); break;
-          case 303: builder.pack_sint32.add(ProtoAdapter.SINT32.decode(reader)); break;
-          case 304: builder.pack_fixed32.add(ProtoAdapter.FIXED32.decode(reader)); break;
-          case 305: builder.pack_sfixed32.add(ProtoAdapter.SFIXED32.decode(reader)); break;
-          case 306: builder.pack_int64.add(ProtoAdapter.INT64.decode(reader)); break;
-          case 307: builder.pack_uint64.add(ProtoAdapter.UINT64.decode(reader)); break;
-          case 308: builder.pack_sint64.add(ProtoAdapter.SINT64.decode(reader)); break;
-          case 309: builder.pack_fixed64.add(ProtoAdapter.FIXED64.decode(reader)); break;
-          case 310: builder.pack_sfixed64.add(ProtoAdapter.SFIXED64.decode(reader)); break;
-          case 311: builder.pack_bool.add(ProtoAdapter.BOOL.decode(reader)); break;
-          case 312: builder.pack_float.add(ProtoAdapter.FLOAT.decode(reader)); break;
-          case 313: builder.pack_double.add(ProtoAdapter.DOUBLE.decode(reader)); break;
+          case 301: builder.pack_int32.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
+          case 302: builder.pack_uint32.addAll(ProtoAdapter.UINT32.asPacked().decode(reader)); break;
+          case 303: builder.pack_sint32.addAll(ProtoAdapter.SINT32.asPacked().decode(reader)); break;
+          case 304: builder.pack_fixed32.addAll(ProtoAdapter.FIXED32.asPacked().decode(reader)); break;
+          case 305: builder.pack_sfixed32.addAll(ProtoAdapter.SFIXED32.asPacked().decode(reader)); break;
+          case 306: builder.pack_int64.addAll(ProtoAdapter.INT64.asPacked().decode(reader)); break;
+          case 307: builder.pack_uint64.addAll(ProtoAdapter.UINT64.asPacked().decode(reader)); break;
+          case 308: builder.pack_sint64.addAll(ProtoAdapter.SINT64.asPacked().decode(reader)); break;
+          case 309: builder.pack_fixed64.addAll(ProtoAdapter.FIXED64.asPacked().decode(reader)); break;
+          case 310: builder.pack_sfixed64.addAll(ProtoAdapter.SFIXED64.asPacked().decode(reader)); break;
+          case 311: builder.pack_bool.addAll(ProtoAdapter.BOOL.asPacked().decode(reader)); break;
+          case 312: builder.pack_float.addAll(ProtoAdapter.FLOAT.asPacked().decode(reader)); break;
+          case 313: builder.pack_double.addAll(ProtoAdapter.DOUBLE.asPacked().decode(reader)); break;
           case 316: {
             try {
               builder.pack_nested_enum.add(NestedEnum.ADAPTER.decode(reader));
@@ -461,19 +465,19 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
             break;
           }
           case 1117: builder.ext_rep_nested_message.add(NestedMessage.ADAPTER.decode(reader)); break;
-          case 1201: builder.ext_pack_int32.add(ProtoAdapter.INT32.decode(reader)); break;
-          case 1202: builder.ext_pack_uint32.add(ProtoAdapter.UINT32.decode(reader)); break;
-          case 1203: builder.ext_pack_sint32.add(ProtoAdapter.SINT32.decode(reader)); break;
-          case 1204: builder.ext_pack_fixed32.add(ProtoAdapter.FIXED32.decode(reader)); break;
-          case 1205: builder.ext_pack_sfixed32.add(ProtoAdapter.SFIXED32.decode(reader)); break;
-          case 1206: builder.ext_pack_int64.add(ProtoAdapter.INT64.decode(reader)); break;
-          case 1207: builder.ext_pack_uint64.add(ProtoAdapter.UINT64.decode(reader)); break;
-          case 1208: builder.ext_pack_sint64.add(ProtoAdapter.SINT64.decode(reader)); break;
-          case 1209: builder.ext_pack_fixed64.add(ProtoAdapter.FIXED64.decode(reader)); break;
-          case 1210: builder.ext_pack_sfixed64.add(ProtoAdapter.SFIXED64.decode(reader)); break;
-          case 1211: builder.ext_pack_bool.add(ProtoAdapter.BOOL.decode(reader)); break;
-          case 1212: builder.ext_pack_float.add(ProtoAdapter.FLOAT.decode(reader)); break;
-          case 1213: builder.ext_pack_double.add(ProtoAdapter.DOUBLE.decode(reader)); break;
+          case 1201: builder.ext_pack_int32.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
+          case 1202: builder.ext_pack_uint32.addAll(ProtoAdapter.UINT32.asPacked().decode(reader)); break;
+          case 1203: builder.ext_pack_sint32.addAll(ProtoAdapter.SINT32.asPacked().decode(reader)); break;
+          case 1204: builder.ext_pack_fixed32.addAll(ProtoAdapter.FIXED32.asPacked().decode(reader)); break;
+          case 1205: builder.ext_pack_sfixed32.addAll(ProtoAdapter.SFIXED32.asPacked().decode(reader)); break;
+          case 1206: builder.ext_pack_int64.addAll(ProtoAdapter.INT64.asPacked().decode(reader)); break;
+          case 1207: builder.ext_pack_uint64.addAll(ProtoAdapter.UINT64.asPacked().decode(reader)); break;
+          case 1208: builder.ext_pack_sint64.addAll(ProtoAdapter.SINT64.asPacked().decode(reader)); break;
+          case 1209: builder.ext_pack_fixed64.addAll(ProtoAdapter.FIXED64.asPacked().decode(reader)); break;
+          case 1210: builder.ext_pack_sfixed64.addAll(ProtoAdapter.SFIXED64.asPacked().decode(reader)); break;
+          case 1211: builder.ext_pack_bool.addAll(ProtoAdapter.BOOL.asPacked().decode(reader)); break;
+          case 1212: builder.ext_pack_float.addAll(ProtoAdapter.FLOAT.asPacked().decode(reader)); break;
+          case 1213: builder.ext_pack_double.addAll(ProtoAdapter.DOUBLE.asPacked().decode(reader)); break;
           case 1216: {
             try {
               builder.ext_pack_nested_enum.add(NestedEnum.ADAPTER.decode(reader));
@@ -483,9 +487,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
             break;
           }
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -2682,8 +2684,12 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
     public static final ProtoAdapter<NestedMessage> ADAPTER = new ProtoAdapter<NestedMessage>(FieldEncoding.LENGTH_DELIMITED, NestedMessage.class) {
       @Override
       public int encodedSize(NestedMessage value) {
-        return (value.a != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.a) : 0)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = (value.a != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.a) : 0)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -2700,9 +2706,7 @@ public final class AllTypes extends Message<AllTypes, AllTypes.Builder> {
           switch (tag) {
             case 1: builder.a(ProtoAdapter.INT32.decode(reader)); break;
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -0,0 +1,195 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/byte_buffers.proto at 21:1
+package com.squareup.wire.protos.bytebuffers;
+
+import com.squareup.wire.FieldEncoding;
+import com.squareup.wire.Message;
+import com.squareup.wire.ProtoAdapter;
+import com.squareup.wire.ProtoReader;
+import com.squareup.wire.ProtoWriter;
+import java.io.IOException;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.StringBuilder;
+import java.nio.ByteBuffer;
+import java.util.List;
+import okio.ByteString;
+
+/**
+ * Generated with --byte_buffers so that its bytes fields are compiled into tests.
+ */
+public final class ByteBuffers extends Message<ByteBuffers, ByteBuffers.Builder> {
+  public static final ProtoAdapter<ByteBuffers> ADAPTER = new ProtoAdapter<ByteBuffers>(FieldEncoding.LENGTH_DELIMITED, ByteBuffers.class) {
+    @Override
+    public int encodedSize(ByteBuffers value) {
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.opt_bytes != null ? ProtoAdapter.BYTE_BUFFER.encodedSizeWithTag(1, value.opt_bytes) : 0)
+          + (value.default_bytes != null ? ProtoAdapter.BYTE_BUFFER.encodedSizeWithTag(2, value.default_bytes) : 0)
+          + ProtoAdapter.BYTE_BUFFER.asRepeated().encodedSizeWithTag(3, value.rep_bytes)
+          + (value.name != null ? ProtoAdapter.STRING.encodedSizeWithTag(4, value.name) : 0)
+          + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
+    }
+
+    @Override
+    public void encode(ProtoWriter writer, ByteBuffers value) throws IOException {
+      if (value.opt_bytes != null) ProtoAdapter.BYTE_BUFFER.encodeWithTag(writer, 1, value.opt_bytes);
+      if (value.default_bytes != null) ProtoAdapter.BYTE_BUFFER.encodeWithTag(writer, 2, value.default_bytes);
+      if (value.rep_bytes != null) ProtoAdapter.BYTE_BUFFER.asRepeated().encodeWithTag(writer, 3, value.rep_bytes);
+      if (value.name != null) ProtoAdapter.STRING.encodeWithTag(writer, 4, value.name);
+      writer.writeBytes(value.unknownFields());
+    }
+
+    @Override
+    public ByteBuffers decode(ProtoReader reader) throws IOException {
+      Builder builder = new Builder();
+      long token = reader.beginMessage();
+      for (int tag; (tag = reader.nextTag()) != -1;) {
+        switch (tag) {
+          case 1: builder.opt_bytes(ProtoAdapter.BYTE_BUFFER.decode(reader)); break;
+          case 2: builder.default_bytes(ProtoAdapter.BYTE_BUFFER.decode(reader)); break;
+          case 3: builder.rep_bytes.add(ProtoAdapter.BYTE_BUFFER.decode(reader)); break;
+          case 4: builder.name(ProtoAdapter.STRING.decode(reader)); break;
+          default: {
+            reader.readUnknownField(builder);
+          }
+        }
+      }
+      reader.endMessage(token);
+      return builder.build();
+    }
+
+    @Override
+    public ByteBuffers redact(ByteBuffers value) {
+      Builder builder = value.newBuilder();
+      builder.clearUnknownFields();
+      return builder.build();
+    }
+  };
+
+  private static final long serialVersionUID = 0L;
+
+  private static final byte[] DEFAULT_OPT_BYTES = new byte[0];
+
+  private static final byte[] DEFAULT_DEFAULT_BYTES = ByteString.decodeBase64("YWJj").toByteArray();
+
+  public static final String DEFAULT_NAME = "";
+
+  public final ByteBuffer opt_bytes;
+
+  public final ByteBuffer default_bytes;
+
+  public final List<ByteBuffer> rep_bytes;
+
+  public final String name;
+
+  public ByteBuffers(ByteBuffer opt_bytes, ByteBuffer default_bytes, List<ByteBuffer> rep_bytes, String name) {
+    this(opt_bytes, default_bytes, rep_bytes, name, ByteString.EMPTY);
+  }
+
+  public ByteBuffers(ByteBuffer opt_bytes, ByteBuffer default_bytes, List<ByteBuffer> rep_bytes, String name, ByteString unknownFields) {
+    super(unknownFields);
+    this.opt_bytes = readOnlyCopyOf(opt_bytes);
+    this.default_bytes = readOnlyCopyOf(default_bytes);
+    this.rep_bytes = immutableCopyOf(readOnlyCopyOf(rep_bytes));
+    this.name = name;
+  }
+
+  public static ByteBuffer defaultOpt_bytes() {
+    return ByteBuffer.wrap(DEFAULT_OPT_BYTES).asReadOnlyBuffer();
+  }
+
+  public static ByteBuffer defaultDefault_bytes() {
+    return ByteBuffer.wrap(DEFAULT_DEFAULT_BYTES).asReadOnlyBuffer();
+  }
+
+  @Override
+  public Builder newBuilder() {
+    Builder builder = new Builder();
+    builder.opt_bytes = readOnlyCopyOf(opt_bytes);
+    builder.default_bytes = readOnlyCopyOf(default_bytes);
+    builder.rep_bytes = readOnlyCopyOf(rep_bytes);
+    builder.name = name;
+    builder.addUnknownFields(unknownFields());
+    return builder;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof ByteBuffers)) return false;
+    ByteBuffers o = (ByteBuffers) other;
+    return equals(unknownFields(), o.unknownFields())
+        && equals(opt_bytes, o.opt_bytes)
+        && equals(default_bytes, o.default_bytes)
+        && equals(rep_bytes, o.rep_bytes)
+        && equals(name, o.name);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode;
+    if (result == 0) {
+      result = unknownFields().hashCode();
+      result = result * 37 + (opt_bytes != null ? opt_bytes.hashCode() : 0);
+      result = result * 37 + (default_bytes != null ? default_bytes.hashCode() : 0);
+      result = result * 37 + (rep_bytes != null ? rep_bytes.hashCode() : 1);
+      result = result * 37 + (name != null ? name.hashCode() : 0);
+      super.hashCode = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (opt_bytes != null) builder.append(", opt_bytes=").append(opt_bytes);
+    if (default_bytes != null) builder.append(", default_bytes=").append(default_bytes);
+    if (rep_bytes != null) builder.append(", rep_bytes=").append(rep_bytes);
+    if (name != null) builder.append(", name=").append(name);
+    return builder.replace(0, 2, "ByteBuffers{").append('}').toString();
+  }
+
+  public static final class Builder extends com.squareup.wire.Message.Builder<ByteBuffers, Builder> {
+    public ByteBuffer opt_bytes;
+
+    public ByteBuffer default_bytes;
+
+    public List<ByteBuffer> rep_bytes;
+
+    public String name;
+
+    public Builder() {
+      rep_bytes = newMutableList();
+    }
+
+    public Builder opt_bytes(ByteBuffer opt_bytes) {
+      this.opt_bytes = readOnlyCopyOf(opt_bytes);
+      return this;
+    }
+
+    public Builder default_bytes(ByteBuffer default_bytes) {
+      this.default_bytes = readOnlyCopyOf(default_bytes);
+      return this;
+    }
+
+    public Builder rep_bytes(List<ByteBuffer> rep_bytes) {
+      checkElementsNotNull(rep_bytes);
+      this.rep_bytes = readOnlyCopyOf(rep_bytes);
+      return this;
+    }
+
+    public Builder name(String name) {
+      this.name = name;
+      return this;
+    }
+
+    @Override
+    public ByteBuffers build() {
+      return new ByteBuffers(opt_bytes, default_bytes, rep_bytes, name, buildUnknownFields());
+    }
+  }
+}
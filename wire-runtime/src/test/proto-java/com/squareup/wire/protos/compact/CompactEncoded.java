@@ -0,0 +1,309 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/compact_message.proto at 22:1
+package com.squareup.wire.protos.compact;
+
+import com.squareup.wire.Lazy;
+import com.squareup.wire.Message;
+import com.squareup.wire.ProtoAdapter;
+import com.squareup.wire.WireEnum;
+import com.squareup.wire.WireField;
+import java.lang.Double;
+import java.lang.Integer;
+import java.lang.Long;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.util.List;
+import okio.ByteString;
+
+/**
+ * Generated with --compact and --lazy_fields so that a message read and written reflectively is
+ * compiled into tests.
+ */
+public final class CompactEncoded extends Message<CompactEncoded, CompactEncoded.Builder> {
+  public static final ProtoAdapter<CompactEncoded> ADAPTER = ProtoAdapter.newMessageAdapter(CompactEncoded.class);
+
+  private static final long serialVersionUID = 0L;
+
+  public static final Integer DEFAULT_OPT_INT32 = 0;
+
+  public static final Long DEFAULT_OPT_SINT64 = 0L;
+
+  public static final Double DEFAULT_OPT_DOUBLE = 0.0d;
+
+  public static final String DEFAULT_OPT_STRING = "";
+
+  public static final ByteString DEFAULT_OPT_BYTES = ByteString.EMPTY;
+
+  public static final Color DEFAULT_OPT_COLOR = Color.RED;
+
+  @WireField(
+      tag = 1,
+      adapter = "com.squareup.wire.ProtoAdapter#INT32"
+  )
+  public final Integer opt_int32;
+
+  @WireField(
+      tag = 2,
+      adapter = "com.squareup.wire.ProtoAdapter#SINT64"
+  )
+  public final Long opt_sint64;
+
+  @WireField(
+      tag = 3,
+      adapter = "com.squareup.wire.ProtoAdapter#DOUBLE"
+  )
+  public final Double opt_double;
+
+  @WireField(
+      tag = 4,
+      adapter = "com.squareup.wire.ProtoAdapter#STRING"
+  )
+  public final String opt_string;
+
+  @WireField(
+      tag = 5,
+      adapter = "com.squareup.wire.ProtoAdapter#BYTES"
+  )
+  public final ByteString opt_bytes;
+
+  @WireField(
+      tag = 6,
+      adapter = "com.squareup.wire.protos.compact.CompactEncoded$Color#ADAPTER"
+  )
+  public final Color opt_color;
+
+  @WireField(
+      tag = 7,
+      adapter = "com.squareup.wire.protos.compact.CompactEncoded#ADAPTER"
+  )
+  public final CompactEncoded child;
+
+  @WireField(
+      tag = 8,
+      adapter = "com.squareup.wire.ProtoAdapter#STRING",
+      label = WireField.Label.REPEATED
+  )
+  public final List<String> rep_string;
+
+  @WireField(
+      tag = 9,
+      adapter = "com.squareup.wire.ProtoAdapter#INT32",
+      label = WireField.Label.PACKED
+  )
+  public final List<Integer> pack_int32;
+
+  @WireField(
+      tag = 10,
+      adapter = "com.squareup.wire.protos.compact.CompactEncoded#ADAPTER",
+      label = WireField.Label.REPEATED
+  )
+  public final List<CompactEncoded> children;
+
+  @WireField(
+      tag = 11,
+      adapter = "com.squareup.wire.protos.compact.CompactEncoded#ADAPTER",
+      lazy = true
+  )
+  public final Lazy<CompactEncoded> lazy_child;
+
+  public CompactEncoded(Integer opt_int32, Long opt_sint64, Double opt_double, String opt_string, ByteString opt_bytes, Color opt_color, CompactEncoded child, List<String> rep_string, List<Integer> pack_int32, List<CompactEncoded> children, Lazy<CompactEncoded> lazy_child) {
+    this(opt_int32, opt_sint64, opt_double, opt_string, opt_bytes, opt_color, child, rep_string, pack_int32, children, lazy_child, ByteString.EMPTY);
+  }
+
+  public CompactEncoded(Integer opt_int32, Long opt_sint64, Double opt_double, String opt_string, ByteString opt_bytes, Color opt_color, CompactEncoded child, List<String> rep_string, List<Integer> pack_int32, List<CompactEncoded> children, Lazy<CompactEncoded> lazy_child, ByteString unknownFields) {
+    super(unknownFields);
+    this.opt_int32 = opt_int32;
+    this.opt_sint64 = opt_sint64;
+    this.opt_double = opt_double;
+    this.opt_string = opt_string;
+    this.opt_bytes = opt_bytes;
+    this.opt_color = opt_color;
+    this.child = child;
+    this.rep_string = immutableCopyOf(rep_string);
+    this.pack_int32 = immutableCopyOf(pack_int32);
+    this.children = immutableCopyOf(children);
+    this.lazy_child = lazy_child;
+  }
+
+  @Override
+  public Builder newBuilder() {
+    Builder builder = new Builder();
+    builder.opt_int32 = opt_int32;
+    builder.opt_sint64 = opt_sint64;
+    builder.opt_double = opt_double;
+    builder.opt_string = opt_string;
+    builder.opt_bytes = opt_bytes;
+    builder.opt_color = opt_color;
+    builder.child = child;
+    builder.rep_string = copyOf(rep_string);
+    builder.pack_int32 = copyOf(pack_int32);
+    builder.children = copyOf(children);
+    builder.lazy_child = lazy_child;
+    builder.addUnknownFields(unknownFields());
+    return builder;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof CompactEncoded)) return false;
+    CompactEncoded o = (CompactEncoded) other;
+    return equals(unknownFields(), o.unknownFields())
+        && equals(opt_int32, o.opt_int32)
+        && equals(opt_sint64, o.opt_sint64)
+        && equals(opt_double, o.opt_double)
+        && equals(opt_string, o.opt_string)
+        && equals(opt_bytes, o.opt_bytes)
+        && equals(opt_color, o.opt_color)
+        && equals(child, o.child)
+        && equals(rep_string, o.rep_string)
+        && equals(pack_int32, o.pack_int32)
+        && equals(children, o.children)
+        && equals(lazy_child, o.lazy_child);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode;
+    if (result == 0) {
+      result = unknownFields().hashCode();
+      result = result * 37 + (opt_int32 != null ? opt_int32.hashCode() : 0);
+      result = result * 37 + (opt_sint64 != null ? opt_sint64.hashCode() : 0);
+      result = result * 37 + (opt_double != null ? opt_double.hashCode() : 0);
+      result = result * 37 + (opt_string != null ? opt_string.hashCode() : 0);
+      result = result * 37 + (opt_bytes != null ? opt_bytes.hashCode() : 0);
+      result = result * 37 + (opt_color != null ? opt_color.hashCode() : 0);
+      result = result * 37 + (child != null ? child.hashCode() : 0);
+      result = result * 37 + (rep_string != null ? rep_string.hashCode() : 1);
+      result = result * 37 + (pack_int32 != null ? pack_int32.hashCode() : 1);
+      result = result * 37 + (children != null ? children.hashCode() : 1);
+      result = result * 37 + (lazy_child != null ? lazy_child.hashCode() : 0);
+      super.hashCode = result;
+    }
+    return result;
+  }
+
+  public static final class Builder extends com.squareup.wire.Message.Builder<CompactEncoded, Builder> {
+    public Integer opt_int32;
+
+    public Long opt_sint64;
+
+    public Double opt_double;
+
+    public String opt_string;
+
+    public ByteString opt_bytes;
+
+    public Color opt_color;
+
+    public CompactEncoded child;
+
+    public List<String> rep_string;
+
+    public List<Integer> pack_int32;
+
+    public List<CompactEncoded> children;
+
+    public Lazy<CompactEncoded> lazy_child;
+
+    public Builder() {
+      rep_string = newMutableList();
+      pack_int32 = newMutableList();
+      children = newMutableList();
+    }
+
+    public Builder opt_int32(Integer opt_int32) {
+      this.opt_int32 = opt_int32;
+      return this;
+    }
+
+    public Builder opt_sint64(Long opt_sint64) {
+      this.opt_sint64 = opt_sint64;
+      return this;
+    }
+
+    public Builder opt_double(Double opt_double) {
+      this.opt_double = opt_double;
+      return this;
+    }
+
+    public Builder opt_string(String opt_string) {
+      this.opt_string = opt_string;
+      return this;
+    }
+
+    public Builder opt_bytes(ByteString opt_bytes) {
+      this.opt_bytes = opt_bytes;
+      return this;
+    }
+
+    public Builder opt_color(Color opt_color) {
+      this.opt_color = opt_color;
+      return this;
+    }
+
+    public Builder child(CompactEncoded child) {
+      this.child = child;
+      return this;
+    }
+
+    public Builder rep_string(List<String> rep_string) {
+      checkElementsNotNull(rep_string);
+      this.rep_string = rep_string;
+      return this;
+    }
+
+    public Builder pack_int32(List<Integer> pack_int32) {
+      checkElementsNotNull(pack_int32);
+      this.pack_int32 = pack_int32;
+      return this;
+    }
+
+    public Builder children(List<CompactEncoded> children) {
+      checkElementsNotNull(children);
+      this.children = children;
+      return this;
+    }
+
+    public Builder lazy_child(Lazy<CompactEncoded> lazy_child) {
+      this.lazy_child = lazy_child;
+      return this;
+    }
+
+    @Override
+    public CompactEncoded build() {
+      return new CompactEncoded(opt_int32, opt_sint64, opt_double, opt_string, opt_bytes, opt_color, child, rep_string, pack_int32, children, lazy_child, buildUnknownFields());
+    }
+  }
+
+  public enum Color implements WireEnum {
+    RED(0),
+
+    GREEN(1);
+
+    public static final ProtoAdapter<Color> ADAPTER = ProtoAdapter.newEnumAdapter(Color.class);
+
+    private final int value;
+
+    Color(int value) {
+      this.value = value;
+    }
+
+    /**
+     * Return the constant for {@code value} or null.
+     */
+    public static Color fromValue(int value) {
+      switch (value) {
+        case 0: return RED;
+        case 1: return GREEN;
+        default: return null;
+      }
+    }
+
+    @Override
+    public int getValue() {
+      return value;
+    }
+  }
+}
@@ -28,7 +28,9 @@ public final class FooBar extends Message<FooBar, FooBar.Builder> {
   public static final ProtoAdapter<FooBar> ADAPTER = new ProtoAdapter<FooBar>(FieldEncoding.LENGTH_DELIMITED, FooBar.class) {
     @Override
     public int encodedSize(FooBar value) {
-      return (value.foo != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.foo) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.foo != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.foo) : 0)
           + (value.bar != null ? ProtoAdapter.STRING.encodedSizeWithTag(2, value.bar) : 0)
           + (value.baz != null ? Nested.ADAPTER.encodedSizeWithTag(3, value.baz) : 0)
           + (value.qux != null ? ProtoAdapter.UINT64.encodedSizeWithTag(4, value.qux) : 0)
@@ -38,6 +40,8 @@ public final class FooBar extends Message<FooBar, FooBar.Builder> {
           + (value.ext != null ? FooBarBazEnum.ADAPTER.encodedSizeWithTag(101, value.ext) : 0)
           + FooBarBazEnum.ADAPTER.asRepeated().encodedSizeWithTag(102, value.rep)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -84,9 +88,7 @@ public final class FooBar extends Message<FooBar, FooBar.Builder> {
             break;
           }
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -347,8 +349,12 @@ public final class FooBar extends Message<FooBar, FooBar.Builder> {
     public static final ProtoAdapter<Nested> ADAPTER = new ProtoAdapter<Nested>(FieldEncoding.LENGTH_DELIMITED, Nested.class) {
       @Override
       public int encodedSize(Nested value) {
-        return (value.value != null ? FooBarBazEnum.ADAPTER.encodedSizeWithTag(1, value.value) : 0)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = (value.value != null ? FooBarBazEnum.ADAPTER.encodedSizeWithTag(1, value.value) : 0)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -372,9 +378,7 @@ public final class FooBar extends Message<FooBar, FooBar.Builder> {
               break;
             }
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -462,8 +466,12 @@ public final class FooBar extends Message<FooBar, FooBar.Builder> {
     public static final ProtoAdapter<More> ADAPTER = new ProtoAdapter<More>(FieldEncoding.LENGTH_DELIMITED, More.class) {
       @Override
       public int encodedSize(More value) {
-        return ProtoAdapter.INT32.asRepeated().encodedSizeWithTag(1, value.serial)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = ProtoAdapter.INT32.asRepeated().encodedSizeWithTag(1, value.serial)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -480,9 +488,7 @@ public final class FooBar extends Message<FooBar, FooBar.Builder> {
           switch (tag) {
             case 1: builder.serial.add(ProtoAdapter.INT32.decode(reader)); break;
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -36,9 +36,7 @@ public final class MessageWithOptions extends Message<MessageWithOptions, Messag
       for (int tag; (tag = reader.nextTag()) != -1;) {
         switch (tag) {
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -33,9 +33,7 @@ public final class NoFields extends Message<NoFields, NoFields.Builder> {
       for (int tag; (tag = reader.nextTag()) != -1;) {
         switch (tag) {
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -19,9 +19,13 @@ public final class Recursive extends Message<Recursive, Recursive.Builder> {
   public static final ProtoAdapter<Recursive> ADAPTER = new ProtoAdapter<Recursive>(FieldEncoding.LENGTH_DELIMITED, Recursive.class) {
     @Override
     public int encodedSize(Recursive value) {
-      return (value.value != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.value) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.value != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.value) : 0)
           + (value.recursive != null ? Recursive.ADAPTER.encodedSizeWithTag(2, value.recursive) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -40,9 +44,7 @@ public final class Recursive extends Message<Recursive, Recursive.Builder> {
           case 1: builder.value(ProtoAdapter.INT32.decode(reader)); break;
           case 2: builder.recursive(Recursive.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
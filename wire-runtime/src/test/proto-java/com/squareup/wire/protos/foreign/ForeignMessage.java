@@ -19,9 +19,13 @@ public final class ForeignMessage extends Message<ForeignMessage, ForeignMessage
   public static final ProtoAdapter<ForeignMessage> ADAPTER = new ProtoAdapter<ForeignMessage>(FieldEncoding.LENGTH_DELIMITED, ForeignMessage.class) {
     @Override
     public int encodedSize(ForeignMessage value) {
-      return (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
           + (value.j != null ? ProtoAdapter.INT32.encodedSizeWithTag(100, value.j) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -40,9 +44,7 @@ public final class ForeignMessage extends Message<ForeignMessage, ForeignMessage
           case 1: builder.i(ProtoAdapter.INT32.decode(reader)); break;
           case 100: builder.j(ProtoAdapter.INT32.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -0,0 +1,165 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/lazy.proto at 20:1
+package com.squareup.wire.protos.lazy;
+
+import com.squareup.wire.FieldEncoding;
+import com.squareup.wire.Lazy;
+import com.squareup.wire.Message;
+import com.squareup.wire.ProtoAdapter;
+import com.squareup.wire.ProtoReader;
+import com.squareup.wire.ProtoWriter;
+import java.io.IOException;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.StringBuilder;
+import java.util.List;
+import okio.ByteString;
+
+public final class Envelope extends Message<Envelope, Envelope.Builder> {
+  public static final ProtoAdapter<Envelope> ADAPTER = new ProtoAdapter<Envelope>(FieldEncoding.LENGTH_DELIMITED, Envelope.class) {
+    @Override
+    public int encodedSize(Envelope value) {
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.route != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.route) : 0)
+          + (value.payload != null ? Payload.ADAPTER.asLazy().encodedSizeWithTag(2, value.payload) : 0)
+          + Payload.ADAPTER.asLazy().asRepeated().encodedSizeWithTag(3, value.history)
+          + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
+    }
+
+    @Override
+    public void encode(ProtoWriter writer, Envelope value) throws IOException {
+      if (value.route != null) ProtoAdapter.STRING.encodeWithTag(writer, 1, value.route);
+      if (value.payload != null) Payload.ADAPTER.asLazy().encodeWithTag(writer, 2, value.payload);
+      if (value.history != null) Payload.ADAPTER.asLazy().asRepeated().encodeWithTag(writer, 3, value.history);
+      writer.writeBytes(value.unknownFields());
+    }
+
+    @Override
+    public Envelope decode(ProtoReader reader) throws IOException {
+      Builder builder = new Builder();
+      long token = reader.beginMessage();
+      for (int tag; (tag = reader.nextTag()) != -1;) {
+        switch (tag) {
+          case 1: builder.route(ProtoAdapter.STRING.decode(reader)); break;
+          case 2: builder.payload(Payload.ADAPTER.asLazy().decode(reader)); break;
+          case 3: builder.history.add(Payload.ADAPTER.asLazy().decode(reader)); break;
+          default: {
+            reader.readUnknownField(builder);
+          }
+        }
+      }
+      reader.endMessage(token);
+      return builder.build();
+    }
+
+    @Override
+    public Envelope redact(Envelope value) {
+      Builder builder = value.newBuilder();
+      if (builder.payload != null) builder.payload = Payload.ADAPTER.asLazy().redact(builder.payload);
+      redactElements(builder.history, Payload.ADAPTER.asLazy());
+      builder.clearUnknownFields();
+      return builder.build();
+    }
+  };
+
+  private static final long serialVersionUID = 0L;
+
+  public static final String DEFAULT_ROUTE = "";
+
+  public final String route;
+
+  public final Lazy<Payload> payload;
+
+  public final List<Lazy<Payload>> history;
+
+  public Envelope(String route, Lazy<Payload> payload, List<Lazy<Payload>> history) {
+    this(route, payload, history, ByteString.EMPTY);
+  }
+
+  public Envelope(String route, Lazy<Payload> payload, List<Lazy<Payload>> history, ByteString unknownFields) {
+    super(unknownFields);
+    this.route = route;
+    this.payload = payload;
+    this.history = immutableCopyOf(history);
+  }
+
+  @Override
+  public Builder newBuilder() {
+    Builder builder = new Builder();
+    builder.route = route;
+    builder.payload = payload;
+    builder.history = copyOf(history);
+    builder.addUnknownFields(unknownFields());
+    return builder;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Envelope)) return false;
+    Envelope o = (Envelope) other;
+    return equals(unknownFields(), o.unknownFields())
+        && equals(route, o.route)
+        && equals(payload, o.payload)
+        && equals(history, o.history);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode;
+    if (result == 0) {
+      result = unknownFields().hashCode();
+      result = result * 37 + (route != null ? route.hashCode() : 0);
+      result = result * 37 + (payload != null ? payload.hashCode() : 0);
+      result = result * 37 + (history != null ? history.hashCode() : 1);
+      super.hashCode = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (route != null) builder.append(", route=").append(route);
+    if (payload != null) builder.append(", payload=").append(payload);
+    if (history != null) builder.append(", history=").append(history);
+    return builder.replace(0, 2, "Envelope{").append('}').toString();
+  }
+
+  public static final class Builder extends com.squareup.wire.Message.Builder<Envelope, Builder> {
+    public String route;
+
+    public Lazy<Payload> payload;
+
+    public List<Lazy<Payload>> history;
+
+    public Builder() {
+      history = newMutableList();
+    }
+
+    public Builder route(String route) {
+      this.route = route;
+      return this;
+    }
+
+    public Builder payload(Lazy<Payload> payload) {
+      this.payload = payload;
+      return this;
+    }
+
+    public Builder history(List<Lazy<Payload>> history) {
+      checkElementsNotNull(history);
+      this.history = history;
+      return this;
+    }
+
+    @Override
+    public Envelope build() {
+      return new Envelope(route, payload, history, buildUnknownFields());
+    }
+  }
+}
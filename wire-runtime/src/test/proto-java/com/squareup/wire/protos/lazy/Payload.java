@@ -0,0 +1,163 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/lazy.proto at 26:1
+package com.squareup.wire.protos.lazy;
+
+import com.squareup.wire.FieldEncoding;
+import com.squareup.wire.Message;
+import com.squareup.wire.ProtoAdapter;
+import com.squareup.wire.ProtoReader;
+import com.squareup.wire.ProtoWriter;
+import java.io.IOException;
+import java.lang.Integer;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.StringBuilder;
+import okio.ByteString;
+
+public final class Payload extends Message<Payload, Payload.Builder> {
+  public static final ProtoAdapter<Payload> ADAPTER = new ProtoAdapter<Payload>(FieldEncoding.LENGTH_DELIMITED, Payload.class) {
+    @Override
+    public int encodedSize(Payload value) {
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.body != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.body) : 0)
+          + (value.priority != null ? ProtoAdapter.INT32.encodedSizeWithTag(2, value.priority) : 0)
+          + (value.next != null ? Payload.ADAPTER.encodedSizeWithTag(3, value.next) : 0)
+          + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
+    }
+
+    @Override
+    public void encode(ProtoWriter writer, Payload value) throws IOException {
+      if (value.body != null) ProtoAdapter.STRING.encodeWithTag(writer, 1, value.body);
+      if (value.priority != null) ProtoAdapter.INT32.encodeWithTag(writer, 2, value.priority);
+      if (value.next != null) Payload.ADAPTER.encodeWithTag(writer, 3, value.next);
+      writer.writeBytes(value.unknownFields());
+    }
+
+    @Override
+    public Payload decode(ProtoReader reader) throws IOException {
+      Builder builder = new Builder();
+      long token = reader.beginMessage();
+      for (int tag; (tag = reader.nextTag()) != -1;) {
+        switch (tag) {
+          case 1: builder.body(ProtoAdapter.STRING.decode(reader)); break;
+          case 2: builder.priority(ProtoAdapter.INT32.decode(reader)); break;
+          case 3: builder.next(Payload.ADAPTER.decode(reader)); break;
+          default: {
+            reader.readUnknownField(builder);
+          }
+        }
+      }
+      reader.endMessage(token);
+      return builder.build();
+    }
+
+    @Override
+    public Payload redact(Payload value) {
+      Builder builder = value.newBuilder();
+      if (builder.next != null) builder.next = Payload.ADAPTER.redact(builder.next);
+      builder.clearUnknownFields();
+      return builder.build();
+    }
+  };
+
+  private static final long serialVersionUID = 0L;
+
+  public static final String DEFAULT_BODY = "";
+
+  public static final Integer DEFAULT_PRIORITY = 0;
+
+  public final String body;
+
+  public final Integer priority;
+
+  public final Payload next;
+
+  public Payload(String body, Integer priority, Payload next) {
+    this(body, priority, next, ByteString.EMPTY);
+  }
+
+  public Payload(String body, Integer priority, Payload next, ByteString unknownFields) {
+    super(unknownFields);
+    this.body = body;
+    this.priority = priority;
+    this.next = next;
+  }
+
+  @Override
+  public Builder newBuilder() {
+    Builder builder = new Builder();
+    builder.body = body;
+    builder.priority = priority;
+    builder.next = next;
+    builder.addUnknownFields(unknownFields());
+    return builder;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Payload)) return false;
+    Payload o = (Payload) other;
+    return equals(unknownFields(), o.unknownFields())
+        && equals(body, o.body)
+        && equals(priority, o.priority)
+        && equals(next, o.next);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode;
+    if (result == 0) {
+      result = unknownFields().hashCode();
+      result = result * 37 + (body != null ? body.hashCode() : 0);
+      result = result * 37 + (priority != null ? priority.hashCode() : 0);
+      result = result * 37 + (next != null ? next.hashCode() : 0);
+      super.hashCode = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (body != null) builder.append(", body=").append(body);
+    if (priority != null) builder.append(", priority=").append(priority);
+    if (next != null) builder.append(", next=").append(next);
+    return builder.replace(0, 2, "Payload{").append('}').toString();
+  }
+
+  public static final class Builder extends com.squareup.wire.Message.Builder<Payload, Builder> {
+    public String body;
+
+    public Integer priority;
+
+    public Payload next;
+
+    public Builder() {
+    }
+
+    public Builder body(String body) {
+      this.body = body;
+      return this;
+    }
+
+    public Builder priority(Integer priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    public Builder next(Payload next) {
+      this.next = next;
+      return this;
+    }
+
+    @Override
+    public Payload build() {
+      return new Payload(body, priority, next, buildUnknownFields());
+    }
+  }
+}
@@ -17,7 +17,9 @@ public final class Message extends com.squareup.wire.Message<Message, Message.Bu
   public static final ProtoAdapter<Message> ADAPTER = new ProtoAdapter<Message>(FieldEncoding.LENGTH_DELIMITED, Message.class) {
     @Override
     public int encodedSize(Message value) {
-      return (value.unknownFields != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.unknownFields) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.unknownFields != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.unknownFields) : 0)
           + (value.other != null ? ProtoAdapter.STRING.encodedSizeWithTag(2, value.other) : 0)
           + (value.o != null ? ProtoAdapter.STRING.encodedSizeWithTag(3, value.o) : 0)
           + (value.result != null ? ProtoAdapter.STRING.encodedSizeWithTag(4, value.result) : 0)
@@ -28,6 +30,8 @@ public final class Message extends com.squareup.wire.Message<Message, Message.Bu
           + (value.this_ != null ? ProtoAdapter.STRING.encodedSizeWithTag(9, value.this_) : 0)
           + (value.message != null ? ProtoAdapter.STRING.encodedSizeWithTag(10, value.message) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -62,9 +66,7 @@ public final class Message extends com.squareup.wire.Message<Message, Message.Bu
           case 9: builder.this_(ProtoAdapter.STRING.decode(reader)); break;
           case 10: builder.message(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -18,8 +18,12 @@ public final class Foo extends Message<Foo, Foo.Builder> {
   public static final ProtoAdapter<Foo> ADAPTER = new ProtoAdapter<Foo>(FieldEncoding.LENGTH_DELIMITED, Foo.class) {
     @Override
     public int encodedSize(Foo value) {
-      return (value.bar != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.bar) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.bar != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.bar) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -36,9 +40,7 @@ public final class Foo extends Message<Foo, Foo.Builder> {
         switch (tag) {
           case 1: builder.bar(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -18,9 +18,13 @@ public final class OneExtension extends Message<OneExtension, OneExtension.Build
   public static final ProtoAdapter<OneExtension> ADAPTER = new ProtoAdapter<OneExtension>(FieldEncoding.LENGTH_DELIMITED, OneExtension.class) {
     @Override
     public int encodedSize(OneExtension value) {
-      return (value.id != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.id) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.id != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.id) : 0)
           + (value.foo != null ? Foo.ADAPTER.encodedSizeWithTag(1000, value.foo) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -39,9 +43,7 @@ public final class OneExtension extends Message<OneExtension, OneExtension.Build
           case 1: builder.id(ProtoAdapter.STRING.decode(reader)); break;
           case 1000: builder.foo(Foo.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -21,11 +21,15 @@ public final class Person extends Message<Person, Person.Builder> {
   public static final ProtoAdapter<Person> ADAPTER = new ProtoAdapter<Person>(FieldEncoding.LENGTH_DELIMITED, Person.class) {
     @Override
     public int encodedSize(Person value) {
-      return ProtoAdapter.STRING.encodedSizeWithTag(1, value.name)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = ProtoAdapter.STRING.encodedSizeWithTag(1, value.name)
           + ProtoAdapter.INT32.encodedSizeWithTag(2, value.id)
           + (value.email != null ? ProtoAdapter.STRING.encodedSizeWithTag(3, value.email) : 0)
           + PhoneNumber.ADAPTER.asRepeated().encodedSizeWithTag(4, value.phone)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -48,9 +52,7 @@ public final class Person extends Message<Person, Person.Builder> {
           case 3: builder.email(ProtoAdapter.STRING.decode(reader)); break;
           case 4: builder.phone.add(PhoneNumber.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -251,9 +253,13 @@ public final class Person extends Message<Person, Person.Builder> {
     public static final ProtoAdapter<PhoneNumber> ADAPTER = new ProtoAdapter<PhoneNumber>(FieldEncoding.LENGTH_DELIMITED, PhoneNumber.class) {
       @Override
       public int encodedSize(PhoneNumber value) {
-        return ProtoAdapter.STRING.encodedSizeWithTag(1, value.number)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = ProtoAdapter.STRING.encodedSizeWithTag(1, value.number)
             + (value.type != null ? PhoneType.ADAPTER.encodedSizeWithTag(2, value.type) : 0)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -279,9 +285,7 @@ public final class Person extends Message<Person, Person.Builder> {
               break;
             }
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -0,0 +1,30 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+package com.squareup.wire.protos.person;
+
+import com.squareup.wire.ProtoAdapter;
+import java.lang.String;
+
+public final class PersonAdapters {
+  private PersonAdapters() {
+  }
+
+  /**
+   * Returns the adapter for the type named {@code typeName}, or null if there is none.
+   */
+  public static ProtoAdapter<?> get(String typeName) {
+    switch (typeName) {
+      case "squareup.protos.person.Person": return Person.ADAPTER;
+      case "squareup.protos.person.Person.PhoneType": return Person.PhoneType.ADAPTER;
+      case "squareup.protos.person.Person.PhoneNumber": return Person.PhoneNumber.ADAPTER;
+      default: return null;
+    }
+  }
+
+  /**
+   * Registers each message adapter with {@link ProtoAdapter#register}.
+   */
+  public static void registerAll() {
+    ProtoAdapter.register(Person.class, Person.ADAPTER);
+    ProtoAdapter.register(Person.PhoneNumber.class, Person.PhoneNumber.ADAPTER);
+  }
+}
@@ -0,0 +1,534 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/primitive_fields.proto at 21:1
+package com.squareup.wire.protos.primitivefields;
+
+import com.squareup.wire.FieldEncoding;
+import com.squareup.wire.Message;
+import com.squareup.wire.ProtoAdapter;
+import com.squareup.wire.ProtoReader;
+import com.squareup.wire.ProtoWriter;
+import java.io.IOException;
+import java.lang.Boolean;
+import java.lang.Double;
+import java.lang.Float;
+import java.lang.Integer;
+import java.lang.Long;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.StringBuilder;
+import okio.ByteString;
+
+/**
+ * Generated with --primitive_fields so that its scalar fields are compiled into tests.
+ */
+public final class PrimitiveFields extends Message<PrimitiveFields, PrimitiveFields.Builder> {
+  public static final ProtoAdapter<PrimitiveFields> ADAPTER = new ProtoAdapter<PrimitiveFields>(FieldEncoding.LENGTH_DELIMITED, PrimitiveFields.class) {
+    @Override
+    public int encodedSize(PrimitiveFields value) {
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.hasOpt_int32() ? ProtoAdapter.INT32.encodedSizeIntWithTag(1, value.opt_int32) : 0)
+          + (value.hasOpt_sint32() ? ProtoAdapter.SINT32.encodedSizeIntWithTag(2, value.opt_sint32) : 0)
+          + (value.hasOpt_fixed32() ? ProtoAdapter.FIXED32.encodedSizeIntWithTag(3, value.opt_fixed32) : 0)
+          + (value.hasOpt_int64() ? ProtoAdapter.INT64.encodedSizeLongWithTag(4, value.opt_int64) : 0)
+          + (value.hasOpt_sint64() ? ProtoAdapter.SINT64.encodedSizeLongWithTag(5, value.opt_sint64) : 0)
+          + (value.hasOpt_fixed64() ? ProtoAdapter.FIXED64.encodedSizeLongWithTag(6, value.opt_fixed64) : 0)
+          + (value.hasOpt_bool() ? ProtoAdapter.BOOL.encodedSizeBooleanWithTag(7, value.opt_bool) : 0)
+          + (value.hasOpt_float() ? ProtoAdapter.FLOAT.encodedSizeFloatWithTag(8, value.opt_float) : 0)
+          + (value.hasOpt_double() ? ProtoAdapter.DOUBLE.encodedSizeDoubleWithTag(9, value.opt_double) : 0)
+          + (value.opt_string != null ? ProtoAdapter.STRING.encodedSizeWithTag(10, value.opt_string) : 0)
+          + (value.hasDefault_int32() ? ProtoAdapter.INT32.encodedSizeIntWithTag(11, value.default_int32) : 0)
+          + (value.hasDefault_double() ? ProtoAdapter.DOUBLE.encodedSizeDoubleWithTag(12, value.default_double) : 0)
+          + (value.hasReq_int64() ? ProtoAdapter.INT64.encodedSizeLongWithTag(13, value.req_int64) : 0)
+          + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
+    }
+
+    @Override
+    public void encode(ProtoWriter writer, PrimitiveFields value) throws IOException {
+      if (value.hasOpt_int32()) ProtoAdapter.INT32.encodeIntWithTag(writer, 1, value.opt_int32);
+      if (value.hasOpt_sint32()) ProtoAdapter.SINT32.encodeIntWithTag(writer, 2, value.opt_sint32);
+      if (value.hasOpt_fixed32()) ProtoAdapter.FIXED32.encodeIntWithTag(writer, 3, value.opt_fixed32);
+      if (value.hasOpt_int64()) ProtoAdapter.INT64.encodeLongWithTag(writer, 4, value.opt_int64);
+      if (value.hasOpt_sint64()) ProtoAdapter.SINT64.encodeLongWithTag(writer, 5, value.opt_sint64);
+      if (value.hasOpt_fixed64()) ProtoAdapter.FIXED64.encodeLongWithTag(writer, 6, value.opt_fixed64);
+      if (value.hasOpt_bool()) ProtoAdapter.BOOL.encodeBooleanWithTag(writer, 7, value.opt_bool);
+      if (value.hasOpt_float()) ProtoAdapter.FLOAT.encodeFloatWithTag(writer, 8, value.opt_float);
+      if (value.hasOpt_double()) ProtoAdapter.DOUBLE.encodeDoubleWithTag(writer, 9, value.opt_double);
+      if (value.opt_string != null) ProtoAdapter.STRING.encodeWithTag(writer, 10, value.opt_string);
+      if (value.hasDefault_int32()) ProtoAdapter.INT32.encodeIntWithTag(writer, 11, value.default_int32);
+      if (value.hasDefault_double()) ProtoAdapter.DOUBLE.encodeDoubleWithTag(writer, 12, value.default_double);
+      if (value.hasReq_int64()) ProtoAdapter.INT64.encodeLongWithTag(writer, 13, value.req_int64);
+      writer.writeBytes(value.unknownFields());
+    }
+
+    @Override
+    public PrimitiveFields decode(ProtoReader reader) throws IOException {
+      Builder builder = new Builder();
+      long token = reader.beginMessage();
+      for (int tag; (tag = reader.nextTag()) != -1;) {
+        switch (tag) {
+          case 1: builder.opt_int32(ProtoAdapter.INT32.decodeInt(reader)); break;
+          case 2: builder.opt_sint32(ProtoAdapter.SINT32.decodeInt(reader)); break;
+          case 3: builder.opt_fixed32(ProtoAdapter.FIXED32.decodeInt(reader)); break;
+          case 4: builder.opt_int64(ProtoAdapter.INT64.decodeLong(reader)); break;
+          case 5: builder.opt_sint64(ProtoAdapter.SINT64.decodeLong(reader)); break;
+          case 6: builder.opt_fixed64(ProtoAdapter.FIXED64.decodeLong(reader)); break;
+          case 7: builder.opt_bool(ProtoAdapter.BOOL.decodeBoolean(reader)); break;
+          case 8: builder.opt_float(ProtoAdapter.FLOAT.decodeFloat(reader)); break;
+          case 9: builder.opt_double(ProtoAdapter.DOUBLE.decodeDouble(reader)); break;
+          case 10: builder.opt_string(ProtoAdapter.STRING.decode(reader)); break;
+          case 11: builder.default_int32(ProtoAdapter.INT32.decodeInt(reader)); break;
+          case 12: builder.default_double(ProtoAdapter.DOUBLE.decodeDouble(reader)); break;
+          case 13: builder.req_int64(ProtoAdapter.INT64.decodeLong(reader)); break;
+          default: {
+            reader.readUnknownField(builder);
+          }
+        }
+      }
+      reader.endMessage(token);
+      return builder.build();
+    }
+
+    @Override
+    public PrimitiveFields redact(PrimitiveFields value) {
+      Builder builder = value.newBuilder();
+      builder.clearUnknownFields();
+      return builder.build();
+    }
+  };
+
+  private static final long serialVersionUID = 0L;
+
+  public static final int DEFAULT_OPT_INT32 = 0;
+
+  public static final int DEFAULT_OPT_SINT32 = 0;
+
+  public static final int DEFAULT_OPT_FIXED32 = 0;
+
+  public static final long DEFAULT_OPT_INT64 = 0L;
+
+  public static final long DEFAULT_OPT_SINT64 = 0L;
+
+  public static final long DEFAULT_OPT_FIXED64 = 0L;
+
+  public static final boolean DEFAULT_OPT_BOOL = false;
+
+  public static final float DEFAULT_OPT_FLOAT = 0.0f;
+
+  public static final double DEFAULT_OPT_DOUBLE = 0.0d;
+
+  public static final String DEFAULT_OPT_STRING = "";
+
+  public static final int DEFAULT_DEFAULT_INT32 = 7;
+
+  public static final double DEFAULT_DEFAULT_DOUBLE = 0.5d;
+
+  public static final long DEFAULT_REQ_INT64 = 0L;
+
+  public final int opt_int32;
+
+  public final int opt_sint32;
+
+  public final int opt_fixed32;
+
+  public final long opt_int64;
+
+  public final long opt_sint64;
+
+  public final long opt_fixed64;
+
+  public final boolean opt_bool;
+
+  public final float opt_float;
+
+  public final double opt_double;
+
+  public final String opt_string;
+
+  public final int default_int32;
+
+  public final double default_double;
+
+  public final long req_int64;
+
+  private final int presenceBits0;
+
+  public PrimitiveFields(Integer opt_int32, Integer opt_sint32, Integer opt_fixed32, Long opt_int64, Long opt_sint64, Long opt_fixed64, Boolean opt_bool, Float opt_float, Double opt_double, String opt_string, Integer default_int32, Double default_double, Long req_int64) {
+    this(opt_int32, opt_sint32, opt_fixed32, opt_int64, opt_sint64, opt_fixed64, opt_bool, opt_float, opt_double, opt_string, default_int32, default_double, req_int64, ByteString.EMPTY);
+  }
+
+  public PrimitiveFields(Integer opt_int32, Integer opt_sint32, Integer opt_fixed32, Long opt_int64, Long opt_sint64, Long opt_fixed64, Boolean opt_bool, Float opt_float, Double opt_double, String opt_string, Integer default_int32, Double default_double, Long req_int64, ByteString unknownFields) {
+    super(unknownFields);
+    this.opt_int32 = opt_int32 != null ? opt_int32 : DEFAULT_OPT_INT32;
+    this.opt_sint32 = opt_sint32 != null ? opt_sint32 : DEFAULT_OPT_SINT32;
+    this.opt_fixed32 = opt_fixed32 != null ? opt_fixed32 : DEFAULT_OPT_FIXED32;
+    this.opt_int64 = opt_int64 != null ? opt_int64 : DEFAULT_OPT_INT64;
+    this.opt_sint64 = opt_sint64 != null ? opt_sint64 : DEFAULT_OPT_SINT64;
+    this.opt_fixed64 = opt_fixed64 != null ? opt_fixed64 : DEFAULT_OPT_FIXED64;
+    this.opt_bool = opt_bool != null ? opt_bool : DEFAULT_OPT_BOOL;
+    this.opt_float = opt_float != null ? opt_float : DEFAULT_OPT_FLOAT;
+    this.opt_double = opt_double != null ? opt_double : DEFAULT_OPT_DOUBLE;
+    this.opt_string = opt_string;
+    this.default_int32 = default_int32 != null ? default_int32 : DEFAULT_DEFAULT_INT32;
+    this.default_double = default_double != null ? default_double : DEFAULT_DEFAULT_DOUBLE;
+    this.req_int64 = req_int64 != null ? req_int64 : DEFAULT_REQ_INT64;
+    this.presenceBits0 = (opt_int32 != null ? 0x1 : 0)
+        | (opt_sint32 != null ? 0x2 : 0)
+        | (opt_fixed32 != null ? 0x4 : 0)
+        | (opt_int64 != null ? 0x8 : 0)
+        | (opt_sint64 != null ? 0x10 : 0)
+        | (opt_fixed64 != null ? 0x20 : 0)
+        | (opt_bool != null ? 0x40 : 0)
+        | (opt_float != null ? 0x80 : 0)
+        | (opt_double != null ? 0x100 : 0)
+        | (default_int32 != null ? 0x200 : 0)
+        | (default_double != null ? 0x400 : 0)
+        | (req_int64 != null ? 0x800 : 0);
+  }
+
+  PrimitiveFields(Builder builder, ByteString unknownFields) {
+    super(unknownFields);
+    this.opt_int32 = builder.opt_int32;
+    this.opt_sint32 = builder.opt_sint32;
+    this.opt_fixed32 = builder.opt_fixed32;
+    this.opt_int64 = builder.opt_int64;
+    this.opt_sint64 = builder.opt_sint64;
+    this.opt_fixed64 = builder.opt_fixed64;
+    this.opt_bool = builder.opt_bool;
+    this.opt_float = builder.opt_float;
+    this.opt_double = builder.opt_double;
+    this.opt_string = builder.opt_string;
+    this.default_int32 = builder.default_int32;
+    this.default_double = builder.default_double;
+    this.req_int64 = builder.req_int64;
+    this.presenceBits0 = builder.presenceBits0;
+  }
+
+  public boolean hasOpt_int32() {
+    return (presenceBits0 & 0x1) != 0;
+  }
+
+  public boolean hasOpt_sint32() {
+    return (presenceBits0 & 0x2) != 0;
+  }
+
+  public boolean hasOpt_fixed32() {
+    return (presenceBits0 & 0x4) != 0;
+  }
+
+  public boolean hasOpt_int64() {
+    return (presenceBits0 & 0x8) != 0;
+  }
+
+  public boolean hasOpt_sint64() {
+    return (presenceBits0 & 0x10) != 0;
+  }
+
+  public boolean hasOpt_fixed64() {
+    return (presenceBits0 & 0x20) != 0;
+  }
+
+  public boolean hasOpt_bool() {
+    return (presenceBits0 & 0x40) != 0;
+  }
+
+  public boolean hasOpt_float() {
+    return (presenceBits0 & 0x80) != 0;
+  }
+
+  public boolean hasOpt_double() {
+    return (presenceBits0 & 0x100) != 0;
+  }
+
+  public boolean hasDefault_int32() {
+    return (presenceBits0 & 0x200) != 0;
+  }
+
+  public boolean hasDefault_double() {
+    return (presenceBits0 & 0x400) != 0;
+  }
+
+  public boolean hasReq_int64() {
+    return (presenceBits0 & 0x800) != 0;
+  }
+
+  @Override
+  public Builder newBuilder() {
+    Builder builder = new Builder();
+    builder.opt_int32 = opt_int32;
+    builder.opt_sint32 = opt_sint32;
+    builder.opt_fixed32 = opt_fixed32;
+    builder.opt_int64 = opt_int64;
+    builder.opt_sint64 = opt_sint64;
+    builder.opt_fixed64 = opt_fixed64;
+    builder.opt_bool = opt_bool;
+    builder.opt_float = opt_float;
+    builder.opt_double = opt_double;
+    builder.opt_string = opt_string;
+    builder.default_int32 = default_int32;
+    builder.default_double = default_double;
+    builder.req_int64 = req_int64;
+    builder.presenceBits0 = presenceBits0;
+    builder.addUnknownFields(unknownFields());
+    return builder;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof PrimitiveFields)) return false;
+    PrimitiveFields o = (PrimitiveFields) other;
+    return equals(unknownFields(), o.unknownFields())
+        && presenceBits0 == o.presenceBits0
+        && opt_int32 == o.opt_int32
+        && opt_sint32 == o.opt_sint32
+        && opt_fixed32 == o.opt_fixed32
+        && opt_int64 == o.opt_int64
+        && opt_sint64 == o.opt_sint64
+        && opt_fixed64 == o.opt_fixed64
+        && opt_bool == o.opt_bool
+        && Float.compare(opt_float, o.opt_float) == 0
+        && Double.compare(opt_double, o.opt_double) == 0
+        && equals(opt_string, o.opt_string)
+        && default_int32 == o.default_int32
+        && Double.compare(default_double, o.default_double) == 0
+        && req_int64 == o.req_int64;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode;
+    if (result == 0) {
+      result = unknownFields().hashCode();
+      result = result * 37 + (hasOpt_int32() ? opt_int32 : 0);
+      result = result * 37 + (hasOpt_sint32() ? opt_sint32 : 0);
+      result = result * 37 + (hasOpt_fixed32() ? opt_fixed32 : 0);
+      result = result * 37 + (hasOpt_int64() ? (int) (opt_int64 ^ (opt_int64 >>> 32)) : 0);
+      result = result * 37 + (hasOpt_sint64() ? (int) (opt_sint64 ^ (opt_sint64 >>> 32)) : 0);
+      result = result * 37 + (hasOpt_fixed64() ? (int) (opt_fixed64 ^ (opt_fixed64 >>> 32)) : 0);
+      result = result * 37 + (hasOpt_bool() ? (opt_bool ? 1231 : 1237) : 0);
+      result = result * 37 + (hasOpt_float() ? Float.floatToIntBits(opt_float) : 0);
+      result = result * 37 + (hasOpt_double() ? (int) (Double.doubleToLongBits(opt_double) ^ (Double.doubleToLongBits(opt_double) >>> 32)) : 0);
+      result = result * 37 + (opt_string != null ? opt_string.hashCode() : 0);
+      result = result * 37 + (hasDefault_int32() ? default_int32 : 0);
+      result = result * 37 + (hasDefault_double() ? (int) (Double.doubleToLongBits(default_double) ^ (Double.doubleToLongBits(default_double) >>> 32)) : 0);
+      result = result * 37 + (hasReq_int64() ? (int) (req_int64 ^ (req_int64 >>> 32)) : 0);
+      super.hashCode = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (hasOpt_int32()) builder.append(", opt_int32=").append(opt_int32);
+    if (hasOpt_sint32()) builder.append(", opt_sint32=").append(opt_sint32);
+    if (hasOpt_fixed32()) builder.append(", opt_fixed32=").append(opt_fixed32);
+    if (hasOpt_int64()) builder.append(", opt_int64=").append(opt_int64);
+    if (hasOpt_sint64()) builder.append(", opt_sint64=").append(opt_sint64);
+    if (hasOpt_fixed64()) builder.append(", opt_fixed64=").append(opt_fixed64);
+    if (hasOpt_bool()) builder.append(", opt_bool=").append(opt_bool);
+    if (hasOpt_float()) builder.append(", opt_float=").append(opt_float);
+    if (hasOpt_double()) builder.append(", opt_double=").append(opt_double);
+    if (opt_string != null) builder.append(", opt_string=").append(opt_string);
+    if (hasDefault_int32()) builder.append(", default_int32=").append(default_int32);
+    if (hasDefault_double()) builder.append(", default_double=").append(default_double);
+    if (hasReq_int64()) builder.append(", req_int64=").append(req_int64);
+    return builder.replace(0, 2, "PrimitiveFields{").append('}').toString();
+  }
+
+  public static final class Builder extends com.squareup.wire.Message.Builder<PrimitiveFields, Builder> {
+    int opt_int32;
+
+    int opt_sint32;
+
+    int opt_fixed32;
+
+    long opt_int64;
+
+    long opt_sint64;
+
+    long opt_fixed64;
+
+    boolean opt_bool;
+
+    float opt_float;
+
+    double opt_double;
+
+    public String opt_string;
+
+    int default_int32;
+
+    double default_double;
+
+    long req_int64;
+
+    int presenceBits0;
+
+    public Builder() {
+      default_int32 = DEFAULT_DEFAULT_INT32;
+      default_double = DEFAULT_DEFAULT_DOUBLE;
+    }
+
+    public Builder opt_int32(int opt_int32) {
+      this.opt_int32 = opt_int32;
+      presenceBits0 |= 0x1;
+      return this;
+    }
+
+    public Builder clearOpt_int32() {
+      this.opt_int32 = DEFAULT_OPT_INT32;
+      presenceBits0 &= ~0x1;
+      return this;
+    }
+
+    public Builder opt_sint32(int opt_sint32) {
+      this.opt_sint32 = opt_sint32;
+      presenceBits0 |= 0x2;
+      return this;
+    }
+
+    public Builder clearOpt_sint32() {
+      this.opt_sint32 = DEFAULT_OPT_SINT32;
+      presenceBits0 &= ~0x2;
+      return this;
+    }
+
+    public Builder opt_fixed32(int opt_fixed32) {
+      this.opt_fixed32 = opt_fixed32;
+      presenceBits0 |= 0x4;
+      return this;
+    }
+
+    public Builder clearOpt_fixed32() {
+      this.opt_fixed32 = DEFAULT_OPT_FIXED32;
+      presenceBits0 &= ~0x4;
+      return this;
+    }
+
+    public Builder opt_int64(long opt_int64) {
+      this.opt_int64 = opt_int64;
+      presenceBits0 |= 0x8;
+      return this;
+    }
+
+    public Builder clearOpt_int64() {
+      this.opt_int64 = DEFAULT_OPT_INT64;
+      presenceBits0 &= ~0x8;
+      return this;
+    }
+
+    public Builder opt_sint64(long opt_sint64) {
+      this.opt_sint64 = opt_sint64;
+      presenceBits0 |= 0x10;
+      return this;
+    }
+
+    public Builder clearOpt_sint64() {
+      this.opt_sint64 = DEFAULT_OPT_SINT64;
+      presenceBits0 &= ~0x10;
+      return this;
+    }
+
+    public Builder opt_fixed64(long opt_fixed64) {
+      this.opt_fixed64 = opt_fixed64;
+      presenceBits0 |= 0x20;
+      return this;
+    }
+
+    public Builder clearOpt_fixed64() {
+      this.opt_fixed64 = DEFAULT_OPT_FIXED64;
+      presenceBits0 &= ~0x20;
+      return this;
+    }
+
+    public Builder opt_bool(boolean opt_bool) {
+      this.opt_bool = opt_bool;
+      presenceBits0 |= 0x40;
+      return this;
+    }
+
+    public Builder clearOpt_bool() {
+      this.opt_bool = DEFAULT_OPT_BOOL;
+      presenceBits0 &= ~0x40;
+      return this;
+    }
+
+    public Builder opt_float(float opt_float) {
+      this.opt_float = opt_float;
+      presenceBits0 |= 0x80;
+      return this;
+    }
+
+    public Builder clearOpt_float() {
+      this.opt_float = DEFAULT_OPT_FLOAT;
+      presenceBits0 &= ~0x80;
+      return this;
+    }
+
+    public Builder opt_double(double opt_double) {
+      this.opt_double = opt_double;
+      presenceBits0 |= 0x100;
+      return this;
+    }
+
+    public Builder clearOpt_double() {
+      this.opt_double = DEFAULT_OPT_DOUBLE;
+      presenceBits0 &= ~0x100;
+      return this;
+    }
+
+    public Builder opt_string(String opt_string) {
+      this.opt_string = opt_string;
+      return this;
+    }
+
+    public Builder default_int32(int default_int32) {
+      this.default_int32 = default_int32;
+      presenceBits0 |= 0x200;
+      return this;
+    }
+
+    public Builder clearDefault_int32() {
+      this.default_int32 = DEFAULT_DEFAULT_INT32;
+      presenceBits0 &= ~0x200;
+      return this;
+    }
+
+    public Builder default_double(double default_double) {
+      this.default_double = default_double;
+      presenceBits0 |= 0x400;
+      return this;
+    }
+
+    public Builder clearDefault_double() {
+      this.default_double = DEFAULT_DEFAULT_DOUBLE;
+      presenceBits0 &= ~0x400;
+      return this;
+    }
+
+    public Builder req_int64(long req_int64) {
+      this.req_int64 = req_int64;
+      presenceBits0 |= 0x800;
+      return this;
+    }
+
+    public Builder clearReq_int64() {
+      this.req_int64 = DEFAULT_REQ_INT64;
+      presenceBits0 &= ~0x800;
+      return this;
+    }
+
+    @Override
+    public PrimitiveFields build() {
+      if ((presenceBits0 & 0x800) == 0) {
+        throw missingRequiredFields((presenceBits0 & 0x800) != 0 ? req_int64 : null, "req_int64");
+      }
+      return new PrimitiveFields(this, buildUnknownFields());
+    }
+  }
+}
@@ -0,0 +1,343 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/primitive_lists.proto at 21:1
+package com.squareup.wire.protos.primitivelists;
+
+import com.squareup.wire.BooleanList;
+import com.squareup.wire.DoubleList;
+import com.squareup.wire.FieldEncoding;
+import com.squareup.wire.FloatList;
+import com.squareup.wire.IntList;
+import com.squareup.wire.LongList;
+import com.squareup.wire.Message;
+import com.squareup.wire.ProtoAdapter;
+import com.squareup.wire.ProtoReader;
+import com.squareup.wire.ProtoWriter;
+import java.io.IOException;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.StringBuilder;
+import java.util.List;
+import okio.ByteString;
+
+/**
+ * Generated with --primitive_lists so that its repeated scalar fields are compiled into tests.
+ */
+public final class PrimitiveLists extends Message<PrimitiveLists, PrimitiveLists.Builder> {
+  public static final ProtoAdapter<PrimitiveLists> ADAPTER = new ProtoAdapter<PrimitiveLists>(FieldEncoding.LENGTH_DELIMITED, PrimitiveLists.class) {
+    @Override
+    public int encodedSize(PrimitiveLists value) {
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = ProtoAdapter.INT32.asRepeated().encodedSizeWithTag(1, value.rep_int32)
+          + ProtoAdapter.SINT64.asRepeated().encodedSizeWithTag(2, value.rep_sint64)
+          + ProtoAdapter.FLOAT.asRepeated().encodedSizeWithTag(3, value.rep_float)
+          + ProtoAdapter.DOUBLE.asRepeated().encodedSizeWithTag(4, value.rep_double)
+          + ProtoAdapter.BOOL.asRepeated().encodedSizeWithTag(5, value.rep_bool)
+          + ProtoAdapter.STRING.asRepeated().encodedSizeWithTag(6, value.rep_string)
+          + ProtoAdapter.INT32.asPacked().encodedSizeWithTag(11, value.pack_int32)
+          + ProtoAdapter.SINT64.asPacked().encodedSizeWithTag(12, value.pack_sint64)
+          + ProtoAdapter.FLOAT.asPacked().encodedSizeWithTag(13, value.pack_float)
+          + ProtoAdapter.DOUBLE.asPacked().encodedSizeWithTag(14, value.pack_double)
+          + ProtoAdapter.BOOL.asPacked().encodedSizeWithTag(15, value.pack_bool)
+          + ProtoAdapter.FIXED32.asPacked().encodedSizeWithTag(16, value.pack_fixed32)
+          + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
+    }
+
+    @Override
+    public void encode(ProtoWriter writer, PrimitiveLists value) throws IOException {
+      if (value.rep_int32 != null) ProtoAdapter.INT32.asRepeated().encodeWithTag(writer, 1, value.rep_int32);
+      if (value.rep_sint64 != null) ProtoAdapter.SINT64.asRepeated().encodeWithTag(writer, 2, value.rep_sint64);
+      if (value.rep_float != null) ProtoAdapter.FLOAT.asRepeated().encodeWithTag(writer, 3, value.rep_float);
+      if (value.rep_double != null) ProtoAdapter.DOUBLE.asRepeated().encodeWithTag(writer, 4, value.rep_double);
+      if (value.rep_bool != null) ProtoAdapter.BOOL.asRepeated().encodeWithTag(writer, 5, value.rep_bool);
+      if (value.rep_string != null) ProtoAdapter.STRING.asRepeated().encodeWithTag(writer, 6, value.rep_string);
+      if (value.pack_int32 != null) ProtoAdapter.INT32.asPacked().encodeWithTag(writer, 11, value.pack_int32);
+      if (value.pack_sint64 != null) ProtoAdapter.SINT64.asPacked().encodeWithTag(writer, 12, value.pack_sint64);
+      if (value.pack_float != null) ProtoAdapter.FLOAT.asPacked().encodeWithTag(writer, 13, value.pack_float);
+      if (value.pack_double != null) ProtoAdapter.DOUBLE.asPacked().encodeWithTag(writer, 14, value.pack_double);
+      if (value.pack_bool != null) ProtoAdapter.BOOL.asPacked().encodeWithTag(writer, 15, value.pack_bool);
+      if (value.pack_fixed32 != null) ProtoAdapter.FIXED32.asPacked().encodeWithTag(writer, 16, value.pack_fixed32);
+      writer.writeBytes(value.unknownFields());
+    }
+
+    @Override
+    public PrimitiveLists decode(ProtoReader reader) throws IOException {
+      Builder builder = new Builder();
+      long token = reader.beginMessage();
+      for (int tag; (tag = reader.nextTag()) != -1;) {
+        switch (tag) {
+          case 1: builder.rep_int32.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
+          case 2: builder.rep_sint64.addAll(ProtoAdapter.SINT64.asPacked().decode(reader)); break;
+          case 3: builder.rep_float.addAll(ProtoAdapter.FLOAT.asPacked().decode(reader)); break;
+          case 4: builder.rep_double.addAll(ProtoAdapter.DOUBLE.asPacked().decode(reader)); break;
+          case 5: builder.rep_bool.addAll(ProtoAdapter.BOOL.asPacked().decode(reader)); break;
+          case 6: builder.rep_string.add(ProtoAdapter.STRING.decode(reader)); break;
+          case 11: builder.pack_int32.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
+          case 12: builder.pack_sint64.addAll(ProtoAdapter.SINT64.asPacked().decode(reader)); break;
+          case 13: builder.pack_float.addAll(ProtoAdapter.FLOAT.asPacked().decode(reader)); break;
+          case 14: builder.pack_double.addAll(ProtoAdapter.DOUBLE.asPacked().decode(reader)); break;
+          case 15: builder.pack_bool.addAll(ProtoAdapter.BOOL.asPacked().decode(reader)); break;
+          case 16: builder.pack_fixed32.addAll(ProtoAdapter.FIXED32.asPacked().decode(reader)); break;
+          default: {
+            reader.readUnknownField(builder);
+          }
+        }
+      }
+      reader.endMessage(token);
+      return builder.build();
+    }
+
+    @Override
+    public PrimitiveLists redact(PrimitiveLists value) {
+      Builder builder = value.newBuilder();
+      builder.clearUnknownFields();
+      return builder.build();
+    }
+  };
+
+  private static final long serialVersionUID = 0L;
+
+  public final IntList rep_int32;
+
+  public final LongList rep_sint64;
+
+  public final FloatList rep_float;
+
+  public final DoubleList rep_double;
+
+  public final BooleanList rep_bool;
+
+  public final List<String> rep_string;
+
+  public final IntList pack_int32;
+
+  public final LongList pack_sint64;
+
+  public final FloatList pack_float;
+
+  public final DoubleList pack_double;
+
+  public final BooleanList pack_bool;
+
+  public final IntList pack_fixed32;
+
+  public PrimitiveLists(IntList rep_int32, LongList rep_sint64, FloatList rep_float, DoubleList rep_double, BooleanList rep_bool, List<String> rep_string, IntList pack_int32, LongList pack_sint64, FloatList pack_float, DoubleList pack_double, BooleanList pack_bool, IntList pack_fixed32) {
+    this(rep_int32, rep_sint64, rep_float, rep_double, rep_bool, rep_string, pack_int32, pack_sint64, pack_float, pack_double, pack_bool, pack_fixed32, ByteString.EMPTY);
+  }
+
+  public PrimitiveLists(IntList rep_int32, LongList rep_sint64, FloatList rep_float, DoubleList rep_double, BooleanList rep_bool, List<String> rep_string, IntList pack_int32, LongList pack_sint64, FloatList pack_float, DoubleList pack_double, BooleanList pack_bool, IntList pack_fixed32, ByteString unknownFields) {
+    super(unknownFields);
+    this.rep_int32 = immutableCopyOf(rep_int32);
+    this.rep_sint64 = immutableCopyOf(rep_sint64);
+    this.rep_float = immutableCopyOf(rep_float);
+    this.rep_double = immutableCopyOf(rep_double);
+    this.rep_bool = immutableCopyOf(rep_bool);
+    this.rep_string = immutableCopyOf(rep_string);
+    this.pack_int32 = immutableCopyOf(pack_int32);
+    this.pack_sint64 = immutableCopyOf(pack_sint64);
+    this.pack_float = immutableCopyOf(pack_float);
+    this.pack_double = immutableCopyOf(pack_double);
+    this.pack_bool = immutableCopyOf(pack_bool);
+    this.pack_fixed32 = immutableCopyOf(pack_fixed32);
+  }
+
+  @Override
+  public Builder newBuilder() {
+    Builder builder = new Builder();
+    builder.rep_int32 = copyOf(rep_int32);
+    builder.rep_sint64 = copyOf(rep_sint64);
+    builder.rep_float = copyOf(rep_float);
+    builder.rep_double = copyOf(rep_double);
+    builder.rep_bool = copyOf(rep_bool);
+    builder.rep_string = copyOf(rep_string);
+    builder.pack_int32 = copyOf(pack_int32);
+    builder.pack_sint64 = copyOf(pack_sint64);
+    builder.pack_float = copyOf(pack_float);
+    builder.pack_double = copyOf(pack_double);
+    builder.pack_bool = copyOf(pack_bool);
+    builder.pack_fixed32 = copyOf(pack_fixed32);
+    builder.addUnknownFields(unknownFields());
+    return builder;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof PrimitiveLists)) return false;
+    PrimitiveLists o = (PrimitiveLists) other;
+    return equals(unknownFields(), o.unknownFields())
+        && equals(rep_int32, o.rep_int32)
+        && equals(rep_sint64, o.rep_sint64)
+        && equals(rep_float, o.rep_float)
+        && equals(rep_double, o.rep_double)
+        && equals(rep_bool, o.rep_bool)
+        && equals(rep_string, o.rep_string)
+        && equals(pack_int32, o.pack_int32)
+        && equals(pack_sint64, o.pack_sint64)
+        && equals(pack_float, o.pack_float)
+        && equals(pack_double, o.pack_double)
+        && equals(pack_bool, o.pack_bool)
+        && equals(pack_fixed32, o.pack_fixed32);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode;
+    if (result == 0) {
+      result = unknownFields().hashCode();
+      result = result * 37 + (rep_int32 != null ? rep_int32.hashCode() : 1);
+      result = result * 37 + (rep_sint64 != null ? rep_sint64.hashCode() : 1);
+      result = result * 37 + (rep_float != null ? rep_float.hashCode() : 1);
+      result = result * 37 + (rep_double != null ? rep_double.hashCode() : 1);
+      result = result * 37 + (rep_bool != null ? rep_bool.hashCode() : 1);
+      result = result * 37 + (rep_string != null ? rep_string.hashCode() : 1);
+      result = result * 37 + (pack_int32 != null ? pack_int32.hashCode() : 1);
+      result = result * 37 + (pack_sint64 != null ? pack_sint64.hashCode() : 1);
+      result = result * 37 + (pack_float != null ? pack_float.hashCode() : 1);
+      result = result * 37 + (pack_double != null ? pack_double.hashCode() : 1);
+      result = result * 37 + (pack_bool != null ? pack_bool.hashCode() : 1);
+      result = result * 37 + (pack_fixed32 != null ? pack_fixed32.hashCode() : 1);
+      super.hashCode = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (rep_int32 != null) builder.append(", rep_int32=").append(rep_int32);
+    if (rep_sint64 != null) builder.append(", rep_sint64=").append(rep_sint64);
+    if (rep_float != null) builder.append(", rep_float=").append(rep_float);
+    if (rep_double != null) builder.append(", rep_double=").append(rep_double);
+    if (rep_bool != null) builder.append(", rep_bool=").append(rep_bool);
+    if (rep_string != null) builder.append(", rep_string=").append(rep_string);
+    if (pack_int32 != null) builder.append(", pack_int32=").append(pack_int32);
+    if (pack_sint64 != null) builder.append(", pack_sint64=").append(pack_sint64);
+    if (pack_float != null) builder.append(", pack_float=").append(pack_float);
+    if (pack_double != null) builder.append(", pack_double=").append(pack_double);
+    if (pack_bool != null) builder.append(", pack_bool=").append(pack_bool);
+    if (pack_fixed32 != null) builder.append(", pack_fixed32=").append(pack_fixed32);
+    return builder.replace(0, 2, "PrimitiveLists{").append('}').toString();
+  }
+
+  public static final class Builder extends com.squareup.wire.Message.Builder<PrimitiveLists, Builder> {
+    public IntList rep_int32;
+
+    public LongList rep_sint64;
+
+    public FloatList rep_float;
+
+    public DoubleList rep_double;
+
+    public BooleanList rep_bool;
+
+    public List<String> rep_string;
+
+    public IntList pack_int32;
+
+    public LongList pack_sint64;
+
+    public FloatList pack_float;
+
+    public DoubleList pack_double;
+
+    public BooleanList pack_bool;
+
+    public IntList pack_fixed32;
+
+    public Builder() {
+      rep_int32 = new IntList();
+      rep_sint64 = new LongList();
+      rep_float = new FloatList();
+      rep_double = new DoubleList();
+      rep_bool = new BooleanList();
+      rep_string = newMutableList();
+      pack_int32 = new IntList();
+      pack_sint64 = new LongList();
+      pack_float = new FloatList();
+      pack_double = new DoubleList();
+      pack_bool = new BooleanList();
+      pack_fixed32 = new IntList();
+    }
+
+    public Builder rep_int32(IntList rep_int32) {
+      checkElementsNotNull(rep_int32);
+      this.rep_int32 = rep_int32;
+      return this;
+    }
+
+    public Builder rep_sint64(LongList rep_sint64) {
+      checkElementsNotNull(rep_sint64);
+      this.rep_sint64 = rep_sint64;
+      return this;
+    }
+
+    public Builder rep_float(FloatList rep_float) {
+      checkElementsNotNull(rep_float);
+      this.rep_float = rep_float;
+      return this;
+    }
+
+    public Builder rep_double(DoubleList rep_double) {
+      checkElementsNotNull(rep_double);
+      this.rep_double = rep_double;
+      return this;
+    }
+
+    public Builder rep_bool(BooleanList rep_bool) {
+      checkElementsNotNull(rep_bool);
+      this.rep_bool = rep_bool;
+      return this;
+    }
+
+    public Builder rep_string(List<String> rep_string) {
+      checkElementsNotNull(rep_string);
+      this.rep_string = rep_string;
+      return this;
+    }
+
+    public Builder pack_int32(IntList pack_int32) {
+      checkElementsNotNull(pack_int32);
+      this.pack_int32 = pack_int32;
+      return this;
+    }
+
+    public Builder pack_sint64(LongList pack_sint64) {
+      checkElementsNotNull(pack_sint64);
+      this.pack_sint64 = pack_sint64;
+      return this;
+    }
+
+    public Builder pack_float(FloatList pack_float) {
+      checkElementsNotNull(pack_float);
+      this.pack_float = pack_float;
+      return this;
+    }
+
+    public Builder pack_double(DoubleList pack_double) {
+      checkElementsNotNull(pack_double);
+      this.pack_double = pack_double;
+      return this;
+    }
+
+    public Builder pack_bool(BooleanList pack_bool) {
+      checkElementsNotNull(pack_bool);
+      this.pack_bool = pack_bool;
+      return this;
+    }
+
+    public Builder pack_fixed32(IntList pack_fixed32) {
+      checkElementsNotNull(pack_fixed32);
+      this.pack_fixed32 = pack_fixed32;
+      return this;
+    }
+
+    @Override
+    public PrimitiveLists build() {
+      return new PrimitiveLists(rep_int32, rep_sint64, rep_float, rep_double, rep_bool, rep_string, pack_int32, pack_sint64, pack_float, pack_double, pack_bool, pack_fixed32, buildUnknownFields());
+    }
+  }
+}
@@ -18,9 +18,13 @@ public final class NotRedacted extends Message<NotRedacted, NotRedacted.Builder>
   public static final ProtoAdapter<NotRedacted> ADAPTER = new ProtoAdapter<NotRedacted>(FieldEncoding.LENGTH_DELIMITED, NotRedacted.class) {
     @Override
     public int encodedSize(NotRedacted value) {
-      return (value.a != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.a) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.a != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.a) : 0)
           + (value.b != null ? ProtoAdapter.STRING.encodedSizeWithTag(2, value.b) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -39,9 +43,7 @@ public final class NotRedacted extends Message<NotRedacted, NotRedacted.Builder>
           case 1: builder.a(ProtoAdapter.STRING.decode(reader)); break;
           case 2: builder.b(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
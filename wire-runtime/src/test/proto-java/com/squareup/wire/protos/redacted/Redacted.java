@@ -19,11 +19,15 @@ public final class Redacted extends Message<Redacted, Redacted.Builder> {
   public static final ProtoAdapter<Redacted> ADAPTER = new ProtoAdapter<Redacted>(FieldEncoding.LENGTH_DELIMITED, Redacted.class) {
     @Override
     public int encodedSize(Redacted value) {
-      return (value.a != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.a) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.a != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.a) : 0)
           + (value.b != null ? ProtoAdapter.STRING.encodedSizeWithTag(2, value.b) : 0)
           + (value.c != null ? ProtoAdapter.STRING.encodedSizeWithTag(3, value.c) : 0)
           + (value.extension != null ? RedactedExtension.ADAPTER.encodedSizeWithTag(10, value.extension) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -46,9 +50,7 @@ public final class Redacted extends Message<Redacted, Redacted.Builder> {
           case 3: builder.c(ProtoAdapter.STRING.decode(reader)); break;
           case 10: builder.extension(RedactedExtension.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
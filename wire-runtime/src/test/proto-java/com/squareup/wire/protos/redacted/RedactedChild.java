@@ -18,10 +18,14 @@ public final class RedactedChild extends Message<RedactedChild, RedactedChild.Bu
   public static final ProtoAdapter<RedactedChild> ADAPTER = new ProtoAdapter<RedactedChild>(FieldEncoding.LENGTH_DELIMITED, RedactedChild.class) {
     @Override
     public int encodedSize(RedactedChild value) {
-      return (value.a != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.a) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.a != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.a) : 0)
           + (value.b != null ? Redacted.ADAPTER.encodedSizeWithTag(2, value.b) : 0)
           + (value.c != null ? NotRedacted.ADAPTER.encodedSizeWithTag(3, value.c) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -42,9 +46,7 @@ public final class RedactedChild extends Message<RedactedChild, RedactedChild.Bu
           case 2: builder.b(Redacted.ADAPTER.decode(reader)); break;
           case 3: builder.c(NotRedacted.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -18,8 +18,12 @@ public final class RedactedCycleA extends Message<RedactedCycleA, RedactedCycleA
   public static final ProtoAdapter<RedactedCycleA> ADAPTER = new ProtoAdapter<RedactedCycleA>(FieldEncoding.LENGTH_DELIMITED, RedactedCycleA.class) {
     @Override
     public int encodedSize(RedactedCycleA value) {
-      return (value.b != null ? RedactedCycleB.ADAPTER.encodedSizeWithTag(1, value.b) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.b != null ? RedactedCycleB.ADAPTER.encodedSizeWithTag(1, value.b) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -36,9 +40,7 @@ public final class RedactedCycleA extends Message<RedactedCycleA, RedactedCycleA
         switch (tag) {
           case 1: builder.b(RedactedCycleB.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -18,8 +18,12 @@ public final class RedactedCycleB extends Message<RedactedCycleB, RedactedCycleB
   public static final ProtoAdapter<RedactedCycleB> ADAPTER = new ProtoAdapter<RedactedCycleB>(FieldEncoding.LENGTH_DELIMITED, RedactedCycleB.class) {
     @Override
     public int encodedSize(RedactedCycleB value) {
-      return (value.a != null ? RedactedCycleA.ADAPTER.encodedSizeWithTag(1, value.a) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.a != null ? RedactedCycleA.ADAPTER.encodedSizeWithTag(1, value.a) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -36,9 +40,7 @@ public final class RedactedCycleB extends Message<RedactedCycleB, RedactedCycleB
         switch (tag) {
           case 1: builder.a(RedactedCycleA.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
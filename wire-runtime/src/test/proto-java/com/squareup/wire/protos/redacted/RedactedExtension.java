@@ -19,9 +19,13 @@ public final class RedactedExtension extends Message<RedactedExtension, Redacted
   public static final ProtoAdapter<RedactedExtension> ADAPTER = new ProtoAdapter<RedactedExtension>(FieldEncoding.LENGTH_DELIMITED, RedactedExtension.class) {
     @Override
     public int encodedSize(RedactedExtension value) {
-      return (value.d != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.d) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.d != null ? ProtoAdapter.STRING.encodedSizeWithTag(1, value.d) : 0)
           + (value.e != null ? ProtoAdapter.STRING.encodedSizeWithTag(2, value.e) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -40,9 +44,7 @@ public final class RedactedExtension extends Message<RedactedExtension, Redacted
           case 1: builder.d(ProtoAdapter.STRING.decode(reader)); break;
           case 2: builder.e(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -21,9 +21,13 @@ public final class RedactedRepeated extends Message<RedactedRepeated, RedactedRe
   public static final ProtoAdapter<RedactedRepeated> ADAPTER = new ProtoAdapter<RedactedRepeated>(FieldEncoding.LENGTH_DELIMITED, RedactedRepeated.class) {
     @Override
     public int encodedSize(RedactedRepeated value) {
-      return ProtoAdapter.STRING.asRepeated().encodedSizeWithTag(1, value.a)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = ProtoAdapter.STRING.asRepeated().encodedSizeWithTag(1, value.a)
           + Redacted.ADAPTER.asRepeated().encodedSizeWithTag(2, value.b)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -42,9 +46,7 @@ public final class RedactedRepeated extends Message<RedactedRepeated, RedactedRe
           case 1: builder.a.add(ProtoAdapter.STRING.decode(reader)); break;
           case 2: builder.b.add(Redacted.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
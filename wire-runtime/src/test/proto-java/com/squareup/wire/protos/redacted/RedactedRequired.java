@@ -20,8 +20,12 @@ public final class RedactedRequired extends Message<RedactedRequired, RedactedRe
   public static final ProtoAdapter<RedactedRequired> ADAPTER = new ProtoAdapter<RedactedRequired>(FieldEncoding.LENGTH_DELIMITED, RedactedRequired.class) {
     @Override
     public int encodedSize(RedactedRequired value) {
-      return ProtoAdapter.STRING.encodedSizeWithTag(1, value.a)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = ProtoAdapter.STRING.encodedSizeWithTag(1, value.a)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -38,9 +42,7 @@ public final class RedactedRequired extends Message<RedactedRequired, RedactedRe
         switch (tag) {
           case 1: builder.a(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
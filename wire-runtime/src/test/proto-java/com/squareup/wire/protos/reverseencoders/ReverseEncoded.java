@@ -0,0 +1,461 @@
+// Code generated by Wire protocol buffer compiler, do not edit.
+// Source file: ../wire-runtime/src/test/proto/reverse_encoders.proto at 22:1
+package com.squareup.wire.protos.reverseencoders;
+
+import com.squareup.wire.FieldEncoding;
+import com.squareup.wire.Lazy;
+import com.squareup.wire.Message;
+import com.squareup.wire.ProtoAdapter;
+import com.squareup.wire.ProtoReader;
+import com.squareup.wire.ProtoWriter;
+import com.squareup.wire.ReverseProtoWriter;
+import com.squareup.wire.WireEnum;
+import java.io.IOException;
+import java.lang.Boolean;
+import java.lang.Double;
+import java.lang.Float;
+import java.lang.Integer;
+import java.lang.Long;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.StringBuilder;
+import java.util.List;
+import okio.ByteString;
+
+/**
+ * Generated with --reverse_encoders and --lazy_fields so that its reverse encoder is compiled into
+ * tests.
+ */
+public final class ReverseEncoded extends Message<ReverseEncoded, ReverseEncoded.Builder> {
+  public static final ProtoAdapter<ReverseEncoded> ADAPTER = new ProtoAdapter<ReverseEncoded>(FieldEncoding.LENGTH_DELIMITED, ReverseEncoded.class) {
+    @Override
+    public int encodedSize(ReverseEncoded value) {
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.opt_int32 != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.opt_int32) : 0)
+          + (value.opt_sint64 != null ? ProtoAdapter.SINT64.encodedSizeWithTag(2, value.opt_sint64) : 0)
+          + (value.opt_fixed32 != null ? ProtoAdapter.FIXED32.encodedSizeWithTag(3, value.opt_fixed32) : 0)
+          + (value.opt_double != null ? ProtoAdapter.DOUBLE.encodedSizeWithTag(4, value.opt_double) : 0)
+          + (value.opt_bool != null ? ProtoAdapter.BOOL.encodedSizeWithTag(5, value.opt_bool) : 0)
+          + (value.opt_string != null ? ProtoAdapter.STRING.encodedSizeWithTag(6, value.opt_string) : 0)
+          + (value.opt_bytes != null ? ProtoAdapter.BYTES.encodedSizeWithTag(7, value.opt_bytes) : 0)
+          + (value.opt_color != null ? Color.ADAPTER.encodedSizeWithTag(8, value.opt_color) : 0)
+          + (value.child != null ? ReverseEncoded.ADAPTER.encodedSizeWithTag(9, value.child) : 0)
+          + ProtoAdapter.STRING.asRepeated().encodedSizeWithTag(10, value.rep_string)
+          + ProtoAdapter.INT32.asPacked().encodedSizeWithTag(11, value.pack_int32)
+          + ProtoAdapter.FLOAT.asPacked().encodedSizeWithTag(12, value.pack_float)
+          + ReverseEncoded.ADAPTER.asRepeated().encodedSizeWithTag(13, value.children)
+          + (value.lazy_child != null ? ReverseEncoded.ADAPTER.asLazy().encodedSizeWithTag(14, value.lazy_child) : 0)
+          + ReverseEncoded.ADAPTER.asLazy().asRepeated().encodedSizeWithTag(15, value.lazy_children)
+          + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
+    }
+
+    @Override
+    public void encode(ProtoWriter writer, ReverseEncoded value) throws IOException {
+      if (value.opt_int32 != null) ProtoAdapter.INT32.encodeWithTag(writer, 1, value.opt_int32);
+      if (value.opt_sint64 != null) ProtoAdapter.SINT64.encodeWithTag(writer, 2, value.opt_sint64);
+      if (value.opt_fixed32 != null) ProtoAdapter.FIXED32.encodeWithTag(writer, 3, value.opt_fixed32);
+      if (value.opt_double != null) ProtoAdapter.DOUBLE.encodeWithTag(writer, 4, value.opt_double);
+      if (value.opt_bool != null) ProtoAdapter.BOOL.encodeWithTag(writer, 5, value.opt_bool);
+      if (value.opt_string != null) ProtoAdapter.STRING.encodeWithTag(writer, 6, value.opt_string);
+      if (value.opt_bytes != null) ProtoAdapter.BYTES.encodeWithTag(writer, 7, value.opt_bytes);
+      if (value.opt_color != null) Color.ADAPTER.encodeWithTag(writer, 8, value.opt_color);
+      if (value.child != null) ReverseEncoded.ADAPTER.encodeWithTag(writer, 9, value.child);
+      if (value.rep_string != null) ProtoAdapter.STRING.asRepeated().encodeWithTag(writer, 10, value.rep_string);
+      if (value.pack_int32 != null) ProtoAdapter.INT32.asPacked().encodeWithTag(writer, 11, value.pack_int32);
+      if (value.pack_float != null) ProtoAdapter.FLOAT.asPacked().encodeWithTag(writer, 12, value.pack_float);
+      if (value.children != null) ReverseEncoded.ADAPTER.asRepeated().encodeWithTag(writer, 13, value.children);
+      if (value.lazy_child != null) ReverseEncoded.ADAPTER.asLazy().encodeWithTag(writer, 14, value.lazy_child);
+      if (value.lazy_children != null) ReverseEncoded.ADAPTER.asLazy().asRepeated().encodeWithTag(writer, 15, value.lazy_children);
+      writer.writeBytes(value.unknownFields());
+    }
+
+    @Override
+    public void encode(ReverseProtoWriter writer, ReverseEncoded value) throws IOException {
+      writer.writeBytes(value.unknownFields());
+      if (value.lazy_children != null) ReverseEncoded.ADAPTER.asLazy().asRepeated().encodeWithTag(writer, 15, value.lazy_children);
+      if (value.lazy_child != null) ReverseEncoded.ADAPTER.asLazy().encodeWithTag(writer, 14, value.lazy_child);
+      if (value.children != null) ReverseEncoded.ADAPTER.asRepeated().encodeWithTag(writer, 13, value.children);
+      if (value.pack_float != null) ProtoAdapter.FLOAT.asPacked().encodeWithTag(writer, 12, value.pack_float);
+      if (value.pack_int32 != null) ProtoAdapter.INT32.asPacked().encodeWithTag(writer, 11, value.pack_int32);
+      if (value.rep_string != null) ProtoAdapter.STRING.asRepeated().encodeWithTag(writer, 10, value.rep_string);
+      if (value.child != null) ReverseEncoded.ADAPTER.encodeWithTag(writer, 9, value.child);
+      if (value.opt_color != null) Color.ADAPTER.encodeWithTag(writer, 8, value.opt_color);
+      if (value.opt_bytes != null) ProtoAdapter.BYTES.encodeWithTag(writer, 7, value.opt_bytes);
+      if (value.opt_string != null) ProtoAdapter.STRING.encodeWithTag(writer, 6, value.opt_string);
+      if (value.opt_bool != null) ProtoAdapter.BOOL.encodeWithTag(writer, 5, value.opt_bool);
+      if (value.opt_double != null) ProtoAdapter.DOUBLE.encodeWithTag(writer, 4, value.opt_double);
+      if (value.opt_fixed32 != null) ProtoAdapter.FIXED32.encodeWithTag(writer, 3, value.opt_fixed32);
+      if (value.opt_sint64 != null) ProtoAdapter.SINT64.encodeWithTag(writer, 2, value.opt_sint64);
+      if (value.opt_int32 != null) ProtoAdapter.INT32.encodeWithTag(writer, 1, value.opt_int32);
+    }
+
+    @Override
+    public ReverseEncoded decode(ProtoReader reader) throws IOException {
+      Builder builder = new Builder();
+      long token = reader.beginMessage();
+      for (int tag; (tag = reader.nextTag()) != -1;) {
+        switch (tag) {
+          case 1: builder.opt_int32(ProtoAdapter.INT32.decode(reader)); break;
+          case 2: builder.opt_sint64(ProtoAdapter.SINT64.decode(reader)); break;
+          case 3: builder.opt_fixed32(ProtoAdapter.FIXED32.decode(reader)); break;
+          case 4: builder.opt_double(ProtoAdapter.DOUBLE.decode(reader)); break;
+          case 5: builder.opt_bool(ProtoAdapter.BOOL.decode(reader)); break;
+          case 6: builder.opt_string(ProtoAdapter.STRING.decode(reader)); break;
+          case 7: builder.opt_bytes(ProtoAdapter.BYTES.decode(reader)); break;
+          case 8: {
+            try {
+              builder.opt_color(Color.ADAPTER.decode(reader));
+            } catch (ProtoAdapter.EnumConstantNotFoundException e) {
+              builder.addUnknownField(tag, FieldEncoding.VARINT, (long) e.value);
+            }
+            break;
+          }
+          case 9: builder.child(ReverseEncoded.ADAPTER.decode(reader)); break;
+          case 10: builder.rep_string.add(ProtoAdapter.STRING.decode(reader)); break;
+          case 11: builder.pack_int32.addAll(ProtoAdapter.INT32.asPacked().decode(reader)); break;
+          case 12: builder.pack_float.addAll(ProtoAdapter.FLOAT.asPacked().decode(reader)); break;
+          case 13: builder.children.add(ReverseEncoded.ADAPTER.decode(reader)); break;
+          case 14: builder.lazy_child(ReverseEncoded.ADAPTER.asLazy().decode(reader)); break;
+          case 15: builder.lazy_children.add(ReverseEncoded.ADAPTER.asLazy().decode(reader)); break;
+          default: {
+            reader.readUnknownField(builder);
+          }
+        }
+      }
+      reader.endMessage(token);
+      return builder.build();
+    }
+
+    @Override
+    public ReverseEncoded redact(ReverseEncoded value) {
+      Builder builder = value.newBuilder();
+      if (builder.child != null) builder.child = ReverseEncoded.ADAPTER.redact(builder.child);
+      redactElements(builder.children, ReverseEncoded.ADAPTER);
+      if (builder.lazy_child != null) builder.lazy_child = ReverseEncoded.ADAPTER.asLazy().redact(builder.lazy_child);
+      redactElements(builder.lazy_children, ReverseEncoded.ADAPTER.asLazy());
+      builder.clearUnknownFields();
+      return builder.build();
+    }
+  };
+
+  private static final long serialVersionUID = 0L;
+
+  public static final Integer DEFAULT_OPT_INT32 = 0;
+
+  public static final Long DEFAULT_OPT_SINT64 = 0L;
+
+  public static final Integer DEFAULT_OPT_FIXED32 = 0;
+
+  public static final Double DEFAULT_OPT_DOUBLE = 0.0d;
+
+  public static final Boolean DEFAULT_OPT_BOOL = false;
+
+  public static final String DEFAULT_OPT_STRING = "";
+
+  public static final ByteString DEFAULT_OPT_BYTES = ByteString.EMPTY;
+
+  public static final Color DEFAULT_OPT_COLOR = Color.RED;
+
+  public final Integer opt_int32;
+
+  public final Long opt_sint64;
+
+  public final Integer opt_fixed32;
+
+  public final Double opt_double;
+
+  public final Boolean opt_bool;
+
+  public final String opt_string;
+
+  public final ByteString opt_bytes;
+
+  public final Color opt_color;
+
+  public final ReverseEncoded child;
+
+  public final List<String> rep_string;
+
+  public final List<Integer> pack_int32;
+
+  public final List<Float> pack_float;
+
+  public final List<ReverseEncoded> children;
+
+  public final Lazy<ReverseEncoded> lazy_child;
+
+  public final List<Lazy<ReverseEncoded>> lazy_children;
+
+  public ReverseEncoded(Integer opt_int32, Long opt_sint64, Integer opt_fixed32, Double opt_double, Boolean opt_bool, String opt_string, ByteString opt_bytes, Color opt_color, ReverseEncoded child, List<String> rep_string, List<Integer> pack_int32, List<Float> pack_float, List<ReverseEncoded> children, Lazy<ReverseEncoded> lazy_child, List<Lazy<ReverseEncoded>> lazy_children) {
+    this(opt_int32, opt_sint64, opt_fixed32, opt_double, opt_bool, opt_string, opt_bytes, opt_color, child, rep_string, pack_int32, pack_float, children, lazy_child, lazy_children, ByteString.EMPTY);
+  }
+
+  public ReverseEncoded(Integer opt_int32, Long opt_sint64, Integer opt_fixed32, Double opt_double, Boolean opt_bool, String opt_string, ByteString opt_bytes, Color opt_color, ReverseEncoded child, List<String> rep_string, List<Integer> pack_int32, List<Float> pack_float, List<ReverseEncoded> children, Lazy<ReverseEncoded> lazy_child, List<Lazy<ReverseEncoded>> lazy_children, ByteString unknownFields) {
+    super(unknownFields);
+    this.opt_int32 = opt_int32;
+    this.opt_sint64 = opt_sint64;
+    this.opt_fixed32 = opt_fixed32;
+    this.opt_double = opt_double;
+    this.opt_bool = opt_bool;
+    this.opt_string = opt_string;
+    this.opt_bytes = opt_bytes;
+    this.opt_color = opt_color;
+    this.child = child;
+    this.rep_string = immutableCopyOf(rep_string);
+    this.pack_int32 = immutableCopyOf(pack_int32);
+    this.pack_float = immutableCopyOf(pack_float);
+    this.children = immutableCopyOf(children);
+    this.lazy_child = lazy_child;
+    this.lazy_children = immutableCopyOf(lazy_children);
+  }
+
+  @Override
+  public Builder newBuilder() {
+    Builder builder = new Builder();
+    builder.opt_int32 = opt_int32;
+    builder.opt_sint64 = opt_sint64;
+    builder.opt_fixed32 = opt_fixed32;
+    builder.opt_double = opt_double;
+    builder.opt_bool = opt_bool;
+    builder.opt_string = opt_string;
+    builder.opt_bytes = opt_bytes;
+    builder.opt_color = opt_color;
+    builder.child = child;
+    builder.rep_string = copyOf(rep_string);
+    builder.pack_int32 = copyOf(pack_int32);
+    builder.pack_float = copyOf(pack_float);
+    builder.children = copyOf(children);
+    builder.lazy_child = lazy_child;
+    builder.lazy_children = copyOf(lazy_children);
+    builder.addUnknownFields(unknownFields());
+    return builder;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof ReverseEncoded)) return false;
+    ReverseEncoded o = (ReverseEncoded) other;
+    return equals(unknownFields(), o.unknownFields())
+        && equals(opt_int32, o.opt_int32)
+        && equals(opt_sint64, o.opt_sint64)
+        && equals(opt_fixed32, o.opt_fixed32)
+        && equals(opt_double, o.opt_double)
+        && equals(opt_bool, o.opt_bool)
+        && equals(opt_string, o.opt_string)
+        && equals(opt_bytes, o.opt_bytes)
+        && equals(opt_color, o.opt_color)
+        && equals(child, o.child)
+        && equals(rep_string, o.rep_string)
+        && equals(pack_int32, o.pack_int32)
+        && equals(pack_float, o.pack_float)
+        && equals(children, o.children)
+        && equals(lazy_child, o.lazy_child)
+        && equals(lazy_children, o.lazy_children);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode;
+    if (result == 0) {
+      result = unknownFields().hashCode();
+      result = result * 37 + (opt_int32 != null ? opt_int32.hashCode() : 0);
+      result = result * 37 + (opt_sint64 != null ? opt_sint64.hashCode() : 0);
+      result = result * 37 + (opt_fixed32 != null ? opt_fixed32.hashCode() : 0);
+      result = result * 37 + (opt_double != null ? opt_double.hashCode() : 0);
+      result = result * 37 + (opt_bool != null ? opt_bool.hashCode() : 0);
+      result = result * 37 + (opt_string != null ? opt_string.hashCode() : 0);
+      result = result * 37 + (opt_bytes != null ? opt_bytes.hashCode() : 0);
+      result = result * 37 + (opt_color != null ? opt_color.hashCode() : 0);
+      result = result * 37 + (child != null ? child.hashCode() : 0);
+      result = result * 37 + (rep_string != null ? rep_string.hashCode() : 1);
+      result = result * 37 + (pack_int32 != null ? pack_int32.hashCode() : 1);
+      result = result * 37 + (pack_float != null ? pack_float.hashCode() : 1);
+      result = result * 37 + (children != null ? children.hashCode() : 1);
+      result = result * 37 + (lazy_child != null ? lazy_child.hashCode() : 0);
+      result = result * 37 + (lazy_children != null ? lazy_children.hashCode() : 1);
+      super.hashCode = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (opt_int32 != null) builder.append(", opt_int32=").append(opt_int32);
+    if (opt_sint64 != null) builder.append(", opt_sint64=").append(opt_sint64);
+    if (opt_fixed32 != null) builder.append(", opt_fixed32=").append(opt_fixed32);
+    if (opt_double != null) builder.append(", opt_double=").append(opt_double);
+    if (opt_bool != null) builder.append(", opt_bool=").append(opt_bool);
+    if (opt_string != null) builder.append(", opt_string=").append(opt_string);
+    if (opt_bytes != null) builder.append(", opt_bytes=").append(opt_bytes);
+    if (opt_color != null) builder.append(", opt_color=").append(opt_color);
+    if (child != null) builder.append(", child=").append(child);
+    if (rep_string != null) builder.append(", rep_string=").append(rep_string);
+    if (pack_int32 != null) builder.append(", pack_int32=").append(pack_int32);
+    if (pack_float != null) builder.append(", pack_float=").append(pack_float);
+    if (children != null) builder.append(", children=").append(children);
+    if (lazy_child != null) builder.append(", lazy_child=").append(lazy_child);
+    if (lazy_children != null) builder.append(", lazy_children=").append(lazy_children);
+    return builder.replace(0, 2, "ReverseEncoded{").append('}').toString();
+  }
+
+  public static final class Builder extends com.squareup.wire.Message.Builder<ReverseEncoded, Builder> {
+    public Integer opt_int32;
+
+    public Long opt_sint64;
+
+    public Integer opt_fixed32;
+
+    public Double opt_double;
+
+    public Boolean opt_bool;
+
+    public String opt_string;
+
+    public ByteString opt_bytes;
+
+    public Color opt_color;
+
+    public ReverseEncoded child;
+
+    public List<String> rep_string;
+
+    public List<Integer> pack_int32;
+
+    public List<Float> pack_float;
+
+    public List<ReverseEncoded> children;
+
+    public Lazy<ReverseEncoded> lazy_child;
+
+    public List<Lazy<ReverseEncoded>> lazy_children;
+
+    public Builder() {
+      rep_string = newMutableList();
+      pack_int32 = newMutableList();
+      pack_float = newMutableList();
+      children = newMutableList();
+      lazy_children = newMutableList();
+    }
+
+    public Builder opt_int32(Integer opt_int32) {
+      this.opt_int32 = opt_int32;
+      return this;
+    }
+
+    public Builder opt_sint64(Long opt_sint64) {
+      this.opt_sint64 = opt_sint64;
+      return this;
+    }
+
+    public Builder opt_fixed32(Integer opt_fixed32) {
+      this.opt_fixed32 = opt_fixed32;
+      return this;
+    }
+
+    public Builder opt_double(Double opt_double) {
+      this.opt_double = opt_double;
+      return this;
+    }
+
+    public Builder opt_bool(Boolean opt_bool) {
+      this.opt_bool = opt_bool;
+      return this;
+    }
+
+    public Builder opt_string(String opt_string) {
+      this.opt_string = opt_string;
+      return this;
+    }
+
+    public Builder opt_bytes(ByteString opt_bytes) {
+      this.opt_bytes = opt_bytes;
+      return this;
+    }
+
+    public Builder opt_color(Color opt_color) {
+      this.opt_color = opt_color;
+      return this;
+    }
+
+    public Builder child(ReverseEncoded child) {
+      this.child = child;
+      return this;
+    }
+
+    public Builder rep_string(List<String> rep_string) {
+      checkElementsNotNull(rep_string);
+      this.rep_string = rep_string;
+      return this;
+    }
+
+    public Builder pack_int32(List<Integer> pack_int32) {
+      checkElementsNotNull(pack_int32);
+      this.pack_int32 = pack_int32;
+      return this;
+    }
+
+    public Builder pack_float(List<Float> pack_float) {
+      checkElementsNotNull(pack_float);
+      this.pack_float = pack_float;
+      return this;
+    }
+
+    public Builder children(List<ReverseEncoded> children) {
+      checkElementsNotNull(children);
+      this.children = children;
+      return this;
+    }
+
+    public Builder lazy_child(Lazy<ReverseEncoded> lazy_child) {
+      this.lazy_child = lazy_child;
+      return this;
+    }
+
+    public Builder lazy_children(List<Lazy<ReverseEncoded>> lazy_children) {
+      checkElementsNotNull(lazy_children);
+      this.lazy_children = lazy_children;
+      return this;
+    }
+
+    @Override
+    public ReverseEncoded build() {
+      return new ReverseEncoded(opt_int32, opt_sint64, opt_fixed32, opt_double, opt_bool, opt_string, opt_bytes, opt_color, child, rep_string, pack_int32, pack_float, children, lazy_child, lazy_children, buildUnknownFields());
+    }
+  }
+
+  public enum Color implements WireEnum {
+    RED(0),
+
+    GREEN(1);
+
+    public static final ProtoAdapter<Color> ADAPTER = ProtoAdapter.newEnumAdapter(Color.class);
+
+    private final int value;
+
+    Color(int value) {
+      this.value = value;
+    }
+
+    /**
+     * Return the constant for {@code value} or null.
+     */
+    public static Color fromValue(int value) {
+      switch (value) {
+        case 0: return RED;
+        case 1: return GREEN;
+        default: return null;
+      }
+    }
+
+    @Override
+    public int getValue() {
+      return value;
+    }
+  }
+}
@@ -33,9 +33,13 @@ public final class A extends Message<A, A.Builder> {
   public static final ProtoAdapter<A> ADAPTER = new ProtoAdapter<A>(FieldEncoding.LENGTH_DELIMITED, A.class) {
     @Override
     public int encodedSize(A value) {
-      return (value.c != null ? B.ADAPTER.encodedSizeWithTag(1, value.c) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.c != null ? B.ADAPTER.encodedSizeWithTag(1, value.c) : 0)
           + (value.d != null ? D.ADAPTER.encodedSizeWithTag(2, value.d) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -54,9 +58,7 @@ public final class A extends Message<A, A.Builder> {
           case 1: builder.c(B.ADAPTER.decode(reader)); break;
           case 2: builder.d(D.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
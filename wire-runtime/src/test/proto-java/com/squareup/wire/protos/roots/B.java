@@ -18,8 +18,12 @@ public final class B extends Message<B, B.Builder> {
   public static final ProtoAdapter<B> ADAPTER = new ProtoAdapter<B>(FieldEncoding.LENGTH_DELIMITED, B.class) {
     @Override
     public int encodedSize(B value) {
-      return C.ADAPTER.encodedSizeWithTag(1, value.c)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = C.ADAPTER.encodedSizeWithTag(1, value.c)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -36,9 +40,7 @@ public final class B extends Message<B, B.Builder> {
         switch (tag) {
           case 1: builder.c(C.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -19,8 +19,12 @@ public final class C extends Message<C, C.Builder> {
   public static final ProtoAdapter<C> ADAPTER = new ProtoAdapter<C>(FieldEncoding.LENGTH_DELIMITED, C.class) {
     @Override
     public int encodedSize(C value) {
-      return (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -37,9 +41,7 @@ public final class C extends Message<C, C.Builder> {
         switch (tag) {
           case 1: builder.i(ProtoAdapter.INT32.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
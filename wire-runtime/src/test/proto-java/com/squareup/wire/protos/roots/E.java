@@ -19,9 +19,13 @@ public final class E extends Message<E, E.Builder> {
   public static final ProtoAdapter<E> ADAPTER = new ProtoAdapter<E>(FieldEncoding.LENGTH_DELIMITED, E.class) {
     @Override
     public int encodedSize(E value) {
-      return (value.f != null ? F.ADAPTER.encodedSizeWithTag(1, value.f) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.f != null ? F.ADAPTER.encodedSizeWithTag(1, value.f) : 0)
           + (value.g != null ? G.ADAPTER.encodedSizeWithTag(2, value.g) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -47,9 +51,7 @@ public final class E extends Message<E, E.Builder> {
             break;
           }
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -151,8 +153,12 @@ public final class E extends Message<E, E.Builder> {
     public static final ProtoAdapter<F> ADAPTER = new ProtoAdapter<F>(FieldEncoding.LENGTH_DELIMITED, F.class) {
       @Override
       public int encodedSize(F value) {
-        return (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -169,9 +175,7 @@ public final class E extends Message<E, E.Builder> {
           switch (tag) {
             case 1: builder.i(ProtoAdapter.INT32.decode(reader)); break;
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -18,8 +18,12 @@ public final class H extends Message<H, H.Builder> {
   public static final ProtoAdapter<H> ADAPTER = new ProtoAdapter<H>(FieldEncoding.LENGTH_DELIMITED, H.class) {
     @Override
     public int encodedSize(H value) {
-      return (value.ef != null ? E.F.ADAPTER.encodedSizeWithTag(1, value.ef) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.ef != null ? E.F.ADAPTER.encodedSizeWithTag(1, value.ef) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -36,9 +40,7 @@ public final class H extends Message<H, H.Builder> {
         switch (tag) {
           case 1: builder.ef(E.F.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -19,9 +19,13 @@ public final class I extends Message<I, I.Builder> {
   public static final ProtoAdapter<I> ADAPTER = new ProtoAdapter<I>(FieldEncoding.LENGTH_DELIMITED, I.class) {
     @Override
     public int encodedSize(I value) {
-      return (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
           + (value.j != null ? J.ADAPTER.encodedSizeWithTag(1000, value.j) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -40,9 +44,7 @@ public final class I extends Message<I, I.Builder> {
           case 1: builder.i(ProtoAdapter.INT32.decode(reader)); break;
           case 1000: builder.j(J.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
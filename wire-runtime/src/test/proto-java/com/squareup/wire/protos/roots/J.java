@@ -18,8 +18,12 @@ public final class J extends Message<J, J.Builder> {
   public static final ProtoAdapter<J> ADAPTER = new ProtoAdapter<J>(FieldEncoding.LENGTH_DELIMITED, J.class) {
     @Override
     public int encodedSize(J value) {
-      return (value.k != null ? K.ADAPTER.encodedSizeWithTag(1, value.k) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.k != null ? K.ADAPTER.encodedSizeWithTag(1, value.k) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -36,9 +40,7 @@ public final class J extends Message<J, J.Builder> {
         switch (tag) {
           case 1: builder.k(K.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -19,8 +19,12 @@ public final class K extends Message<K, K.Builder> {
   public static final ProtoAdapter<K> ADAPTER = new ProtoAdapter<K>(FieldEncoding.LENGTH_DELIMITED, K.class) {
     @Override
     public int encodedSize(K value) {
-      return (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -37,9 +41,7 @@ public final class K extends Message<K, K.Builder> {
         switch (tag) {
           case 1: builder.i(ProtoAdapter.INT32.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -21,13 +21,17 @@ public final class ExternalMessage extends Message<ExternalMessage, ExternalMess
   public static final ProtoAdapter<ExternalMessage> ADAPTER = new ProtoAdapter<ExternalMessage>(FieldEncoding.LENGTH_DELIMITED, ExternalMessage.class) {
     @Override
     public int encodedSize(ExternalMessage value) {
-      return (value.f != null ? ProtoAdapter.FLOAT.encodedSizeWithTag(1, value.f) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.f != null ? ProtoAdapter.FLOAT.encodedSizeWithTag(1, value.f) : 0)
           + ProtoAdapter.INT32.asRepeated().encodedSizeWithTag(125, value.fooext)
           + (value.barext != null ? ProtoAdapter.INT32.encodedSizeWithTag(126, value.barext) : 0)
           + (value.bazext != null ? ProtoAdapter.INT32.encodedSizeWithTag(127, value.bazext) : 0)
           + (value.nested_message_ext != null ? SimpleMessage.NestedMessage.ADAPTER.encodedSizeWithTag(128, value.nested_message_ext) : 0)
           + (value.nested_enum_ext != null ? SimpleMessage.NestedEnum.ADAPTER.encodedSizeWithTag(129, value.nested_enum_ext) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -61,9 +65,7 @@ public final class ExternalMessage extends Message<ExternalMessage, ExternalMess
             break;
           }
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
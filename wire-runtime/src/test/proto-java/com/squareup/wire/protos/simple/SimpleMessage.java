@@ -27,7 +27,9 @@ public final class SimpleMessage extends Message<SimpleMessage, SimpleMessage.Bu
   public static final ProtoAdapter<SimpleMessage> ADAPTER = new ProtoAdapter<SimpleMessage>(FieldEncoding.LENGTH_DELIMITED, SimpleMessage.class) {
     @Override
     public int encodedSize(SimpleMessage value) {
-      return (value.optional_int32 != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.optional_int32) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.optional_int32 != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.optional_int32) : 0)
           + (value.optional_nested_msg != null ? NestedMessage.ADAPTER.encodedSizeWithTag(2, value.optional_nested_msg) : 0)
           + (value.optional_external_msg != null ? ExternalMessage.ADAPTER.encodedSizeWithTag(3, value.optional_external_msg) : 0)
           + (value.default_nested_enum != null ? NestedEnum.ADAPTER.encodedSizeWithTag(4, value.default_nested_enum) : 0)
@@ -40,6 +42,8 @@ public final class SimpleMessage extends Message<SimpleMessage, SimpleMessage.Bu
           + (value.other != null ? ProtoAdapter.STRING.encodedSizeWithTag(11, value.other) : 0)
           + (value.o != null ? ProtoAdapter.STRING.encodedSizeWithTag(12, value.o) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -99,9 +103,7 @@ public final class SimpleMessage extends Message<SimpleMessage, SimpleMessage.Bu
           case 11: builder.other(ProtoAdapter.STRING.decode(reader)); break;
           case 12: builder.o(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -435,8 +437,12 @@ public final class SimpleMessage extends Message<SimpleMessage, SimpleMessage.Bu
     public static final ProtoAdapter<NestedMessage> ADAPTER = new ProtoAdapter<NestedMessage>(FieldEncoding.LENGTH_DELIMITED, NestedMessage.class) {
       @Override
       public int encodedSize(NestedMessage value) {
-        return (value.bb != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.bb) : 0)
+        int result = value.cachedSerializedSize;
+        if (result != 0) return result;
+        result = (value.bb != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.bb) : 0)
             + value.unknownFields().size();
+        value.cachedSerializedSize = result;
+        return result;
       }
 
       @Override
@@ -453,9 +459,7 @@ public final class SimpleMessage extends Message<SimpleMessage, SimpleMessage.Bu
           switch (tag) {
             case 1: builder.bb(ProtoAdapter.INT32.decode(reader)); break;
             default: {
-              FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-              Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-              builder.addUnknownField(tag, fieldEncoding, value);
+              reader.readUnknownField(builder);
             }
           }
         }
@@ -19,8 +19,12 @@ public final class Bar extends Message<Bar, Bar.Builder> {
   public static final ProtoAdapter<Bar> ADAPTER = new ProtoAdapter<Bar>(FieldEncoding.LENGTH_DELIMITED, Bar.class) {
     @Override
     public int encodedSize(Bar value) {
-      return (value.baz != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.baz) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.baz != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.baz) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -37,9 +41,7 @@ public final class Bar extends Message<Bar, Bar.Builder> {
         switch (tag) {
           case 1: builder.baz(ProtoAdapter.INT32.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -19,8 +19,12 @@ public final class Bars extends Message<Bars, Bars.Builder> {
   public static final ProtoAdapter<Bars> ADAPTER = new ProtoAdapter<Bars>(FieldEncoding.LENGTH_DELIMITED, Bars.class) {
     @Override
     public int encodedSize(Bars value) {
-      return Bar.ADAPTER.asRepeated().encodedSizeWithTag(1, value.bars)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = Bar.ADAPTER.asRepeated().encodedSizeWithTag(1, value.bars)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -37,9 +41,7 @@ public final class Bars extends Message<Bars, Bars.Builder> {
         switch (tag) {
           case 1: builder.bars.add(Bar.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -19,8 +19,12 @@ public final class Foos extends Message<Foos, Foos.Builder> {
   public static final ProtoAdapter<Foos> ADAPTER = new ProtoAdapter<Foos>(FieldEncoding.LENGTH_DELIMITED, Foos.class) {
     @Override
     public int encodedSize(Foos value) {
-      return Foo.ADAPTER.asRepeated().encodedSizeWithTag(1, value.foos)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = Foo.ADAPTER.asRepeated().encodedSizeWithTag(1, value.foos)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -37,9 +41,7 @@ public final class Foos extends Message<Foos, Foos.Builder> {
         switch (tag) {
           case 1: builder.foos.add(Foo.ADAPTER.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -21,13 +21,17 @@ public final class VersionTwo extends Message<VersionTwo, VersionTwo.Builder> {
   public static final ProtoAdapter<VersionTwo> ADAPTER = new ProtoAdapter<VersionTwo>(FieldEncoding.LENGTH_DELIMITED, VersionTwo.class) {
     @Override
     public int encodedSize(VersionTwo value) {
-      return (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.i != null ? ProtoAdapter.INT32.encodedSizeWithTag(1, value.i) : 0)
           + (value.v2_i != null ? ProtoAdapter.INT32.encodedSizeWithTag(2, value.v2_i) : 0)
           + (value.v2_s != null ? ProtoAdapter.STRING.encodedSizeWithTag(3, value.v2_s) : 0)
           + (value.v2_f32 != null ? ProtoAdapter.FIXED32.encodedSizeWithTag(4, value.v2_f32) : 0)
           + (value.v2_f64 != null ? ProtoAdapter.FIXED64.encodedSizeWithTag(5, value.v2_f64) : 0)
           + ProtoAdapter.STRING.asRepeated().encodedSizeWithTag(6, value.v2_rs)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -54,9 +58,7 @@ public final class VersionTwo extends Message<VersionTwo, VersionTwo.Builder> {
           case 5: builder.v2_f64(ProtoAdapter.FIXED64.decode(reader)); break;
           case 6: builder.v2_rs.add(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -18,11 +18,15 @@ public final class CollisionSubject extends Message<CollisionSubject, CollisionS
   public static final ProtoAdapter<CollisionSubject> ADAPTER = new ProtoAdapter<CollisionSubject>(FieldEncoding.LENGTH_DELIMITED, CollisionSubject.class) {
     @Override
     public int encodedSize(CollisionSubject value) {
-      return (value.squareup_protos_extension_collision_1_a != null ? ProtoAdapter.STRING.encodedSizeWithTag(101, value.squareup_protos_extension_collision_1_a) : 0)
+      int result = value.cachedSerializedSize;
+      if (result != 0) return result;
+      result = (value.squareup_protos_extension_collision_1_a != null ? ProtoAdapter.STRING.encodedSizeWithTag(101, value.squareup_protos_extension_collision_1_a) : 0)
           + (value.b != null ? ProtoAdapter.STRING.encodedSizeWithTag(102, value.b) : 0)
           + (value.squareup_protos_extension_collision_2_a != null ? ProtoAdapter.STRING.encodedSizeWithTag(103, value.squareup_protos_extension_collision_2_a) : 0)
           + (value.c != null ? ProtoAdapter.STRING.encodedSizeWithTag(104, value.c) : 0)
           + value.unknownFields().size();
+      value.cachedSerializedSize = result;
+      return result;
     }
 
     @Override
@@ -45,9 +49,7 @@ public final class CollisionSubject extends Message<CollisionSubject, CollisionS
           case 103: builder.squareup_protos_extension_collision_2_a(ProtoAdapter.STRING.decode(reader)); break;
           case 104: builder.c(ProtoAdapter.STRING.decode(reader)); break;
           default: {
-            FieldEncoding fieldEncoding = reader.peekFieldEncoding();
-            Object value = fieldEncoding.rawProtoAdapter().decode(reader);
-            builder.addUnknownField(tag, fieldEncoding, value);
+            reader.readUnknownField(builder);
           }
         }
       }
@@ -93,6 +93,10 @@ public final class Field {
     return "true".equals(options().get("packed"));
   }
 
+  public boolean isLazy() {
+    return "true".equals(options().get("lazy"));
+  }
+
   public Object getDefault() {
     return options.get("default");
   }
@@ -18,6 +18,7 @@ package com.squareup.wire.schema;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Ordering;
+import com.squareup.wire.FieldMask;
 import com.squareup.wire.ProtoAdapter;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -144,4 +145,41 @@ public final class Schema {
     if (type == null) throw new IllegalArgumentException("unexpected type " + typeName);
     return new SchemaProtoAdapterFactory(this, includeUnknown).get(type.name());
   }
+
+  /**
+   * Returns a mask that selects the fields named by each of {@code paths} on the message type
+   * named {@code typeName}. Paths are field names separated by dots, like {@code customer.id}.
+   */
+  public FieldMask fieldMask(String typeName, String... paths) {
+    Type rootType = getType(typeName);
+    if (!(rootType instanceof MessageType)) {
+      throw new IllegalArgumentException("unexpected type " + typeName);
+    }
+    FieldMask.Builder builder = new FieldMask.Builder();
+    for (String path : paths) {
+      String[] names = path.split("\\.", -1);
+      int[] tagPath = new int[names.length];
+      Type type = rootType;
+      for (int i = 0; i < names.length; i++) {
+        if (!(type instanceof MessageType)) {
+          throw new IllegalArgumentException("not a message field: " + path);
+        }
+        Field field = fieldNamed((MessageType) type, names[i]);
+        if (field == null) {
+          throw new IllegalArgumentException("no field named " + names[i] + " in " + type.name());
+        }
+        tagPath[i] = field.tag();
+        type = getType(field.type());
+      }
+      builder.add(tagPath);
+    }
+    return builder.build();
+  }
+
+  private static Field fieldNamed(MessageType type, String name) {
+    for (Field field : type.fieldsAndOneOfFields()) {
+      if (field.name().equals(name)) return field;
+    }
+    return null;
+  }
 }
@@ -98,15 +98,19 @@ final class SchemaProtoAdapterFactory {
     }
 
     @Override public int encodedSize(Object value) {
-      throw new UnsupportedOperationException();
+      return ProtoAdapter.UINT32.encodedSize(tag(value));
     }
 
     @Override public void encode(ProtoWriter writer, Object value) throws IOException {
+      writer.writeVarint32(tag(value));
+    }
+
+    private int tag(Object value) {
       if (value instanceof String) {
         EnumConstant constant = enumType.constant((String) value);
-        writer.writeVarint32(constant.tag());
+        return constant.tag();
       } else if (value instanceof Integer) {
-        writer.writeVarint32((Integer) value);
+        return (Integer) value;
       } else {
         throw new IllegalArgumentException("unexpected " + enumType.name() + ": " + value);
       }
@@ -17,6 +17,7 @@ package com.squareup.wire.schema;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.squareup.wire.FieldMask;
 import com.squareup.wire.ProtoAdapter;
 import java.io.EOFException;
 import java.io.IOException;
@@ -89,6 +90,26 @@ public final class SchemaProtoAdapterTest {
     assertThat(ByteString.of(adapter.encode(jessesCoffee))).isEqualTo(jessesCoffeeEncoded);
   }
 
+  @Test public void decodeWithFieldMask() throws Exception {
+    ProtoAdapter<Object> adapter = coffeeSchema.protoAdapter("CafeDrink", true);
+    FieldMask mask = coffeeSchema.fieldMask("CafeDrink", "customer_name", "shots.caffeine_level");
+    ImmutableMap<String, Object> expected = ImmutableMap.<String, Object>of(
+        "customer_name", "Jesse",
+        "shots", ImmutableList.of(
+            ImmutableMap.of("caffeine_level", 1.0d),
+            ImmutableMap.of("caffeine_level", 1.0d)));
+    assertThat(adapter.decode(new Buffer().write(jessesCoffeeEncoded), mask)).isEqualTo(expected);
+  }
+
+  @Test public void fieldMaskWithUnknownField() throws Exception {
+    try {
+      coffeeSchema.fieldMask("CafeDrink", "shots.roast");
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected).hasMessage("no field named roast in EspressoShot");
+    }
+  }
+
   @Test public void groupsIgnored() throws IOException {
     ProtoAdapter<Object> adapter = new SchemaBuilder()
         .add("message.proto", ""
@@ -203,6 +203,40 @@ public final class SchemaTest {
     }
   }
 
+  @Test public void messageFieldIsLazy() throws Exception {
+    Schema schema = new SchemaBuilder()
+        .add("message.proto", ""
+            + "message Message {\n"
+            + "  optional Message a = 1;\n"
+            + "  optional Message b = 2 [lazy=false];\n"
+            + "  optional Message c = 3 [lazy=true];\n"
+            + "  repeated Message d = 4 [lazy=true];\n"
+            + "}\n")
+        .build();
+    MessageType message = (MessageType) schema.getType("Message");
+    assertThat(message.field("a").isLazy()).isFalse();
+    assertThat(message.field("b").isLazy()).isFalse();
+    assertThat(message.field("c").isLazy()).isTrue();
+    assertThat(message.field("d").isLazy()).isTrue();
+  }
+
+  @Test public void lazyOptionAcceptedOnAnyField() throws Exception {
+    // Generators only honor lazy on message fields. Other fields keep their usual types.
+    Schema schema = new SchemaBuilder()
+        .add("message.proto", ""
+            + "message Message {\n"
+            + "  optional bytes a = 1 [lazy=true];\n"
+            + "  optional Enum b = 2 [lazy=true];\n"
+            + "  enum Enum {\n"
+            + "    A = 1;\n"
+            + "  }\n"
+            + "}\n")
+        .build();
+    MessageType message = (MessageType) schema.getType("Message");
+    assertThat(message.field("a").isLazy()).isTrue();
+    assertThat(message.field("b").isLazy()).isTrue();
+  }
+
   @Test public void fieldIsDeprecated() throws Exception {
     Schema schema = new SchemaBuilder()
         .add("message.proto", ""